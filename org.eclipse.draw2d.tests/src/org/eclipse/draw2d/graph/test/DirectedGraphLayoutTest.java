@@ -18,7 +18,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.eclipse.draw2d.graph.DirectedGraph;
 import org.eclipse.draw2d.graph.DirectedGraphLayout;
@@ -26,6 +31,7 @@ import org.eclipse.draw2d.graph.Edge;
 import org.eclipse.draw2d.graph.EdgeList;
 import org.eclipse.draw2d.graph.Node;
 import org.eclipse.draw2d.graph.NodeList;
+import org.eclipse.draw2d.graph.Rank;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -92,6 +98,182 @@ public class DirectedGraphLayoutTest {
 		assertEquals(getRank(n3), 0);
 	}
 
+	@Test
+	public void test_crossingReductionDefaults() {
+		assertEquals(45, layout.getMaxCrossingReductionSweeps());
+		assertEquals(0, layout.getMaxSweepsWithoutImprovement());
+		assertEquals(0, layout.getCrossingReductionTimeLimit());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_invalidCrossingReductionSweeps() {
+		layout.setMaxCrossingReductionSweeps(0);
+	}
+
+	@Test
+	public void test_fullCrossingReductionBudget() {
+		DirectedGraph expected = createGraph();
+		new DirectedGraphLayout().visit(expected);
+
+		// counting the crossings must not change the result if all sweeps are performed
+		DirectedGraph actual = createGraph();
+		layout.setMaxSweepsWithoutImprovement(1000);
+		layout.visit(actual);
+
+		for (int i = 0; i < expected.nodes.size(); i++) {
+			assertEquals(expected.nodes.get(i).x, actual.nodes.get(i).x);
+			assertEquals(expected.nodes.get(i).y, actual.nodes.get(i).y);
+		}
+	}
+
+	@Test
+	public void test_convergingCrossingReduction() {
+		DirectedGraph graph = createGraph();
+		layout.setMaxSweepsWithoutImprovement(2);
+		layout.setCrossingReductionTimeLimit(10000);
+		layout.visit(graph);
+
+		int nodes = 0;
+		for (int row = 0; row < graph.ranks.size(); row++) {
+			nodes += graph.ranks.getRank(row).count();
+			for (Node node : graph.ranks.getRank(row)) {
+				assertEquals(row, getRank(node));
+			}
+		}
+		assertTrue(nodes >= graph.nodes.size());
+	}
+
+	@Test
+	public void test_countCrossings() throws ReflectiveOperationException {
+		Method countCrossings = Class.forName("org.eclipse.draw2d.graph.MinCross").getDeclaredMethod("countCrossings",
+				Rank.class, Rank.class);
+		countCrossings.setAccessible(true);
+		Random random = new Random(42);
+		for (int run = 0; run < 200; run++) {
+			Rank upper = createRank(0, 1 + random.nextInt(12));
+			Rank lower = createRank(1, 1 + random.nextInt(12));
+			int edges = random.nextInt(40);
+			for (int i = 0; i < edges; i++) {
+				new Edge(upper.get(random.nextInt(upper.size())), lower.get(random.nextInt(lower.size())));
+			}
+			Collections.shuffle(upper, random);
+			Collections.shuffle(lower, random);
+			assignIndices(upper);
+			assignIndices(lower);
+			assertEquals("Run " + run, countCrossingsBruteForce(upper, lower),
+					((Integer) countCrossings.invoke(null, upper, lower)).intValue());
+		}
+	}
+
+	@Test
+	public void test_crossingReductionStopsEarly() throws ReflectiveOperationException {
+		DirectedGraph graph = createGraph();
+		layout.setMaxCrossingReductionSweeps(1000);
+		layout.setMaxSweepsWithoutImprovement(2);
+		layout.visit(graph);
+
+		Object minCross = getMinCross(layout);
+		int sweeps = ((Integer) invoke(minCross, "getSweeps")).intValue();
+		int[] crossings = (int[]) invoke(minCross, "getCrossingsPerSweep");
+		assertTrue(sweeps < 1000);
+		assertEquals(sweeps, crossings.length);
+		int fewest = Arrays.stream(crossings).min().getAsInt();
+		assertTrue(fewest > 0);
+		// the last two sweeps did not improve on the best order found before them
+		int before = Arrays.stream(crossings, 0, sweeps - 2).min().getAsInt();
+		assertTrue(crossings[sweeps - 2] >= before);
+		assertTrue(crossings[sweeps - 1] >= before);
+
+		// the best order found is restored, so the crossings do not go up
+		int actual = 0;
+		for (int row = 0; row < graph.ranks.size() - 1; row++) {
+			actual += countCrossingsBruteForce(graph.ranks.getRank(row), graph.ranks.getRank(row + 1));
+		}
+		assertTrue(actual <= fewest);
+		assertTrue(actual <= crossings[0]);
+	}
+
+	private static Rank createRank(int row, int size) throws ReflectiveOperationException {
+		Field rank = Node.class.getDeclaredField("rank");
+		rank.setAccessible(true);
+		Rank result = new Rank();
+		for (int i = 0; i < size; i++) {
+			Node node = new Node("r" + row + "n" + i);
+			rank.setInt(node, row);
+			result.add(node);
+		}
+		return result;
+	}
+
+	private static void assignIndices(Rank rank) throws ReflectiveOperationException {
+		Method assignIndices = Rank.class.getDeclaredMethod("assignIndices");
+		assignIndices.setAccessible(true);
+		assignIndices.invoke(rank);
+	}
+
+	/**
+	 * Counts the pairs of edges between the given ranks whose end points are in
+	 * opposite order in the two ranks.
+	 */
+	private static int countCrossingsBruteForce(Rank upper, Rank lower) {
+		List<int[]> edges = new ArrayList<>();
+		for (int i = 0; i < upper.size(); i++) {
+			for (Edge edge : upper.get(i).outgoing) {
+				int target = lower.indexOf(edge.target);
+				if (target >= 0 && getRank(edge.target) == getRank(upper.get(i)) + 1) {
+					edges.add(new int[] { i, target });
+				}
+			}
+		}
+		int crossings = 0;
+		for (int i = 0; i < edges.size(); i++) {
+			for (int j = i + 1; j < edges.size(); j++) {
+				int[] e1 = edges.get(i);
+				int[] e2 = edges.get(j);
+				if ((e1[0] - e2[0]) * (e1[1] - e2[1]) < 0) {
+					crossings++;
+				}
+			}
+		}
+		return crossings;
+	}
+
+	private static Object getMinCross(DirectedGraphLayout layout) throws ReflectiveOperationException {
+		Field steps = DirectedGraphLayout.class.getDeclaredField("steps");
+		steps.setAccessible(true);
+		for (Object step : (Iterable<?>) steps.get(layout)) {
+			if (step.getClass().getSimpleName().equals("MinCross")) {
+				return step;
+			}
+		}
+		throw new AssertionError("No MinCross step");
+	}
+
+	private static Object invoke(Object target, String name) throws ReflectiveOperationException {
+		Method method = target.getClass().getDeclaredMethod(name);
+		method.setAccessible(true);
+		return method.invoke(target);
+	}
+
+	/**
+	 * Creates a connected graph with many crossing edges.
+	 */
+	private static DirectedGraph createGraph() {
+		DirectedGraph graph = new DirectedGraph();
+		for (int i = 0; i < 80; i++) {
+			graph.nodes.add(new Node("n" + i));
+		}
+		for (int i = 1; i < 80; i++) {
+			int first = (i * 31 + 7) % i;
+			int second = (i * 17 + 3) % i;
+			graph.edges.add(new Edge(graph.nodes.get(first), graph.nodes.get(i)));
+			if (i % 3 == 0 && second != first) {
+				graph.edges.add(new Edge(graph.nodes.get(second), graph.nodes.get(i)));
+			}
+		}
+		return graph;
+	}
+
 	private static final int getRank(Node n) {
 		try {
 			Field f = Node.class.getDeclaredField("rank");
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.draw2d.ChopboxAnchor;
+import org.eclipse.draw2d.ConnectionAnchor;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.GraphicsSource;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.LightweightSystem;
+import org.eclipse.draw2d.PolylineConnection;
+import org.eclipse.draw2d.UpdateManager;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the notification of the anchors of the figures displayed by a
+ * {@link LightweightSystem}, which is deferred until the next validation.
+ */
+public class AnchorTrackerTest extends Assert {
+
+	private static final int NODES = 50;
+
+	private TestUpdateManager updateManager;
+	private Figure contents;
+	private Figure container;
+	private final List<Figure> nodes = new ArrayList<>();
+	private final List<TestConnection> connections = new ArrayList<>();
+
+	/**
+	 * Validates the invalid figures only when asked to, without a display.
+	 */
+	private static class TestUpdateManager extends UpdateManager {
+		final List<IFigure> invalidFigures = new ArrayList<>();
+
+		@Override
+		public void addDirtyRegion(IFigure figure, int x, int y, int w, int h) {
+		}
+
+		@Override
+		public void addInvalidFigure(IFigure figure) {
+			if (!invalidFigures.contains(figure)) {
+				invalidFigures.add(figure);
+			}
+		}
+
+		@Override
+		public void performValidation() {
+			for (int i = 0; i < invalidFigures.size(); i++) {
+				IFigure figure = invalidFigures.get(i);
+				invalidFigures.set(i, null);
+				figure.validate();
+			}
+			invalidFigures.clear();
+		}
+
+		@Override
+		public void performUpdate() {
+			performValidation();
+		}
+
+		@Override
+		public void performUpdate(Rectangle exposed) {
+			performValidation();
+		}
+
+		@Override
+		public void setGraphicsSource(GraphicsSource gs) {
+		}
+
+		@Override
+		public void setRoot(IFigure figure) {
+		}
+	}
+
+	private static class TestConnection extends PolylineConnection {
+		int count;
+
+		@Override
+		public void anchorMoved(ConnectionAnchor anchor) {
+			super.anchorMoved(anchor);
+			count++;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		updateManager = new TestUpdateManager();
+		contents = new Figure();
+		createLightweightSystem(updateManager).setContents(contents);
+		container = new Figure();
+		container.setBounds(new Rectangle(0, 0, 1000, 1000));
+		contents.add(container);
+		Figure hub = new Figure();
+		hub.setBounds(new Rectangle(500, 500, 10, 10));
+		contents.add(hub);
+		for (int i = 0; i < NODES; i++) {
+			Figure node = new Figure();
+			node.setBounds(new Rectangle(10 * i, 10 * i, 10, 10));
+			container.add(node);
+			nodes.add(node);
+			TestConnection connection = new TestConnection();
+			contents.add(connection);
+			connection.setSourceAnchor(new ChopboxAnchor(node));
+			connection.setTargetAnchor(new ChopboxAnchor(hub));
+			connections.add(connection);
+		}
+		updateManager.performUpdate();
+	}
+
+	private static LightweightSystem createLightweightSystem(UpdateManager manager) {
+		return new LightweightSystem() {
+			@Override
+			public UpdateManager getUpdateManager() {
+				return manager;
+			}
+		};
+	}
+
+	private static void assertRouted(PolylineConnection connection) {
+		ConnectionAnchor source = connection.getSourceAnchor();
+		ConnectionAnchor target = connection.getTargetAnchor();
+		assertEquals(source.getLocation(target.getReferencePoint()), connection.getPoints().getFirstPoint());
+	}
+
+	private void assertCounts(int expected) {
+		for (TestConnection connection : connections) {
+			assertEquals(expected, connection.count);
+		}
+	}
+
+	@Test
+	public void testNotificationIsDeferred() {
+		nodes.get(0).translate(5, 5);
+		assertEquals(0, connections.get(0).count);
+		updateManager.performUpdate();
+		assertEquals(1, connections.get(0).count);
+		assertEquals(0, connections.get(1).count);
+		assertRouted(connections.get(0));
+	}
+
+	@Test
+	public void testMovingContainerNotifiesOncePerUpdate() {
+		container.translate(20, 0);
+		container.translate(0, 20);
+		nodes.forEach(node -> node.translate(1, 1));
+		assertCounts(0);
+		updateManager.performUpdate();
+		assertCounts(1);
+		connections.forEach(AnchorTrackerTest::assertRouted);
+		updateManager.performUpdate();
+		assertCounts(1);
+	}
+
+	@Test
+	public void testRemovedConnectionIsNotNotified() {
+		TestConnection connection = connections.get(0);
+		nodes.get(0).translate(5, 5);
+		contents.remove(connection);
+		updateManager.performUpdate();
+		assertEquals(0, connection.count);
+		container.translate(5, 5);
+		updateManager.performUpdate();
+		assertEquals(0, connection.count);
+		assertEquals(1, connections.get(1).count);
+	}
+
+	@Test
+	public void testReparentedOwnerIsTracked() {
+		Figure node = nodes.get(0);
+		Figure other = new Figure();
+		contents.add(other);
+		container.remove(node);
+		other.add(node);
+		container.translate(5, 5);
+		updateManager.performUpdate();
+		assertEquals(0, connections.get(0).count);
+		assertEquals(1, connections.get(1).count);
+		other.translate(5, 5);
+		updateManager.performUpdate();
+		assertEquals(1, connections.get(0).count);
+	}
+
+	/**
+	 * Each move asks for a validation, even if a previous request was dropped
+	 * before the anchors were notified.
+	 */
+	@Test
+	public void testDroppedValidationIsRequestedAgain() {
+		nodes.get(0).translate(5, 5);
+		updateManager.invalidFigures.clear();
+		nodes.get(1).translate(5, 5);
+		updateManager.performUpdate();
+		assertEquals(1, connections.get(0).count);
+		assertEquals(1, connections.get(1).count);
+		assertRouted(connections.get(0));
+	}
+
+	@Test
+	public void testOwnerMovedToOtherLightweightSystem() {
+		TestUpdateManager otherManager = new TestUpdateManager();
+		Figure otherContents = new Figure();
+		createLightweightSystem(otherManager).setContents(otherContents);
+		Figure otherContainer = new Figure();
+		otherContents.add(otherContainer);
+
+		// the pending notification follows the anchor
+		Figure node = nodes.get(0);
+		node.translate(5, 5);
+		container.remove(node);
+		otherContainer.add(node);
+		updateManager.performUpdate();
+		assertEquals(0, connections.get(0).count);
+		otherManager.performUpdate();
+		assertEquals(1, connections.get(0).count);
+
+		otherContainer.translate(5, 5);
+		container.translate(5, 5);
+		updateManager.performUpdate();
+		assertEquals(1, connections.get(0).count);
+		assertEquals(1, connections.get(1).count);
+		otherManager.performUpdate();
+		assertEquals(2, connections.get(0).count);
+	}
+
+	@Test
+	public void testDetachedOwnerIsTrackedOnceAttached() {
+		Figure parent = new Figure();
+		Figure owner = new Figure();
+		parent.add(owner);
+		List<ConnectionAnchor> moved = new ArrayList<>();
+		ChopboxAnchor anchor = new ChopboxAnchor(owner);
+		anchor.addAnchorListener(moved::add);
+		contents.add(parent);
+
+		parent.translate(1, 1);
+		assertEquals(List.of(), moved);
+		updateManager.performUpdate();
+		assertEquals(List.of(anchor), moved);
+	}
+
+	@SuppressWarnings("static-method")
+	@Test
+	public void testAnchorOutsideLightweightSystemIsNotifiedImmediately() {
+		Figure parent = new Figure();
+		Figure owner = new Figure();
+		parent.add(owner);
+		TestConnection connection = new TestConnection();
+		parent.add(connection);
+		connection.setSourceAnchor(new ChopboxAnchor(owner));
+		parent.translate(1, 1);
+		assertEquals(2, connection.count);
+	}
+
+}
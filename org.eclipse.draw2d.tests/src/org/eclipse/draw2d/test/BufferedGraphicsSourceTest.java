@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Canvas;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.draw2d.BufferedGraphicsSource;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.LightweightSystem;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BufferedGraphicsSourceTest extends Assert {
+
+	private Shell shell;
+	private Canvas canvas;
+	private BufferedGraphicsSource source;
+
+	@Before
+	public void setUp() {
+		shell = new Shell(Display.getDefault());
+		canvas = new Canvas(shell, SWT.NONE);
+		canvas.setSize(200, 100);
+		source = new BufferedGraphicsSource(canvas);
+	}
+
+	@After
+	public void tearDown() {
+		shell.dispose();
+	}
+
+	@Test
+	public void testBufferIsReused() {
+		source.setPooling(true);
+		update(new Rectangle(0, 0, 10, 10));
+		update(new Rectangle(50, 50, 40, 20));
+		update(new Rectangle(0, 0, 200, 100));
+		assertEquals(1, source.getImageAllocationCount());
+
+		// the buffer only grows with the control
+		canvas.setSize(300, 100);
+		update(new Rectangle(0, 0, 10, 10));
+		update(new Rectangle(250, 0, 10, 10));
+		assertEquals(2, source.getImageAllocationCount());
+		canvas.setSize(100, 50);
+		update(new Rectangle(0, 0, 10, 10));
+		assertEquals(2, source.getImageAllocationCount());
+	}
+
+	@Test
+	public void testTransientBufferBeyondMaximumArea() {
+		source.setPooling(true);
+		source.setMaxPooledBufferArea(100 * 100);
+		update(new Rectangle(0, 0, 10, 10));
+		update(new Rectangle(0, 0, 10, 10));
+		assertEquals(2, source.getImageAllocationCount());
+	}
+
+	@Test
+	public void testTransientBufferWithoutPooling() {
+		assertFalse(source.isPooling());
+		update(new Rectangle(0, 0, 10, 10));
+		update(new Rectangle(0, 0, 10, 10));
+		assertEquals(2, source.getImageAllocationCount());
+	}
+
+	@Test
+	public void testLightweightSystemSource() {
+		LightweightSystem lws = new LightweightSystem(canvas);
+		BufferedGraphicsSource lwsSource = (BufferedGraphicsSource) lws.getGraphicsSource();
+		assertFalse(lwsSource.isPooling());
+		lwsSource.setPooling(true);
+		lws.getUpdateManager().addDirtyRegion(lws.getRootFigure(), new Rectangle(0, 0, 10, 10));
+		lws.getUpdateManager().performUpdate();
+		lws.getUpdateManager().addDirtyRegion(lws.getRootFigure(), new Rectangle(20, 20, 10, 10));
+		lws.getUpdateManager().performUpdate();
+		assertEquals(1, lwsSource.getImageAllocationCount());
+	}
+
+	@Test
+	public void testPaintingOutsideOfControl() {
+		assertNull(source.getGraphics(new Rectangle(500, 500, 10, 10)));
+		source.flushGraphics(new Rectangle(500, 500, 10, 10));
+		assertEquals(0, source.getImageAllocationCount());
+	}
+
+	private void update(Rectangle region) {
+		Graphics graphics = source.getGraphics(region);
+		assertNotNull(graphics);
+		graphics.fillRectangle(region);
+		graphics.dispose();
+		source.flushGraphics(region);
+	}
+
+}
@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.DeferredUpdateManager;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.GraphicsSource;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.UpdateListener;
+import org.eclipse.draw2d.UpdateManager;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeferredUpdateManagerTest extends Assert {
+
+	private DeferredUpdateManager manager;
+	private IFigure root;
+	private final List<Rectangle> painted = new ArrayList<>();
+	private Rectangle lastDamage;
+	private Map<IFigure, Rectangle> lastDirtyRegions;
+
+	@Before
+	public void setUp() {
+		manager = new DeferredUpdateManager() {
+			@Override
+			protected void sendUpdateRequest() {
+				// updates are performed explicitly by the tests
+			}
+		};
+		manager.setGraphicsSource(new GraphicsSource() {
+			@Override
+			public Graphics getGraphics(Rectangle region) {
+				painted.add(region.getCopy());
+				return null;
+			}
+
+			@Override
+			public void flushGraphics(Rectangle region) {
+				// nothing is painted
+			}
+		});
+		manager.addUpdateListener(new UpdateListener() {
+			@Override
+			public void notifyPainting(Rectangle damage, Map<IFigure, Rectangle> dirtyRegions) {
+				lastDamage = damage.getCopy();
+				lastDirtyRegions = dirtyRegions;
+			}
+
+			@Override
+			public void notifyValidating() {
+				// nothing
+			}
+		});
+		root = new Figure();
+		root.setBounds(new Rectangle(0, 0, 1000, 1000));
+		manager.setRoot(root);
+	}
+
+	@Test
+	public void testSingleDamageRegionByDefault() {
+		assertEquals(1, manager.getMaxDamageRegions());
+		manager.addDirtyRegion(root, new Rectangle(0, 0, 10, 10));
+		manager.addDirtyRegion(root, new Rectangle(990, 990, 10, 10));
+		manager.performUpdate();
+
+		assertEquals(1, painted.size());
+		assertEquals(new Rectangle(0, 0, 1000, 1000), painted.get(0));
+		assertEquals(new Rectangle(0, 0, 1000, 1000), lastDamage);
+	}
+
+	@Test
+	public void testDistantRegionsArePaintedSeparately() {
+		manager.setMaxDamageRegions(4);
+		IFigure child = new Figure();
+		child.setBounds(new Rectangle(980, 980, 20, 20));
+		root.add(child);
+
+		manager.addDirtyRegion(root, new Rectangle(0, 0, 10, 10));
+		manager.addDirtyRegion(child, new Rectangle(990, 990, 10, 10));
+		manager.performUpdate();
+
+		assertEquals(2, painted.size());
+		assertTrue(painted.contains(new Rectangle(0, 0, 10, 10)));
+		assertTrue(painted.contains(new Rectangle(990, 990, 10, 10)));
+		// listeners are still notified once with the overall damage
+		assertEquals(new Rectangle(0, 0, 1000, 1000), lastDamage);
+		assertEquals(2, lastDirtyRegions.size());
+	}
+
+	@Test
+	public void testOverlappingRegionsAreMerged() {
+		manager.setMaxDamageRegions(4);
+		IFigure child = new Figure();
+		child.setBounds(new Rectangle(0, 0, 100, 100));
+		root.add(child);
+
+		manager.addDirtyRegion(root, new Rectangle(0, 0, 20, 20));
+		manager.addDirtyRegion(child, new Rectangle(10, 10, 20, 20));
+		manager.performUpdate();
+
+		assertEquals(1, painted.size());
+		assertEquals(new Rectangle(0, 0, 30, 30), painted.get(0));
+	}
+
+	@Test
+	public void testRegionLimitIsRespected() {
+		manager.setMaxDamageRegions(2);
+		Rectangle[] bounds = { new Rectangle(0, 0, 10, 10), new Rectangle(100, 0, 10, 10),
+				new Rectangle(900, 900, 10, 10) };
+		for (Rectangle childBounds : bounds) {
+			IFigure child = new Figure();
+			child.setBounds(childBounds);
+			root.add(child);
+			manager.addDirtyRegion(child, childBounds);
+		}
+		manager.performUpdate();
+
+		assertEquals(2, painted.size());
+		// the two close regions are merged, the distant one is kept apart
+		assertTrue(painted.contains(new Rectangle(0, 0, 110, 10)));
+		assertTrue(painted.contains(new Rectangle(900, 900, 10, 10)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidRegionLimit() {
+		manager.setMaxDamageRegions(0);
+	}
+
+	private static class CountingFigure extends Figure {
+		int layouts;
+		int invalidations;
+
+		@Override
+		protected void layout() {
+			layouts++;
+			super.layout();
+		}
+
+		@Override
+		public void invalidate() {
+			invalidations++;
+			super.invalidate();
+		}
+	}
+
+	private CountingFigure createRoot() {
+		return new CountingFigure() {
+			@Override
+			public UpdateManager getUpdateManager() {
+				return manager;
+			}
+		};
+	}
+
+	@Test
+	public void testRevalidateStopsAtInvalidAncestors() {
+		CountingFigure validationRoot = createRoot();
+		CountingFigure container = new CountingFigure();
+		validationRoot.add(container);
+		List<IFigure> children = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			IFigure child = new Figure();
+			container.add(child);
+			children.add(child);
+		}
+		manager.performUpdate();
+		manager.resetCounters();
+		validationRoot.invalidations = 0;
+		container.invalidations = 0;
+
+		children.forEach(IFigure::revalidate);
+		children.forEach(IFigure::revalidate);
+		assertEquals(1, validationRoot.invalidations);
+		assertEquals(100, container.invalidations);
+
+		manager.performUpdate();
+		assertEquals(1, manager.getValidatedFigureCount());
+		assertEquals(102, manager.getLayoutCount());
+
+		// once validated, the ancestors are invalidated again
+		children.get(0).revalidate();
+		assertEquals(2, validationRoot.invalidations);
+	}
+
+	@Test
+	public void testNestedValidationRootIsLaidOutOnce() {
+		CountingFigure inner = new CountingFigure() {
+			@Override
+			public boolean isValidationRoot() {
+				return true;
+			}
+		};
+		CountingFigure outer = new CountingFigure() {
+			@Override
+			public UpdateManager getUpdateManager() {
+				return manager;
+			}
+
+			@Override
+			protected void layout() {
+				super.layout();
+				// resizing the inner figure invalidates it
+				inner.setSize(inner.getSize().width + 1, 10);
+			}
+		};
+		outer.add(inner);
+		manager.performUpdate();
+		inner.layouts = 0;
+		manager.resetCounters();
+
+		inner.revalidate();
+		outer.revalidate();
+		manager.performUpdate();
+		assertEquals(1, inner.layouts);
+		assertEquals(2, manager.getValidatedFigureCount());
+		assertEquals(2, manager.getLayoutCount());
+	}
+
+	/**
+	 * The descendants of a figure whose layout fails can be revalidated later.
+	 */
+	@Test
+	public void testFailedLayout() {
+		boolean[] failing = { false };
+		CountingFigure validationRoot = new CountingFigure() {
+			@Override
+			public UpdateManager getUpdateManager() {
+				return manager;
+			}
+
+			@Override
+			protected void layout() {
+				super.layout();
+				if (failing[0]) {
+					throw new IllegalStateException();
+				}
+			}
+		};
+		CountingFigure child = new CountingFigure();
+		validationRoot.add(child);
+		manager.performUpdate();
+
+		failing[0] = true;
+		child.revalidate();
+		try {
+			manager.performUpdate();
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+
+		failing[0] = false;
+		child.layouts = 0;
+		child.revalidate();
+		manager.performUpdate();
+		assertEquals(1, child.layouts);
+	}
+
+}
@@ -26,6 +26,7 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
 	ShortestPathRoutingTest.class,
+	ShortestPathRouterRegressionTest.class,
 	XYLayoutTest.class,
 	TextFlowWrapTest.class,
 	LocalOptimizerTest.class,
@@ -35,6 +36,9 @@ import org.junit.runners.Suite;
 	PaintDamageEraseTest.class,
 	LayeredPaneTest.class,
 	ConnectionEndPointMoveTest.class,
+	DeferredUpdateManagerTest.class,
+	BufferedGraphicsSourceTest.class,
+	ZoomedFontCacheTest.class,
 	ImageUtilitiesTest.class,
 	LookAheadTest.class,
 	TextualTests.class,
@@ -47,6 +51,10 @@ import org.junit.runners.Suite;
 	ThumbnailTest.class,
 	FigurePaintingTest.class,
 	FigureUtilitiesTest.class,
+	FreeformLayerSpatialIndexTest.class,
+	FreeformExtentTest.class,
+	TextMeasurerTest.class,
+	IncrementalFlowLayoutTest.class,
 	RectangleTest.class,
 	ColorConstantTest.class,
 	RayTest.class,
@@ -56,6 +64,8 @@ import org.junit.runners.Suite;
 	GeometryTest.class,
 	ScalablePolygonShapeTest.class,
 	LayerTest.class,
+	EventListenerListTest.class,
+	AnchorTrackerTest.class,
 	ShapeTest.class,
 	InsetsTest.class,
 	DirectedGraphLayoutTest.class
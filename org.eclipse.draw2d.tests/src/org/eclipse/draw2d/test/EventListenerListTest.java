@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.draw2d.EventListenerList;
+import org.eclipse.draw2d.FigureListener;
+import org.eclipse.draw2d.MouseListener;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EventListenerListTest extends Assert {
+
+	private static List<Object> collect(EventListenerList list, Class<?> type) {
+		List<Object> result = new ArrayList<>();
+		list.getListenersIterable(type).forEach(result::add);
+		return result;
+	}
+
+	private static List<Object> createListeners(int count) {
+		List<Object> listeners = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			listeners.add(new Object());
+		}
+		return listeners;
+	}
+
+	@SuppressWarnings("static-method")
+	@Test
+	public void testListenersAreSeparatedByType() {
+		EventListenerList list = new EventListenerList();
+		Object a = new Object();
+		Object b = new Object();
+		Object c = new Object();
+		list.addListener(FigureListener.class, a);
+		list.addListener(MouseListener.class, b);
+		list.addListener(FigureListener.class, c);
+
+		assertEquals(List.of(a, c), collect(list, FigureListener.class));
+		assertEquals(List.of(b), collect(list, MouseListener.class));
+		assertTrue(list.containsListener(MouseListener.class));
+		assertFalse(list.containsListener(Object.class));
+		assertFalse(list.getListeners(Object.class).hasNext());
+
+		list.removeListener(MouseListener.class, b);
+		assertFalse(list.containsListener(MouseListener.class));
+		list.removeListener(MouseListener.class, a);
+		assertEquals(List.of(a, c), collect(list, FigureListener.class));
+	}
+
+	@SuppressWarnings("static-method")
+	@Test
+	public void testRemovalKeepsOrder() {
+		for (int count : new int[] { 5, 100 }) {
+			EventListenerList list = new EventListenerList();
+			List<Object> expected = createListeners(count);
+			expected.forEach(l -> list.addListener(FigureListener.class, l));
+			for (int i = count - 1; i >= 0; i -= 3) {
+				list.removeListener(FigureListener.class, expected.remove(i));
+				assertEquals(expected, collect(list, FigureListener.class));
+			}
+			Object added = new Object();
+			list.addListener(FigureListener.class, added);
+			expected.add(added);
+			assertEquals(expected, collect(list, FigureListener.class));
+		}
+	}
+
+	@SuppressWarnings("static-method")
+	@Test
+	public void testDuplicateListenersAreRemovedOneByOne() {
+		for (int count : new int[] { 2, 40 }) {
+			EventListenerList list = new EventListenerList();
+			List<Object> expected = createListeners(count);
+			Object duplicate = expected.get(0);
+			expected.add(duplicate);
+			expected.forEach(l -> list.addListener(FigureListener.class, l));
+
+			list.removeListener(FigureListener.class, duplicate);
+			expected.remove(0);
+			assertEquals(expected, collect(list, FigureListener.class));
+			list.removeListener(FigureListener.class, duplicate);
+			expected.remove(expected.size() - 1);
+			assertEquals(expected, collect(list, FigureListener.class));
+			list.removeListener(FigureListener.class, duplicate);
+			assertEquals(expected, collect(list, FigureListener.class));
+		}
+	}
+
+	@SuppressWarnings("static-method")
+	@Test
+	public void testModificationDuringIteration() {
+		EventListenerList list = new EventListenerList();
+		List<Object> listeners = createListeners(50);
+		listeners.forEach(l -> list.addListener(FigureListener.class, l));
+
+		List<Object> visited = new ArrayList<>();
+		Iterator<?> iterator = list.getListeners(FigureListener.class);
+		while (iterator.hasNext()) {
+			Object listener = iterator.next();
+			visited.add(listener);
+			// each listener removes itself and the following one, and adds a new one
+			list.removeListener(FigureListener.class, listener);
+			int next = listeners.indexOf(listener) + 1;
+			if (next < listeners.size()) {
+				list.removeListener(FigureListener.class, listeners.get(next));
+			}
+			list.addListener(FigureListener.class, new Object());
+		}
+
+		List<Object> expected = new ArrayList<>();
+		for (int i = 0; i < listeners.size(); i += 2) {
+			expected.add(listeners.get(i));
+		}
+		assertEquals(expected, visited);
+		assertEquals(25, collect(list, FigureListener.class).size());
+	}
+
+}
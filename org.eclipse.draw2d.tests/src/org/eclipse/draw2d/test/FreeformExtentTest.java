@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.Random;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FreeformLayer;
+import org.eclipse.draw2d.FreeformLayeredPane;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FreeformExtentTest extends Assert {
+
+	private FreeformLayeredPane pane;
+	private FreeformLayer layer;
+	private int notifications;
+
+	@Before
+	public void setUp() {
+		pane = new FreeformLayeredPane();
+		layer = new FreeformLayer();
+		pane.add(layer);
+		pane.add(new FreeformLayer());
+		for (int i = 0; i < 20; i++) {
+			Figure child = new Figure();
+			child.setBounds(new Rectangle(i * 50, (i * 37) % 400, 40, 30));
+			layer.add(child);
+		}
+		layer.addFreeformListener(() -> notifications++);
+		// the changes made by adding the children are validated
+		pane.validate();
+	}
+
+	@Test
+	public void testMovesWithinExtent() {
+		Rectangle extent = layer.getFreeformExtent().getCopy();
+		IFigure child = layer.getChildren().get(5);
+		child.setBounds(new Rectangle(100, 100, 20, 20));
+		child.setBounds(new Rectangle(120, 110, 20, 20));
+		assertEquals(0, notifications);
+		assertEquals(extent, layer.getFreeformExtent());
+	}
+
+	@Test
+	public void testGrowAndShrink() {
+		layer.getFreeformExtent();
+		IFigure child = layer.getChildren().get(5);
+		child.setBounds(new Rectangle(-200, -100, 20, 20));
+		assertEquals(1, notifications);
+		assertEquals(computeExtent(layer), layer.getFreeformExtent());
+		assertEquals(computeExtent(pane), pane.getFreeformExtent());
+
+		pane.validate();
+		child.setBounds(new Rectangle(100, 100, 20, 20));
+		assertEquals(2, notifications);
+		assertEquals(computeExtent(layer), layer.getFreeformExtent());
+		assertEquals(computeExtent(pane), pane.getFreeformExtent());
+	}
+
+	@Test
+	public void testChangesAreNotifiedOncePerUpdate() {
+		int[] parentNotifications = new int[1];
+		pane.addFreeformListener(() -> parentNotifications[0]++);
+		for (int i = 0; i < layer.getChildren().size(); i++) {
+			layer.getChildren().get(i).setBounds(new Rectangle(-100 * i, -50 * i, 20, 20));
+			// the extent is up to date, although the change is not notified
+			assertEquals(computeExtent(layer), layer.getFreeformExtent());
+			assertEquals(computeExtent(pane), pane.getFreeformExtent());
+		}
+		assertEquals(1, notifications);
+		assertEquals(1, parentNotifications[0]);
+
+		// the listener does not query the extent before the next update
+		pane.validate();
+		layer.getChildren().get(6).setBounds(new Rectangle(2000, 0, 20, 20));
+		assertEquals(2, notifications);
+		assertEquals(2, parentNotifications[0]);
+		assertEquals(computeExtent(layer), layer.getFreeformExtent());
+		assertEquals(computeExtent(pane), pane.getFreeformExtent());
+
+		// moves within the extent are not notified
+		pane.validate();
+		layer.getChildren().get(7).setBounds(new Rectangle(0, 0, 20, 20));
+		assertEquals(2, notifications);
+	}
+
+	@Test
+	public void testChangesWhileNotifying() {
+		IFigure child = layer.getChildren().get(5);
+		int[] parentNotifications = new int[1];
+		pane.addFreeformListener(() -> parentNotifications[0]++);
+		layer.addFreeformListener(() -> {
+			if (notifications == 1) {
+				// grows the extent again while the first change is notified
+				child.setBounds(new Rectangle(-400, -100, 20, 20));
+			}
+		});
+		child.setBounds(new Rectangle(-200, -100, 20, 20));
+		assertEquals(1, notifications);
+		assertEquals(1, parentNotifications[0]);
+		assertEquals(computeExtent(layer), layer.getFreeformExtent());
+		assertEquals(computeExtent(pane), pane.getFreeformExtent());
+	}
+
+	@Test
+	public void testRandomChanges() {
+		Random random = new Random(7);
+		for (int i = 0; i < 2000; i++) {
+			int action = random.nextInt(10);
+			if (action == 0) {
+				Figure child = new Figure();
+				child.setBounds(randomBounds(random));
+				layer.add(child, random.nextInt(layer.getChildren().size() + 1));
+			} else if (action == 1 && layer.getChildren().size() > 1) {
+				layer.remove(layer.getChildren().get(random.nextInt(layer.getChildren().size())));
+			} else if (!layer.getChildren().isEmpty()) {
+				layer.getChildren().get(random.nextInt(layer.getChildren().size())).setBounds(randomBounds(random));
+			}
+			if (random.nextInt(3) == 0) {
+				assertEquals("Step " + i, computeExtent(layer), layer.getFreeformExtent()); //$NON-NLS-1$
+				assertEquals("Step " + i, computeExtent(pane), pane.getFreeformExtent()); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static Rectangle randomBounds(Random random) {
+		// some children are empty
+		return new Rectangle(random.nextInt(600) - 100, random.nextInt(600) - 100, random.nextInt(5) * 20,
+				random.nextInt(5) * 20);
+	}
+
+	/**
+	 * Computes the extent of the given figure from scratch.
+	 */
+	private static Rectangle computeExtent(IFigure figure) {
+		Rectangle extent = null;
+		for (IFigure child : figure.getChildren()) {
+			Rectangle r = child instanceof FreeformLayer ? computeExtent(child) : child.getBounds();
+			if (extent == null) {
+				extent = r.getCopy();
+			} else {
+				extent.union(r);
+			}
+		}
+		if (extent == null) {
+			return new Rectangle(0, 0, figure.getInsets().getWidth(), figure.getInsets().getHeight());
+		}
+		figure.translateToParent(extent);
+		return extent.expand(figure.getInsets());
+	}
+
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FreeformLayer;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.Layer;
+import org.eclipse.draw2d.Polyline;
+import org.eclipse.draw2d.SWTGraphics;
+import org.eclipse.draw2d.TreeSearch;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FreeformLayerSpatialIndexTest extends Assert {
+
+	private static final int SIZE = 1200;
+
+	private FreeformLayer layer;
+	private final List<IFigure> painted = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		layer = new FreeformLayer();
+		layer.setBounds(new Rectangle(-100, -100, SIZE + 200, SIZE + 200));
+		for (int i = 0; i < 40; i++) {
+			Figure child = new PaintRecordingFigure();
+			// overlapping children of different sizes
+			child.setBounds(new Rectangle((i * 97) % SIZE, (i * 61) % SIZE, 30 + (i % 7) * 40, 20 + (i % 5) * 50));
+			child.setVisible(i % 9 != 0);
+			child.setEnabled(i % 11 != 0);
+			layer.add(child);
+		}
+		Polyline line = new Polyline();
+		line.setPoints(new PointList(new int[] { 10, 500, 800, 500 }));
+		line.setTolerance(6);
+		layer.add(line);
+
+		Layer nested = new Layer();
+		nested.setBounds(new Rectangle(0, 0, 10, 10));
+		Figure outside = new Figure();
+		// lies outside of the bounds of its layer
+		outside.setBounds(new Rectangle(300, 900, 50, 50));
+		nested.add(outside);
+		layer.add(nested, 5);
+	}
+
+	@Test
+	public void testDisabledByDefault() {
+		assertFalse(new FreeformLayer().isSpatialIndexEnabled());
+	}
+
+	@Test
+	public void testSameResultsAsLinearSearch() {
+		layer.setSpatialIndexEnabled(true);
+		assertSameResults();
+	}
+
+	@Test
+	public void testSameResultsAfterChanges() {
+		layer.setSpatialIndexEnabled(true);
+		List<? extends IFigure> children = layer.getChildren();
+
+		// moved and resized children
+		children.get(3).setBounds(new Rectangle(400, 400, 300, 300));
+		children.get(7).setLocation(new Point(-50, -50));
+		// a child inserted in the middle of the z-order
+		Figure inserted = new Figure();
+		inserted.setBounds(new Rectangle(380, 380, 100, 100));
+		layer.add(inserted, 2);
+		// removed children
+		layer.remove(children.get(10));
+		layer.remove(children.get(children.size() - 3));
+		// a child moved to the top by modifying the list of children directly
+		@SuppressWarnings("unchecked")
+		List<IFigure> list = (List<IFigure>) children;
+		list.remove(inserted);
+		list.add(inserted);
+
+		assertSameResults();
+	}
+
+	@Test
+	public void testSameResultsAfterPolylineChanges() {
+		layer.setSpatialIndexEnabled(true);
+		Polyline line = (Polyline) layer.getChildren().get(layer.getChildren().size() - 1);
+		assertSame(line, layer.findFigureAt(400, 500));
+		int[] moves = { 0 };
+		line.addFigureListener(source -> moves[0]++);
+
+		// the bounds of a polyline change without setBounds() being called
+		line.setPoints(new PointList(new int[] { 900, 100, 900, 1100 }));
+		assertSame(line, layer.findFigureAt(900, 700));
+		assertNotSame(line, layer.findFigureAt(400, 500));
+		line.addPoint(new Point(100, 1100));
+		assertSame(line, layer.findFigureAt(300, 1100));
+		line.setPoint(new Point(1000, 50), 0);
+		assertSame(line, layer.findFigureAt(950, 575));
+		line.setLineWidth(20);
+		line.removeAllPoints();
+		line.addPoint(new Point(20, 20));
+		line.addPoint(new Point(60, 20));
+		assertSame(line, layer.findFigureAt(40, 20));
+
+		// the index is updated without notifying the figure listeners
+		assertEquals(0, moves[0]);
+		assertSameResults();
+	}
+
+	@Test
+	public void testExclusionSearch() {
+		IFigure top = layer.findFigureAt(420, 420);
+		layer.setSpatialIndexEnabled(true);
+		assertSame(top, layer.findFigureAt(420, 420));
+		IFigure below = layer.findFigureAtExcluding(420, 420, Collections.singleton(top));
+		layer.setSpatialIndexEnabled(false);
+		assertSame(below, layer.findFigureAtExcluding(420, 420, Collections.singleton(top)));
+	}
+
+	@Test
+	public void testPaintOnlyVisitsChildrenInClip() {
+		Rectangle clip = new Rectangle(350, 350, 120, 90);
+		List<IFigure> expected = paint(clip);
+		assertFalse(expected.isEmpty());
+		for (IFigure child : expected) {
+			assertTrue(child.isVisible());
+			assertTrue(child.getBounds().intersects(clip));
+		}
+
+		Rectangle all = layer.getBounds().getExpanded(5000, 5000);
+		List<IFigure> expectedAll = paint(all);
+
+		layer.setSpatialIndexEnabled(true);
+		assertEquals(expected, paint(clip));
+		assertEquals(expectedAll, paint(all));
+
+		// a moved child is painted at its new location, and in z-order
+		IFigure moved = layer.getChildren().get(1);
+		moved.setBounds(new Rectangle(360, 360, 10, 10));
+		List<IFigure> actual = paint(clip);
+		layer.setSpatialIndexEnabled(false);
+		assertEquals(paint(clip), actual);
+		assertSame(moved, actual.get(0));
+	}
+
+	/**
+	 * Paints the layer with the given clip and returns the painted children.
+	 */
+	private List<IFigure> paint(Rectangle clip) {
+		painted.clear();
+		Image image = new Image(Display.getDefault(), 10, 10);
+		GC gc = new GC(image);
+		SWTGraphics graphics = new SWTGraphics(gc);
+		try {
+			graphics.setClip(clip);
+			layer.paint(graphics);
+		} finally {
+			graphics.dispose();
+			gc.dispose();
+			image.dispose();
+		}
+		return new ArrayList<>(painted);
+	}
+
+	/**
+	 * Compares the results of the hit-testing methods using the index with the
+	 * results of the linear search on a grid of points covering the layer.
+	 */
+	private void assertSameResults() {
+		assertTrue(layer.isSpatialIndexEnabled());
+		List<Object> indexed = collectResults();
+		layer.setSpatialIndexEnabled(false);
+		List<Object> linear = collectResults();
+		assertEquals(linear.size(), indexed.size());
+		for (int i = 0; i < linear.size(); i++) {
+			assertSame("Result " + i, linear.get(i), indexed.get(i)); //$NON-NLS-1$
+		}
+	}
+
+	private List<Object> collectResults() {
+		List<Object> results = new ArrayList<>();
+		for (int x = -60; x < SIZE + 60; x += 7) {
+			for (int y = -60; y < SIZE + 60; y += 7) {
+				results.add(layer.findFigureAt(x, y));
+				results.add(layer.findMouseEventTargetAt(x, y));
+				results.add(layer.findFigureAt(x, y, PRUNE_LAYERS));
+				results.add(Boolean.valueOf(layer.containsPoint(x, y)));
+			}
+		}
+		return results;
+	}
+
+	private class PaintRecordingFigure extends Figure {
+		@Override
+		public void paint(Graphics graphics) {
+			painted.add(this);
+		}
+	}
+
+	private static final TreeSearch PRUNE_LAYERS = new TreeSearch() {
+		@Override
+		public boolean accept(IFigure figure) {
+			return true;
+		}
+
+		@Override
+		public boolean prune(IFigure figure) {
+			return figure instanceof Layer && !(figure instanceof FreeformLayer);
+		}
+	};
+
+}
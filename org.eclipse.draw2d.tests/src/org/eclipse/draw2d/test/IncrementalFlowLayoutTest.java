@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.text.BlockFlow;
+import org.eclipse.draw2d.text.BlockFlowLayout;
+import org.eclipse.draw2d.text.FlowPage;
+import org.eclipse.draw2d.text.InlineFlow;
+import org.eclipse.draw2d.text.TextFlow;
+import org.eclipse.draw2d.text.TextFragmentBox;
+
+import org.junit.Test;
+
+/**
+ * Verifies that laying out only the changed part of a block yields the same
+ * result as laying out a new page with the same contents, and that the lines
+ * which are not affected by the change are kept.
+ */
+public class IncrementalFlowLayoutTest extends BaseTestCase {
+
+	private static final String[] TEXTS = { "The quick brown fox ", //$NON-NLS-1$
+			"jumps over the lazy dog.\n", //$NON-NLS-1$
+			"Lorem ipsum dolor sit amet, consectetur adipiscing elit, ", //$NON-NLS-1$
+			"sed do eiusmod tempor", //$NON-NLS-1$
+			"incididunt ut labore et dolore magna aliqua." };
+
+	private final List<TextFlow> flows = new ArrayList<>();
+
+	private FlowPage createPage(List<String> texts) {
+		flows.clear();
+		FlowPage page = new FlowPage();
+		int index = 0;
+		for (int i = 0; i < 6; i++) {
+			IFigure parent = page;
+			if (i % 2 == 0) {
+				parent = new BlockFlow();
+				page.add(parent);
+			}
+			for (int j = 0; j < 3; j++) {
+				IFigure container = parent;
+				if ((i + j) % 4 == 3) {
+					container = new InlineFlow();
+					parent.add(container);
+				}
+				TextFlow flow = new TextFlow(texts.get(index++));
+				flow.setFont(SERIF);
+				container.add(flow);
+				flows.add(flow);
+			}
+		}
+		page.setBounds(new Rectangle(0, 0, 200, 2000));
+		page.validate();
+		return page;
+	}
+
+	private static List<String> createTexts() {
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < 18; i++) {
+			texts.add(TEXTS[i % TEXTS.length]);
+		}
+		return texts;
+	}
+
+	private void assertSameLayout(FlowPage page, List<String> texts) {
+		List<TextFlow> actual = new ArrayList<>(flows);
+		FlowPage expected = createPage(texts);
+		assertSameBounds(expected, page);
+		for (int i = 0; i < actual.size(); i++) {
+			List<? extends TextFragmentBox> expectedFragments = flows.get(i).getFragments();
+			List<? extends TextFragmentBox> actualFragments = actual.get(i).getFragments();
+			assertEquals(expectedFragments.size(), actualFragments.size());
+			for (int j = 0; j < expectedFragments.size(); j++) {
+				TextFragmentBox e = expectedFragments.get(j);
+				TextFragmentBox a = actualFragments.get(j);
+				assertEquals(e.offset, a.offset);
+				assertEquals(e.length, a.length);
+				assertEquals(e.getX(), a.getX());
+				assertEquals(e.getBaseline(), a.getBaseline());
+				assertEquals(e.getWidth(), a.getWidth());
+			}
+		}
+		flows.clear();
+		flows.addAll(actual);
+	}
+
+	private static void assertSameBounds(IFigure expected, IFigure actual) {
+		assertEquals(expected.getBounds(), actual.getBounds());
+		assertEquals(expected.getChildren().size(), actual.getChildren().size());
+		for (int i = 0; i < expected.getChildren().size(); i++) {
+			assertSameBounds(expected.getChildren().get(i), actual.getChildren().get(i));
+		}
+	}
+
+	@Test
+	public void testEditedText() {
+		List<String> texts = createTexts();
+		FlowPage page = createPage(texts);
+		int[] edited = { 7, 0, 17, 4, 10 };
+		String[] replacements = { "short", "A much longer replacement text which wraps onto several lines. ", //$NON-NLS-1$ //$NON-NLS-2$
+				"", "x\n", "Lorem ipsum " }; //$NON-NLS-1$ //$NON-NLS-2$
+		for (int i = 0; i < edited.length; i++) {
+			texts.set(edited[i], replacements[i]);
+			flows.get(edited[i]).setText(replacements[i]);
+			page.validate();
+			assertSameLayout(page, texts);
+		}
+	}
+
+	/**
+	 * Edits texts which are children of the page, between nested blocks. The lines
+	 * before the line of the edited text, and those after the next nested block,
+	 * are the same instances as before the edit.
+	 */
+	@Test
+	public void testUnaffectedLinesAreKept() throws ReflectiveOperationException {
+		List<String> texts = createTexts();
+		FlowPage page = createPage(texts);
+		BlockFlowLayout layout = (BlockFlowLayout) page.getLayoutManager();
+		int[] edited = { 10, 4 };
+		for (int flow : edited) {
+			int child = page.getChildren().indexOf(flows.get(flow));
+			assertTrue(child > 0);
+			List<?> before = new ArrayList<>((List<?>) getField(layout, "lines")); //$NON-NLS-1$
+			int[] firstLines = (int[]) getField(layout, "firstLines"); //$NON-NLS-1$
+			boolean[] lineStarts = (boolean[]) getField(layout, "lineStarts"); //$NON-NLS-1$
+			int start = child;
+			while (!lineStarts[start]) {
+				start--;
+			}
+			int kept = firstLines[start];
+			// the layout is at the start of a line again after the next nested block
+			int next = child + 1;
+			while (!(page.getChildren().get(next - 1) instanceof BlockFlow)) {
+				next++;
+			}
+			assertTrue(lineStarts[next]);
+			int reused = before.size() - firstLines[next];
+			assertTrue(reused > 0);
+
+			texts.set(flow, "edited "); //$NON-NLS-1$
+			flows.get(flow).setText("edited "); //$NON-NLS-1$
+			page.validate();
+			List<?> after = (List<?>) getField(layout, "lines"); //$NON-NLS-1$
+			for (int i = 0; i < kept; i++) {
+				assertSame(before.get(i), after.get(i));
+			}
+			for (int i = 1; i <= reused; i++) {
+				assertSame(before.get(before.size() - i), after.get(after.size() - i));
+			}
+			// the line of the edited text is laid out again
+			assertNotSame(before.get(kept), after.get(kept));
+			assertSameLayout(page, texts);
+		}
+	}
+
+	private static Object getField(BlockFlowLayout layout, String name) throws ReflectiveOperationException {
+		Field field = BlockFlowLayout.class.getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(layout);
+	}
+
+	@Test
+	public void testSeveralEditsBeforeValidation() {
+		List<String> texts = createTexts();
+		FlowPage page = createPage(texts);
+		texts.set(2, "changed "); //$NON-NLS-1$
+		flows.get(2).setText("changed "); //$NON-NLS-1$
+		texts.set(13, "also changed, and quite a bit longer than before "); //$NON-NLS-1$
+		flows.get(13).setText("also changed, and quite a bit longer than before "); //$NON-NLS-1$
+		page.validate();
+		assertSameLayout(page, texts);
+	}
+
+	@Test
+	public void testChangedWidth() {
+		List<String> texts = createTexts();
+		FlowPage page = createPage(texts);
+		texts.set(5, "edited "); //$NON-NLS-1$
+		flows.get(5).setText("edited "); //$NON-NLS-1$
+		page.validate();
+		page.setSize(150, 2000);
+		page.validate();
+		List<TextFlow> actual = new ArrayList<>(flows);
+		FlowPage expected = createPage(texts);
+		expected.setSize(150, 2000);
+		expected.validate();
+		flows.clear();
+		flows.addAll(actual);
+		assertSameBounds(expected, page);
+	}
+
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.graph.Path;
+import org.eclipse.draw2d.graph.ShortestPathRouter;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that the routes computed by the {@link ShortestPathRouter} for a
+ * larger, generated diagram do not change. The expected values were recorded
+ * with the original implementation of the shortest path search.
+ */
+public class ShortestPathRouterRegressionTest extends Assert {
+
+	private ShortestPathRouter router;
+	private final List<Rectangle> obstacles = new ArrayList<>();
+	private final List<Path> paths = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		Random random = new Random(20260101L);
+		router = new ShortestPathRouter();
+		for (int column = 0; column < 8; column++) {
+			for (int row = 0; row < 6; row++) {
+				Rectangle obstacle = new Rectangle(column * 150 + random.nextInt(40), row * 120 + random.nextInt(30),
+						40 + random.nextInt(60), 30 + random.nextInt(50));
+				obstacles.add(obstacle);
+				router.addObstacle(obstacle);
+			}
+		}
+		for (int i = 0; i < 40; i++) {
+			Rectangle source = obstacles.get(random.nextInt(obstacles.size()));
+			Rectangle target = obstacles.get(random.nextInt(obstacles.size()));
+			Path path = new Path(new Point(source.right() + 1, source.getCenter().y),
+					new Point(target.x - 1, target.getCenter().y));
+			paths.add(path);
+			router.addPath(path);
+		}
+	}
+
+	@Test
+	public void testRoutes() {
+		router.solve();
+		assertRoutes(190, -1418941806);
+	}
+
+	@Test
+	public void testRoutesAfterChanges() {
+		router.solve();
+		router.updateObstacle(obstacles.get(10), obstacles.get(10).getTranslated(35, 20));
+		router.removeObstacle(obstacles.get(20));
+		router.removePath(paths.get(5));
+		paths.remove(5);
+		router.solve();
+		assertRoutes(182, -1906176514);
+	}
+
+	@Test
+	public void testParallelRoutes() {
+		assertFalse(router.isParallel());
+		router.setParallel(true);
+		router.solve();
+		assertRoutes(190, -1418941806);
+		router.updateObstacle(obstacles.get(10), obstacles.get(10).getTranslated(35, 20));
+		router.removeObstacle(obstacles.get(20));
+		router.removePath(paths.get(5));
+		paths.remove(5);
+		router.solve();
+		assertRoutes(182, -1906176514);
+	}
+
+	@Test
+	public void testIncrementalRoutes() {
+		assertFalse(router.isIncremental());
+		router.setIncremental(true);
+		router.solve();
+		assertEquals(paths, router.getReroutedPaths());
+		assertRoutes(190, -1418941806);
+		router.updateObstacle(obstacles.get(10), obstacles.get(10).getTranslated(35, 20));
+		router.removeObstacle(obstacles.get(20));
+		router.removePath(paths.get(5));
+		paths.remove(5);
+		router.solve();
+		assertRoutes(182, -1906176514);
+		assertTrue(router.getReroutedPaths().size() < paths.size());
+
+		// paths which are not rerouted keep their points
+		List<PointList> points = new ArrayList<>();
+		paths.forEach(path -> points.add(path.getPoints().getCopy()));
+		Rectangle obstacle = obstacles.get(47);
+		router.updateObstacle(obstacle, obstacle.getTranslated(5, 0));
+		router.solve();
+		List<Path> rerouted = router.getReroutedPaths();
+		assertTrue(rerouted.size() < paths.size());
+		for (int i = 0; i < paths.size(); i++) {
+			if (!rerouted.contains(paths.get(i))) {
+				assertArrayEquals(points.get(i).toIntArray(), paths.get(i).getPoints().toIntArray());
+			}
+		}
+	}
+
+	@Test
+	public void testSameRoutesWithoutObstacleIndex() {
+		assertTrue(router.isObstacleIndexEnabled());
+		ShortestPathRouter indexed = new ShortestPathRouter();
+		ShortestPathRouter linear = new ShortestPathRouter();
+		linear.setObstacleIndexEnabled(false);
+		List<Path> indexedPaths = new ArrayList<>();
+		List<Path> linearPaths = new ArrayList<>();
+		List<Rectangle> manyObstacles = new ArrayList<>();
+
+		Random random = new Random(20260315L);
+		for (int column = 0; column < 16; column++) {
+			for (int row = 0; row < 12; row++) {
+				// obstacles spanning one or several cells of the index
+				Rectangle obstacle = new Rectangle(column * 110 + random.nextInt(30), row * 90 + random.nextInt(20),
+						20 + random.nextInt(70), 15 + random.nextInt(60));
+				manyObstacles.add(obstacle);
+			}
+		}
+		// obstacles spanning too many cells to be put into the grid
+		manyObstacles.add(new Rectangle(-400, 1100, 2400, 30));
+		manyObstacles.add(new Rectangle(1800, -300, 25, 1600));
+		for (Rectangle obstacle : manyObstacles) {
+			indexed.addObstacle(obstacle);
+			linear.addObstacle(obstacle);
+		}
+		for (int i = 0; i < 50; i++) {
+			Rectangle source = manyObstacles.get(random.nextInt(manyObstacles.size() - 2));
+			Rectangle target = manyObstacles.get(random.nextInt(manyObstacles.size() - 2));
+			Point start = new Point(source.right() + 1, source.getCenter().y);
+			Point end = new Point(target.x - 1, target.getCenter().y);
+			Path path = new Path(start, end);
+			indexedPaths.add(path);
+			indexed.addPath(path);
+			path = new Path(start.getCopy(), end.getCopy());
+			linearPaths.add(path);
+			linear.addPath(path);
+		}
+		indexed.solve();
+		linear.solve();
+		assertSameRoutes(linearPaths, indexedPaths);
+
+		// changes are applied to the index
+		for (int i = 0; i < 30; i++) {
+			Rectangle obstacle = manyObstacles.get(random.nextInt(manyObstacles.size()));
+			Rectangle moved = obstacle.getTranslated(random.nextInt(300) - 150, random.nextInt(300) - 150);
+			indexed.updateObstacle(obstacle, moved);
+			linear.updateObstacle(obstacle, moved);
+			manyObstacles.set(manyObstacles.indexOf(obstacle), moved);
+		}
+		for (int i = 0; i < 20; i++) {
+			Rectangle obstacle = manyObstacles.remove(random.nextInt(manyObstacles.size()));
+			indexed.removeObstacle(obstacle);
+			linear.removeObstacle(obstacle);
+		}
+		indexed.solve();
+		linear.solve();
+		assertSameRoutes(linearPaths, indexedPaths);
+	}
+
+	private static void assertSameRoutes(List<Path> expected, List<Path> actual) {
+		for (int i = 0; i < expected.size(); i++) {
+			assertArrayEquals("Path " + i, expected.get(i).getPoints().toIntArray(), //$NON-NLS-1$
+					actual.get(i).getPoints().toIntArray());
+		}
+	}
+
+	private void assertRoutes(int expectedPoints, int expectedHash) {
+		int points = 0;
+		int hash = 1;
+		StringBuilder routes = new StringBuilder();
+		for (Path path : paths) {
+			PointList route = path.getPoints();
+			for (int i = 0; i < route.size(); i++) {
+				Point point = route.getPoint(i);
+				hash = 31 * (31 * hash + point.x) + point.y;
+				routes.append(point).append(' ');
+			}
+			points += route.size();
+			routes.append('\n');
+		}
+		assertEquals(routes.toString(), expectedPoints, points);
+		assertEquals(routes.toString(), expectedHash, hash);
+	}
+
+}
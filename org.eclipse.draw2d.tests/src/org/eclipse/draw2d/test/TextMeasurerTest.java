@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.draw2d.FigureUtilities;
+import org.eclipse.draw2d.TextMeasurer;
+import org.eclipse.draw2d.geometry.Dimension;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TextMeasurerTest extends Assert {
+
+	private static final String LATIN = "The quick brown fox jumps over the lazy dog"; //$NON-NLS-1$
+	private static final String HEBREW = "\u05E9\u05DC\u05D5\u05DD abc"; //$NON-NLS-1$
+	private static final String TABBED = "a\tb\nc"; //$NON-NLS-1$
+
+	private Font font;
+
+	@Before
+	public void setUp() {
+		font = Display.getDefault().getSystemFont();
+	}
+
+	@Test
+	public void testCachedExtentsMatchNativeMeasurement() {
+		TextMeasurer measurer = new TextMeasurer();
+		for (int i = 0; i < 2; i++) {
+			assertEquals(FigureUtilities.getTextExtents(LATIN, font), measurer.getTextExtents(LATIN, font));
+			assertEquals(FigureUtilities.getStringExtents(LATIN, font), measurer.getStringExtents(LATIN, font));
+			assertEquals(FigureUtilities.getTextExtents(TABBED, font), measurer.getTextExtents(TABBED, font));
+			assertEquals(FigureUtilities.getTextExtents(LATIN.substring(4, 15), font).width,
+					measurer.getTextWidth(LATIN, 4, 15, font));
+		}
+	}
+
+	@Test
+	public void testReturnedExtentsAreCopies() {
+		TextMeasurer measurer = new TextMeasurer();
+		Dimension extents = measurer.getTextExtents(LATIN, font);
+		Dimension expected = extents.getCopy();
+		extents.width = -1;
+		assertEquals(expected, measurer.getTextExtents(LATIN, font));
+	}
+
+	@Test
+	public void testComplexTextIsMeasuredNatively() {
+		TextMeasurer measurer = new TextMeasurer(16, true);
+		assertEquals(FigureUtilities.getTextExtents(HEBREW, font), measurer.getTextExtents(HEBREW, font));
+		assertEquals(FigureUtilities.getTextExtents(TABBED, font), measurer.getTextExtents(TABBED, font));
+	}
+
+	@Test
+	public void testAdvanceWidthsAreAdditive() {
+		TextMeasurer measurer = new TextMeasurer(16, true);
+		int width = measurer.getTextWidth(LATIN, 0, LATIN.length(), font);
+		assertEquals(width,
+				measurer.getTextWidth(LATIN, 0, 10, font) + measurer.getTextWidth(LATIN, 10, LATIN.length(), font));
+		assertEquals(width, measurer.getTextExtents(LATIN, font).width);
+		assertEquals(FigureUtilities.getTextExtents(LATIN, font).height, measurer.getTextExtents(LATIN, font).height);
+		assertEquals(0, measurer.getTextWidth(LATIN, 3, 3, font));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new TextMeasurer(0, false);
+	}
+
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.test;
+
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.draw2d.FigureUtilities;
+import org.eclipse.draw2d.SWTGraphics;
+import org.eclipse.draw2d.ScaledGraphics;
+import org.eclipse.draw2d.internal.ZoomedFontCache;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ZoomedFontCacheTest extends Assert {
+
+	private Display display;
+	private Font font;
+	private ZoomedFontCache cache;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		font = new Font(display, "Arial", 10, 0); //$NON-NLS-1$
+		cache = new ZoomedFontCache(display, 2);
+	}
+
+	@After
+	public void tearDown() {
+		cache.dispose();
+		font.dispose();
+	}
+
+	@Test
+	public void testFontsAreReused() {
+		Font zoomed = cache.getFont(font, 20);
+		assertEquals(20, zoomed.getFontData()[0].getHeight());
+		assertSame(zoomed, cache.getFont(font, 20));
+		assertNotSame(zoomed, cache.getFont(font, 15));
+		assertSame(cache.getFontData(font), cache.getFontData(font));
+		assertEquals(10, cache.getFontData(font).getHeight());
+	}
+
+	@Test
+	public void testEvictedFontsAreDisposedLater() {
+		Font first = cache.getFont(font, 20);
+		Font second = cache.getFont(font, 15);
+		// first is the most recently used font now
+		assertSame(first, cache.getFont(font, 20));
+		cache.getFont(font, 12);
+		assertEquals(2, cache.size());
+		// an evicted font may still be in use by the current paint
+		assertFalse(second.isDisposed());
+		while (display.readAndDispatch()) {
+			// process the pending disposal
+		}
+		assertTrue(second.isDisposed());
+		assertFalse(first.isDisposed());
+
+		cache.dispose();
+		assertTrue(first.isDisposed());
+	}
+
+	@Test
+	public void testBaselineIsCached() {
+		int[] calls = new int[1];
+		int baseline = cache.getBaseline(font, () -> {
+			calls[0]++;
+			return FigureUtilities.getFontMetrics(font);
+		});
+		assertEquals(baseline, cache.getBaseline(font, () -> {
+			calls[0]++;
+			return FigureUtilities.getFontMetrics(font);
+		}));
+		assertEquals(1, calls[0]);
+	}
+
+	@Test
+	public void testScaledGraphicsSharesFonts() {
+		Image image = new Image(display, 10, 10);
+		GC gc = new GC(image);
+		try {
+			Font first = paintScaled(gc);
+			Font second = paintScaled(gc);
+			assertSame(first, second);
+			// not disposed together with the scaled graphics
+			assertFalse(first.isDisposed());
+			assertSame(first, ZoomedFontCache.getCache(display).getFont(font, 20));
+		} finally {
+			gc.dispose();
+			image.dispose();
+		}
+	}
+
+	private Font paintScaled(GC gc) {
+		SWTGraphics graphics = new SWTGraphics(gc);
+		ScaledGraphics scaled = new ScaledGraphics(graphics);
+		try {
+			scaled.scale(2);
+			scaled.setFont(font);
+			scaled.drawText("text", 0, 0); //$NON-NLS-1$
+			return graphics.getFont();
+		} finally {
+			scaled.dispose();
+			graphics.dispose();
+		}
+	}
+
+}
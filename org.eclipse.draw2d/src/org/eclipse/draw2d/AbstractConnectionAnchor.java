@@ -16,6 +16,11 @@ import org.eclipse.draw2d.geometry.Point;
 
 /**
  * Provides support for anchors which depend on a figure for thier location.
+ * <P>
+ * When the owner is displayed by a {@link LightweightSystem}, the listeners are
+ * not notified as soon as the owner or one of its ancestors moves, but when the
+ * root figure of the lightweight system is next validated. Until then, the
+ * locations computed by this anchor are stale.
  *
  * @author hudsonr
  */
@@ -23,6 +28,12 @@ public abstract class AbstractConnectionAnchor extends ConnectionAnchorBase impl
 
 	private IFigure owner;
 
+	/**
+	 * The tracker of the owner's ancestors, or null if this anchor listens to its
+	 * owner's ancestors itself.
+	 */
+	private AnchorTracker tracker;
+
 	/**
 	 * Constructs an AbstractConnectionAnchor with no owner.
 	 *
@@ -55,11 +66,33 @@ public abstract class AbstractConnectionAnchor extends ConnectionAnchorBase impl
 			return;
 		}
 		if (listeners.isEmpty()) {
-			getOwner().addAncestorListener(this);
+			tracker = AnchorTracker.getTracker(getOwner());
+			if (tracker != null) {
+				tracker.register(this);
+			} else {
+				getOwner().addAncestorListener(this);
+			}
 		}
 		super.addAnchorListener(listener);
 	}
 
+	/**
+	 * Tracks the ancestors of the owner with the given tracker, instead of the
+	 * current tracker or the ancestor listener.
+	 *
+	 * @param newTracker the tracker of the lightweight system which displays the
+	 *                   owner
+	 */
+	void setTracker(AnchorTracker newTracker) {
+		if (tracker != null) {
+			tracker.unregister(this);
+		} else {
+			getOwner().removeAncestorListener(this);
+		}
+		tracker = newTracker;
+		tracker.register(this);
+	}
+
 	/**
 	 * Notifies all the listeners of this anchor's location change.
 	 *
@@ -73,10 +106,20 @@ public abstract class AbstractConnectionAnchor extends ConnectionAnchorBase impl
 	}
 
 	/**
+	 * Starts tracking the ancestors of the owner with the tracker of its
+	 * lightweight system, if the owner is now displayed by one. Subclasses which
+	 * override this method should call it.
+	 *
 	 * @see org.eclipse.draw2d.AncestorListener#ancestorAdded(IFigure)
 	 */
 	@Override
 	public void ancestorAdded(IFigure ancestor) {
+		if (tracker == null && !listeners.isEmpty()) {
+			AnchorTracker newTracker = AnchorTracker.getTracker(getOwner());
+			if (newTracker != null) {
+				setTracker(newTracker);
+			}
+		}
 	}
 
 	/**
@@ -129,7 +172,12 @@ public abstract class AbstractConnectionAnchor extends ConnectionAnchorBase impl
 	public void removeAnchorListener(AnchorListener listener) {
 		super.removeAnchorListener(listener);
 		if (listeners.isEmpty()) {
-			getOwner().removeAncestorListener(this);
+			if (tracker != null) {
+				tracker.unregister(this);
+				tracker = null;
+			} else {
+				getOwner().removeAncestorListener(this);
+			}
 		}
 	}
 
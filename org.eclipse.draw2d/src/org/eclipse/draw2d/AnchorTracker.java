@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the ancestors of the owners of the {@link AbstractConnectionAnchor}s
+ * of a {@link LightweightSystem}. Instead of each anchor listening to each of
+ * its ancestors, as an {@link AncestorHelper} does, the tracker listens once to
+ * every figure which contains the owner of an anchor, and keeps these figures
+ * in a tree. When one of them moves, the anchors below it are found in a single
+ * walk of the tree.
+ * <P>
+ * The anchors are not notified right away, but when the root figure is
+ * validated, so that each anchor is notified at most once per update, no matter
+ * how many of its ancestors have moved. It is notified of the move of the
+ * ancestor closest to its owner. An anchor whose owner is moved to another
+ * lightweight system is handed over to the tracker of that system.
+ *
+ * This class is for internal use only.
+ */
+final class AnchorTracker implements FigureListener, PropertyChangeListener {
+
+	private static final String PARENT = "parent"; //$NON-NLS-1$
+
+	private final LightweightSystem lws;
+
+	/** The tracked figures, which contain the owner of at least one anchor. */
+	private final Map<IFigure, Node> nodes = new HashMap<>();
+
+	/** The node of the owner of each anchor. */
+	private final Map<AbstractConnectionAnchor, Node> anchors = new HashMap<>();
+
+	/** The anchors to notify, and the node of the figure which has moved. */
+	private Map<AbstractConnectionAnchor, Node> movedAnchors = new LinkedHashMap<>();
+
+	/**
+	 * A tracked figure.
+	 */
+	private static final class Node {
+		final IFigure figure;
+		Node parent;
+		int depth;
+		/** The number of anchors owned by the figure or its descendants. */
+		int count;
+		Set<Node> children;
+		Set<AbstractConnectionAnchor> anchors;
+
+		Node(IFigure figure) {
+			this.figure = figure;
+		}
+	}
+
+	/**
+	 * Creates a tracker for the given lightweight system.
+	 *
+	 * @param lws the lightweight system
+	 */
+	AnchorTracker(LightweightSystem lws) {
+		this.lws = lws;
+	}
+
+	/**
+	 * Returns the tracker of the lightweight system which displays the given
+	 * figure, or <code>null</code> if the figure is not displayed by a lightweight
+	 * system.
+	 *
+	 * @param figure the figure
+	 * @return the tracker or <code>null</code>
+	 */
+	static AnchorTracker getTracker(IFigure figure) {
+		IFigure root = figure;
+		while (root.getParent() != null) {
+			root = root.getParent();
+		}
+		if (root instanceof LightweightSystem.RootFigure rootFigure) {
+			return rootFigure.getAnchorTracker();
+		}
+		return null;
+	}
+
+	/**
+	 * Starts tracking the ancestors of the owner of the given anchor.
+	 *
+	 * @param anchor the anchor
+	 */
+	void register(AbstractConnectionAnchor anchor) {
+		if (anchors.containsKey(anchor)) {
+			return;
+		}
+		Node node = attach(anchor.getOwner());
+		if (node.anchors == null) {
+			node.anchors = new LinkedHashSet<>();
+		}
+		node.anchors.add(anchor);
+		anchors.put(anchor, node);
+		for (Node n = node; n != null; n = n.parent) {
+			n.count++;
+		}
+	}
+
+	/**
+	 * Stops tracking the ancestors of the owner of the given anchor. A pending
+	 * notification of the anchor is discarded.
+	 *
+	 * @param anchor the anchor
+	 */
+	void unregister(AbstractConnectionAnchor anchor) {
+		Node node = anchors.remove(anchor);
+		if (node == null) {
+			return;
+		}
+		movedAnchors.remove(anchor);
+		node.anchors.remove(anchor);
+		release(node, 1);
+	}
+
+	/**
+	 * Notifies the anchors whose owner, or one of its ancestors, has moved since
+	 * the last call.
+	 */
+	void flush() {
+		if (movedAnchors.isEmpty()) {
+			return;
+		}
+		Map<AbstractConnectionAnchor, Node> moved = movedAnchors;
+		movedAnchors = new LinkedHashMap<>();
+		moved.forEach((anchor, node) -> anchor.ancestorMoved(node.figure));
+	}
+
+	/**
+	 * @see FigureListener#figureMoved(IFigure)
+	 */
+	@Override
+	public void figureMoved(IFigure source) {
+		Node moved = nodes.get(source);
+		if (moved == null) {
+			return;
+		}
+		boolean marked = false;
+		Deque<Node> stack = new ArrayDeque<>();
+		stack.push(moved);
+		while (!stack.isEmpty()) {
+			Node node = stack.pop();
+			if (node.anchors != null) {
+				for (AbstractConnectionAnchor anchor : node.anchors) {
+					Node previous = movedAnchors.get(anchor);
+					if (previous == null || previous.depth < moved.depth) {
+						movedAnchors.put(anchor, moved);
+					}
+					marked = true;
+				}
+			}
+			if (node.children != null) {
+				node.children.forEach(stack::push);
+			}
+		}
+		// asks again on each move, as a previous request may have been dropped by
+		// a failed validation or a new update manager
+		if (marked) {
+			requestFlush();
+		}
+	}
+
+	/**
+	 * @see PropertyChangeListener#propertyChange(PropertyChangeEvent)
+	 */
+	@Override
+	public void propertyChange(PropertyChangeEvent event) {
+		if (!PARENT.equals(event.getPropertyName())) {
+			return;
+		}
+		Node node = nodes.get(event.getSource());
+		if (node == null) {
+			return;
+		}
+		IFigure oldParent = (IFigure) event.getOldValue();
+		IFigure newParent = (IFigure) event.getNewValue();
+		if (oldParent != null && node.parent != null) {
+			Node parent = node.parent;
+			parent.children.remove(node);
+			node.parent = null;
+			release(parent, node.count);
+			updateDepths(node, 0);
+			getAnchors(node).forEach(anchor -> anchor.ancestorRemoved(oldParent));
+		}
+		if (newParent != null) {
+			Node parent = attach(newParent);
+			addChild(parent, node);
+			for (Node n = parent; n != null; n = n.parent) {
+				n.count += node.count;
+			}
+			updateDepths(node, parent.depth + 1);
+			List<AbstractConnectionAnchor> added = getAnchors(node);
+			added.forEach(anchor -> anchor.ancestorAdded(newParent));
+			AnchorTracker tracker = getTracker(newParent);
+			if (tracker != null && tracker != this) {
+				moveTo(tracker, added);
+			}
+		}
+	}
+
+	/**
+	 * Hands the given anchors over to the tracker of another lightweight system,
+	 * which now displays their owners. Their pending notifications are handed over
+	 * too.
+	 */
+	private void moveTo(AnchorTracker tracker, List<AbstractConnectionAnchor> moved) {
+		for (AbstractConnectionAnchor anchor : moved) {
+			boolean pending = movedAnchors.containsKey(anchor);
+			anchor.setTracker(tracker);
+			if (pending) {
+				tracker.movedAnchors.put(anchor, tracker.anchors.get(anchor));
+				tracker.requestFlush();
+			}
+		}
+	}
+
+	private void requestFlush() {
+		lws.getUpdateManager().addInvalidFigure(lws.getRootFigure());
+	}
+
+	/**
+	 * Returns the node of the given figure, and starts tracking the figure and its
+	 * ancestors if necessary.
+	 */
+	private Node attach(IFigure figure) {
+		Node node = nodes.get(figure);
+		if (node != null) {
+			return node;
+		}
+		node = new Node(figure);
+		nodes.put(figure, node);
+		figure.addFigureListener(this);
+		figure.addPropertyChangeListener(PARENT, this);
+		if (figure.getParent() != null) {
+			Node parent = attach(figure.getParent());
+			addChild(parent, node);
+			node.depth = parent.depth + 1;
+		}
+		return node;
+	}
+
+	/**
+	 * Removes the given number of anchors from the counts of the given node and
+	 * its ancestors, and stops tracking the figures which no longer contain any
+	 * anchor.
+	 */
+	private void release(Node node, int count) {
+		for (Node n = node; n != null;) {
+			Node parent = n.parent;
+			n.count -= count;
+			if (n.count == 0) {
+				nodes.remove(n.figure);
+				n.figure.removeFigureListener(this);
+				n.figure.removePropertyChangeListener(PARENT, this);
+				if (parent != null) {
+					parent.children.remove(n);
+				}
+				n.parent = null;
+			}
+			n = parent;
+		}
+	}
+
+	private static void addChild(Node parent, Node child) {
+		if (parent.children == null) {
+			parent.children = new LinkedHashSet<>();
+		}
+		parent.children.add(child);
+		child.parent = parent;
+	}
+
+	private static void updateDepths(Node node, int depth) {
+		Deque<Node> stack = new ArrayDeque<>();
+		node.depth = depth;
+		stack.push(node);
+		while (!stack.isEmpty()) {
+			Node n = stack.pop();
+			if (n.children != null) {
+				for (Node child : n.children) {
+					child.depth = n.depth + 1;
+					stack.push(child);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the anchors owned by the figure of the given node or its
+	 * descendants.
+	 */
+	private static List<AbstractConnectionAnchor> getAnchors(Node node) {
+		List<AbstractConnectionAnchor> result = new ArrayList<>(node.count);
+		Deque<Node> stack = new ArrayDeque<>();
+		stack.push(node);
+		while (!stack.isEmpty()) {
+			Node n = stack.pop();
+			if (n.anchors != null) {
+				result.addAll(n.anchors);
+			}
+			if (n.children != null) {
+				n.children.forEach(stack::push);
+			}
+		}
+		return result;
+	}
+
+}
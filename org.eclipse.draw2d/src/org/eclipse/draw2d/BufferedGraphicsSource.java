@@ -22,13 +22,39 @@ import org.eclipse.swt.widgets.Control;
 
 import org.eclipse.draw2d.geometry.Rectangle;
 
-class BufferedGraphicsSource implements GraphicsSource {
+/**
+ * A graphics source which paints into an image buffer and copies the buffer
+ * onto the control when the graphics are flushed.
+ * <P>
+ * By default, a buffer the size of the damaged region is created and disposed
+ * for each update. If {@link #setPooling(boolean) pooling} is enabled, a
+ * single image the size of the control is kept and reused across updates, and
+ * only replaced when the control grows. Controls which are larger than the
+ * {@link #setMaxPooledBufferArea(int) maximum pooled area} or mirrored still
+ * use a buffer per update. If no buffer can be created at all, painting is
+ * done directly on the control.
+ * <P>
+ * The graphics source of a {@link LightweightSystem} is returned by
+ * {@link LightweightSystem#getGraphicsSource()}.
+ *
+ * @since 3.15
+ */
+public class BufferedGraphicsSource implements GraphicsSource {
+
+	/**
+	 * The default maximum area, in pixels, of the pooled buffer.
+	 */
+	public static final int DEFAULT_MAX_POOLED_BUFFER_AREA = 2048 * 2048;
 
 	private Image imageBuffer;
 	private GC imageGC;
 	private GC controlGC;
 	private Control control;
 	private Rectangle inUse;
+	private Image pooledBuffer;
+	private boolean pooling;
+	private int maxPooledBufferArea = DEFAULT_MAX_POOLED_BUFFER_AREA;
+	private int imageAllocations;
 
 	/**
 	 * Constructs a new buffered graphics source using the given control.
@@ -38,6 +64,60 @@ class BufferedGraphicsSource implements GraphicsSource {
 	 */
 	public BufferedGraphicsSource(Control c) {
 		control = c;
+		if (control != null) {
+			control.addDisposeListener(e -> disposePooledBuffer());
+		}
+	}
+
+	/**
+	 * Creates the image buffer for the current region, which is either the pooled
+	 * buffer or a transient buffer the size of the region. Returns
+	 * <code>null</code> if no buffer could be created.
+	 */
+	private Image createImageBuffer(org.eclipse.swt.graphics.Point controlSize) {
+		// a mirrored GC maps coordinates relative to the width of the whole image
+		if (pooling && (control.getStyle() & SWT.RIGHT_TO_LEFT) == 0) {
+			if (pooledBuffer != null) {
+				org.eclipse.swt.graphics.Rectangle bounds = pooledBuffer.getBounds();
+				if (bounds.width >= controlSize.x && bounds.height >= controlSize.y) {
+					return pooledBuffer;
+				}
+			}
+			int width = Math.max(controlSize.x, pooledBuffer == null ? 0 : pooledBuffer.getBounds().width);
+			int height = Math.max(controlSize.y, pooledBuffer == null ? 0 : pooledBuffer.getBounds().height);
+			if ((long) width * height <= maxPooledBufferArea) {
+				disposePooledBuffer();
+				pooledBuffer = createImage(width, height);
+				if (pooledBuffer != null) {
+					return pooledBuffer;
+				}
+			}
+		}
+		return createImage(inUse.width, inUse.height);
+	}
+
+	/*
+	 * Bugzilla 53632 - Attempts to create large images on some platforms will fail.
+	 * When this happens, do not use double-buffering for painting.
+	 */
+	private Image createImage(int width, int height) {
+		try {
+			Image image = new Image(null, width, height);
+			imageAllocations++;
+			return image;
+		} catch (SWTError noMoreHandles) {
+			return null;
+		} catch (IllegalArgumentException tooBig) {
+			return null;
+		}
+	}
+
+	private void disposePooledBuffer() {
+		// a buffer which is currently in use is disposed when it is flushed
+		if (pooledBuffer != null && pooledBuffer != imageBuffer) {
+			pooledBuffer.dispose();
+		}
+		pooledBuffer = null;
 	}
 
 	/**
@@ -68,7 +148,9 @@ class BufferedGraphicsSource implements GraphicsSource {
 			imageGC.dispose();
 			controlGC.drawImage(getImage(), 0, 0, inUse.width, inUse.height, inUse.x, inUse.y, inUse.width,
 					inUse.height);
-			imageBuffer.dispose();
+			if (imageBuffer != pooledBuffer) {
+				imageBuffer.dispose();
+			}
 			imageBuffer = null;
 			imageGC = null;
 		}
@@ -96,17 +178,7 @@ class BufferedGraphicsSource implements GraphicsSource {
 			return null;
 		}
 
-		/*
-		 * Bugzilla 53632 - Attempts to create large images on some platforms will fail.
-		 * When this happens, do not use double-buffering for painting.
-		 */
-		try {
-			imageBuffer = new Image(null, inUse.width, inUse.height);
-		} catch (SWTError noMoreHandles) {
-			imageBuffer = null;
-		} catch (IllegalArgumentException tooBig) {
-			imageBuffer = null;
-		}
+		imageBuffer = createImageBuffer(ptSWT);
 
 		controlGC = new GC(control, control.getStyle() & (SWT.RIGHT_TO_LEFT | SWT.LEFT_TO_RIGHT));
 		Graphics graphics;
@@ -128,6 +200,28 @@ class BufferedGraphicsSource implements GraphicsSource {
 		return graphics;
 	}
 
+	/**
+	 * Returns the number of images created by this graphics source so far. When
+	 * the buffer is pooled, this number no longer increases once the buffer
+	 * matches the size of the control.
+	 *
+	 * @return the number of image buffers allocated
+	 * @since 3.15
+	 */
+	public int getImageAllocationCount() {
+		return imageAllocations;
+	}
+
+	/**
+	 * Returns the maximum area, in pixels, of the pooled buffer.
+	 *
+	 * @return the maximum pooled buffer area
+	 * @since 3.15
+	 */
+	public int getMaxPooledBufferArea() {
+		return maxPooledBufferArea;
+	}
+
 	/**
 	 * Returns the current image buffer or <code>null</code>.
 	 *
@@ -148,4 +242,50 @@ class BufferedGraphicsSource implements GraphicsSource {
 		return imageGC;
 	}
 
+	/**
+	 * Returns whether the image buffer is kept and reused across updates. Pooling
+	 * is disabled by default.
+	 *
+	 * @return <code>true</code> if the buffer is pooled
+	 * @since 3.15
+	 */
+	public boolean isPooling() {
+		return pooling;
+	}
+
+	/**
+	 * Sets the maximum area, in pixels, of the pooled buffer. Controls larger than
+	 * this area are painted using a transient buffer the size of the damaged
+	 * region.
+	 *
+	 * @param area the maximum pooled buffer area
+	 * @since 3.15
+	 */
+	public void setMaxPooledBufferArea(int area) {
+		if (area < 0) {
+			throw new IllegalArgumentException("The maximum area must not be negative"); //$NON-NLS-1$
+		}
+		maxPooledBufferArea = area;
+		if (pooledBuffer != null) {
+			org.eclipse.swt.graphics.Rectangle bounds = pooledBuffer.getBounds();
+			if ((long) bounds.width * bounds.height > area) {
+				disposePooledBuffer();
+			}
+		}
+	}
+
+	/**
+	 * Sets whether the image buffer is kept and reused across updates. If
+	 * disabled, a new buffer is created for each update.
+	 *
+	 * @param pooling <code>true</code> if the buffer should be pooled
+	 * @since 3.15
+	 */
+	public void setPooling(boolean pooling) {
+		this.pooling = pooling;
+		if (!pooling) {
+			disposePooledBuffer();
+		}
+	}
+
 }
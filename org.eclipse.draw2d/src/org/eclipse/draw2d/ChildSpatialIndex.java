@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * A uniform grid over the bounds of a container's children, used to answer
+ * point and area queries without visiting every child. The index listens to each
+ * child's {@link FigureListener#figureMoved(IFigure) figureMoved} notification
+ * to stay up to date.
+ * <P>
+ * Children are found by their bounds (expanded by the hit tolerance of
+ * {@link Polyline Polylines}). Children which are {@link Layer Layers} may
+ * contain points outside of their bounds and are therefore never filtered out.
+ * The z-order of the children is not tracked eagerly. Instead, the index
+ * position recorded for each child is verified against the host's children
+ * whenever a query is made and recomputed if needed. This way, children
+ * which are reordered directly in the list of children are handled as well.
+ */
+class ChildSpatialIndex implements FigureListener {
+
+	/**
+	 * The default width and height of a grid cell.
+	 */
+	static final int DEFAULT_CELL_SIZE = 256;
+
+	/**
+	 * Children spanning more cells are not put into the grid, but are always
+	 * considered as candidates.
+	 */
+	private static final int MAX_CELLS_PER_CHILD = 64;
+
+	private static class Entry {
+		final IFigure figure;
+		final Rectangle bounds = new Rectangle();
+		int index;
+		int stamp;
+		boolean gridded;
+		int minColumn;
+		int minRow;
+		int maxColumn;
+		int maxRow;
+
+		Entry(IFigure figure, int index) {
+			this.figure = figure;
+			this.index = index;
+		}
+	}
+
+	private final IFigure host;
+	private final int cellSize;
+	private final Map<IFigure, Entry> entries = new HashMap<>();
+	private final Map<Long, List<Entry>> cells = new HashMap<>();
+	private final List<Entry> unfiltered = new ArrayList<>();
+	private int stamp;
+
+	/**
+	 * Creates a new index over the children of the given figure and adds all
+	 * current children to it.
+	 *
+	 * @param host     the figure whose children are indexed
+	 * @param cellSize the width and height of a grid cell
+	 */
+	ChildSpatialIndex(IFigure host, int cellSize) {
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException("The cell size must be positive"); //$NON-NLS-1$
+		}
+		this.host = host;
+		this.cellSize = cellSize;
+		List<? extends IFigure> children = host.getChildren();
+		for (int i = 0; i < children.size(); i++) {
+			add(children.get(i), i);
+		}
+	}
+
+	/**
+	 * Adds the given child to this index.
+	 *
+	 * @param child the child which was added to the host
+	 * @param index the index of the child in the host's children
+	 */
+	void add(IFigure child, int index) {
+		if (entries.containsKey(child)) {
+			return;
+		}
+		Entry entry = new Entry(child, index);
+		entries.put(child, entry);
+		insert(entry);
+		child.addFigureListener(this);
+	}
+
+	/**
+	 * Removes all children from this index and stops listening to them.
+	 */
+	void dispose() {
+		entries.keySet().forEach(child -> child.removeFigureListener(this));
+		entries.clear();
+		cells.clear();
+		unfiltered.clear();
+	}
+
+	/**
+	 * Updates the position of the moved child in the grid.
+	 *
+	 * @see FigureListener#figureMoved(IFigure)
+	 */
+	@Override
+	public void figureMoved(IFigure source) {
+		Entry entry = entries.get(source);
+		if (entry != null) {
+			extract(entry);
+			insert(entry);
+		}
+	}
+
+	/**
+	 * Returns the children which may contain the given point, topmost child
+	 * first. The point is given in the host's coordinate system, i.e. the one
+	 * the children's bounds are expressed in. Any child which is not returned
+	 * does not contain the point.
+	 *
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @return the candidate children in reverse z-order
+	 */
+	List<IFigure> getChildrenAt(int x, int y) {
+		List<Entry> candidates = new ArrayList<>(unfiltered);
+		List<Entry> cell = cells.get(Long.valueOf(getKey(getCell(x), getCell(y))));
+		if (cell != null) {
+			for (Entry entry : cell) {
+				if (entry.bounds.contains(x, y)) {
+					candidates.add(entry);
+				}
+			}
+		}
+		return toFigures(candidates, true);
+	}
+
+	/**
+	 * Returns the children whose bounds may intersect the given area, in z-order.
+	 * The area is given in the host's coordinate system. Any child which is not
+	 * returned does not intersect the area.
+	 *
+	 * @param area the area
+	 * @return the candidate children in z-order
+	 */
+	List<IFigure> getChildrenIn(Rectangle area) {
+		List<Entry> candidates = new ArrayList<>(unfiltered);
+		if (area.isEmpty()) {
+			return toFigures(candidates, false);
+		}
+		// entries spanning several cells must only be added once
+		int queryStamp = ++stamp;
+		int minColumn = getCell(area.x);
+		int minRow = getCell(area.y);
+		int maxColumn = getCell(area.right() - 1);
+		int maxRow = getCell(area.bottom() - 1);
+		long cellCount = (long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1);
+		if (cellCount > cells.size()) {
+			// cheaper to visit the occupied cells than all cells of the area
+			cells.forEach((key, cell) -> {
+				int column = (int) (key.longValue() >> 32);
+				int row = (int) key.longValue();
+				if (column >= minColumn && column <= maxColumn && row >= minRow && row <= maxRow) {
+					collect(cell, area, queryStamp, candidates);
+				}
+			});
+		} else {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				for (int row = minRow; row <= maxRow; row++) {
+					List<Entry> cell = cells.get(Long.valueOf(getKey(column, row)));
+					if (cell != null) {
+						collect(cell, area, queryStamp, candidates);
+					}
+				}
+			}
+		}
+		return toFigures(candidates, false);
+	}
+
+	private static void collect(List<Entry> cell, Rectangle area, int queryStamp, List<Entry> candidates) {
+		for (Entry entry : cell) {
+			if (entry.stamp != queryStamp) {
+				entry.stamp = queryStamp;
+				if (entry.bounds.intersects(area)) {
+					candidates.add(entry);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the given child from this index.
+	 *
+	 * @param child the child which is removed from the host
+	 */
+	void remove(IFigure child) {
+		Entry entry = entries.remove(child);
+		if (entry != null) {
+			extract(entry);
+			child.removeFigureListener(this);
+		}
+	}
+
+	/**
+	 * Sorts the given entries by their z-order and returns their figures.
+	 */
+	private List<IFigure> toFigures(List<Entry> candidates, boolean reverse) {
+		validateOrder(candidates);
+		candidates.sort(reverse ? (e1, e2) -> Integer.compare(e2.index, e1.index)
+				: (e1, e2) -> Integer.compare(e1.index, e2.index));
+		List<IFigure> figures = new ArrayList<>(candidates.size());
+		candidates.forEach(entry -> figures.add(entry.figure));
+		return figures;
+	}
+
+	/**
+	 * Recomputes the recorded index positions of all children if any of the given
+	 * entries is no longer at its recorded position.
+	 */
+	private void validateOrder(List<Entry> candidates) {
+		List<? extends IFigure> children = host.getChildren();
+		for (Entry entry : candidates) {
+			if (entry.index >= children.size() || children.get(entry.index) != entry.figure) {
+				for (int i = 0; i < children.size(); i++) {
+					Entry child = entries.get(children.get(i));
+					if (child != null) {
+						child.index = i;
+					}
+				}
+				return;
+			}
+		}
+	}
+
+	private void insert(Entry entry) {
+		IFigure child = entry.figure;
+		entry.bounds.setBounds(child.getBounds());
+		if (child instanceof Polyline polyline) {
+			int tolerance = polyline.getHitTolerance();
+			entry.bounds.expand(tolerance, tolerance);
+		}
+		entry.minColumn = getCell(entry.bounds.x);
+		entry.minRow = getCell(entry.bounds.y);
+		entry.maxColumn = getCell(entry.bounds.right() - 1);
+		entry.maxRow = getCell(entry.bounds.bottom() - 1);
+		long cellCount = (long) (entry.maxColumn - entry.minColumn + 1) * (entry.maxRow - entry.minRow + 1);
+		entry.gridded = !(child instanceof Layer) && !entry.bounds.isEmpty() && cellCount <= MAX_CELLS_PER_CHILD;
+		if (!entry.gridded) {
+			unfiltered.add(entry);
+			return;
+		}
+		for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				cells.computeIfAbsent(Long.valueOf(getKey(column, row)), key -> new ArrayList<>(4)).add(entry);
+			}
+		}
+	}
+
+	private void extract(Entry entry) {
+		if (!entry.gridded) {
+			unfiltered.remove(entry);
+			return;
+		}
+		for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				Long key = Long.valueOf(getKey(column, row));
+				List<Entry> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(entry);
+					if (cell.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	private int getCell(int coordinate) {
+		return Math.floorDiv(coordinate, cellSize);
+	}
+
+	private static long getKey(int column, int row) {
+		return ((long) column << 32) | (row & 0xFFFFFFFFL);
+	}
+
+}
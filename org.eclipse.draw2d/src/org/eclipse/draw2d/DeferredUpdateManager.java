@@ -14,8 +14,11 @@ package org.eclipse.draw2d;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -49,9 +52,13 @@ public class DeferredUpdateManager extends UpdateManager {
 
 	private Rectangle damage;
 	private Map<IFigure, Rectangle> dirtyRegions = new HashMap<>();
+	private int maxDamageRegions = 1;
 
 	private GraphicsSource graphicsSource;
-	private final List<IFigure> invalidFigures = new ArrayList<>();
+	/** The invalid figures, the shallowest first. */
+	private final PriorityQueue<InvalidFigure> invalidFigures = new PriorityQueue<>();
+	private final Set<IFigure> queuedFigures = new HashSet<>();
+	private long invalidFigureSequence;
 	private IFigure root;
 	private boolean updateQueued;
 
@@ -59,6 +66,23 @@ public class DeferredUpdateManager extends UpdateManager {
 	private boolean validating;
 	private RunnableChain afterUpdate;
 
+	private long validatedFigureCount;
+	private long layoutCount;
+
+	/**
+	 * A queued invalid figure. Figures are ordered by their depth in the figure
+	 * hierarchy, and then in the order in which they were queued.
+	 */
+	private record InvalidFigure(IFigure figure, int depth, long sequence) implements Comparable<InvalidFigure> {
+		@Override
+		public int compareTo(InvalidFigure other) {
+			if (depth != other.depth) {
+				return Integer.compare(depth, other.depth);
+			}
+			return Long.compare(sequence, other.sequence);
+		}
+	}
+
 	private static class RunnableChain {
 		RunnableChain next;
 		Runnable run;
@@ -121,17 +145,81 @@ public class DeferredUpdateManager extends UpdateManager {
 
 	/**
 	 * Adds the given figure to the update queue. Invalid figures will be validated
-	 * before the damaged regions are repainted.
+	 * before the damaged regions are repainted. Figures closer to the root are
+	 * validated first, so that a figure which is contained in another queued
+	 * figure is usually valid by the time it is taken from the queue.
 	 *
 	 * @param f the invalid figure
 	 */
 	@Override
 	public synchronized void addInvalidFigure(IFigure f) {
-		if (invalidFigures.contains(f)) {
+		if (!queuedFigures.add(f)) {
 			return;
 		}
 		queueWork();
-		invalidFigures.add(f);
+		int depth = 0;
+		for (IFigure parent = f.getParent(); parent != null; parent = parent.getParent()) {
+			depth++;
+		}
+		invalidFigures.add(new InvalidFigure(f, depth, invalidFigureSequence++));
+	}
+
+	/**
+	 * Adds the given damaged rectangle to the list of disjoint damage regions. A
+	 * region which overlaps an existing one, or whose union with an existing one
+	 * is not larger than both areas together, is merged with it. If this leaves
+	 * more than {@link #getMaxDamageRegions()} regions, the two regions whose union
+	 * wastes the least area are merged until the limit is met.
+	 *
+	 * @param regions the current damage regions
+	 * @param rect    the damaged rectangle to add
+	 */
+	private void addDamageRegion(List<Rectangle> regions, Rectangle rect) {
+		Rectangle region = new Rectangle(rect);
+		int i = 0;
+		while (i < regions.size()) {
+			Rectangle existing = regions.get(i);
+			if (existing.intersects(region) || getMergeCost(existing, region) <= 0) {
+				region.union(existing);
+				regions.remove(i);
+				// the grown region may now overlap regions which were already checked
+				i = 0;
+			} else {
+				i++;
+			}
+		}
+		regions.add(region);
+
+		while (regions.size() > maxDamageRegions) {
+			int first = 0;
+			int second = 1;
+			long cheapest = Long.MAX_VALUE;
+			for (int a = 0; a < regions.size() - 1; a++) {
+				for (int b = a + 1; b < regions.size(); b++) {
+					long cost = getMergeCost(regions.get(a), regions.get(b));
+					if (cost < cheapest) {
+						cheapest = cost;
+						first = a;
+						second = b;
+					}
+				}
+			}
+			Rectangle merged = regions.remove(second);
+			addDamageRegion(regions, merged.union(regions.remove(first)));
+		}
+	}
+
+	/**
+	 * Returns the area which would be painted in addition if the two given
+	 * rectangles were painted as their union instead of separately.
+	 */
+	private static long getMergeCost(Rectangle r1, Rectangle r2) {
+		Rectangle union = r1.getUnion(r2);
+		return getArea(union) - getArea(r1) - getArea(r2);
+	}
+
+	private static long getArea(Rectangle r) {
+		return (long) r.width * r.height;
 	}
 
 	/**
@@ -147,6 +235,18 @@ public class DeferredUpdateManager extends UpdateManager {
 		return graphicsSource.getGraphics(region);
 	}
 
+	/**
+	 * Returns the maximum number of disjoint regions which are repainted
+	 * separately during a single update.
+	 *
+	 * @return the maximum number of damage regions
+	 * @see #setMaxDamageRegions(int)
+	 * @since 3.15
+	 */
+	public int getMaxDamageRegions() {
+		return maxDamageRegions;
+	}
+
 	/**
 	 * @since 3.10
 	 */
@@ -215,17 +315,29 @@ public class DeferredUpdateManager extends UpdateManager {
 		if (invalidFigures.isEmpty() || validating) {
 			return;
 		}
+		InvalidFigure entry = null;
 		try {
-			IFigure fig;
 			validating = true;
 			fireValidating();
-			for (int i = 0; i < invalidFigures.size(); i++) {
-				fig = invalidFigures.get(i);
-				invalidFigures.set(i, null);
-				fig.validate();
+			while ((entry = invalidFigures.poll()) != null) {
+				IFigure figure = entry.figure();
+				queuedFigures.remove(figure);
+				validatedFigureCount++;
+				figure.validate();
 			}
 		} finally {
+			// after an exception, the figure being validated and the figures left in
+			// the queue are dropped
+			if (entry != null && entry.figure() instanceof Figure figure) {
+				figure.cancelRevalidation();
+			}
+			invalidFigures.forEach(dropped -> {
+				if (dropped.figure() instanceof Figure figure) {
+					figure.cancelRevalidation();
+				}
+			});
 			invalidFigures.clear();
+			queuedFigures.clear();
 			validating = false;
 		}
 	}
@@ -279,9 +391,13 @@ public class DeferredUpdateManager extends UpdateManager {
 	/**
 	 * Repaints the dirty regions on the update queue and calls
 	 * {@link UpdateManager#firePainting(Rectangle, Map)}, unless there are no dirty
-	 * regions.
+	 * regions. If more than one damage region is allowed, each disjoint region is
+	 * painted separately.
+	 *
+	 * @see #setMaxDamageRegions(int)
 	 */
 	protected void repairDamage() {
+		List<Rectangle> regions = new ArrayList<>();
 		dirtyRegions.forEach((figure, contribution) -> {
 			IFigure walker = figure.getParent();
 			// A figure can't paint beyond its own bounds
@@ -296,6 +412,9 @@ public class DeferredUpdateManager extends UpdateManager {
 			} else {
 				damage.union(contribution);
 			}
+			if (maxDamageRegions > 1 && !contribution.isEmpty()) {
+				addDamageRegion(regions, contribution);
+			}
 		});
 
 		if (!dirtyRegions.isEmpty()) {
@@ -305,15 +424,27 @@ public class DeferredUpdateManager extends UpdateManager {
 		}
 
 		if (damage != null && !damage.isEmpty()) {
-			Graphics graphics = getGraphics(damage);
-			if (graphics != null) {
-				root.paint(graphics);
-				releaseGraphics(graphics);
+			if (regions.size() > 1) {
+				for (Rectangle region : regions) {
+					// releaseGraphics() flushes the current damage
+					damage = region;
+					repairRegion(region);
+				}
+			} else {
+				repairRegion(damage);
 			}
 		}
 		damage = null;
 	}
 
+	private void repairRegion(Rectangle region) {
+		Graphics graphics = getGraphics(region);
+		if (graphics != null) {
+			root.paint(graphics);
+			releaseGraphics(graphics);
+		}
+	}
+
 	/**
 	 * Adds the given runnable and queues an update if an update is not under
 	 * progress.
@@ -328,6 +459,74 @@ public class DeferredUpdateManager extends UpdateManager {
 		}
 	}
 
+	/**
+	 * Returns the number of queued figures which this update manager has
+	 * validated since it was created or its counters were reset. Each figure is
+	 * counted once per validation, no matter how often it was added to the queue.
+	 *
+	 * @return the number of validated figures
+	 * @see #getLayoutCount()
+	 * @see #resetCounters()
+	 * @since 3.15
+	 */
+	public synchronized long getValidatedFigureCount() {
+		return validatedFigureCount;
+	}
+
+	/**
+	 * Returns the number of figures which have been laid out while this update
+	 * manager validated the queued figures and their descendants, since it was
+	 * created or its counters were reset.
+	 *
+	 * @return the number of layouts
+	 * @see #getValidatedFigureCount()
+	 * @see #resetCounters()
+	 * @since 3.15
+	 */
+	public synchronized long getLayoutCount() {
+		return layoutCount;
+	}
+
+	/**
+	 * Resets the counters of validated figures and layouts to 0.
+	 *
+	 * @since 3.15
+	 */
+	public synchronized void resetCounters() {
+		validatedFigureCount = 0;
+		layoutCount = 0;
+	}
+
+	/**
+	 * Counts a layout of a figure, if it is laid out while this update manager
+	 * validates the queued figures.
+	 */
+	synchronized void layoutPerformed() {
+		if (validating) {
+			layoutCount++;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of disjoint regions which are repainted separately
+	 * during a single update. By default this is <code>1</code>, i.e. all dirty
+	 * regions are unioned into a single damaged rectangle. With a larger value,
+	 * distant dirty regions are kept apart and each one is painted with its own
+	 * clip, so that small changes in opposite corners of a large canvas don't
+	 * cause the whole canvas to be repainted. Regions are only merged when
+	 * painting their union is not more expensive than painting them separately,
+	 * or when the limit would be exceeded otherwise.
+	 *
+	 * @param max the maximum number of damage regions, must be at least 1
+	 * @since 3.15
+	 */
+	public void setMaxDamageRegions(int max) {
+		if (max < 1) {
+			throw new IllegalArgumentException("The maximum number of damage regions must be at least 1"); //$NON-NLS-1$
+		}
+		maxDamageRegions = max;
+	}
+
 	/**
 	 * Sets the graphics source.
 	 *
@@ -12,15 +12,35 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * This class is intended for internal use only. TODO: If this is for internal
  * use only, we should move it to the internal package.
+ *
+ * The listeners are kept in one bucket per type, so that listeners of one type
+ * are found without looking at the listeners of other types. Listeners are
+ * appended to their bucket, and removed listeners leave a gap which is
+ * reclaimed once the gaps outnumber the listeners. Large buckets additionally
+ * index their listeners by identity, so that they are removed in constant time.
+ *
+ * Iterators do not copy the listeners. An iterator returns the listeners which
+ * were registered when it was created, in the order in which they were added,
+ * except those which have been removed in the meantime. Listeners may therefore
+ * be added and removed while the listeners are notified.
  */
 public final class EventListenerList {
 
-	private volatile Object[] array;
+	/** Buckets with more listeners than this index their listeners by identity. */
+	private static final int INDEX_THRESHOLD = 16;
+
+	private Bucket[] buckets;
+	private int bucketCount;
 
 	/**
 	 * Adds a listener of type <i>c</i> to the list.
@@ -33,15 +53,17 @@ public final class EventListenerList {
 			throw new IllegalArgumentException();
 		}
 
-		int oldSize = (array == null) ? 0 : array.length;
-		Object[] newArray = new Object[oldSize + 2];
-		if (oldSize != 0) {
-			System.arraycopy(array, 0, newArray, 0, oldSize);
+		Bucket bucket = getBucket(c);
+		if (bucket == null) {
+			if (buckets == null) {
+				buckets = new Bucket[2];
+			} else if (bucketCount == buckets.length) {
+				buckets = Arrays.copyOf(buckets, 2 * bucketCount);
+			}
+			bucket = new Bucket(c);
+			buckets[bucketCount++] = bucket;
 		}
-		newArray[oldSize] = c;
-		oldSize++;
-		newArray[oldSize] = listener;
-		array = newArray;
+		bucket.add(listener);
 	}
 
 	/**
@@ -52,50 +74,8 @@ public final class EventListenerList {
 	 * @return whether this list contains a listener of type <i>c</i>
 	 */
 	public synchronized <T> boolean containsListener(Class<T> c) {
-		if (array == null) {
-			return false;
-		}
-		for (int i = 0; i < array.length; i += 2) {
-			if (array[i] == c) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	static class TypeIterator<T> implements Iterator<T> {
-		private final Object[] items;
-		private final Class<T> type;
-		private int index;
-
-		TypeIterator(Object[] items, Class<T> type) {
-			this.items = items;
-			this.type = type;
-		}
-
-		@Override
-		public T next() {
-			@SuppressWarnings("unchecked") // check is performed in hasNext
-			T result = (T) items[index + 1];
-			index += 2;
-			return result;
-		}
-
-		@Override
-		public boolean hasNext() {
-			if (items == null) {
-				return false;
-			}
-			while (index < items.length && items[index] != type) {
-				index += 2;
-			}
-			return index < items.length;
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException("Iterator removal not supported"); //$NON-NLS-1$
-		}
+		Bucket bucket = getBucket(c);
+		return bucket != null && bucket.count > 0;
 	}
 
 	/**
@@ -105,7 +85,11 @@ public final class EventListenerList {
 	 * @return an Iterator of all the listeners of type <i>c</i>
 	 */
 	public synchronized <T> Iterator<T> getListeners(final Class<T> listenerType) {
-		return new TypeIterator<>(array, listenerType);
+		Bucket bucket = getBucket(listenerType);
+		if (bucket == null || bucket.count == 0) {
+			return Collections.emptyIterator();
+		}
+		return new ListenerIterator<>(bucket.entries, bucket.size);
 	}
 
 	/**
@@ -116,7 +100,13 @@ public final class EventListenerList {
 	 * @since 3.13
 	 */
 	public synchronized <T> Iterable<T> getListenersIterable(final Class<T> listenerType) {
-		return () -> new TypeIterator<>(array, listenerType);
+		Bucket bucket = getBucket(listenerType);
+		if (bucket == null || bucket.count == 0) {
+			return Collections.emptyList();
+		}
+		Entry[] entries = bucket.entries;
+		int size = bucket.size;
+		return () -> new ListenerIterator<>(entries, size);
 	}
 
 	/**
@@ -126,28 +116,188 @@ public final class EventListenerList {
 	 * @param listener the listener
 	 */
 	public synchronized <T> void removeListener(Class<T> c, Object listener) {
-		if (array == null || array.length == 0) {
+		if (bucketCount == 0) {
 			return;
 		}
 		if (listener == null || c == null) {
 			throw new IllegalArgumentException();
 		}
 
-		int index = 0;
-		while (index < array.length) {
-			if (array[index] == c && array[index + 1] == listener) {
-				break;
+		Bucket bucket = getBucket(c);
+		if (bucket != null) {
+			bucket.remove(listener);
+		}
+	}
+
+	private Bucket getBucket(Class<?> type) {
+		for (int i = 0; i < bucketCount; i++) {
+			if (buckets[i].type == type) {
+				return buckets[i];
 			}
-			index += 2;
 		}
-		if (index == array.length) {
-			return; // listener was not found
+		return null;
+	}
+
+	/**
+	 * The listeners of one type. Removed listeners leave a <code>null</code> gap
+	 * and are marked as removed, so that iterators over an earlier array skip them
+	 * as well. The array is never shrunk in place, but replaced when the gaps are
+	 * reclaimed, so that running iterators are not disturbed.
+	 */
+	private static final class Bucket {
+
+		final Class<?> type;
+		Entry[] entries = new Entry[2];
+		/** The number of used slots, including gaps. */
+		int size;
+		/** The number of listeners. */
+		int count;
+		/** The first slot of each listener, or null for small buckets. */
+		private Map<Object, Integer> index;
+		/** The number of listeners which have been added more than once. */
+		private int duplicates;
+
+		Bucket(Class<?> type) {
+			this.type = type;
 		}
 
-		Object[] newArray = new Object[array.length - 2];
-		System.arraycopy(array, 0, newArray, 0, index);
-		System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
-		array = newArray;
+		void add(Object listener) {
+			if (size == entries.length) {
+				if (size - count > count) {
+					compact(2 * count + 1);
+				} else {
+					entries = Arrays.copyOf(entries, 2 * size);
+				}
+			}
+			if (index == null && count == INDEX_THRESHOLD) {
+				buildIndex();
+			}
+			if (index != null && index.putIfAbsent(listener, Integer.valueOf(size)) != null) {
+				duplicates++;
+			}
+			entries[size++] = new Entry(listener);
+			count++;
+		}
+
+		void remove(Object listener) {
+			int slot = indexOf(listener);
+			if (slot == -1) {
+				return; // listener was not found
+			}
+			entries[slot].removed = true;
+			entries[slot] = null;
+			count--;
+			if (index != null) {
+				index.remove(listener);
+				if (duplicates > 0) {
+					// the listener may have been added again
+					for (int i = slot + 1; i < size; i++) {
+						if (entries[i] != null && entries[i].listener == listener) {
+							index.put(listener, Integer.valueOf(i));
+							duplicates--;
+							break;
+						}
+					}
+				}
+			}
+			if (count == 0) {
+				entries = new Entry[2];
+				size = 0;
+				index = null;
+				duplicates = 0;
+			} else if (size - count > Math.max(count, INDEX_THRESHOLD)) {
+				compact(2 * count);
+			}
+		}
+
+		private int indexOf(Object listener) {
+			if (index != null) {
+				Integer slot = index.get(listener);
+				return slot != null ? slot.intValue() : -1;
+			}
+			for (int i = 0; i < size; i++) {
+				if (entries[i] != null && entries[i].listener == listener) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Copies the entries without gaps into a new array of the given capacity.
+		 */
+		private void compact(int capacity) {
+			Entry[] compacted = new Entry[Math.max(2, capacity)];
+			int newSize = 0;
+			for (int i = 0; i < size; i++) {
+				if (entries[i] != null) {
+					compacted[newSize++] = entries[i];
+				}
+			}
+			entries = compacted;
+			size = newSize;
+			if (index != null) {
+				buildIndex();
+			}
+		}
+
+		private void buildIndex() {
+			index = new IdentityHashMap<>(2 * count);
+			duplicates = 0;
+			for (int i = 0; i < size; i++) {
+				if (entries[i] != null && index.putIfAbsent(entries[i].listener, Integer.valueOf(i)) != null) {
+					duplicates++;
+				}
+			}
+		}
+
+	}
+
+	private static final class Entry {
+		final Object listener;
+		boolean removed;
+
+		Entry(Object listener) {
+			this.listener = listener;
+		}
+	}
+
+	/**
+	 * Iterates over the used slots of a bucket as they were when the iterator was
+	 * created, skipping the listeners which have been removed since.
+	 */
+	private static final class ListenerIterator<T> implements Iterator<T> {
+		private final Entry[] entries;
+		private final int size;
+		private int index;
+
+		ListenerIterator(Entry[] entries, int size) {
+			this.entries = entries;
+			this.size = size;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			@SuppressWarnings("unchecked") // only listeners of type T are in the bucket
+			T result = (T) entries[index++].listener;
+			return result;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (index < size && (entries[index] == null || entries[index].removed)) {
+				index++;
+			}
+			return index < size;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Iterator removal not supported"); //$NON-NLS-1$
+		}
 	}
 
 }
@@ -51,6 +51,12 @@ public class Figure implements IFigure {
 	private static final int FLAG_FOCUS_TRAVERSABLE = 1 << 5;
 
 	static final int FLAG_REALIZED = 1 << 31;
+	/**
+	 * Set when the figure has been revalidated since it was last validated. Its
+	 * ancestors up to the validation root have then been invalidated as well, and
+	 * the validation root has been queued.
+	 */
+	static final int FLAG_REVALIDATED = 1 << 30;
 
 	/**
 	 * The largest flag defined in this class. If subclasses define flags, they
@@ -1258,28 +1264,35 @@ public class Figure implements IFigure {
 	 * @since 2.0
 	 */
 	protected void paintChildren(Graphics graphics) {
+		// the clip is restored after each child, so it only needs to be queried once
+		Rectangle clip = graphics.getClip(new Rectangle());
 		for (IFigure child : children) {
 			if (child.isVisible()) {
-				// determine clipping areas for child
-				Rectangle[] clipping = null;
 				if (clippingStrategy != null) {
-					clipping = clippingStrategy.getClip(child);
+					// child may now paint inside the clipping areas
+					for (Rectangle element : clippingStrategy.getClip(child)) {
+						paintChild(graphics, child, element, clip);
+					}
 				} else {
 					// default clipping behaviour is to clip at bounds
-					clipping = new Rectangle[] { child.getBounds() };
-				}
-				// child may now paint inside the clipping areas
-				for (Rectangle element : clipping) {
-					if (element.intersects(graphics.getClip(Rectangle.SINGLETON))) {
-						graphics.clipRect(element);
-						child.paint(graphics);
-						graphics.restoreState();
-					}
+					paintChild(graphics, child, child.getBounds(), clip);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Paints the given child clipped to the given area, if that area intersects
+	 * the current clip of the graphics.
+	 */
+	static void paintChild(Graphics graphics, IFigure child, Rectangle area, Rectangle clip) {
+		if (area.intersects(clip)) {
+			graphics.clipRect(area);
+			child.paint(graphics);
+			graphics.restoreState();
+		}
+	}
+
 	/**
 	 * Paints this Figure's client area. The client area is typically defined as the
 	 * anything inside the Figure's {@link Border} or {@link Insets}, and by default
@@ -1569,7 +1582,13 @@ public class Figure implements IFigure {
 	 */
 	@Override
 	public void revalidate() {
+		boolean queued = getFlag(FLAG_REVALIDATED) && !isValid();
 		invalidate();
+		if (queued) {
+			// the ancestors are still invalid since the last revalidation
+			return;
+		}
+		setFlag(FLAG_REVALIDATED, true);
 		if (getParent() == null || isValidationRoot()) {
 			getUpdateManager().addInvalidFigure(this);
 		} else {
@@ -1884,6 +1903,7 @@ public class Figure implements IFigure {
 	public void setParent(IFigure p) {
 		IFigure oldParent = parent;
 		parent = p;
+		setFlag(FLAG_REVALIDATED, false);
 		firePropertyChange("parent", oldParent, p);//$NON-NLS-1$
 	}
 
@@ -1964,6 +1984,9 @@ public class Figure implements IFigure {
 	 */
 	public void setValid(boolean value) {
 		setFlag(FLAG_VALID, value);
+		if (value) {
+			setFlag(FLAG_REVALIDATED, false);
+		}
 	}
 
 	/**
@@ -2058,9 +2081,27 @@ public class Figure implements IFigure {
 		}
 		setValid(true);
 		layout();
+		if (getUpdateManager() instanceof DeferredUpdateManager manager) {
+			manager.layoutPerformed();
+		}
 		children.forEach(IFigure::validate);
 	}
 
+	/**
+	 * Forgets that this figure and its descendants have been revalidated, because
+	 * their validation root has been dropped from the validation queue, or its
+	 * validation has failed. As a failed validation may have cleared the flag of
+	 * some ancestors of a revalidated figure, all the descendants are visited.
+	 */
+	void cancelRevalidation() {
+		setFlag(FLAG_REVALIDATED, false);
+		for (IFigure child : children) {
+			if (child instanceof Figure figure) {
+				figure.cancelRevalidation();
+			}
+		}
+	}
+
 	/**
 	 * A search which does not filter any figures. since 3.0
 	 */
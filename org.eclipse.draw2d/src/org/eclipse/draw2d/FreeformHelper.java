@@ -12,20 +12,63 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.draw2d.geometry.Insets;
 import org.eclipse.draw2d.geometry.Rectangle;
 
+/**
+ * Computes and caches the freeform extent of a {@link FreeformFigure}.
+ * <P>
+ * The union of the children's extents is maintained incrementally: a child
+ * which grows or moves outside of the union extends it, a child which moves
+ * within the union leaves it unchanged. The union is only recomputed from all
+ * children once a child which touched its boundary moves inward or is removed.
+ * Listeners and the parent are only notified if the union may have changed,
+ * and at most once until the host is validated again, i.e. once per update.
+ */
 class FreeformHelper implements FreeformListener {
 
 	class ChildTracker implements FigureListener {
 		@Override
 		public void figureMoved(IFigure source) {
-			invalidate();
+			Rectangle previous = childBounds.get(source);
+			Rectangle bounds = source.getBounds();
+			if (previous == null) {
+				childrenExtent = null;
+				invalidate();
+			} else if (updateChildrenExtent(source, previous, bounds)) {
+				previous.setBounds(bounds);
+				invalidate();
+			} else {
+				previous.setBounds(bounds);
+			}
 		}
 	}
 
 	private final FreeformFigure host;
 	private Rectangle freeformExtent;
+	/**
+	 * The union of the children's extents in the host's coordinates, or
+	 * <code>null</code> if it must be recomputed.
+	 */
+	private Rectangle childrenExtent;
+	/**
+	 * The last known bounds of the children which are not freeform figures.
+	 */
+	private final Map<IFigure, Rectangle> childBounds = new HashMap<>();
+	/**
+	 * Whether a change has been notified since the host was last validated.
+	 */
+	private boolean changeNotified;
+	/**
+	 * The number of children which are freeform figures. As they do not notify
+	 * further changes until they are validated either, the union is not cached
+	 * while a change is pending.
+	 */
+	private int freeformChildren;
 	private final FigureListener figureListener = new ChildTracker();
 
 	FreeformHelper(FreeformFigure host) {
@@ -36,40 +79,117 @@ class FreeformHelper implements FreeformListener {
 		if (freeformExtent != null) {
 			return freeformExtent;
 		}
+		if (childrenExtent == null) {
+			childrenExtent = computeChildrenExtent();
+		}
+		Insets insets = host.getInsets();
+		if (childrenExtent == null) {
+			freeformExtent = new Rectangle(0, 0, insets.getWidth(), insets.getHeight());
+		} else {
+			freeformExtent = childrenExtent.getCopy();
+			host.translateToParent(freeformExtent);
+			freeformExtent.expand(insets);
+		}
+		Rectangle extent = freeformExtent;
+		if (changeNotified && freeformChildren > 0) {
+			childrenExtent = null;
+			freeformExtent = null;
+		}
+		return extent;
+	}
+
+	private Rectangle computeChildrenExtent() {
+		Rectangle extent = null;
 		Rectangle r;
 		for (IFigure child : host.getChildren()) {
 			if (child instanceof FreeformFigure freeFormFig) {
 				r = freeFormFig.getFreeformExtent();
 			} else {
 				r = child.getBounds();
+				Rectangle previous = childBounds.get(child);
+				if (previous != null) {
+					previous.setBounds(r);
+				}
 			}
-			if (freeformExtent == null) {
-				freeformExtent = r.getCopy();
+			if (extent == null) {
+				extent = r.getCopy();
 			} else {
-				freeformExtent.union(r);
+				extent.union(r);
 			}
 		}
-		Insets insets = host.getInsets();
-		if (freeformExtent == null) {
-			freeformExtent = new Rectangle(0, 0, insets.getWidth(), insets.getHeight());
-		} else {
-			host.translateToParent(freeformExtent);
-			freeformExtent.expand(insets);
+		return extent;
+	}
+
+	/**
+	 * Updates the union of the children's extents after the bounds of the given
+	 * child changed from <code>previous</code> to <code>bounds</code>. Either may
+	 * be <code>null</code> if the child was added or is being removed. The union
+	 * is discarded if it cannot be updated without visiting all children.
+	 *
+	 * @return whether the union may have changed
+	 */
+	private boolean updateChildrenExtent(IFigure child, Rectangle previous, Rectangle bounds) {
+		if (childrenExtent == null) {
+			return true;
+		}
+		// the first child contributes its location even if it is empty
+		List<? extends IFigure> children = host.getChildren();
+		if (children.isEmpty() || children.get(0) == child && (previous == null || bounds == null
+				|| previous.isEmpty() || bounds.isEmpty())) {
+			childrenExtent = null;
+			return true;
+		}
+		if (previous != null && !previous.isEmpty() && leavesBoundary(previous, bounds, childrenExtent)) {
+			childrenExtent = null;
+			return true;
+		}
+		if (bounds != null && !bounds.isEmpty() && !childrenExtent.contains(bounds)) {
+			childrenExtent.union(bounds);
+			return true;
 		}
-		return freeformExtent;
+		return false;
+	}
+
+	/**
+	 * Returns whether a child no longer reaches an edge of the given extent which
+	 * its previous bounds touched, so that the extent may shrink.
+	 */
+	private static boolean leavesBoundary(Rectangle previous, Rectangle bounds, Rectangle extent) {
+		if (bounds == null || bounds.isEmpty()) {
+			return previous.x == extent.x || previous.y == extent.y || previous.right() == extent.right()
+					|| previous.bottom() == extent.bottom();
+		}
+		return previous.x == extent.x && bounds.x > extent.x || previous.y == extent.y && bounds.y > extent.y
+				|| previous.right() == extent.right() && bounds.right() < extent.right()
+				|| previous.bottom() == extent.bottom() && bounds.bottom() < extent.bottom();
 	}
 
 	public void hookChild(IFigure child) {
-		invalidate();
+		boolean changed;
 		if (child instanceof FreeformFigure freeFormFig) {
+			childrenExtent = null;
+			changed = true;
+			freeformChildren++;
 			freeFormFig.addFreeformListener(this);
 		} else {
+			Rectangle bounds = child.getBounds().getCopy();
+			childBounds.put(child, bounds);
+			changed = updateChildrenExtent(child, null, bounds);
 			child.addFigureListener(figureListener);
 		}
+		if (changed) {
+			invalidate();
+		}
 	}
 
 	void invalidate() {
 		freeformExtent = null;
+		if (changeNotified) {
+			// the host is validated by the update which has already been requested,
+			// which includes changes made by the listeners while they are notified
+			return;
+		}
+		changeNotified = true;
 		host.fireExtentChanged();
 		if (host.getParent() != null) {
 			host.getParent().revalidate();
@@ -78,10 +198,18 @@ class FreeformHelper implements FreeformListener {
 		}
 	}
 
+	/**
+	 * Called when the host is validated. The next change is notified again.
+	 */
+	void hostValidated() {
+		changeNotified = false;
+	}
+
 	@Override
 	public void notifyFreeformExtentChanged() {
 		// A childs freeform extent has changed, therefore this extent must be
 		// recalculated
+		childrenExtent = null;
 		invalidate();
 	}
 
@@ -97,12 +225,23 @@ class FreeformHelper implements FreeformListener {
 	}
 
 	public void unhookChild(IFigure child) {
-		invalidate();
+		boolean changed;
 		if (child instanceof FreeformFigure freeFormFig) {
+			childrenExtent = null;
+			changed = true;
+			freeformChildren--;
 			freeFormFig.removeFreeformListener(this);
 		} else {
+			Rectangle previous = childBounds.remove(child);
+			if (previous == null) {
+				childrenExtent = null;
+			}
+			changed = updateChildrenExtent(child, previous, null);
 			child.removeFigureListener(figureListener);
 		}
+		if (changed) {
+			invalidate();
+		}
 	}
 
 }
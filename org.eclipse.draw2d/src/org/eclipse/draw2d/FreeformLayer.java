@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.draw2d;
 
+import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 
 /**
@@ -20,6 +21,7 @@ import org.eclipse.draw2d.geometry.Rectangle;
 public class FreeformLayer extends Layer implements FreeformFigure {
 
 	private FreeformHelper helper = new FreeformHelper(this);
+	private ChildSpatialIndex spatialIndex;
 
 	/**
 	 * @see IFigure#add(IFigure, Object, int)
@@ -28,6 +30,9 @@ public class FreeformLayer extends Layer implements FreeformFigure {
 	public void add(IFigure child, Object constraint, int index) {
 		super.add(child, constraint, index);
 		helper.hookChild(child);
+		if (spatialIndex != null) {
+			spatialIndex.add(child, index == -1 ? getChildren().size() - 1 : index);
+		}
 	}
 
 	/**
@@ -38,6 +43,96 @@ public class FreeformLayer extends Layer implements FreeformFigure {
 		addListener(FreeformListener.class, listener);
 	}
 
+	/**
+	 * Overridden to only check the children near the given point if the spatial
+	 * index is enabled.
+	 *
+	 * @see Layer#containsPoint(int, int)
+	 * @see #setSpatialIndexEnabled(boolean)
+	 */
+	@Override
+	public boolean containsPoint(int x, int y) {
+		if (spatialIndex == null || isOpaque()) {
+			return super.containsPoint(x, y);
+		}
+		Point pt = Point.SINGLETON;
+		pt.setLocation(x, y);
+		translateFromParent(pt);
+		x = pt.x;
+		y = pt.y;
+		for (IFigure child : spatialIndex.getChildrenAt(x, y)) {
+			if (child.containsPoint(x, y)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Overridden to only search the children near the given point if the spatial
+	 * index is enabled.
+	 *
+	 * @see Figure#findDescendantAtExcluding(int, int, TreeSearch)
+	 * @see #setSpatialIndexEnabled(boolean)
+	 */
+	@Override
+	protected IFigure findDescendantAtExcluding(int x, int y, TreeSearch search) {
+		if (spatialIndex == null) {
+			return super.findDescendantAtExcluding(x, y, search);
+		}
+		Point pt = Point.SINGLETON;
+		pt.setLocation(x, y);
+		translateFromParent(pt);
+		x = pt.x;
+		y = pt.y;
+		if (!getClientArea(Rectangle.SINGLETON).contains(x, y)) {
+			return null;
+		}
+
+		for (IFigure fig : spatialIndex.getChildrenAt(x, y)) {
+			if (fig.isVisible()) {
+				fig = fig.findFigureAt(x, y, search);
+				if (fig != null) {
+					return fig;
+				}
+			}
+		}
+		// No descendants were found
+		return null;
+	}
+
+	/**
+	 * Overridden to only search the children near the given point if the spatial
+	 * index is enabled.
+	 *
+	 * @see Figure#findMouseEventTargetInDescendantsAt(int, int)
+	 * @see #setSpatialIndexEnabled(boolean)
+	 */
+	@Override
+	protected IFigure findMouseEventTargetInDescendantsAt(int x, int y) {
+		if (spatialIndex == null) {
+			return super.findMouseEventTargetInDescendantsAt(x, y);
+		}
+		Point pt = Point.SINGLETON;
+		pt.setLocation(x, y);
+		translateFromParent(pt);
+		x = pt.x;
+		y = pt.y;
+		if (!getClientArea(Rectangle.SINGLETON).contains(x, y)) {
+			return null;
+		}
+
+		for (IFigure fig : spatialIndex.getChildrenAt(x, y)) {
+			if (fig.isVisible() && fig.isEnabled() && fig.containsPoint(x, y)) {
+				fig = fig.findMouseEventTargetAt(x, y);
+				if (fig != null) {
+					return fig;
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * @see FreeformFigure#fireExtentChanged()
 	 */
@@ -55,6 +150,18 @@ public class FreeformLayer extends Layer implements FreeformFigure {
 	protected void fireMoved() {
 	}
 
+	/**
+	 * Overridden to notify the next change of the freeform extent, once the
+	 * changes since the last validation have been validated.
+	 *
+	 * @see IFigure#validate()
+	 */
+	@Override
+	public void validate() {
+		helper.hostValidated();
+		super.validate();
+	}
+
 	/**
 	 * @see FreeformFigure#getFreeformExtent()
 	 */
@@ -63,6 +170,39 @@ public class FreeformLayer extends Layer implements FreeformFigure {
 		return helper.getFreeformExtent();
 	}
 
+	/**
+	 * Returns whether the children of this layer are tracked in a spatial index.
+	 *
+	 * @return <code>true</code> if the spatial index is enabled
+	 * @see #setSpatialIndexEnabled(boolean)
+	 * @since 3.15
+	 */
+	public boolean isSpatialIndexEnabled() {
+		return spatialIndex != null;
+	}
+
+	/**
+	 * Overridden to only visit the children which intersect the current clip if
+	 * the spatial index is enabled and no {@link IClippingStrategy} is set.
+	 * Children are still painted in z-order.
+	 *
+	 * @see Figure#paintChildren(Graphics)
+	 * @see #setSpatialIndexEnabled(boolean)
+	 */
+	@Override
+	protected void paintChildren(Graphics graphics) {
+		if (spatialIndex == null || getClippingStrategy() != null) {
+			super.paintChildren(graphics);
+			return;
+		}
+		Rectangle clip = graphics.getClip(new Rectangle());
+		for (IFigure child : spatialIndex.getChildrenIn(clip)) {
+			if (child.isVisible()) {
+				paintChild(graphics, child, child.getBounds(), clip);
+			}
+		}
+	}
+
 	/**
 	 * @see Figure#primTranslate(int, int)
 	 */
@@ -72,11 +212,27 @@ public class FreeformLayer extends Layer implements FreeformFigure {
 		bounds.y += dy;
 	}
 
+	/**
+	 * Updates the spatial index for a child whose bounds have changed without a
+	 * {@link FigureListener#figureMoved(IFigure) figureMoved} notification, as the
+	 * bounds of a {@link Polyline} do when its points change.
+	 *
+	 * @param child the child
+	 */
+	void childBoundsChanged(IFigure child) {
+		if (spatialIndex != null) {
+			spatialIndex.figureMoved(child);
+		}
+	}
+
 	/**
 	 * @see IFigure#remove(IFigure)
 	 */
 	@Override
 	public void remove(IFigure child) {
+		if (spatialIndex != null) {
+			spatialIndex.remove(child);
+		}
 		helper.unhookChild(child);
 		super.remove(child);
 	}
@@ -97,4 +253,35 @@ public class FreeformLayer extends Layer implements FreeformFigure {
 		helper.setFreeformBounds(bounds);
 	}
 
+	/**
+	 * Enables or disables a spatial index over the bounds of this layer's
+	 * children. When enabled, hit-testing only visits the children whose bounds
+	 * are near the requested location and painting only visits the children
+	 * which intersect the clip, instead of all children. This pays off for layers
+	 * with many children. The z-order and the {@link TreeSearch} semantics are
+	 * the same as without the index.
+	 * <P>
+	 * The index is kept up to date by listening to the children's
+	 * {@link FigureListener#figureMoved(IFigure) figureMoved} notification. It
+	 * should therefore only be enabled if the children fire this notification
+	 * whenever their bounds change and if they only contain points within their
+	 * bounds (the tolerance of {@link Polyline Polylines} and children which are
+	 * {@link Layer Layers} are taken into account). The bounds of a
+	 * {@link Polyline} are tracked when its points change, too.
+	 *
+	 * @param enabled <code>true</code> to enable the spatial index
+	 * @since 3.15
+	 */
+	public void setSpatialIndexEnabled(boolean enabled) {
+		if (enabled == isSpatialIndexEnabled()) {
+			return;
+		}
+		if (enabled) {
+			spatialIndex = new ChildSpatialIndex(this, ChildSpatialIndex.DEFAULT_CELL_SIZE);
+		} else {
+			spatialIndex.dispose();
+			spatialIndex = null;
+		}
+	}
+
 }
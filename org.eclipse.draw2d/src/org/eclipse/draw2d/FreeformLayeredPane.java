@@ -71,6 +71,18 @@ public class FreeformLayeredPane extends LayeredPane implements FreeformFigure {
 		return helper;
 	}
 
+	/**
+	 * Overridden to notify the next change of the freeform extent, once the
+	 * changes since the last validation have been validated.
+	 *
+	 * @see IFigure#validate()
+	 */
+	@Override
+	public void validate() {
+		helper.hostValidated();
+		super.validate();
+	}
+
 	/**
 	 * @see FreeformFigure#getFreeformExtent()
 	 */
@@ -60,6 +60,8 @@ public class LightweightSystem {
 	private IFigure root;
 	private EventDispatcher dispatcher;
 	private UpdateManager manager = new DeferredUpdateManager();
+	private GraphicsSource graphicsSource;
+	private final AnchorTracker anchorTracker = new AnchorTracker(this);
 	private int ignoreResize;
 	protected boolean disabled;
 
@@ -148,6 +150,20 @@ public class LightweightSystem {
 		return dispatcher;
 	}
 
+	/**
+	 * Returns the graphics source which this LightweightSystem has created for its
+	 * control, or <code>null</code> if it has no control. Unless the control is
+	 * {@link SWT#DOUBLE_BUFFERED double buffered}, this is a
+	 * {@link BufferedGraphicsSource}, whose buffer can be pooled and whose image
+	 * allocations can be counted.
+	 *
+	 * @return the graphics source or <code>null</code>
+	 * @since 3.15
+	 */
+	public GraphicsSource getGraphicsSource() {
+		return graphicsSource;
+	}
+
 	/**
 	 * Returns this LightweightSystem's root figure.
 	 *
@@ -252,10 +268,11 @@ public class LightweightSystem {
 		}
 		canvas = c;
 		if ((c.getStyle() & SWT.DOUBLE_BUFFERED) != 0) {
-			getUpdateManager().setGraphicsSource(new NativeGraphicsSource(canvas));
+			graphicsSource = new NativeGraphicsSource(canvas);
 		} else {
-			getUpdateManager().setGraphicsSource(new BufferedGraphicsSource(canvas));
+			graphicsSource = new BufferedGraphicsSource(canvas);
 		}
+		getUpdateManager().setGraphicsSource(graphicsSource);
 		getEventDispatcher().setControl(c);
 		addListeners();
 
@@ -355,6 +372,22 @@ public class LightweightSystem {
 			return LightweightSystem.this.getUpdateManager();
 		}
 
+		AnchorTracker getAnchorTracker() {
+			return anchorTracker;
+		}
+
+		/**
+		 * Notifies the anchors which have moved since the last validation, before
+		 * validating this figure.
+		 *
+		 * @see IFigure#validate()
+		 */
+		@Override
+		public void validate() {
+			anchorTracker.flush();
+			super.validate();
+		}
+
 		/** @see IFigure#internalGetEventDispatcher() */
 		@Override
 		public EventDispatcher internalGetEventDispatcher() {
@@ -43,7 +43,7 @@ public class Polyline extends AbstractPointListShape {
 	 */
 	@Override
 	public boolean containsPoint(int x, int y) {
-		int tolerance = (int) Math.max(getLineWidthFloat() / 2.0f, this.tolerance);
+		int tolerance = getHitTolerance();
 		LINEBOUNDS.setBounds(getBounds());
 		LINEBOUNDS.expand(tolerance, tolerance);
 		if (!LINEBOUNDS.contains(x, y)) {
@@ -52,6 +52,14 @@ public class Polyline extends AbstractPointListShape {
 		return shapeContainsPoint(x, y) || childrenContainsPoint(x, y);
 	}
 
+	/**
+	 * Returns the distance by which points outside of the bounds may still be
+	 * contained by this polyline.
+	 */
+	int getHitTolerance() {
+		return (int) Math.max(getLineWidthFloat() / 2.0f, tolerance);
+	}
+
 	@Override
 	protected boolean shapeContainsPoint(int x, int y) {
 		return Geometry.polylineContainsPoint(points, x, y, tolerance);
@@ -109,7 +117,7 @@ public class Polyline extends AbstractPointListShape {
 	@Override
 	public void removeAllPoints() {
 		super.removeAllPoints();
-		bounds = null;
+		invalidateBounds();
 	}
 
 	/**
@@ -124,7 +132,6 @@ public class Polyline extends AbstractPointListShape {
 										// erase must occur first.
 			erase();
 		}
-		bounds = null;
 		super.setLineWidthFloat(w);
 	}
 
@@ -153,7 +160,22 @@ public class Polyline extends AbstractPointListShape {
 
 	@Override
 	public void repaint() {
-		bounds = null;
+		invalidateBounds();
 		super.repaint();
 	}
+
+	/**
+	 * Discards the cached bounds. As the bounds of a polyline follow its points
+	 * instead of being set through {@link #setBounds(Rectangle)}, the spatial
+	 * index of a parent {@link FreeformLayer} is updated here if the bounds have
+	 * changed.
+	 */
+	private void invalidateBounds() {
+		Rectangle oldBounds = bounds;
+		bounds = null;
+		if (oldBounds != null && getParent() instanceof FreeformLayer layer && layer.isSpatialIndexEnabled()
+				&& !oldBounds.equals(getBounds())) {
+			layer.childBoundsChanged(this);
+		}
+	}
 }
\ No newline at end of file
@@ -16,13 +16,13 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.swt.SWT;
-import org.eclipse.swt.graphics.Font;
-import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.LineAttributes;
 import org.eclipse.swt.printing.Printer;
 import org.eclipse.swt.widgets.Display;
 
+import org.eclipse.draw2d.internal.ZoomedFontCache;
+
 /**
  * A scalable graphics object used to print to a printer.
  *
@@ -34,6 +34,8 @@ public class PrinterGraphics extends ScaledGraphics {
 
 	Printer printer;
 
+	private ZoomedFontCache fontCache;
+
 	/**
 	 * Creates a new PrinterGraphics with Graphics g, using Printer p
 	 *
@@ -45,9 +47,16 @@ public class PrinterGraphics extends ScaledGraphics {
 		printer = p;
 	}
 
+	/**
+	 * Fonts for the printer can't be shared with the display, so they are cached
+	 * per instance and disposed with it.
+	 */
 	@Override
-	Font createFont(FontData data) {
-		return new Font(printer, data);
+	ZoomedFontCache getFontCache() {
+		if (fontCache == null) {
+			fontCache = new ZoomedFontCache(printer, ZoomedFontCache.DEFAULT_CAPACITY);
+		}
+		return fontCache;
 	}
 
 	private Image printerImage(Image image) {
@@ -73,6 +82,11 @@ public class PrinterGraphics extends ScaledGraphics {
 		}
 
 		imageCache.clear();
+
+		if (fontCache != null) {
+			fontCache.dispose();
+			fontCache = null;
+		}
 	}
 
 	/**
@@ -13,9 +13,7 @@
 package org.eclipse.draw2d;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
@@ -34,6 +32,7 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.PointList;
 import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.internal.ZoomedFontCache;
 
 /**
  * A Graphics object able to scale all operations based on the current scale
@@ -41,15 +40,6 @@ import org.eclipse.draw2d.geometry.Rectangle;
  */
 public class ScaledGraphics extends Graphics {
 
-	private static class FontHeightCache {
-		Font font;
-		int height;
-	}
-
-	static record FontKey(Font font, int height) {
-
-	}
-
 	/**
 	 * The internal state of the scaled graphics.
 	 */
@@ -143,17 +133,13 @@ public class ScaledGraphics extends Graphics {
 	}
 
 	private boolean allowText = true;
-	private final Map<FontKey, Font> fontCache = new HashMap<>();
-	private final Map<Font, FontData> fontDataCache = new HashMap<>();
 	private double fractionalX;
 	private double fractionalY;
 	private final Graphics graphics;
-	private final FontHeightCache localCache = new FontHeightCache();
 	private Font localFont;
 	private float localLineWidth;
 	private final List<State> stack = new ArrayList<>();
 	private int stackPointer = 0;
-	private final FontHeightCache targetCache = new FontHeightCache();
 
 	double zoom = 1.0;
 
@@ -174,9 +160,13 @@ public class ScaledGraphics extends Graphics {
 		graphics.clipRect(zoomClipRect(r));
 	}
 
+	/**
+	 * Returns the cache holding the zoomed fonts. The fonts are shared across
+	 * instances and therefore not disposed with this graphics.
+	 */
 	@SuppressWarnings("static-method")
-	Font createFont(FontData data) {
-		return new Font(Display.getCurrent(), data);
+	ZoomedFontCache getFontCache() {
+		return ZoomedFontCache.getCache(Display.getCurrent());
 	}
 
 	/**
@@ -227,11 +217,6 @@ public class ScaledGraphics extends Graphics {
 		while (stackPointer > 0) {
 			popState();
 		}
-
-		for (Font font : fontCache.values()) {
-			font.dispose();
-		}
-
 	}
 
 	/** @see Graphics#drawArc(int, int, int, int, int, int) */
@@ -492,23 +477,6 @@ public class ScaledGraphics extends Graphics {
 		return graphics.getBackgroundColor();
 	}
 
-	Font getCachedFont(FontKey key) {
-		Font font = fontCache.get(key);
-		if (font != null) {
-			return font;
-		}
-		key = new FontKey(key.font, key.height);
-		FontData data = key.font.getFontData()[0];
-		data.setHeight(key.height);
-		Font zoomedFont = createFont(data);
-		fontCache.put(key, zoomedFont);
-		return zoomedFont;
-	}
-
-	FontData getCachedFontData(Font f) {
-		return fontDataCache.computeIfAbsent(f, font -> font.getFontData()[0]);
-	}
-
 	/** @see Graphics#getClip(Rectangle) */
 	@Override
 	public Rectangle getClip(Rectangle rect) {
@@ -932,10 +900,11 @@ public class ScaledGraphics extends Graphics {
 			Font localFont = getLocalFont();
 			f = localFont != null ? localFont : Display.getCurrent().getSystemFont();
 		}
-		FontData data = getCachedFontData(f);
+		ZoomedFontCache cache = getFontCache();
+		FontData data = cache.getFontData(f);
 		int zoomedFontHeight = zoomFontHeight(data.getHeight());
 		allowText = zoomedFontHeight > 0;
-		return getCachedFont(new FontKey(f, zoomedFontHeight));
+		return cache.getFont(f, zoomedFontHeight);
 	}
 
 	int zoomFontHeight(int height) {
@@ -1042,18 +1011,10 @@ public class ScaledGraphics extends Graphics {
 	}
 
 	private Point zoomTextPoint(int x, int y) {
-		if (localCache.font != localFont) {
-			// Font is different, re-calculate its height
-			FontMetrics metric = FigureUtilities.getFontMetrics(localFont);
-			localCache.height = metric.getHeight() - metric.getDescent();
-			localCache.font = localFont;
-		}
-		if (targetCache.font != graphics.getFont()) {
-			FontMetrics metric = graphics.getFontMetrics();
-			targetCache.font = graphics.getFont();
-			targetCache.height = metric.getHeight() - metric.getDescent();
-		}
+		ZoomedFontCache cache = getFontCache();
+		int localHeight = cache.getBaseline(localFont, () -> FigureUtilities.getFontMetrics(localFont));
+		int targetHeight = cache.getBaseline(graphics.getFont(), graphics::getFontMetrics);
 		return new Point(((int) (Math.floor((x * zoom) + fractionalX))),
-				(int) (Math.floor((y + localCache.height - 1) * zoom - targetCache.height + 1 + fractionalY)));
+				(int) (Math.floor((y + localHeight - 1) * zoom - targetHeight + 1 + fractionalY)));
 	}
 }
\ No newline at end of file
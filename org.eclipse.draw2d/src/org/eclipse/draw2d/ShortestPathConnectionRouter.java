@@ -146,6 +146,42 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 		return algorithm.getSpacing();
 	}
 
+	/**
+	 * Returns the number of connections rerouted by the last routing. Unless the
+	 * router is {@link #isIncremental() incremental}, this is the number of all
+	 * connections.
+	 *
+	 * @return the number of rerouted connections
+	 * @since 3.15
+	 */
+	public int getReroutedConnectionCount() {
+		return algorithm.getReroutedPaths().size();
+	}
+
+	/**
+	 * Returns whether only the connections affected by moved figures or changed
+	 * connections are rerouted.
+	 *
+	 * @return <code>true</code> if connections are rerouted incrementally
+	 * @see #setIncremental(boolean)
+	 * @since 3.15
+	 */
+	public boolean isIncremental() {
+		return algorithm.isIncremental();
+	}
+
+	/**
+	 * Returns whether the routes of several invalid connections are searched in
+	 * parallel.
+	 *
+	 * @return <code>true</code> if routes are searched in parallel
+	 * @see #setParallel(boolean)
+	 * @since 3.15
+	 */
+	public boolean isParallel() {
+		return algorithm.isParallel();
+	}
+
 	/**
 	 * @see ConnectionRouter#invalidate(Connection)
 	 */
@@ -267,7 +303,8 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 			ignoreInvalidate = true;
 			processStaleConnections();
 			isDirty = false;
-			for (Path path : algorithm.solve()) {
+			algorithm.solve();
+			for (Path path : algorithm.getReroutedPaths()) {
 				Connection current = (Connection) path.data;
 				current.revalidate();
 
@@ -332,6 +369,32 @@ public final class ShortestPathConnectionRouter extends AbstractRouter {
 		algorithm.setSpacing(spacing);
 	}
 
+	/**
+	 * Sets whether only the connections affected by moved figures or changed
+	 * connections are rerouted. All other connections keep their points and are
+	 * not revalidated. The default value is <code>false</code>.
+	 *
+	 * @param incremental <code>true</code> to reroute connections incrementally
+	 * @see ShortestPathRouter#setIncremental(boolean)
+	 * @since 3.15
+	 */
+	public void setIncremental(boolean incremental) {
+		algorithm.setIncremental(incremental);
+	}
+
+	/**
+	 * Sets whether the routes of several invalid connections are searched in
+	 * parallel. The resulting routes are the same either way. The default value is
+	 * <code>false</code>.
+	 *
+	 * @param parallel <code>true</code> to search routes in parallel
+	 * @see ShortestPathRouter#setParallel(boolean)
+	 * @since 3.15
+	 */
+	public void setParallel(boolean parallel) {
+		algorithm.setParallel(parallel);
+	}
+
 	/**
 	 * @return true if there are connections routed by this router, false otherwise
 	 * @since 3.5
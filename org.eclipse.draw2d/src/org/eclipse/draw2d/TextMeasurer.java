@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.Font;
+
+import org.eclipse.draw2d.geometry.Dimension;
+
+/**
+ * Measures text on behalf of a {@link TextUtilities}, avoiding the round-trip
+ * to the native graphics context of {@link FigureUtilities} where possible.
+ * <P>
+ * The extents of the most recently measured strings are cached per font, so
+ * that measuring the same string again returns the same result as measuring it
+ * with {@link FigureUtilities}. Optionally, the widths of strings consisting
+ * only of Latin, Greek and Cyrillic characters are computed from a table of the
+ * advance widths of the individual characters. This is considerably faster for
+ * text which is measured piece by piece, e.g. while wrapping, but ignores
+ * kerning and ligatures, so that the computed widths may deviate slightly from
+ * the native measurement. Strings containing other characters, in particular
+ * bidirectional or complex scripts, as well as tabs and line delimiters, are
+ * always measured natively.
+ * <P>
+ * Fonts are identified by identity. The measurer is not thread-safe and must
+ * only be used from the UI thread.
+ *
+ * @since 3.15
+ */
+public class TextMeasurer {
+
+	/**
+	 * The default number of strings whose extents are cached per font.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * The maximum number of fonts for which extents are cached.
+	 */
+	private static final int MAX_FONTS = 32;
+
+	/**
+	 * Characters below this code point may be measured by their advance widths.
+	 * The range covers the Latin, Greek and Cyrillic scripts.
+	 */
+	private static final int ADVANCE_TABLE_SIZE = 0x0530;
+
+	private static final int NOT_MEASURED = -1;
+
+	/**
+	 * Identity based key, as the equality of fonts depends on their handle, which
+	 * changes when a font is disposed and may be reused by a new font.
+	 */
+	private static final class Key {
+		final Font font;
+
+		Key(Font font) {
+			this.font = font;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key key && key.font == font;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(font);
+		}
+	}
+
+	private final class FontEntry {
+		final Map<String, Dimension> stringExtents = createBoundedMap(capacity);
+		final Map<String, Dimension> textExtents = createBoundedMap(capacity);
+		int[] advances;
+		int stringHeight = NOT_MEASURED;
+		int textHeight = NOT_MEASURED;
+	}
+
+	private final int capacity;
+	private final boolean useAdvances;
+	private final Map<Key, FontEntry> fonts = createBoundedMap(MAX_FONTS);
+
+	/**
+	 * Creates a new measurer which caches the extents of
+	 * {@link #DEFAULT_CAPACITY} strings per font and always measures natively.
+	 */
+	public TextMeasurer() {
+		this(DEFAULT_CAPACITY, false);
+	}
+
+	/**
+	 * Creates a new measurer.
+	 *
+	 * @param capacity    the number of strings whose extents are cached per font
+	 * @param useAdvances whether the widths of strings in simple scripts are
+	 *                    computed from the advance widths of their characters
+	 */
+	public TextMeasurer(int capacity, boolean useAdvances) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive"); //$NON-NLS-1$
+		}
+		this.capacity = capacity;
+		this.useAdvances = useAdvances;
+	}
+
+	private static <K, V> Map<K, V> createBoundedMap(int capacity) {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns whether the widths of strings in simple scripts are computed from
+	 * the advance widths of their characters.
+	 *
+	 * @return <code>true</code> if advance widths are used
+	 */
+	public boolean isUsingAdvances() {
+		return useAdvances;
+	}
+
+	/**
+	 * Returns the dimensions of the given string in the given font. No tab
+	 * expansion or carriage return processing is performed.
+	 *
+	 * @param s the string
+	 * @param f the font
+	 * @return the string's dimensions
+	 * @see FigureUtilities#getStringExtents(String, Font)
+	 */
+	public Dimension getStringExtents(String s, Font f) {
+		FontEntry entry = getEntry(f);
+		if (isSimple(s, 0, s.length())) {
+			if (entry.stringHeight == NOT_MEASURED) {
+				entry.stringHeight = FigureUtilities.getStringDimension(" ", f).y; //$NON-NLS-1$
+			}
+			return new Dimension(getAdvanceWidth(entry, s, 0, s.length(), f), entry.stringHeight);
+		}
+		Dimension extents = entry.stringExtents.get(s);
+		if (extents == null) {
+			extents = new Dimension(FigureUtilities.getStringDimension(s, f));
+			entry.stringExtents.put(s, extents);
+		}
+		return extents.getCopy();
+	}
+
+	/**
+	 * Returns the dimensions of the given text in the given font, converting
+	 * newlines and tabs appropriately.
+	 *
+	 * @param s the text
+	 * @param f the font
+	 * @return the text's dimensions
+	 * @see FigureUtilities#getTextExtents(String, Font)
+	 */
+	public Dimension getTextExtents(String s, Font f) {
+		FontEntry entry = getEntry(f);
+		if (isSimple(s, 0, s.length())) {
+			if (entry.textHeight == NOT_MEASURED) {
+				entry.textHeight = FigureUtilities.getTextDimension(" ", f).y; //$NON-NLS-1$
+			}
+			return new Dimension(getAdvanceWidth(entry, s, 0, s.length(), f), entry.textHeight);
+		}
+		return getCachedTextExtents(entry, s, f).getCopy();
+	}
+
+	/**
+	 * Returns the width of the characters of the given text from
+	 * <code>start</code> (inclusive) to <code>end</code> (exclusive), as if the
+	 * substring was measured with {@link #getTextExtents(String, Font)}. If the
+	 * width can be computed from advance widths, no substring is created.
+	 *
+	 * @param s     the text
+	 * @param start the index of the first character
+	 * @param end   the index after the last character
+	 * @param f     the font
+	 * @return the width of the substring
+	 */
+	public int getTextWidth(String s, int start, int end, Font f) {
+		FontEntry entry = getEntry(f);
+		if (isSimple(s, start, end)) {
+			return getAdvanceWidth(entry, s, start, end, f);
+		}
+		return getCachedTextExtents(entry, s.substring(start, end), f).width;
+	}
+
+	/**
+	 * Discards all cached extents and advance widths.
+	 */
+	public void clear() {
+		fonts.clear();
+	}
+
+	private FontEntry getEntry(Font f) {
+		Key key = new Key(f);
+		FontEntry entry = fonts.get(key);
+		if (entry == null) {
+			entry = new FontEntry();
+			fonts.put(key, entry);
+		}
+		return entry;
+	}
+
+	private static Dimension getCachedTextExtents(FontEntry entry, String s, Font f) {
+		Dimension extents = entry.textExtents.get(s);
+		if (extents == null) {
+			extents = new Dimension(FigureUtilities.getTextDimension(s, f));
+			entry.textExtents.put(s, extents);
+		}
+		return extents;
+	}
+
+	/**
+	 * Returns whether the given range of characters may be measured by the
+	 * advance widths of its characters.
+	 */
+	private boolean isSimple(String s, int start, int end) {
+		if (!useAdvances) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+			if (c >= ADVANCE_TABLE_SIZE || c < 0x20 || (c >= 0x7F && c < 0xA0) || (c >= 0x0300 && c < 0x0370)) {
+				// control characters and combining diacritical marks
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int getAdvanceWidth(FontEntry entry, String s, int start, int end, Font f) {
+		if (entry.advances == null) {
+			entry.advances = new int[ADVANCE_TABLE_SIZE];
+			Arrays.fill(entry.advances, NOT_MEASURED);
+		}
+		int width = 0;
+		for (int i = start; i < end; i++) {
+			char c = s.charAt(i);
+			int advance = entry.advances[c];
+			if (advance == NOT_MEASURED) {
+				advance = FigureUtilities.getStringDimension(String.valueOf(c), f).x;
+				entry.advances[c] = advance;
+			}
+			width += advance;
+		}
+		return width;
+	}
+
+}
@@ -20,7 +20,8 @@ import org.eclipse.draw2d.geometry.Dimension;
 
 /**
  * Provides miscellaneous text operations. Clients may subclass this class if
- * necessary.
+ * necessary. Subclasses may provide a {@link TextMeasurer} which caches the
+ * extents of measured text, see {@link #TextUtilities(TextMeasurer)}.
  *
  * @author crevells
  * @since 3.4
@@ -30,7 +31,42 @@ public class TextUtilities {
 	/**
 	 * a singleton default instance
 	 */
-	public static TextUtilities INSTANCE = new TextUtilities();
+	public static TextUtilities INSTANCE = new TextUtilities(new TextMeasurer());
+
+	private final TextMeasurer measurer;
+
+	/**
+	 * Creates a new instance which measures all text with
+	 * {@link FigureUtilities}.
+	 */
+	public TextUtilities() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new instance which measures text with the given measurer.
+	 * Subclasses overriding {@link #getTextExtents(String, Font)} should also
+	 * override {@link #getTextWidth(String, int, int, Font)} if a measurer is
+	 * used.
+	 *
+	 * @param measurer the measurer, or <code>null</code> to measure all text with
+	 *                 {@link FigureUtilities}
+	 * @since 3.15
+	 */
+	protected TextUtilities(TextMeasurer measurer) {
+		this.measurer = measurer;
+	}
+
+	/**
+	 * Returns the measurer used by this instance.
+	 *
+	 * @return the measurer, or <code>null</code> if all text is measured with
+	 *         {@link FigureUtilities}
+	 * @since 3.15
+	 */
+	protected TextMeasurer getTextMeasurer() {
+		return measurer;
+	}
 
 	/**
 	 * Returns the Dimensions of <i>s</i> in Font <i>f</i>.
@@ -39,8 +75,10 @@ public class TextUtilities {
 	 * @param f the font
 	 * @return the dimensions of the given string
 	 */
-	@SuppressWarnings("static-method")
 	public Dimension getStringExtents(String s, Font f) {
+		if (measurer != null) {
+			return measurer.getStringExtents(s, f);
+		}
 		return FigureUtilities.getStringExtents(s, f);
 	}
 
@@ -52,11 +90,34 @@ public class TextUtilities {
 	 * @param f the font
 	 * @return the dimensions of the given text
 	 */
-	@SuppressWarnings("static-method")
 	public Dimension getTextExtents(String s, Font f) {
+		if (measurer != null) {
+			return measurer.getTextExtents(s, f);
+		}
 		return FigureUtilities.getTextExtents(s, f);
 	}
 
+	/**
+	 * Returns the width of the characters of <i>s</i> from <i>start</i>
+	 * (inclusive) to <i>end</i> (exclusive) in Font <i>f</i>, converting tabs
+	 * appropriately. The result is the same as the width of
+	 * {@link #getTextExtents(String, Font)} for the substring, but the substring
+	 * may not have to be created.
+	 *
+	 * @param s     the text
+	 * @param start the index of the first character
+	 * @param end   the index after the last character
+	 * @param f     the font
+	 * @return the width of the substring
+	 * @since 3.15
+	 */
+	public int getTextWidth(String s, int start, int end, Font f) {
+		if (measurer != null) {
+			return measurer.getTextWidth(s, start, end, f);
+		}
+		return getTextExtents(s.substring(start, end), f).width;
+	}
+
 	/**
 	 * Gets the font's ascent.
 	 *
@@ -112,7 +173,7 @@ public class TextUtilities {
 			}
 
 			// Measure the current guess
-			guessSize = getTextExtents(s.substring(0, guess), f).width;
+			guessSize = getTextWidth(s, 0, guess, f);
 
 			if (guessSize < availableWidth) {
 				// We did not use the available width
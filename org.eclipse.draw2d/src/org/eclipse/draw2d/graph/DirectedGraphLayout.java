@@ -74,6 +74,10 @@ public class DirectedGraphLayout {
 
 	Deque<GraphVisitor> steps = new ArrayDeque<>();
 
+	private int maxCrossingReductionSweeps = MinCross.MAX;
+	private int maxSweepsWithoutImprovement;
+	private long crossingReductionTimeLimit;
+
 	/**
 	 * @since 3.1
 	 */
@@ -95,6 +99,89 @@ public class DirectedGraphLayout {
 		steps.add(new HorizontalPlacement());
 	}
 
+	/**
+	 * Returns the number of sweeps over the ranks performed to reduce the edge
+	 * crossings.
+	 *
+	 * @return the number of sweeps
+	 * @see #setMaxCrossingReductionSweeps(int)
+	 * @since 3.15
+	 */
+	public int getMaxCrossingReductionSweeps() {
+		return maxCrossingReductionSweeps;
+	}
+
+	/**
+	 * Returns the number of consecutive sweeps without fewer edge crossings after
+	 * which the crossing reduction stops.
+	 *
+	 * @return the number of sweeps, or 0 if all sweeps are performed
+	 * @see #setMaxSweepsWithoutImprovement(int)
+	 * @since 3.15
+	 */
+	public int getMaxSweepsWithoutImprovement() {
+		return maxSweepsWithoutImprovement;
+	}
+
+	/**
+	 * Returns the time limit of the crossing reduction.
+	 *
+	 * @return the time limit in milliseconds, or 0 for no limit
+	 * @see #setCrossingReductionTimeLimit(long)
+	 * @since 3.15
+	 */
+	public long getCrossingReductionTimeLimit() {
+		return crossingReductionTimeLimit;
+	}
+
+	/**
+	 * Sets the number of sweeps over the ranks performed to reduce the edge
+	 * crossings. The default value is 45.
+	 *
+	 * @param sweeps the number of sweeps
+	 * @throws IllegalArgumentException if the number of sweeps is not positive
+	 * @since 3.15
+	 */
+	public void setMaxCrossingReductionSweeps(int sweeps) {
+		if (sweeps < 1) {
+			throw new IllegalArgumentException("The number of sweeps must be positive"); //$NON-NLS-1$
+		}
+		maxCrossingReductionSweeps = sweeps;
+	}
+
+	/**
+	 * Sets the number of consecutive sweeps without fewer edge crossings after
+	 * which the crossing reduction stops. The nodes are then left in the order
+	 * with the fewest crossings found. The default value is 0, in which case all
+	 * sweeps are performed and the crossings are not counted.
+	 *
+	 * @param sweeps the number of sweeps, or 0 to perform all sweeps
+	 * @throws IllegalArgumentException if the number of sweeps is negative
+	 * @since 3.15
+	 */
+	public void setMaxSweepsWithoutImprovement(int sweeps) {
+		if (sweeps < 0) {
+			throw new IllegalArgumentException("The number of sweeps must not be negative"); //$NON-NLS-1$
+		}
+		maxSweepsWithoutImprovement = sweeps;
+	}
+
+	/**
+	 * Sets the time after which the crossing reduction stops. The nodes are then
+	 * left in the order with the fewest crossings found. The default value is 0,
+	 * i.e. no limit.
+	 *
+	 * @param millis the time limit in milliseconds, or 0 for no limit
+	 * @throws IllegalArgumentException if the time limit is negative
+	 * @since 3.15
+	 */
+	public void setCrossingReductionTimeLimit(long millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("The time limit must not be negative"); //$NON-NLS-1$
+		}
+		crossingReductionTimeLimit = millis;
+	}
+
 	/**
 	 * Lays out the given graph
 	 *
@@ -104,6 +191,13 @@ public class DirectedGraphLayout {
 		if (graph.nodes.isEmpty()) {
 			return;
 		}
+		for (GraphVisitor step : steps) {
+			if (step instanceof MinCross minCross) {
+				minCross.setMaxSweeps(maxCrossingReductionSweeps);
+				minCross.setMaxSweepsWithoutImprovement(maxSweepsWithoutImprovement);
+				minCross.setTimeLimit(crossingReductionTimeLimit);
+			}
+		}
 		steps.iterator().forEachRemaining(visitor -> visitor.visit(graph));
 		steps.descendingIterator().forEachRemaining(visitor -> visitor.revisit(graph));
 	}
@@ -12,8 +12,15 @@
  *******************************************************************************/
 package org.eclipse.draw2d.graph;
 
+import java.util.Arrays;
+
 /**
  * Sweeps up and down the ranks rearranging them so as to reduce edge crossings.
+ * By default, a fixed number of sweeps is performed. Optionally, the crossings
+ * are counted after each sweep, and the sweeping stops once the number of
+ * crossings has not decreased for a given number of sweeps, or once a time
+ * limit is exceeded. In that case, the ranks are left in the order with the
+ * fewest crossings.
  *
  * @author Randy Hudson
  * @since 2.1.2
@@ -24,6 +31,17 @@ class MinCross extends GraphVisitor {
 
 	private DirectedGraph g;
 	private RankSorter sorter = new RankSorter();
+	private int maxSweeps = MAX;
+	private int maxSweepsWithoutImprovement;
+	private long timeLimit;
+
+	/**
+	 * The number of sweeps performed by the last solve, and the number of
+	 * crossings after each of them if the crossings were counted.
+	 */
+	private int sweeps;
+	private int[] crossingsPerSweep = new int[0];
+	private int countedSweeps;
 
 	public MinCross() {
 	}
@@ -39,21 +57,193 @@ class MinCross extends GraphVisitor {
 		this.sorter = sorter;
 	}
 
+	/**
+	 * Sets the number of sweeps to perform.
+	 *
+	 * @param maxSweeps the number of sweeps
+	 */
+	void setMaxSweeps(int maxSweeps) {
+		this.maxSweeps = maxSweeps;
+	}
+
+	/**
+	 * Sets the number of consecutive sweeps which do not reduce the number of
+	 * crossings after which the sweeping stops, or 0 to always perform all sweeps.
+	 *
+	 * @param maxSweepsWithoutImprovement the number of sweeps
+	 */
+	void setMaxSweepsWithoutImprovement(int maxSweepsWithoutImprovement) {
+		this.maxSweepsWithoutImprovement = maxSweepsWithoutImprovement;
+	}
+
+	/**
+	 * Sets the time in milliseconds after which the sweeping stops, or 0 for no
+	 * limit.
+	 *
+	 * @param timeLimit the time limit
+	 */
+	void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
 	void solve() {
+		boolean countCrossings = maxSweepsWithoutImprovement > 0 || timeLimit > 0;
+		long deadline = timeLimit > 0 ? System.currentTimeMillis() + timeLimit : Long.MAX_VALUE;
+		int fewestCrossings = Integer.MAX_VALUE;
+		int crossings = 0;
+		int sweepsWithoutImprovement = 0;
+		Node[][] bestOrder = null;
+		boolean stoppedEarly = false;
+		sweeps = 0;
+		countedSweeps = 0;
+		crossingsPerSweep = new int[countCrossings ? maxSweeps : 0];
+
 		Rank rank;
-		for (int loop = 0; loop < MAX; loop++) {
+		for (int loop = 0; loop < maxSweeps; loop++) {
+			sweeps++;
 			for (int row = 1; row < g.ranks.size(); row++) {
 				rank = g.ranks.getRank(row);
-				sorter.sortRankIncoming(g, rank, row, (double) loop / MAX);
+				sorter.sortRankIncoming(g, rank, row, (double) loop / maxSweeps);
 			}
-			if (loop == MAX - 1) {
+			if (loop == maxSweeps - 1) {
 				continue;
 			}
 			for (int row = g.ranks.size() - 2; row >= 0; row--) {
 				rank = g.ranks.getRank(row);
-				sorter.sortRankOutgoing(g, rank, row, (double) loop / MAX);
+				sorter.sortRankOutgoing(g, rank, row, (double) loop / maxSweeps);
+			}
+
+			if (!countCrossings) {
+				continue;
+			}
+			crossings = countCrossings(g);
+			crossingsPerSweep[countedSweeps++] = crossings;
+			if (crossings < fewestCrossings) {
+				fewestCrossings = crossings;
+				sweepsWithoutImprovement = 0;
+				bestOrder = getOrder(bestOrder);
+			} else {
+				sweepsWithoutImprovement++;
+			}
+			boolean converged = maxSweepsWithoutImprovement > 0
+					&& sweepsWithoutImprovement >= maxSweepsWithoutImprovement;
+			if (crossings == 0 || converged || System.currentTimeMillis() >= deadline) {
+				stoppedEarly = true;
+				break;
+			}
+		}
+
+		if (stoppedEarly && crossings > fewestCrossings) {
+			for (int row = 0; row < g.ranks.size(); row++) {
+				sorter.setOrder(g.ranks.getRank(row), row, bestOrder[row]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of sweeps performed by the last solve.
+	 *
+	 * @return the number of sweeps
+	 */
+	int getSweeps() {
+		return sweeps;
+	}
+
+	/**
+	 * Returns the number of crossings after each sweep of the last solve, or an
+	 * empty array if the crossings were not counted. The last sweep of all
+	 * {@link #setMaxSweeps(int) sweeps} is never counted.
+	 *
+	 * @return the number of crossings per sweep
+	 */
+	int[] getCrossingsPerSweep() {
+		return Arrays.copyOf(crossingsPerSweep, countedSweeps);
+	}
+
+	/**
+	 * Copies the current order of the nodes in each rank into the given array,
+	 * which is created if necessary.
+	 */
+	private Node[][] getOrder(Node[][] order) {
+		if (order == null) {
+			order = new Node[g.ranks.size()][];
+		}
+		for (int row = 0; row < g.ranks.size(); row++) {
+			order[row] = g.ranks.getRank(row).toArray(order[row] == null ? new Node[0] : order[row]);
+		}
+		return order;
+	}
+
+	/**
+	 * Counts the crossings of the edges between all adjacent ranks of the given
+	 * graph.
+	 *
+	 * @param g the graph
+	 * @return the number of crossings
+	 */
+	static int countCrossings(DirectedGraph g) {
+		int crossings = 0;
+		for (int row = 0; row < g.ranks.size() - 1; row++) {
+			crossings += countCrossings(g.ranks.getRank(row), g.ranks.getRank(row + 1));
+		}
+		return crossings;
+	}
+
+	/**
+	 * Counts the crossings of the edges between the given adjacent ranks. The
+	 * edges are visited in the order of their source nodes, and of their target
+	 * nodes for edges with the same source. Each edge then crosses the edges
+	 * already visited whose target nodes lie further right, which are counted in
+	 * O(log n) with an accumulator tree over the positions in the lower rank
+	 * (Barth, Jünger and Mutzel, "Simple and efficient bilayer cross counting").
+	 *
+	 * @param upper the upper rank
+	 * @param lower the rank below the upper rank
+	 * @return the number of crossings
+	 */
+	static int countCrossings(Rank upper, Rank lower) {
+		if (upper.isEmpty() || lower.isEmpty()) {
+			return 0;
+		}
+		// the indices of the nodes increase from left to right
+		int maxIndex = 0;
+		for (Node node : lower) {
+			maxIndex = Math.max(maxIndex, node.index);
+		}
+		int firstLeaf = 1;
+		while (firstLeaf <= maxIndex) {
+			firstLeaf *= 2;
+		}
+		int[] tree = new int[2 * firstLeaf - 1];
+		firstLeaf--;
+
+		int crossings = 0;
+		int[] targets = new int[8];
+		for (Node node : upper) {
+			int count = 0;
+			for (Edge edge : node.outgoing) {
+				if (edge.target.rank == node.rank + 1) {
+					if (count == targets.length) {
+						targets = Arrays.copyOf(targets, count * 2);
+					}
+					targets[count++] = edge.target.index;
+				}
+			}
+			Arrays.sort(targets, 0, count);
+			for (int i = 0; i < count; i++) {
+				int index = targets[i] + firstLeaf;
+				tree[index]++;
+				while (index > 0) {
+					if (index % 2 == 1) {
+						// a left child, the right sibling holds the edges ending further right
+						crossings += tree[index + 1];
+					}
+					index = (index - 1) / 2;
+					tree[index]++;
+				}
 			}
 		}
+		return crossings;
 	}
 
 	/**
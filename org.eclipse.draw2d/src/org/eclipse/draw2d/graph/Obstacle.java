@@ -56,6 +56,15 @@ class Obstacle extends Rectangle {
 		return p.x > this.x && p.x < this.x + this.width - 1 && p.y > this.y && p.y < this.y + this.height - 1;
 	}
 
+	/**
+	 * Returns the largest distance any of the four corner vertices has been moved
+	 * from its original location.
+	 */
+	int getMaxDeformation() {
+		return Math.max(Math.max(topLeft.getDeformation(), topRight.getDeformation()),
+				Math.max(bottomLeft.getDeformation(), bottomRight.getDeformation()));
+	}
+
 	public int getSpacing() {
 		return router.getSpacing();
 	}
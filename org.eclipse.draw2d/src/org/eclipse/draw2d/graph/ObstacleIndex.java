@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * A uniform grid over the obstacles of a {@link ShortestPathRouter}, used to
+ * find the obstacles near a segment or an area without testing every obstacle.
+ * Queries return a superset of the obstacles touching the segment or area, in
+ * the order in which the obstacles were added, so that callers testing the
+ * candidates in turn find the same obstacle first as when testing all
+ * obstacles. As long as no obstacles are added or removed, the index may be
+ * queried from several threads at once.
+ *
+ * This class is for internal use only.
+ */
+class ObstacleIndex {
+
+	/**
+	 * The width and height of a grid cell.
+	 */
+	static final int CELL_SIZE = 128;
+
+	/**
+	 * Obstacles spanning more cells are not put into the grid, but are always
+	 * considered as candidates.
+	 */
+	private static final int MAX_CELLS_PER_OBSTACLE = 256;
+
+	private static class Entry {
+		final Obstacle obstacle;
+		final long order;
+		boolean gridded;
+		int minColumn;
+		int minRow;
+		int maxColumn;
+		int maxRow;
+
+		Entry(Obstacle obstacle, long order) {
+			this.obstacle = obstacle;
+			this.order = order;
+		}
+	}
+
+	private final Map<Obstacle, Entry> entries = new IdentityHashMap<>();
+	private final Map<Long, List<Entry>> cells = new HashMap<>();
+	private final List<Entry> unfiltered = new ArrayList<>();
+	private long nextOrder;
+	private boolean enabled = true;
+
+	/**
+	 * Adds the given obstacle. Obstacles must not change their bounds while they
+	 * are contained in the index.
+	 *
+	 * @param obstacle the obstacle
+	 */
+	void add(Obstacle obstacle) {
+		Entry entry = new Entry(obstacle, nextOrder++);
+		entries.put(obstacle, entry);
+		// the obstacle occupies the points from (x, y) to (right - 1, bottom - 1)
+		entry.minColumn = getCell(obstacle.x);
+		entry.minRow = getCell(obstacle.y);
+		entry.maxColumn = getCell(obstacle.right() - 1);
+		entry.maxRow = getCell(obstacle.bottom() - 1);
+		long cellCount = (long) (entry.maxColumn - entry.minColumn + 1) * (entry.maxRow - entry.minRow + 1);
+		entry.gridded = !obstacle.isEmpty() && cellCount <= MAX_CELLS_PER_OBSTACLE;
+		if (!entry.gridded) {
+			unfiltered.add(entry);
+			return;
+		}
+		for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				cells.computeIfAbsent(Long.valueOf(getKey(column, row)), key -> new ArrayList<>(4)).add(entry);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given obstacle.
+	 *
+	 * @param obstacle the obstacle
+	 */
+	void remove(Obstacle obstacle) {
+		Entry entry = entries.remove(obstacle);
+		if (entry == null) {
+			return;
+		}
+		if (!entry.gridded) {
+			unfiltered.remove(entry);
+			return;
+		}
+		for (int column = entry.minColumn; column <= entry.maxColumn; column++) {
+			for (int row = entry.minRow; row <= entry.maxRow; row++) {
+				Long key = Long.valueOf(getKey(column, row));
+				List<Entry> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(entry);
+					if (cell.isEmpty()) {
+						cells.remove(key);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets whether queries use the grid. If not, queries return all obstacles.
+	 * The grid is kept up to date in either case.
+	 *
+	 * @param enabled <code>true</code> to use the grid
+	 */
+	void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Returns whether queries use the grid.
+	 *
+	 * @return <code>true</code> if the grid is used
+	 */
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns the obstacles which may intersect the given area, in the order in
+	 * which they were added.
+	 *
+	 * @param area the area
+	 * @return the candidate obstacles
+	 */
+	List<Obstacle> getObstacles(Rectangle area) {
+		if (!enabled) {
+			return toObstacles(new ArrayList<>(entries.values()));
+		}
+		List<Entry> candidates = new ArrayList<>(unfiltered);
+		if (!area.isEmpty()) {
+			int maxRow = getCell(area.bottom() - 1);
+			for (int column = getCell(area.x); column <= getCell(area.right() - 1); column++) {
+				collect(column, getCell(area.y), maxRow, candidates);
+			}
+		}
+		return toObstacles(candidates);
+	}
+
+	/**
+	 * Returns the obstacles which may intersect the segment between the given
+	 * points or contain one of its end points, in the order in which they were
+	 * added.
+	 *
+	 * @param x1 the x coordinate of the start point
+	 * @param y1 the y coordinate of the start point
+	 * @param x2 the x coordinate of the end point
+	 * @param y2 the y coordinate of the end point
+	 * @return the candidate obstacles
+	 */
+	List<Obstacle> getObstacles(int x1, int y1, int x2, int y2) {
+		return getObstacles(x1, y1, x2, y2, 0);
+	}
+
+	/**
+	 * Returns the obstacles which may be within the given distance of the segment
+	 * between the given points, in the order in which they were added. The
+	 * distance is measured along the x and y axis separately.
+	 *
+	 * @param x1     the x coordinate of the start point
+	 * @param y1     the y coordinate of the start point
+	 * @param x2     the x coordinate of the end point
+	 * @param y2     the y coordinate of the end point
+	 * @param margin the distance
+	 * @return the candidate obstacles
+	 */
+	List<Obstacle> getObstacles(int x1, int y1, int x2, int y2, int margin) {
+		if (!enabled) {
+			return toObstacles(new ArrayList<>(entries.values()));
+		}
+		List<Entry> candidates = new ArrayList<>(unfiltered);
+		int minX = Math.min(x1, x2);
+		int maxX = Math.max(x1, x2);
+		int minColumn = getCell(minX - margin);
+		int maxColumn = getCell(maxX + margin);
+		for (int column = minColumn; column <= maxColumn; column++) {
+			// the part of the segment within the margin of this column, widened by one
+			// pixel
+			int left = Math.max(minX, column * CELL_SIZE - margin - 1);
+			int right = Math.min(maxX, (column + 1) * CELL_SIZE + margin);
+			double yLeft;
+			double yRight;
+			if (x1 == x2) {
+				yLeft = y1;
+				yRight = y2;
+			} else {
+				double slope = (double) (y2 - y1) / (x2 - x1);
+				yLeft = y1 + (left - x1) * slope;
+				yRight = y1 + (right - x1) * slope;
+			}
+			int minRow = getCell((int) Math.floor(Math.min(yLeft, yRight)) - margin - 1);
+			int maxRow = getCell((int) Math.ceil(Math.max(yLeft, yRight)) + margin + 1);
+			collect(column, minRow, maxRow, candidates);
+		}
+		return toObstacles(candidates);
+	}
+
+	private void collect(int column, int minRow, int maxRow, List<Entry> candidates) {
+		for (int row = minRow; row <= maxRow; row++) {
+			List<Entry> cell = cells.get(Long.valueOf(getKey(column, row)));
+			if (cell != null) {
+				candidates.addAll(cell);
+			}
+		}
+	}
+
+	/**
+	 * Sorts the given entries by their order and returns their obstacles. Entries
+	 * spanning several cells are collected once per cell and are only returned
+	 * once.
+	 */
+	private static List<Obstacle> toObstacles(List<Entry> candidates) {
+		candidates.sort((e1, e2) -> Long.compare(e1.order, e2.order));
+		List<Obstacle> obstacles = new ArrayList<>(candidates.size());
+		Entry previous = null;
+		for (Entry entry : candidates) {
+			if (entry != previous) {
+				obstacles.add(entry.obstacle);
+				previous = entry;
+			}
+		}
+		return obstacles;
+	}
+
+	private static int getCell(int coordinate) {
+		return Math.floorDiv(coordinate, CELL_SIZE);
+	}
+
+	private static long getKey(int column, int row) {
+		return ((long) column << 32) | (row & 0xFFFFFFFFL);
+	}
+
+}
@@ -13,9 +13,12 @@
 package org.eclipse.draw2d.graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.draw2d.PositionConstants;
@@ -53,6 +56,113 @@ public class Path {
 
 	}
 
+	/**
+	 * The state of a vertex while searching the shortest path of this path. It is
+	 * kept apart from the vertex, as vertices are shared by all paths of a router,
+	 * so that the shortest paths can be searched concurrently.
+	 */
+	private static class Node {
+		final Vertex vertex;
+		final List<Vertex> neighbors = new ArrayList<>();
+		Vertex label;
+		double cost;
+		boolean isPermanent;
+		boolean isVisible;
+		int heapIndex = -1;
+		int order;
+
+		Node(Vertex vertex) {
+			this.vertex = vertex;
+		}
+	}
+
+	/**
+	 * A binary heap of the labelled, non-permanent nodes, ordered by their cost.
+	 * Nodes with the same cost are ordered by their {@link Node#order}, so that
+	 * ties are resolved the same way as by a linear scan over the visible
+	 * vertices.
+	 */
+	private static class NodeHeap {
+
+		private Node[] heap = new Node[16];
+		private int size;
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void clear() {
+			for (int i = 0; i < size; i++) {
+				heap[i].heapIndex = -1;
+				heap[i] = null;
+			}
+			size = 0;
+		}
+
+		void update(Node node) {
+			if (node.heapIndex == -1) {
+				if (size == heap.length) {
+					heap = Arrays.copyOf(heap, size * 2);
+				}
+				node.heapIndex = size;
+				heap[size++] = node;
+			}
+			siftUp(node.heapIndex);
+		}
+
+		Node poll() {
+			Node first = heap[0];
+			first.heapIndex = -1;
+			Node last = heap[--size];
+			heap[size] = null;
+			if (size > 0) {
+				heap[0] = last;
+				last.heapIndex = 0;
+				siftDown(0);
+			}
+			return first;
+		}
+
+		private static boolean less(Node n1, Node n2) {
+			return n1.cost < n2.cost || (n1.cost == n2.cost && n1.order < n2.order);
+		}
+
+		private void siftUp(int index) {
+			Node node = heap[index];
+			while (index > 0) {
+				int parent = (index - 1) >>> 1;
+				if (!less(node, heap[parent])) {
+					break;
+				}
+				move(heap[parent], index);
+				index = parent;
+			}
+			move(node, index);
+		}
+
+		private void siftDown(int index) {
+			Node node = heap[index];
+			int half = size >>> 1;
+			while (index < half) {
+				int child = 2 * index + 1;
+				if (child + 1 < size && less(heap[child + 1], heap[child])) {
+					child++;
+				}
+				if (!less(heap[child], node)) {
+					break;
+				}
+				move(heap[child], index);
+				index = child;
+			}
+			move(node, index);
+		}
+
+		private void move(Node node, int index) {
+			heap[index] = node;
+			node.heapIndex = index;
+		}
+	}
+
 	private static final Point CURRENT = new Point();
 	private static final double EPSILON = 1.04;
 	private static final Point NEXT = new Point();
@@ -92,6 +202,12 @@ public class Path {
 	double threshold;
 	Set<Obstacle> visibleObstacles;
 	Set<Vertex> visibleVertices;
+	/**
+	 * The cost of the shortest path found by the last search.
+	 */
+	double cost;
+	private final Map<Vertex, Node> nodes = new IdentityHashMap<>();
+	private final NodeHeap heap = new NodeHeap();
 
 	/**
 	 * Constructs a new path.
@@ -260,20 +376,20 @@ public class Path {
 	 * segment is outside the threshold oval. Then it compares the segment against
 	 * all obstacles. If it is clean, the segment is finally added to the graph.
 	 *
-	 * @param segment      the segment
-	 * @param exclude1     an obstacle to exclude from the search
-	 * @param exclude2     another obstacle to exclude from the search
-	 * @param allObstacles the list of all obstacles
+	 * @param segment   the segment
+	 * @param exclude1  an obstacle to exclude from the search
+	 * @param exclude2  another obstacle to exclude from the search
+	 * @param obstacles the index of all obstacles
 	 */
-	private void addSegment(Segment segment, Obstacle exclude1, Obstacle exclude2, List<Obstacle> allObstacles) {
+	private void addSegment(Segment segment, Obstacle exclude1, Obstacle exclude2, ObstacleIndex obstacles) {
 		if (threshold != 0 && (segment.end.getDistance(end) + segment.end.getDistance(start) > threshold
 				|| segment.start.getDistance(end) + segment.start.getDistance(start) > threshold)) {
 			return;
 		}
 
-		for (Obstacle obs : allObstacles) {
+		for (Obstacle obs : obstacles.getObstacles(segment.start.x, segment.start.y, segment.end.x, segment.end.y)) {
 
-			if (obs == exclude1 || obs == exclude2 || obs.exclude) {
+			if (obs == exclude1 || obs == exclude2 || excludedObstacles.contains(obs)) {
 				continue;
 			}
 
@@ -480,20 +596,21 @@ public class Path {
 	void cleanup() {
 		// segments.clear();
 		visibleVertices.clear();
+		nodes.clear();
 	}
 
 	/**
 	 * Begins the creation of the visibility graph with the first segment
 	 *
-	 * @param allObstacles list of all obstacles
+	 * @param obstacles the index of all obstacles
 	 */
-	private void createVisibilityGraph(List<Obstacle> allObstacles) {
+	private void createVisibilityGraph(ObstacleIndex obstacles) {
 		stack.push(null);
 		stack.push(null);
 		stack.push(new Segment(start, end));
 
 		while (!stack.isEmpty()) {
-			addSegment(stack.pop(), stack.popObstacle(), stack.popObstacle(), allObstacles);
+			addSegment(stack.pop(), stack.popObstacle(), stack.popObstacle(), obstacles);
 		}
 	}
 
@@ -507,12 +624,15 @@ public class Path {
 		if (!labelGraph()) {
 			return false;
 		}
+		Node endNode = nodes.get(end);
+		cost = endNode == null ? 0 : endNode.cost;
 		Vertex vertex = end;
-		prevCostRatio = end.cost / start.getDistance(end);
+		prevCostRatio = cost / start.getDistance(end);
 
 		Vertex nextVertex;
 		while (!vertex.equals(start)) {
-			nextVertex = vertex.label;
+			Node node = nodes.get(vertex);
+			nextVertex = node == null ? null : node.label;
 			if (nextVertex == null) {
 				return false;
 			}
@@ -530,6 +650,7 @@ public class Path {
 	 */
 	void fullReset() {
 		visibleVertices.clear();
+		nodes.clear();
 		segments.clear();
 		if (prevCostRatio == 0) {
 			double distance = start.getDistance(end);
@@ -545,11 +666,11 @@ public class Path {
 	 * Creates the visibility graph and returns whether or not a shortest path could
 	 * be determined.
 	 *
-	 * @param allObstacles the list of all obstacles
+	 * @param obstacles the index of all obstacles
 	 * @return true if a shortest path was found
 	 */
-	boolean generateShortestPath(List<Obstacle> allObstacles) {
-		createVisibilityGraph(allObstacles);
+	boolean generateShortestPath(ObstacleIndex obstacles) {
+		createVisibilityGraph(obstacles);
 
 		if (visibleVertices.isEmpty()) {
 			return false;
@@ -646,51 +767,59 @@ public class Path {
 	}
 
 	/**
-	 * Labels the visibility graph to assist in finding the shortest path
+	 * Labels the visibility graph to assist in finding the shortest path. The
+	 * labelled vertices are kept in a heap, and labelling stops as soon as the end
+	 * vertex is permanent.
 	 *
 	 * @return false if there was a gap in the visibility graph
 	 */
 	private boolean labelGraph() {
-		int numPermanentNodes = 1;
+		/*
+		 * Only the vertices of the visible set may become permanent. Vertices of
+		 * different obstacles can share a location, in which case only one of them is
+		 * contained in the set.
+		 */
+		int order = 0;
+		for (Vertex visibleVertex : visibleVertices) {
+			Node node = nodes.get(visibleVertex);
+			node.isVisible = true;
+			node.order = order++;
+		}
 		Vertex vertex = start;
-		Vertex neighborVertex = null;
-		vertex.isPermanent = true;
-		double newCost;
-		while (numPermanentNodes != visibleVertices.size()) {
-			List<Vertex> neighbors = vertex.neighbors;
-			if (neighbors == null) {
-				return false;
-			}
-			// label neighbors if they have a new shortest path
-			for (Vertex neighbor : neighbors) {
-				neighborVertex = neighbor;
-				if (!neighborVertex.isPermanent) {
-					newCost = vertex.cost + vertex.getDistance(neighborVertex);
-					if (neighborVertex.label == null) {
-						neighborVertex.label = vertex;
-						neighborVertex.cost = newCost;
-					} else if (neighborVertex.cost > newCost) {
-						neighborVertex.label = vertex;
-						neighborVertex.cost = newCost;
+		Node node = nodes.get(vertex);
+		if (node == null) {
+			return false;
+		}
+		node.isPermanent = true;
+		try {
+			while (vertex != end) {
+				// label neighbors if they have a new shortest path
+				for (Vertex neighbor : node.neighbors) {
+					Node neighborNode = nodes.get(neighbor);
+					if (!neighborNode.isPermanent) {
+						double newCost = node.cost + vertex.getDistance(neighbor);
+						if (neighborNode.label == null || neighborNode.cost > newCost) {
+							neighborNode.label = vertex;
+							neighborNode.cost = newCost;
+							if (neighborNode.isVisible) {
+								heap.update(neighborNode);
+							}
+						}
 					}
 				}
-			}
-			// find the next none-permanent, labeled vertex with smallest cost
-			double smallestCost = 0;
-			Vertex tempVertex = null;
-			for (Vertex visibleVertex : visibleVertices) {
-				tempVertex = visibleVertex;
-				if (!tempVertex.isPermanent && tempVertex.label != null
-						&& (tempVertex.cost < smallestCost || smallestCost == 0)) {
-					smallestCost = tempVertex.cost;
-					vertex = tempVertex;
+				if (heap.isEmpty()) {
+					// the end vertex can't be reached
+					return true;
 				}
+				// set the labelled vertex with the smallest cost to permanent
+				node = heap.poll();
+				node.isPermanent = true;
+				vertex = node.vertex;
 			}
-			// set the new vertex to permanent.
-			vertex.isPermanent = true;
-			numPermanentNodes++;
+			return true;
+		} finally {
+			heap.clear();
 		}
-		return true;
 	}
 
 	/**
@@ -699,16 +828,12 @@ public class Path {
 	 * @param segment the segment to add
 	 */
 	private void linkVertices(Segment segment) {
-		if (segment.start.neighbors == null) {
-			segment.start.neighbors = new ArrayList<>();
-		}
-		if (segment.end.neighbors == null) {
-			segment.end.neighbors = new ArrayList<>();
-		}
+		Node startNode = nodes.computeIfAbsent(segment.start, Node::new);
+		Node endNode = nodes.computeIfAbsent(segment.end, Node::new);
 
-		if (!segment.start.neighbors.contains(segment.end)) {
-			segment.start.neighbors.add(segment.end);
-			segment.end.neighbors.add(segment.start);
+		if (!startNode.neighbors.contains(segment.end)) {
+			startNode.neighbors.add(segment.end);
+			endNode.neighbors.add(segment.start);
 		}
 
 		visibleVertices.add(segment.start);
@@ -741,8 +866,8 @@ public class Path {
 	}
 
 	/**
-	 * Refreshes the exclude field on the obstacles in the list. Excludes all
-	 * obstacles that contain the start or end point for this path.
+	 * Refreshes the list of excluded obstacles. Excludes all obstacles that
+	 * contain the start or end point for this path.
 	 *
 	 * @param allObstacles list of all obstacles
 	 */
@@ -750,11 +875,11 @@ public class Path {
 		excludedObstacles.clear();
 
 		for (Obstacle o : allObstacles) {
-			o.exclude = false;
+			boolean exclude = false;
 
 			if (o.contains(start)) {
 				if (o.containsProper(start)) {
-					o.exclude = true;
+					exclude = true;
 				} else {
 					/*
 					 * $TODO Check for corners. If the path begins exactly at the corner of an
@@ -768,13 +893,13 @@ public class Path {
 
 			if (o.contains(end)) {
 				if (o.containsProper(end)) {
-					o.exclude = true;
+					exclude = true;
 				} else {
 					// check for corners. See above statement.
 				}
 			}
 
-			if (o.exclude && !excludedObstacles.contains(o)) {
+			if (exclude && !excludedObstacles.contains(o)) {
 				excludedObstacles.add(o);
 			}
 		}
@@ -171,6 +171,22 @@ class RankSorter {
 		rank.assignIndices();
 	}
 
+	/**
+	 * Puts the nodes of the given rank into the given order.
+	 *
+	 * @param rank  the rank
+	 * @param row   the row of the rank
+	 * @param nodes the nodes of the rank in their new order
+	 */
+	void setOrder(Rank rank, int row, Node[] nodes) {
+		this.currentRow = row;
+		this.rank = rank;
+		for (int i = 0; i < nodes.length; i++) {
+			rank.set(i, nodes[i]);
+		}
+		postSort();
+	}
+
 	void sort() {
 		boolean change;
 		do {
@@ -13,11 +13,14 @@
 package org.eclipse.draw2d.graph;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.eclipse.draw2d.PositionConstants;
 import org.eclipse.draw2d.geometry.Point;
@@ -67,14 +70,45 @@ public class ShortestPathRouter {
 	private static final int NUM_GROW_PASSES = 2;
 
 	private int spacing = 4;
+	private boolean parallel;
+	private boolean incremental;
+	/**
+	 * Whether the next solve has to reroute all paths, even in incremental mode.
+	 */
+	private boolean fullSolveRequired = true;
+	/**
+	 * The bounds of the obstacles added or removed since the last solve, only
+	 * tracked in incremental mode.
+	 */
+	private final List<Rectangle> changedAreas = new ArrayList<>();
+	/**
+	 * The vertices of the routes of paths which became dirty or were removed since
+	 * the last solve, only tracked in incremental mode.
+	 */
+	private final Set<Vertex> changedVertices = Collections.newSetFromMap(new IdentityHashMap<>());
+	/**
+	 * The largest number of paths passing by a single vertex in the last solve.
+	 */
+	private int maxVertexCount;
 	private boolean growPassChangedObstacles;
+	/**
+	 * The largest distance any obstacle vertex has been grown by in the current
+	 * grow pass.
+	 */
+	private int maxVertexDeformation;
 	private List<Path> orderedPaths;
+	/**
+	 * The paths processed by the current solve.
+	 */
+	private List<Path> activePaths;
+	private List<Path> reroutedPaths = Collections.emptyList();
 	private final Map<Path, List<Path>> pathsToChildPaths;
 
 	private PathStack stack;
 	private List<Path> subPaths;
 
 	private final List<Obstacle> userObstacles;
+	private final ObstacleIndex obstacleIndex = new ObstacleIndex();
 	private final List<Path> userPaths;
 	private final List<Path> workingPaths;
 
@@ -161,7 +195,7 @@ public class ShortestPathRouter {
 
 		int xDist, yDist;
 
-		for (Obstacle obs : userObstacles) {
+		for (Obstacle obs : obstacleIndex.getObstacles(r)) {
 			if (obs != vertex.obs && r.intersects(obs)) {
 				int pos = obs.getPosition(vertex);
 				if (pos == 0) {
@@ -221,9 +255,12 @@ public class ShortestPathRouter {
 	 * count.
 	 */
 	private void countVertices() {
+		maxVertexCount = 0;
 		for (Path path : workingPaths) {
 			for (int v = 0; v < path.segments.size() - 1; v++) {
-				path.segments.get(v).end.totalCount++;
+				Vertex vertex = path.segments.get(v).end;
+				vertex.totalCount++;
+				maxVertexCount = Math.max(maxVertexCount, vertex.totalCount);
 			}
 		}
 	}
@@ -291,6 +328,53 @@ public class ShortestPathRouter {
 		return spacing;
 	}
 
+	/**
+	 * Returns the paths whose points have been updated by the last call to
+	 * {@link #solve()}. Unless the router is {@link #isIncremental() incremental},
+	 * these are all paths.
+	 *
+	 * @return the rerouted paths
+	 * @since 3.15
+	 */
+	public List<Path> getReroutedPaths() {
+		return Collections.unmodifiableList(reroutedPaths);
+	}
+
+	/**
+	 * Returns whether only the paths affected by the changes since the last solve
+	 * are rerouted.
+	 *
+	 * @return <code>true</code> if paths are rerouted incrementally
+	 * @see #setIncremental(boolean)
+	 * @since 3.15
+	 */
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * Returns whether the obstacles are kept in a spatial index.
+	 *
+	 * @return <code>true</code> if the obstacles are indexed
+	 * @see #setObstacleIndexEnabled(boolean)
+	 * @since 3.15
+	 */
+	public boolean isObstacleIndexEnabled() {
+		return obstacleIndex.isEnabled();
+	}
+
+	/**
+	 * Returns whether the shortest paths of several dirty paths are searched in
+	 * parallel.
+	 *
+	 * @return <code>true</code> if paths are searched in parallel
+	 * @see #setParallel(boolean)
+	 * @since 3.15
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
 	/**
 	 * Returns the subpath for a split on the given path at the given segment.
 	 *
@@ -301,6 +385,7 @@ public class ShortestPathRouter {
 	private Path getSubpathForSplit(Path path, Segment segment) {
 		Path newPath = path.getSubPath(segment);
 		workingPaths.add(newPath);
+		activePaths.add(newPath);
 		subPaths.add(newPath);
 		return newPath;
 	}
@@ -323,12 +408,14 @@ public class ShortestPathRouter {
 	 */
 	private void growObstaclesPass() {
 		// grow obstacles
+		maxVertexDeformation = 0;
 		for (Obstacle userObstacle : userObstacles) {
 			userObstacle.growVertices();
+			maxVertexDeformation = Math.max(maxVertexDeformation, userObstacle.getMaxDeformation());
 		}
 
 		// go through paths and test segments
-		for (Path path : workingPaths) {
+		for (Path path : activePaths) {
 
 			for (Obstacle element : path.excludedObstacles) {
 				element.exclude = true;
@@ -365,6 +452,10 @@ public class ShortestPathRouter {
 	 */
 	private boolean internalAddObstacle(Obstacle obs) {
 		userObstacles.add(obs);
+		obstacleIndex.add(obs);
+		if (incremental) {
+			changedAreas.add(new Rectangle(obs));
+		}
 		return testAndDirtyPaths(obs);
 	}
 
@@ -376,16 +467,18 @@ public class ShortestPathRouter {
 	 */
 	private boolean internalRemoveObstacle(Rectangle rect) {
 		Obstacle obs = null;
-		int index = -1;
-		for (int i = 0; i < userObstacles.size(); i++) {
-			obs = userObstacles.get(i);
-			if (obs.equals(rect)) {
-				index = i;
+		for (Obstacle candidate : obstacleIndex.getObstacles(rect)) {
+			if (candidate.equals(rect)) {
+				obs = candidate;
 				break;
 			}
 		}
 
-		userObstacles.remove(index);
+		userObstacles.remove(userObstacles.indexOf(obs));
+		obstacleIndex.remove(obs);
+		if (incremental) {
+			changedAreas.add(new Rectangle(obs));
+		}
 
 		boolean result = false;
 		result |= dirtyPathsOn(obs.bottomLeft);
@@ -460,8 +553,8 @@ public class ShortestPathRouter {
 	 */
 	private void labelPaths() {
 		Path path = null;
-		for (Path workingPath : workingPaths) {
-			path = workingPath;
+		for (Path activePath : activePaths) {
+			path = activePath;
 			stack.push(path);
 		}
 
@@ -474,8 +567,8 @@ public class ShortestPathRouter {
 		}
 
 		// revert is marked so we can use it again in ordering.
-		for (Path workingPath : workingPaths) {
-			path = workingPath;
+		for (Path activePath : activePaths) {
+			path = activePath;
 			path.isMarked = false;
 		}
 	}
@@ -551,7 +644,7 @@ public class ShortestPathRouter {
 	 * Orders all paths in the graph.
 	 */
 	private void orderPaths() {
-		for (Path path : workingPaths) {
+		for (Path path : activePaths) {
 			orderPath(path);
 		}
 	}
@@ -591,6 +684,7 @@ public class ShortestPathRouter {
 
 		orderedPaths.removeAll(subPaths);
 		workingPaths.removeAll(subPaths);
+		activePaths.removeAll(subPaths);
 		subPaths = null;
 	}
 
@@ -614,6 +708,9 @@ public class ShortestPathRouter {
 	public boolean removePath(Path path) {
 		userPaths.remove(path);
 		List<Path> children = pathsToChildPaths.get(path);
+		if (incremental) {
+			collectRouteVertices(path, children);
+		}
 		if (children == null) {
 			workingPaths.remove(path);
 		} else {
@@ -622,15 +719,6 @@ public class ShortestPathRouter {
 		return true;
 	}
 
-	/**
-	 * Resets exclude field on all obstacles
-	 */
-	private void resetObstacleExclusions() {
-		for (Obstacle userObstacle : userObstacles) {
-			userObstacle.exclude = false;
-		}
-	}
-
 	/**
 	 * Resets all vertices found on paths and obstacles.
 	 */
@@ -656,6 +744,52 @@ public class ShortestPathRouter {
 	 */
 	public void setSpacing(int spacing) {
 		this.spacing = spacing;
+		fullSolveRequired = true;
+	}
+
+	/**
+	 * Sets whether only the paths affected by the changes since the last solve are
+	 * rerouted. Besides the dirty paths, these are the paths passing near an added
+	 * or removed obstacle or by a vertex of a changed route, and the paths sharing
+	 * a vertex with any of those. All other paths keep their points, see
+	 * {@link #getReroutedPaths()}. As paths influence each other only where they
+	 * meet, this gives the same solution in most cases. The default value is
+	 * <code>false</code>.
+	 *
+	 * @param incremental <code>true</code> to reroute paths incrementally
+	 * @since 3.15
+	 */
+	public void setIncremental(boolean incremental) {
+		if (incremental && !this.incremental) {
+			fullSolveRequired = true;
+		}
+		this.incremental = incremental;
+	}
+
+	/**
+	 * Sets whether the obstacles are kept in a spatial index, so that only the
+	 * obstacles near a segment are tested for intersections with it. The index
+	 * does not change the solution. The default value is <code>true</code>.
+	 *
+	 * @param enabled <code>true</code> to index the obstacles
+	 * @since 3.15
+	 */
+	public void setObstacleIndexEnabled(boolean enabled) {
+		obstacleIndex.setEnabled(enabled);
+	}
+
+	/**
+	 * Sets whether the shortest paths of several dirty paths are searched in
+	 * parallel, using the common {@link java.util.concurrent.ForkJoinPool}. The
+	 * passes which order and bend the paths around the obstacles are always
+	 * performed sequentially, so the solution does not depend on this setting.
+	 * The default value is <code>false</code>.
+	 *
+	 * @param parallel <code>true</code> to search paths in parallel
+	 * @since 3.15
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
 	}
 
 	/**
@@ -665,12 +799,34 @@ public class ShortestPathRouter {
 	 * @return returns the list of paths which were updated.
 	 */
 	public List<Path> solve() {
+		if (incremental) {
+			for (Path path : userPaths) {
+				if (path.isDirty) {
+					collectRouteVertices(path, pathsToChildPaths.get(path));
+				}
+			}
+			for (Path path : workingPaths) {
+				if (path.isDirty) {
+					collectRouteVertices(path, null);
+				}
+			}
+		}
 
-		solveDirtyPaths();
+		List<Path> dirtyPaths = solveDirtyPaths();
 
-		countVertices();
-		checkVertexIntersections();
-		growObstacles();
+		if (incremental && !fullSolveRequired) {
+			for (Path path : dirtyPaths) {
+				collectVertices(path, changedVertices);
+			}
+			activePaths = getAffectedPaths(dirtyPaths);
+		} else {
+			activePaths = new ArrayList<>(workingPaths);
+		}
+		prepareActivePaths();
+		while (activePaths.size() < workingPaths.size() && addPathsOnGrownSegments()) {
+			resetVertices();
+			prepareActivePaths();
+		}
 
 		subPaths = new ArrayList<>();
 		stack = new PathStack();
@@ -686,19 +842,233 @@ public class ShortestPathRouter {
 		subPaths = null;
 
 		recombineChildrenPaths();
+		updateReroutedPaths();
 		cleanup();
 
+		activePaths = null;
+		changedAreas.clear();
+		changedVertices.clear();
+		fullSolveRequired = false;
+
 		return Collections.unmodifiableList(userPaths);
 	}
 
 	/**
-	 * Solves paths that are dirty.
+	 * Resets the active paths and grows the obstacles around them.
+	 */
+	private void prepareActivePaths() {
+		for (Path path : activePaths) {
+			path.resetPartial();
+		}
+		countVertices();
+		checkVertexIntersections();
+		growObstacles();
+	}
+
+	/**
+	 * Returns the working paths which have to be rerouted in incremental mode.
+	 * These are the given paths, the paths passing near an obstacle which was
+	 * changed or which a changed route passes by, and all paths sharing a vertex
+	 * with any of those, as the paths passing by a vertex are offset together.
 	 *
-	 * @return number of dirty paths
+	 * @param seeds the paths which have to be rerouted in any case
+	 * @return the affected paths, in the order of the working paths
 	 */
-	private int solveDirtyPaths() {
-		int numSolved = 0;
+	private List<Path> getAffectedPaths(Collection<Path> seeds) {
+		Map<Vertex, List<Path>> pathsOnVertices = new IdentityHashMap<>();
+		List<Vertex> vertices = new ArrayList<>();
+		for (Path path : workingPaths) {
+			vertices.clear();
+			collectVertices(path, vertices);
+			for (Vertex vertex : vertices) {
+				pathsOnVertices.computeIfAbsent(vertex, key -> new ArrayList<>(2)).add(path);
+			}
+		}
 
+		Set<Path> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+		PathStack pending = new PathStack();
+		for (Path path : seeds) {
+			if (affected.add(path)) {
+				pending.push(path);
+			}
+		}
+		for (Vertex vertex : changedVertices) {
+			for (Path path : pathsOnVertices.getOrDefault(vertex, Collections.emptyList())) {
+				if (affected.add(path)) {
+					pending.push(path);
+				}
+			}
+		}
+		/*
+		 * The offsets of the vertices depend on the obstacles nearby, and obstacles
+		 * grown by their vertices' offsets may deflect the paths nearby.
+		 */
+		List<Rectangle> areas = new ArrayList<>(changedAreas);
+		Set<Obstacle> changedObstacles = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Vertex vertex : changedVertices) {
+			if (changedObstacles.add(vertex.obs)) {
+				areas.add(vertex.obs);
+			}
+		}
+		if (!areas.isEmpty()) {
+			int margin = 2 * maxVertexCount * getSpacing() + 1;
+			for (Path path : workingPaths) {
+				if (!affected.contains(path) && isNear(path, areas, margin)) {
+					affected.add(path);
+					pending.push(path);
+				}
+			}
+		}
+
+		while (!pending.isEmpty()) {
+			vertices.clear();
+			collectVertices(pending.pop(), vertices);
+			for (Vertex vertex : vertices) {
+				for (Path path : pathsOnVertices.get(vertex)) {
+					if (affected.add(path)) {
+						pending.push(path);
+					}
+				}
+			}
+		}
+
+		List<Path> result = new ArrayList<>(affected.size());
+		for (Path path : workingPaths) {
+			if (affected.contains(path)) {
+				result.add(path);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the paths sharing a vertex with the grown segments of the active paths
+	 * to the active paths. Growing the obstacles may route an active path by the
+	 * vertex of a path which is not active.
+	 *
+	 * @return <code>true</code> if paths have been added
+	 */
+	private boolean addPathsOnGrownSegments() {
+		Set<Vertex> activeVertices = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Path path : activePaths) {
+			collectVertices(path, activeVertices);
+		}
+		Set<Path> active = Collections.newSetFromMap(new IdentityHashMap<>());
+		active.addAll(activePaths);
+		List<Path> seeds = new ArrayList<>(activePaths);
+		List<Vertex> vertices = new ArrayList<>();
+		for (Path path : workingPaths) {
+			if (!active.contains(path)) {
+				vertices.clear();
+				collectVertices(path, vertices);
+				for (Vertex vertex : vertices) {
+					if (activeVertices.contains(vertex)) {
+						seeds.add(path);
+						break;
+					}
+				}
+			}
+		}
+		if (seeds.size() == activePaths.size()) {
+			return false;
+		}
+		activePaths = getAffectedPaths(seeds);
+		return true;
+	}
+
+	/**
+	 * Returns whether the current route of the given path passes within the given
+	 * distance of one of the given areas.
+	 *
+	 * @param path   the path
+	 * @param areas  the areas
+	 * @param margin the distance
+	 * @return <code>true</code> if the path is near one of the areas
+	 */
+	private static boolean isNear(Path path, List<Rectangle> areas, int margin) {
+		PointList points = path.getPoints();
+		for (int i = 0; i < points.size() - 1; i++) {
+			Rectangle bounds = new Rectangle(points.getPoint(i), points.getPoint(i + 1)).expand(margin, margin);
+			for (Rectangle area : areas) {
+				if (bounds.intersects(area)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the obstacle vertices which the route of the given path passes by to the
+	 * given collection.
+	 *
+	 * @param path     the path
+	 * @param vertices the collection of vertices
+	 */
+	private static void collectVertices(Path path, Collection<Vertex> vertices) {
+		for (Segment segment : path.segments) {
+			if (segment.end.obs != null) {
+				vertices.add(segment.end);
+			}
+		}
+		for (Segment segment : path.grownSegments) {
+			if (segment.end.obs != null) {
+				vertices.add(segment.end);
+			}
+		}
+	}
+
+	/**
+	 * Remembers the vertices of the current route of the given path or its child
+	 * paths as changed.
+	 *
+	 * @param path     the path
+	 * @param children the child paths, or <code>null</code>
+	 */
+	private void collectRouteVertices(Path path, List<Path> children) {
+		if (children == null) {
+			collectVertices(path, changedVertices);
+		} else {
+			for (Path child : children) {
+				collectVertices(child, changedVertices);
+			}
+		}
+	}
+
+	/**
+	 * Determines the user paths which have been rerouted by the current solve. The
+	 * working paths which have not been rerouted are registered with their
+	 * vertices again, so that changes to the obstacles they pass by dirty them.
+	 */
+	private void updateReroutedPaths() {
+		Set<Path> active = Collections.newSetFromMap(new IdentityHashMap<>());
+		active.addAll(activePaths);
+		if (active.size() < workingPaths.size()) {
+			for (Path path : workingPaths) {
+				if (!active.contains(path)) {
+					for (int v = 0; v < path.grownSegments.size() - 1; v++) {
+						Segment segment = path.grownSegments.get(v);
+						segment.end.addPath(path, segment, path.grownSegments.get(v + 1));
+					}
+				}
+			}
+		}
+
+		reroutedPaths = new ArrayList<>();
+		for (Path path : userPaths) {
+			List<Path> children = pathsToChildPaths.get(path);
+			if (children == null ? active.contains(path) : children.stream().anyMatch(active::contains)) {
+				reroutedPaths.add(path);
+			}
+		}
+	}
+
+	/**
+	 * Solves paths that are dirty.
+	 *
+	 * @return the dirty paths
+	 */
+	private List<Path> solveDirtyPaths() {
 		for (Path path : userPaths) {
 			if (!path.isDirty) {
 				continue;
@@ -722,35 +1092,41 @@ public class ShortestPathRouter {
 			refreshChildrenEndpoints(path, children);
 		}
 
+		List<Path> dirtyPaths = new ArrayList<>();
 		for (Path path : workingPaths) {
 			path.refreshExcludedObstacles(userObstacles);
-			if (!path.isDirty) {
-				path.resetPartial();
-				continue;
+			if (path.isDirty) {
+				dirtyPaths.add(path);
 			}
+		}
 
-			numSolved++;
-			path.fullReset();
+		// the searches only share the obstacles, which are not modified
+		if (parallel && dirtyPaths.size() > 1) {
+			dirtyPaths.parallelStream().forEach(this::solveDirtyPath);
+		} else {
+			dirtyPaths.forEach(this::solveDirtyPath);
+		}
 
-			boolean pathFoundCheck = path.generateShortestPath(userObstacles);
-			if (!pathFoundCheck || path.end.cost > path.threshold) {
-				// path not found, or path found was too long
-				resetVertices();
-				path.fullReset();
-				path.threshold = 0;
-				pathFoundCheck = path.generateShortestPath(userObstacles);
-			}
+		resetVertices();
 
-			resetVertices();
-		}
+		return dirtyPaths;
+	}
 
-		resetObstacleExclusions();
+	/**
+	 * Searches the shortest path for the given dirty path.
+	 *
+	 * @param path the path
+	 */
+	private void solveDirtyPath(Path path) {
+		path.fullReset();
 
-		if (numSolved == 0) {
-			resetVertices();
+		boolean pathFoundCheck = path.generateShortestPath(obstacleIndex);
+		if (!pathFoundCheck || path.cost > path.threshold) {
+			// path not found, or path found was too long
+			path.fullReset();
+			path.threshold = 0;
+			path.generateShortestPath(obstacleIndex);
 		}
-
-		return numSolved;
 	}
 
 	/**
@@ -824,7 +1200,10 @@ public class ShortestPathRouter {
 	 * @return 1 if new segments have been inserted
 	 */
 	private int testOffsetSegmentForIntersections(Segment segment, int index, Path path) {
-		for (Obstacle obs : userObstacles) {
+		// the tested diagonals run between the grown vertices, offset by the spacing
+		int margin = getSpacing() + maxVertexDeformation;
+		for (Obstacle obs : obstacleIndex.getObstacles(segment.start.x, segment.start.y, segment.end.x,
+				segment.end.y, margin)) {
 
 			if (segment.end.obs == obs || segment.start.obs == obs || obs.exclude) {
 				continue;
@@ -874,6 +1253,7 @@ public class ShortestPathRouter {
 				vertex.shrink();
 				checkVertexForIntersections(vertex);
 				vertex.grow();
+				maxVertexDeformation = Math.max(maxVertexDeformation, vertex.getDeformation());
 
 				if (vertex.nearestObstacle != 0) {
 					vertex.updateOffset();
@@ -38,12 +38,6 @@ class Vertex extends Point {
 	static final int INNIE = 1;
 	static final int OUTIE = 2;
 
-	// for shortest path
-	List<Vertex> neighbors;
-	boolean isPermanent = false;
-	Vertex label;
-	double cost = 0;
-
 	// for routing
 	int nearestObstacle = 0;
 	double offset = 0;
@@ -130,15 +124,9 @@ class Vertex extends Point {
 		totalCount = 0;
 		type = NOT_SET;
 		count = 0;
-		cost = 0;
 		offset = getSpacing();
 		nearestObstacle = 0;
-		label = null;
 		nearestObstacleChecked = false;
-		isPermanent = false;
-		if (neighbors != null) {
-			neighbors.clear();
-		}
 		if (cachedCosines != null) {
 			cachedCosines.clear();
 		}
@@ -175,6 +163,14 @@ class Vertex extends Point {
 		return rect;
 	}
 
+	/**
+	 * Returns how far this vertex has been moved from its original location along
+	 * either axis.
+	 */
+	int getDeformation() {
+		return Math.max(Math.abs(x - origX), Math.abs(y - origY));
+	}
+
 	private int getSpacing() {
 		if (obs == null) {
 			return 0;
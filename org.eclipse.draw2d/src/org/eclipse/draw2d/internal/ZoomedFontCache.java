@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.draw2d.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.eclipse.swt.graphics.Device;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A bounded cache of the fonts created when painting at a zoom level other than
+ * 100%, together with the {@link FontData} and the baseline height of the fonts
+ * being zoomed. The cache outlives the graphics objects using it, so that
+ * repeated paints at the same zoom level reuse the same font handles.
+ * <P>
+ * Zoomed fonts are keyed by the identity of the original font and the zoomed
+ * height. The least recently used fonts are evicted once the capacity of the
+ * cache is exceeded. As an evicted font may still be selected into a GC that is
+ * being painted on, it is not disposed immediately: on a {@link Display} it is
+ * disposed asynchronously, i.e. after the current paint has completed, on any
+ * other device when the cache itself is disposed.
+ * <P>
+ * A cache is not thread-safe and must only be used from the thread of its
+ * device. Only the lookup of the shared cache of a display is synchronized.
+ */
+public final class ZoomedFontCache {
+
+	/**
+	 * The default number of zoomed fonts kept per cache.
+	 */
+	public static final int DEFAULT_CAPACITY = 128;
+
+	private static final Map<Display, ZoomedFontCache> DISPLAY_CACHES = new HashMap<>();
+
+	/**
+	 * Identity based key, as the equality of fonts depends on their handle, which
+	 * changes when a font is disposed and may be reused by a new font.
+	 */
+	private static final class Key {
+		Font font;
+		int height;
+
+		Key(Font font, int height) {
+			this.font = font;
+			this.height = height;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key key && key.font == font && key.height == height;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(font) * 31 + height;
+		}
+	}
+
+	private final Device device;
+	private final int capacity;
+	private final Map<Key, Font> fonts;
+	private final Map<Key, FontData> fontData;
+	private final Map<Key, Integer> baselines;
+	private final Key lookup = new Key(null, 0);
+	private final List<Font> retired = new ArrayList<>();
+	private boolean disposeScheduled;
+	private boolean disposed;
+
+	/**
+	 * Creates a new cache which creates its fonts on the given device. The caller
+	 * is responsible for {@link #dispose() disposing} the cache before the device
+	 * is disposed.
+	 *
+	 * @param device   the device on which zoomed fonts are created
+	 * @param capacity the maximum number of zoomed fonts kept
+	 */
+	public ZoomedFontCache(Device device, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive"); //$NON-NLS-1$
+		}
+		this.device = device;
+		this.capacity = capacity;
+		fonts = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Font> eldest) {
+				if (size() > ZoomedFontCache.this.capacity) {
+					retire(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+		fontData = createBoundedMap(capacity);
+		baselines = createBoundedMap(capacity);
+	}
+
+	private static <V> Map<Key, V> createBoundedMap(int capacity) {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns the shared cache of the given display. The cache is created on
+	 * demand and disposed together with the display, at which point it is also
+	 * removed from the shared caches. This method must be called from the thread
+	 * of the display.
+	 *
+	 * @param display the display
+	 * @return the cache for fonts created on the display
+	 */
+	public static ZoomedFontCache getCache(Display display) {
+		synchronized (DISPLAY_CACHES) {
+			ZoomedFontCache cache = DISPLAY_CACHES.get(display);
+			if (cache == null) {
+				cache = new ZoomedFontCache(display, DEFAULT_CAPACITY);
+				// fails for a disposed display, which is then never registered
+				display.disposeExec(() -> disposeCache(display));
+				DISPLAY_CACHES.put(display, cache);
+			}
+			return cache;
+		}
+	}
+
+	private static void disposeCache(Display display) {
+		ZoomedFontCache cache;
+		synchronized (DISPLAY_CACHES) {
+			cache = DISPLAY_CACHES.remove(display);
+		}
+		if (cache != null) {
+			cache.dispose();
+		}
+	}
+
+	/**
+	 * Returns the font with the same font data as the given font, but the given
+	 * height. The returned font is owned by this cache and must not be disposed.
+	 *
+	 * @param font   the font to zoom
+	 * @param height the height of the zoomed font, in points
+	 * @return the zoomed font
+	 */
+	public Font getFont(Font font, int height) {
+		Font zoomed = fonts.get(lookup(font, height));
+		if (zoomed == null) {
+			FontData data = font.getFontData()[0];
+			data.setHeight(height);
+			zoomed = new Font(device, data);
+			fonts.put(new Key(font, height), zoomed);
+		}
+		return zoomed;
+	}
+
+	/**
+	 * Returns the first {@link FontData} of the given font. The returned font data
+	 * is shared and must not be modified.
+	 *
+	 * @param font the font
+	 * @return the font data
+	 */
+	public FontData getFontData(Font font) {
+		FontData data = fontData.get(lookup(font, 0));
+		if (data == null) {
+			data = font.getFontData()[0];
+			fontData.put(new Key(font, 0), data);
+		}
+		return data;
+	}
+
+	/**
+	 * Returns the distance from the top of a line of text to its baseline, i.e.
+	 * the height minus the descent of the given font. The metrics are only
+	 * computed if the value is not cached yet.
+	 *
+	 * @param font    the font
+	 * @param metrics supplies the metrics of the font
+	 * @return the baseline height of the font
+	 */
+	public int getBaseline(Font font, Supplier<FontMetrics> metrics) {
+		Integer baseline = baselines.get(lookup(font, 0));
+		if (baseline == null) {
+			FontMetrics metric = metrics.get();
+			baseline = Integer.valueOf(metric.getHeight() - metric.getDescent());
+			baselines.put(new Key(font, 0), baseline);
+		}
+		return baseline.intValue();
+	}
+
+	/**
+	 * Returns the number of zoomed fonts held by this cache.
+	 *
+	 * @return the number of zoomed fonts
+	 */
+	public int size() {
+		return fonts.size();
+	}
+
+	/**
+	 * Disposes all fonts created by this cache. The cache must not be used
+	 * afterwards.
+	 */
+	public void dispose() {
+		disposed = true;
+		fonts.values().forEach(Font::dispose);
+		fonts.clear();
+		fontData.clear();
+		baselines.clear();
+		disposeRetired();
+	}
+
+	private Key lookup(Font font, int height) {
+		lookup.font = font;
+		lookup.height = height;
+		return lookup;
+	}
+
+	private void retire(Font font) {
+		retired.add(font);
+		if (!disposeScheduled && !disposed && device instanceof Display display && !display.isDisposed()) {
+			disposeScheduled = true;
+			display.asyncExec(this::disposeRetired);
+		}
+	}
+
+	private void disposeRetired() {
+		disposeScheduled = false;
+		retired.forEach(Font::dispose);
+		retired.clear();
+	}
+
+}
@@ -62,6 +62,7 @@ public final class BidiProcessor {
 	private StringBuffer bidiText;
 	private final List<BidiEntry> list = new ArrayList<>();
 	private int orientation = SWT.LEFT_TO_RIGHT;
+	private boolean levelsAssigned;
 
 	private BidiProcessor() {
 	}
@@ -197,6 +198,7 @@ public final class BidiProcessor {
 	 * discarded at the end of this method.
 	 */
 	public void process() {
+		levelsAssigned = false;
 		try {
 			if (bidiText.length() == 0) {
 				return;
@@ -238,6 +240,7 @@ public final class BidiProcessor {
 				levels = newLevels;
 			}
 			assignResults(levels);
+			levelsAssigned = true;
 
 			// reset the orientation of the layout, in case it was set to RTL
 			layout.setOrientation(SWT.LEFT_TO_RIGHT);
@@ -249,6 +252,17 @@ public final class BidiProcessor {
 		}
 	}
 
+	/**
+	 * Returns whether the last invocation of {@link #process()} assigned Bidi
+	 * information to the contributing figures. If not, none of the text requires
+	 * Bidi processing.
+	 *
+	 * @return <code>true</code> if Bidi information was assigned
+	 */
+	boolean hasAssignedLevels() {
+		return levelsAssigned;
+	}
+
 	/**
 	 * Sets the paragraph embedding. The given orientation will be used on
 	 * TextLayout when determining the Bidi levels.
@@ -45,6 +45,7 @@ public class BlockFlow extends FlowFigure {
 	private int alignment = PositionConstants.NONE;
 	private int orientation = SWT.NONE;
 	private boolean bidiValid;
+	private boolean bidiAssigned;
 
 	/**
 	 * Constructs a new BlockFlow.
@@ -234,6 +235,18 @@ public class BlockFlow extends FlowFigure {
 		super.revalidate();
 	}
 
+	/**
+	 * Invalidates this block after the given child has been revalidated. Unlike
+	 * {@link #revalidate()}, this does not invalidate the whole block, so that only
+	 * the lines affected by the child are laid out again.
+	 *
+	 * @param child the revalidated child
+	 */
+	void revalidateChild(IFigure child) {
+		((BlockFlowLayout) getLayoutManager()).childContentsChanged(child);
+		super.revalidate();
+	}
+
 	/**
 	 * A Block will invalidate the Bidi state of all its children, so that it is
 	 * re-evaluated when this block is next validated.
@@ -242,9 +255,19 @@ public class BlockFlow extends FlowFigure {
 	 */
 	@Override
 	protected void revalidateBidi(IFigure origin) {
+		BlockFlowLayout layout = (BlockFlowLayout) getLayoutManager();
+		IFigure child = origin;
+		while (child != null && child.getParent() != this) {
+			child = child.getParent();
+		}
+		if (child == null) {
+			layout.blockContentsChanged();
+		} else {
+			layout.childContentsChanged(child);
+		}
 		if (bidiValid) {
 			bidiValid = false;
-			revalidate();
+			super.revalidate();
 		}
 	}
 
@@ -320,6 +343,12 @@ public class BlockFlow extends FlowFigure {
 			}
 			super.contributeBidi(BidiProcessor.INSTANCE);
 			BidiProcessor.INSTANCE.process();
+			// changed Bidi levels may affect the layout of all children
+			boolean assigned = BidiProcessor.INSTANCE.hasAssignedLevels();
+			if (assigned || bidiAssigned) {
+				((BlockFlowLayout) getLayoutManager()).blockContentsChanged();
+			}
+			bidiAssigned = assigned;
 			bidiValid = true;
 		}
 		super.validate();
@@ -12,7 +12,10 @@
  *******************************************************************************/
 package org.eclipse.draw2d.text;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.SWT;
 
@@ -37,6 +40,44 @@ public class BlockFlowLayout extends FlowContainerLayout {
 	private boolean continueOnSameLine = false;
 	private CompositeBox previousLine = null;
 
+	/**
+	 * The lines which have been added to the block box, in order.
+	 */
+	private final List<CompositeBox> lines = new ArrayList<>();
+	/**
+	 * The children as of the last layout, or <code>null</code> if the block has
+	 * not been laid out completely yet. For each child, <code>firstLines</code>
+	 * holds the index of the first line it may have added fragments to, and
+	 * <code>lineStarts</code> whether that line was still empty at that point.
+	 * The last element of each array describes the state after the last child.
+	 */
+	private List<IFigure> laidOutChildren;
+	private int[] firstLines;
+	private boolean[] lineStarts;
+	/**
+	 * The children whose contents changed since the last layout.
+	 */
+	private final Set<IFigure> changedChildren = new HashSet<>();
+	/**
+	 * The index of the first child laid out again, or -1 if the children are not
+	 * post-validated after the layout.
+	 */
+	private int relayoutStart = -1;
+	/**
+	 * The index after the last child to post-validate. The bounds of the children
+	 * whose lines have been reused without moving them do not change.
+	 */
+	private int relayoutEnd;
+	/**
+	 * The index of the last changed child. The lines of later children are reused
+	 * if a child starts on an empty line.
+	 */
+	private int lastChangedChild;
+	/**
+	 * The lines following the first line laid out again, which may be reused.
+	 */
+	private List<CompositeBox> reusableLines;
+
 	/**
 	 * Creates a new BlockFlowLayout with the given BlockFlow.
 	 *
@@ -83,6 +124,7 @@ public class BlockFlowLayout extends FlowContainerLayout {
 			throw new RuntimeException("Unexpected state"); //$NON-NLS-1$
 		}
 		blockBox.add(line);
+		lines.add(line);
 		previousLine = line;
 	}
 
@@ -113,6 +155,18 @@ public class BlockFlowLayout extends FlowContainerLayout {
 		blockInvalid = true;
 	}
 
+	/**
+	 * Marks the contents of the given child as changed. Unless the whole block is
+	 * invalid, only the lines from the first line of the child up to the first
+	 * line which is not affected by the change are laid out again during
+	 * validation. The remaining lines are moved up or down as needed.
+	 *
+	 * @param child the changed child
+	 */
+	void childContentsChanged(IFigure child) {
+		changedChildren.add(child);
+	}
+
 	/**
 	 * @see FlowContainerLayout#cleanup()
 	 */
@@ -120,6 +174,8 @@ public class BlockFlowLayout extends FlowContainerLayout {
 	protected void cleanup() {
 		super.cleanup();
 		previousLine = null;
+		reusableLines = null;
+		changedChildren.clear();
 	}
 
 	/**
@@ -136,7 +192,7 @@ public class BlockFlowLayout extends FlowContainerLayout {
 	 * the current line and then ends the line.
 	 */
 	protected void endBlock() {
-		if (blockInvalid) {
+		if (relayoutStart >= 0) {
 			Insets insets = getBlockFlow().getInsets();
 			blockBox.height += insets.getHeight();
 			blockBox.width += insets.getWidth();
@@ -146,9 +202,12 @@ public class BlockFlowLayout extends FlowContainerLayout {
 			getContext().addLine(blockBox);
 		}
 
-		if (blockInvalid) {
+		if (relayoutStart >= 0) {
 			blockInvalid = false;
-			getFlowFigure().getChildren().forEach(child -> ((FlowFigure) child).postValidate());
+			List<? extends IFigure> children = getFlowFigure().getChildren();
+			for (int i = relayoutStart; i < relayoutEnd; i++) {
+				((FlowFigure) children.get(i)).postValidate();
+			}
 		}
 	}
 
@@ -216,6 +275,79 @@ public class BlockFlowLayout extends FlowContainerLayout {
 		}
 	}
 
+	private boolean isAtLineStart() {
+		return (currentLine == null || !currentLine.isOccupied()) && !continueOnSameLine;
+	}
+
+	/**
+	 * Lays out the children, starting with the first child which may be affected
+	 * by a changed child, unless the whole block is invalid. Once a child following
+	 * the last changed child starts on an empty line, the lines of the remaining
+	 * children are the same as before and are only moved below the new lines.
+	 *
+	 * @see FlowContainerLayout#layoutChildren()
+	 */
+	@Override
+	protected void layoutChildren() {
+		List<? extends IFigure> children = getFlowFigure().getChildren();
+		int count = children.size();
+		int[] newFirstLines = new int[count + 1];
+		boolean[] newLineStarts = new boolean[count + 1];
+		int start = Math.max(relayoutStart, 0);
+		if (start > 0) {
+			System.arraycopy(firstLines, 0, newFirstLines, 0, start);
+			System.arraycopy(lineStarts, 0, newLineStarts, 0, start);
+		}
+		relayoutEnd = count;
+		int i = start;
+		for (; i < count; i++) {
+			boolean lineStart = isAtLineStart();
+			if (i > lastChangedChild && lineStart && lineStarts[i]) {
+				reuseLines(i, newFirstLines, newLineStarts);
+				break;
+			}
+			newFirstLines[i] = lines.size();
+			newLineStarts[i] = lineStart;
+			IFigure child = children.get(i);
+			if (forceChildInvalidation(child)) {
+				child.invalidate();
+			}
+			child.validate();
+		}
+		if (i == count) {
+			newFirstLines[count] = lines.size();
+			newLineStarts[count] = isAtLineStart();
+		}
+		laidOutChildren = new ArrayList<>(children);
+		firstLines = newFirstLines;
+		lineStarts = newLineStarts;
+	}
+
+	/**
+	 * Adds the lines of the children starting at the given index again, below the
+	 * lines added so far, and records the positions of the children.
+	 */
+	private void reuseLines(int index, int[] newFirstLines, boolean[] newLineStarts) {
+		int offset = lines.size() - firstLines[index];
+		int reusableStart = firstLines[relayoutStart];
+		for (int i = index; i < firstLines.length; i++) {
+			newFirstLines[i] = firstLines[i] + offset;
+			newLineStarts[i] = lineStarts[i];
+		}
+		int first = firstLines[index] - reusableStart;
+		if (first == reusableLines.size()) {
+			relayoutEnd = index;
+			return;
+		}
+		int baseline = reusableLines.get(first).getBaseline();
+		for (int line = first; line < reusableLines.size(); line++) {
+			addBelowPreviousLine(reusableLines.get(line));
+		}
+		if (reusableLines.get(first).getBaseline() == baseline) {
+			relayoutEnd = index;
+		}
+	}
+
 	/**
 	 * @see FlowContainerLayout#preLayout()
 	 */
@@ -224,7 +356,47 @@ public class BlockFlowLayout extends FlowContainerLayout {
 		setContinueOnSameLine(false);
 		blockBox = getBlockFlow().getBlockBox();
 		setupBlock();
-		// Probably could setup current and previous line here, or just previous
+		List<? extends IFigure> children = getFlowFigure().getChildren();
+		if (!blockInvalid && !changedChildren.isEmpty() && children.equals(laidOutChildren)) {
+			setupPartialLayout(children);
+		} else {
+			relayoutStart = blockInvalid ? 0 : -1;
+			lastChangedChild = children.size();
+			lines.clear();
+		}
+	}
+
+	/**
+	 * Determines the children to lay out again and restores the state of the block
+	 * before the first of them.
+	 */
+	private void setupPartialLayout(List<? extends IFigure> children) {
+		int firstChanged = -1;
+		lastChangedChild = -1;
+		for (int i = 0; i < children.size(); i++) {
+			if (changedChildren.contains(children.get(i))) {
+				if (firstChanged == -1) {
+					firstChanged = i;
+				}
+				lastChangedChild = i;
+			}
+		}
+		relayoutStart = firstChanged == -1 ? children.size() : firstChanged;
+		while (!lineStarts[relayoutStart]) {
+			relayoutStart--;
+		}
+
+		List<CompositeBox> keptLines = lines.subList(0, firstLines[relayoutStart]);
+		reusableLines = new ArrayList<>(lines.subList(keptLines.size(), lines.size()));
+		List<CompositeBox> kept = new ArrayList<>(keptLines);
+		lines.clear();
+		blockBox.height = 0;
+		blockBox.setWidth(Math.max(0, blockBox.getRecommendedWidth()));
+		for (CompositeBox line : kept) {
+			blockBox.add(line);
+			lines.add(line);
+			previousLine = line;
+		}
 	}
 
 	/**
@@ -119,6 +119,22 @@ public abstract class FlowFigure extends Figure {
 		revalidateBidi(this);
 	}
 
+	/**
+	 * Overridden to let the containing {@link BlockFlow} know which of its
+	 * children has been revalidated.
+	 *
+	 * @see org.eclipse.draw2d.IFigure#revalidate()
+	 */
+	@Override
+	public void revalidate() {
+		if (getParent() instanceof BlockFlow block && !isValidationRoot()) {
+			invalidate();
+			block.revalidateChild(this);
+		} else {
+			super.revalidate();
+		}
+	}
+
 	/**
 	 * This method should be invoked whenever a change that can potentially affect
 	 * the Bidi evaluation is made (eg., adding or removing children, changing text,
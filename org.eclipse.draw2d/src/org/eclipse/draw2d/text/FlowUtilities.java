@@ -173,7 +173,7 @@ public class FlowUtilities {
 			// happen at most once.
 			return getTextLayoutBounds(string, font, 0, guess - 1).width;
 		}
-		return getTextUtilities().getTextExtents(string.substring(0, guess), font).width;
+		return getTextUtilities().getTextWidth(string, 0, guess, font);
 	}
 
 	/**
@@ -191,7 +191,7 @@ public class FlowUtilities {
 			} else if (fragment.requiresBidi()) {
 				width = getTextLayoutBounds(string, font, 0, fragment.length - 1).width;
 			} else {
-				width = getTextUtilities().getTextExtents(string.substring(0, fragment.length), font).width;
+				width = getTextUtilities().getTextWidth(string, 0, fragment.length, font);
 			}
 			if (fragment.isTruncated()) {
 				width += getEllipsisWidth(font);
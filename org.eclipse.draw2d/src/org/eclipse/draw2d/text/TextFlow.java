@@ -294,8 +294,7 @@ public class TextFlow extends InlineFlow {
 			if (trailing && offset < box.length) {
 				offset++;
 			}
-			String substring = getText().substring(box.offset, box.offset + offset);
-			result.x = getTextUtilities().getTextExtents(substring, getFont()).width;
+			result.x = getTextUtilities().getTextWidth(getText(), box.offset, box.offset + offset, getFont());
 		} else {
 			TextLayout layout = FlowUtilities.getTextLayout();
 			layout.setFont(getFont());
@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.widgets.Control;
 
@@ -25,6 +26,7 @@ import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
 
+import org.eclipse.gef.internal.SelectionList;
 import org.eclipse.gef.ui.parts.AbstractEditPartViewer;
 
 /**
@@ -44,6 +46,8 @@ public class SelectionManager {
 	private Runnable notifier;
 	private List<EditPart> selection;
 	private EditPartViewer viewer;
+	private ISelection cachedSelection;
+	private int cachedModificationCount;
 
 	/**
 	 * Default Constructor
@@ -184,7 +188,16 @@ public class SelectionManager {
 		if (selection.isEmpty() && viewer.getContents() != null) {
 			return new StructuredSelection(viewer.getContents());
 		}
-		return new StructuredSelection(selection);
+		if (!(selection instanceof SelectionList<?> list)) {
+			return new StructuredSelection(selection);
+		}
+		// the selection is immutable, so that it can be shared until the list
+		// changes
+		if (cachedSelection == null || cachedModificationCount != list.getModificationCount()) {
+			cachedSelection = new StructuredSelection(selection);
+			cachedModificationCount = list.getModificationCount();
+		}
+		return cachedSelection;
 	}
 
 	/**
@@ -235,6 +248,7 @@ public class SelectionManager {
 		this.viewer = viewer;
 		this.selection = selection;
 		this.notifier = notifier;
+		cachedSelection = null;
 
 		hookViewer(viewer);
 	}
@@ -288,10 +302,21 @@ public class SelectionManager {
 		if (!(newSelection instanceof IStructuredSelection)) {
 			return;
 		}
+		setSelection(((IStructuredSelection) newSelection).toList(), propagate);
+	}
 
-		List orderedSelection = ((IStructuredSelection) newSelection).toList();
-		// Convert to HashSet to optimize performance.
-		Collection hashset = new HashSet(orderedSelection);
+	/**
+	 * Sets the selection to the given edit parts. The last edit part becomes the
+	 * primary selection. Unlike selecting the edit parts one by one, the selection
+	 * state of each edit part is updated at most once.
+	 *
+	 * @param newSelection the edit parts to select, in order
+	 * @param propagate    whether to fire selection changed afterwards
+	 * @since 3.17
+	 */
+	public void setSelection(Collection<? extends EditPart> newSelection, boolean propagate) {
+		// Use a set to optimize performance.
+		Set<?> retained = newSelection instanceof Set<?> set ? set : new HashSet<>(newSelection);
 
 		// Fix for 458416: adjust the focus through the viewer only (to give
 		// AbstractEditPartViewer a change to update its focusPart field).
@@ -299,16 +324,16 @@ public class SelectionManager {
 		// here, so both focus part values should stay in sync.
 		viewer.setFocus(null);
 		for (EditPart part : selection) {
-			if (!hashset.contains(part)) {
+			if (!retained.contains(part)) {
 				part.setSelected(EditPart.SELECTED_NONE);
 			}
 		}
 		selection.clear();
 
-		if (!orderedSelection.isEmpty()) {
-			Iterator itr = orderedSelection.iterator();
+		if (!newSelection.isEmpty()) {
+			Iterator<? extends EditPart> itr = newSelection.iterator();
 			while (true) {
-				EditPart part = (EditPart) itr.next();
+				EditPart part = itr.next();
 				selection.add(part);
 				if (!itr.hasNext()) {
 					part.setSelected(EditPart.SELECTED_PRIMARY);
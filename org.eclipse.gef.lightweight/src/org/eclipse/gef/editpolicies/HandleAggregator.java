@@ -0,0 +1,524 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gef.editpolicies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.Color;
+
+import org.eclipse.draw2d.AncestorListener;
+import org.eclipse.draw2d.ColorConstants;
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.PositionConstants;
+import org.eclipse.draw2d.TreeSearch;
+import org.eclipse.draw2d.geometry.PrecisionRectangle;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.Handle;
+import org.eclipse.gef.handles.HandleBounds;
+
+/**
+ * A figure on the handle layer which paints the selection handles of many edit
+ * parts at once, instead of adding a move handle and several square handles per
+ * edit part to the layer. The handles are painted like the
+ * {@link org.eclipse.gef.handles.MoveHandle MoveHandles} and
+ * {@link org.eclipse.gef.handles.SquareHandle SquareHandles} created by
+ * {@link NonResizableEditPolicy} and {@link ResizableEditPolicy}.
+ * <P>
+ * Whether the handles are aggregated is decided during validation, once all
+ * edit parts of a selection change have been added and removed. The real
+ * handles of an edit part, as created by
+ * {@link SelectionHandlesEditPolicy#createSelectionHandles()}, are always added
+ * as children of this figure, which grows to contain them. If the aggregation
+ * threshold of the viewer is not exceeded, every edit part has its real handles
+ * and nothing else is painted.
+ * <P>
+ * Otherwise, the real handles of an edit part are only added once a search for
+ * a figure, e.g. for a handle, hits the handle area of the edit part. Only the
+ * edit part most recently hit has real handles, so that drag trackers and
+ * cursors work as usual.
+ * <P>
+ * The handle areas are recomputed during validation whenever the figure of a
+ * registered edit part, an ancestor of it, e.g. a scrolled viewport, or an
+ * ancestor of this figure has moved, and are kept in a uniform grid for
+ * hit-testing and painting.
+ */
+final class HandleAggregator extends Figure implements AncestorListener {
+
+	private static final int CELL_SIZE = 128;
+
+	/**
+	 * Areas spanning more cells are not put into the grid, but are always
+	 * considered as candidates.
+	 */
+	private static final int MAX_CELLS_PER_AREA = 64;
+
+	/**
+	 * The size of the square handles, see
+	 * {@link org.eclipse.gef.handles.SquareHandle}.
+	 */
+	private static final int HANDLE_SIZE = 7;
+
+	private static final class Entry {
+		final SelectionHandlesEditPolicy policy;
+		final IFigure reference;
+		final int[] directions;
+		final long order;
+		final Rectangle outline = new Rectangle();
+		final Rectangle[] squares;
+		final Rectangle area = new Rectangle();
+		List<? extends Handle> handles;
+		boolean gridded;
+		int stamp;
+
+		Entry(SelectionHandlesEditPolicy policy, int[] directions, long order) {
+			this.policy = policy;
+			reference = policy.getHostFigure();
+			this.directions = directions;
+			this.order = order;
+			squares = new Rectangle[directions.length];
+		}
+	}
+
+	private final Map<SelectionHandlesEditPolicy, Entry> entries = new LinkedHashMap<>();
+	private final Map<Long, List<Entry>> cells = new HashMap<>();
+	private final List<Entry> unfiltered = new ArrayList<>();
+	private long nextOrder;
+	private int stamp;
+	private boolean dirty;
+	private boolean aggregated;
+	private Entry materialized;
+
+	/**
+	 * Returns the aggregator on the given handle layer, which is always the
+	 * bottommost child of the layer.
+	 *
+	 * @param layer  the handle layer
+	 * @param create whether to create the aggregator if the layer has none
+	 * @return the aggregator, or <code>null</code>
+	 */
+	static HandleAggregator getAggregator(IFigure layer, boolean create) {
+		List<? extends IFigure> children = layer.getChildren();
+		if (!children.isEmpty() && children.get(0) instanceof HandleAggregator aggregator) {
+			return aggregator;
+		}
+		if (!create) {
+			return null;
+		}
+		HandleAggregator aggregator = new HandleAggregator();
+		layer.add(aggregator, 0);
+		return aggregator;
+	}
+
+	/**
+	 * Adds the handles of the given policy's host. The handles are painted at the
+	 * location of each of the given directions.
+	 *
+	 * @param policy     the policy
+	 * @param directions the directions, as {@link PositionConstants}
+	 */
+	void add(SelectionHandlesEditPolicy policy, int[] directions) {
+		remove(policy);
+		Entry entry = new Entry(policy, directions, nextOrder++);
+		entries.put(policy, entry);
+		entry.reference.addAncestorListener(this);
+		markDirty();
+	}
+
+	/**
+	 * Removes the handles of the given policy's host. The aggregator removes
+	 * itself from the handle layer once it is empty.
+	 *
+	 * @param policy the policy
+	 */
+	void remove(SelectionHandlesEditPolicy policy) {
+		Entry entry = entries.remove(policy);
+		if (entry == null) {
+			return;
+		}
+		entry.reference.removeAncestorListener(this);
+		if (entry == materialized) {
+			materialized = null;
+		}
+		removeHandles(entry);
+		if (entries.isEmpty()) {
+			if (getParent() != null) {
+				getParent().remove(this);
+			}
+		} else {
+			markDirty();
+		}
+	}
+
+	/**
+	 * Returns the real handles of the given policy's host, creating them if
+	 * necessary.
+	 *
+	 * @param policy the policy
+	 * @return the handles
+	 */
+	List<? extends Handle> getHandles(SelectionHandlesEditPolicy policy) {
+		Entry entry = entries.get(policy);
+		if (entry == null) {
+			return Collections.emptyList();
+		}
+		if (dirty) {
+			update();
+		}
+		if (entry.handles == null) {
+			materialize(entry);
+		}
+		return entry.handles;
+	}
+
+	/**
+	 * Marks the handle areas as outdated if an ancestor of this figure, or a
+	 * registered figure or one of its ancestors has been added or moved.
+	 *
+	 * @see AncestorListener#ancestorAdded(IFigure)
+	 */
+	@Override
+	public void ancestorAdded(IFigure ancestor) {
+		markDirty();
+	}
+
+	@Override
+	public void ancestorMoved(IFigure ancestor) {
+		// this figure moves whenever its bounds are recomputed
+		if (ancestor != this) {
+			markDirty();
+		}
+	}
+
+	@Override
+	public void ancestorRemoved(IFigure ancestor) {
+		markDirty();
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		addAncestorListener(this);
+	}
+
+	@Override
+	public void removeNotify() {
+		removeAncestorListener(this);
+		super.removeNotify();
+	}
+
+	/**
+	 * Creates the real handles of the topmost edit part whose handle area
+	 * contains the point, before searching the children.
+	 *
+	 * @see org.eclipse.draw2d.IFigure#findFigureAt(int, int, TreeSearch)
+	 */
+	@Override
+	public IFigure findFigureAt(int x, int y, TreeSearch search) {
+		if (dirty) {
+			update();
+		}
+		if (!containsPoint(x, y) || search.prune(this)) {
+			return null;
+		}
+		if (aggregated) {
+			Entry top = null;
+			for (Entry entry : getEntriesIn(new Rectangle(x, y, 1, 1))) {
+				if (entry.area.contains(x, y)) {
+					top = entry;
+				}
+			}
+			if (top != null) {
+				materialize(top);
+			}
+		}
+		// this figure itself is never found, only the real handles
+		return findDescendantAtExcluding(x, y, search);
+	}
+
+	@Override
+	public boolean isValidationRoot() {
+		return true;
+	}
+
+	@Override
+	protected void paintFigure(Graphics graphics) {
+		if (!aggregated) {
+			return;
+		}
+		Color foreground = graphics.getForegroundColor();
+		for (Entry entry : getEntriesIn(graphics.getClip(new Rectangle()))) {
+			if (entry == materialized) {
+				continue;
+			}
+			// like the line border of a move handle
+			graphics.setForegroundColor(foreground);
+			Rectangle outline = entry.outline;
+			graphics.drawRectangle(outline.x, outline.y, outline.width - 1, outline.height - 1);
+			// like square handles
+			boolean primary = entry.policy.getHost().getSelected() == EditPart.SELECTED_PRIMARY;
+			graphics.setBackgroundColor(primary ? ColorConstants.black : ColorConstants.white);
+			graphics.setForegroundColor(primary ? ColorConstants.white : ColorConstants.black);
+			for (Rectangle square : entry.squares) {
+				graphics.fillRectangle(square.x + 1, square.y + 1, square.width - 2, square.height - 2);
+				graphics.drawRectangle(square.x + 1, square.y + 1, square.width - 2, square.height - 2);
+			}
+		}
+	}
+
+	@Override
+	public void validate() {
+		if (dirty) {
+			update();
+		}
+		super.validate();
+	}
+
+	private void markDirty() {
+		if (!dirty) {
+			dirty = true;
+			revalidate();
+		}
+	}
+
+	/**
+	 * Decides whether the handles are aggregated, adds or removes the real
+	 * handles of the edit parts accordingly and recomputes the handle areas.
+	 */
+	private void update() {
+		dirty = false;
+		if (!entries.isEmpty()) {
+			// all edit parts on the layer belong to the same viewer
+			aggregated = entries.values().iterator().next().policy.isAggregationThresholdExceeded();
+		}
+		for (Entry entry : entries.values()) {
+			if (!aggregated) {
+				addHandles(entry);
+			} else if (entry != materialized) {
+				removeHandles(entry);
+			}
+		}
+		if (!aggregated) {
+			materialized = null;
+		}
+		rebuild();
+	}
+
+	private void materialize(Entry entry) {
+		if (entry == materialized) {
+			return;
+		}
+		if (materialized != null) {
+			removeHandles(materialized);
+			repaint(materialized.area);
+		}
+		materialized = entry;
+		addHandles(entry);
+		repaint(entry.area);
+		Rectangle union = getBounds().getCopy();
+		includeHandles(entry, union);
+		if (!union.equals(getBounds())) {
+			setBounds(union);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addHandles(Entry entry) {
+		if (entry.handles != null) {
+			return;
+		}
+		entry.handles = entry.policy.createSelectionHandles();
+		for (Handle handle : entry.handles) {
+			IFigure figure = (IFigure) handle;
+			add(figure);
+			// position the handle, so that it can be hit right away
+			figure.validate();
+		}
+	}
+
+	private void removeHandles(Entry entry) {
+		if (entry.handles == null) {
+			return;
+		}
+		for (Handle handle : entry.handles) {
+			remove((IFigure) handle);
+		}
+		entry.handles = null;
+	}
+
+	/**
+	 * Adds the bounds of the real handles of the given entry, if any, to the given
+	 * rectangle.
+	 */
+	private static void includeHandles(Entry entry, Rectangle union) {
+		if (entry.handles == null) {
+			return;
+		}
+		for (Handle handle : entry.handles) {
+			IFigure figure = (IFigure) handle;
+			// the handle may have been invalidated since it was added
+			figure.validate();
+			union.union(figure.getBounds());
+		}
+	}
+
+	/**
+	 * Recomputes the handle areas of all edit parts and the bounds of this figure,
+	 * which is the union of the handle areas and of the real handles.
+	 */
+	private void rebuild() {
+		cells.clear();
+		unfiltered.clear();
+		Rectangle union = null;
+		for (Entry entry : entries.values()) {
+			update(entry);
+			insert(entry);
+			union = union == null ? entry.area.getCopy() : union.union(entry.area);
+			includeHandles(entry, union);
+		}
+		repaint();
+		setBounds(union == null ? new Rectangle() : union);
+		repaint();
+	}
+
+	/**
+	 * Computes the outline and the squares of the given entry in the same way as
+	 * the locators of the real handles do.
+	 */
+	private void update(Entry entry) {
+		IFigure reference = entry.reference;
+		Rectangle handleBounds;
+		if (reference instanceof HandleBounds) {
+			handleBounds = ((HandleBounds) reference).getHandleBounds();
+		} else {
+			handleBounds = reference.getBounds();
+		}
+		// see MoveHandleLocator, with the insets of a line border of width 1
+		Rectangle outline = new PrecisionRectangle(handleBounds.getResized(-1, -1));
+		reference.translateToAbsolute(outline);
+		translateToRelative(outline);
+		Rectangle box = outline.getCopy();
+		outline.translate(-1, -1);
+		outline.resize(3, 3);
+		entry.outline.setBounds(outline);
+		entry.area.setBounds(outline);
+
+		// see RelativeLocator
+		box.resize(1, 1);
+		for (int i = 0; i < entry.directions.length; i++) {
+			int direction = entry.directions[i];
+			double relativeX = getRelativeLocation(direction & PositionConstants.EAST_WEST, PositionConstants.WEST,
+					PositionConstants.EAST);
+			double relativeY = getRelativeLocation(direction & PositionConstants.NORTH_SOUTH, PositionConstants.NORTH,
+					PositionConstants.SOUTH);
+			Rectangle square = new Rectangle(box.x + (int) (box.width * relativeX - ((HANDLE_SIZE + 1) / 2)),
+					box.y + (int) (box.height * relativeY - ((HANDLE_SIZE + 1) / 2)), HANDLE_SIZE, HANDLE_SIZE);
+			entry.squares[i] = square;
+			entry.area.union(square);
+		}
+	}
+
+	private static double getRelativeLocation(int location, int start, int end) {
+		if (location == start) {
+			return 0;
+		}
+		return location == end ? 1.0 : 0.5;
+	}
+
+	private void insert(Entry entry) {
+		Rectangle area = entry.area;
+		int minColumn = getCell(area.x);
+		int minRow = getCell(area.y);
+		int maxColumn = getCell(area.right() - 1);
+		int maxRow = getCell(area.bottom() - 1);
+		long cellCount = (long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1);
+		entry.gridded = !area.isEmpty() && cellCount <= MAX_CELLS_PER_AREA;
+		if (!entry.gridded) {
+			unfiltered.add(entry);
+			return;
+		}
+		for (int column = minColumn; column <= maxColumn; column++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				cells.computeIfAbsent(Long.valueOf(getKey(column, row)), key -> new ArrayList<>(4)).add(entry);
+			}
+		}
+	}
+
+	/**
+	 * Returns the entries whose handle area intersects the given area, in the
+	 * order in which they were added.
+	 */
+	private List<Entry> getEntriesIn(Rectangle area) {
+		List<Entry> candidates = new ArrayList<>();
+		int minColumn = getCell(area.x);
+		int minRow = getCell(area.y);
+		int maxColumn = getCell(area.right() - 1);
+		int maxRow = getCell(area.bottom() - 1);
+		long cellCount = (long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1);
+		if (area.isEmpty()) {
+			return candidates;
+		}
+		if (cellCount > cells.size()) {
+			// cheaper to visit all entries than all cells of the area
+			for (Entry entry : entries.values()) {
+				if (entry.area.intersects(area)) {
+					candidates.add(entry);
+				}
+			}
+			return candidates;
+		}
+		// entries spanning several cells must only be added once
+		int queryStamp = ++stamp;
+		for (Entry entry : unfiltered) {
+			entry.stamp = queryStamp;
+			if (entry.area.intersects(area)) {
+				candidates.add(entry);
+			}
+		}
+		for (int column = minColumn; column <= maxColumn; column++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				List<Entry> cell = cells.get(Long.valueOf(getKey(column, row)));
+				if (cell == null) {
+					continue;
+				}
+				for (Entry entry : cell) {
+					if (entry.stamp != queryStamp) {
+						entry.stamp = queryStamp;
+						if (entry.area.intersects(area)) {
+							candidates.add(entry);
+						}
+					}
+				}
+			}
+		}
+		candidates.sort((e1, e2) -> Long.compare(e1.order, e2.order));
+		return candidates;
+	}
+
+	private static int getCell(int coordinate) {
+		return Math.floorDiv(coordinate, CELL_SIZE);
+	}
+
+	private static long getKey(int column, int row) {
+		return ((long) column << 32) | (row & 0xFFFFFFFFL);
+	}
+
+}
@@ -92,6 +92,18 @@ public class NonResizableEditPolicy extends SelectionHandlesEditPolicy {
 		return list;
 	}
 
+	/**
+	 * Returns the four corners, at which the drag handles are created.
+	 *
+	 * @see org.eclipse.gef.editpolicies.SelectionHandlesEditPolicy#getAggregatedHandleDirections()
+	 * @since 3.17
+	 */
+	@Override
+	protected int[] getAggregatedHandleDirections() {
+		return new int[] { PositionConstants.NORTH_EAST, PositionConstants.NORTH_WEST, PositionConstants.SOUTH_EAST,
+				PositionConstants.SOUTH_WEST };
+	}
+
 	/**
 	 * Creates a 'resize'/'drag' handle, which uses a {@link DragEditPartsTracker}
 	 * in case {@link #isDragAllowed()} returns true, and a
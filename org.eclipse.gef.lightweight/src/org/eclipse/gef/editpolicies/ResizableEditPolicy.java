@@ -76,6 +76,23 @@ public class ResizableEditPolicy extends NonResizableEditPolicy {
 		return list;
 	}
 
+	/**
+	 * Returns all eight directions if the host is resizable in at least one
+	 * direction, the corners otherwise.
+	 *
+	 * @see org.eclipse.gef.editpolicies.SelectionHandlesEditPolicy#getAggregatedHandleDirections()
+	 * @since 3.17
+	 */
+	@Override
+	protected int[] getAggregatedHandleDirections() {
+		if (resizeDirections == PositionConstants.NONE) {
+			return super.getAggregatedHandleDirections();
+		}
+		return new int[] { PositionConstants.NORTH, PositionConstants.EAST, PositionConstants.SOUTH,
+				PositionConstants.WEST, PositionConstants.SOUTH_EAST, PositionConstants.SOUTH_WEST,
+				PositionConstants.NORTH_WEST, PositionConstants.NORTH_EAST };
+	}
+
 	/**
 	 * Creates a 'resize' handle, which uses a {@link ResizeTracker} in case
 	 * resizing is allowed in the respective direction, otherwise returns a drag
@@ -21,6 +21,7 @@ import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.geometry.Point;
 
 import org.eclipse.gef.AccessibleHandleProvider;
+import org.eclipse.gef.EditPartViewer;
 import org.eclipse.gef.Handle;
 import org.eclipse.gef.LayerConstants;
 
@@ -34,22 +35,57 @@ import org.eclipse.gef.LayerConstants;
  * {@link org.eclipse.core.runtime.IAdaptable} for accessibility support. If any
  * of the managed Handles provide accesible locations, then a
  * {@link org.eclipse.gef.AccessibleHandleProvider} is automatically created.
+ * <P>
+ * If the viewer's {@link #PROPERTY_AGGREGATION_THRESHOLD} is set and more edit
+ * parts than the threshold are selected, the handles of the host are painted by
+ * a single figure shared by all selected edit parts instead, provided that
+ * {@link #getAggregatedHandleDirections()} does not return <code>null</code>.
+ * The handles are then only created for the edit part under the mouse. Whether
+ * the handles are aggregated is decided for all selected edit parts at once,
+ * when the handle layer is validated after the selection has changed.
  *
  * @since 2.0
  */
 public abstract class SelectionHandlesEditPolicy extends SelectionEditPolicy implements IAdaptable {
 
+	/**
+	 * Viewer property for the number of selected edit parts above which the
+	 * selection handles are aggregated. The value must be an {@link Integer}. If
+	 * the property is not set, handles are never aggregated.
+	 * <P>
+	 * Aggregated handles are painted like the move handle and the square handles
+	 * of {@link NonResizableEditPolicy} and {@link ResizableEditPolicy}, even if
+	 * {@link #createSelectionHandles()} has been overridden. The handles returned
+	 * by {@link #createSelectionHandles()} are only created for the edit part
+	 * under the mouse, or when their accessible locations are requested.
+	 * <P>
+	 * While the property is set, the handles of all edit parts that can be
+	 * aggregated are added to the handle layer once it is validated, rather than
+	 * when the selection changes, even if the threshold is not exceeded.
+	 *
+	 * @since 3.17
+	 */
+	public static final String PROPERTY_AGGREGATION_THRESHOLD = "SelectionHandlesEditPolicy.aggregationThreshold"; //$NON-NLS-1$
+
 	/**
 	 * the List of handles
 	 */
 	protected List handles;
 
+	private HandleAggregator aggregator;
+
 	/**
 	 * Adds the handles to the handle layer.
 	 */
 	protected void addSelectionHandles() {
 		removeSelectionHandles();
 		IFigure layer = getLayer(LayerConstants.HANDLE_LAYER);
+		int[] directions = getAggregatedHandleDirections();
+		if (directions != null && getHost().getViewer().getProperty(PROPERTY_AGGREGATION_THRESHOLD) != null) {
+			aggregator = HandleAggregator.getAggregator(layer, true);
+			aggregator.add(this, directions);
+			return;
+		}
 		handles = createSelectionHandles();
 		for (Object handle : handles) {
 			layer.add((IFigure) handle);
@@ -63,6 +99,20 @@ public abstract class SelectionHandlesEditPolicy extends SelectionEditPolicy imp
 	 */
 	protected abstract List createSelectionHandles();
 
+	/**
+	 * Returns the directions, as {@link org.eclipse.draw2d.PositionConstants}, at
+	 * which square handles are painted when the handles are aggregated, or
+	 * <code>null</code> if the handles of this policy must never be aggregated.
+	 * The default implementation returns <code>null</code>.
+	 *
+	 * @return the directions of the square handles, or <code>null</code>
+	 * @see #PROPERTY_AGGREGATION_THRESHOLD
+	 * @since 3.17
+	 */
+	protected int[] getAggregatedHandleDirections() {
+		return null;
+	}
+
 	/**
 	 * @see org.eclipse.core.runtime.IAdaptable#getAdapter(Class)
 	 */
@@ -73,8 +123,12 @@ public abstract class SelectionHandlesEditPolicy extends SelectionEditPolicy imp
 				@Override
 				public List<Point> getAccessibleHandleLocations() {
 					List<Point> result = new ArrayList<>();
-					if (handles != null) {
-						for (Object handle : handles) {
+					List<?> current = handles;
+					if (aggregator != null) {
+						current = aggregator.getHandles(SelectionHandlesEditPolicy.this);
+					}
+					if (current != null) {
+						for (Object handle : current) {
 							Point p = ((Handle) handle).getAccessibleLocation();
 							if (p != null) {
 								result.add(p);
@@ -98,10 +152,20 @@ public abstract class SelectionHandlesEditPolicy extends SelectionEditPolicy imp
 		removeSelectionHandles();
 	}
 
+	boolean isAggregationThresholdExceeded() {
+		EditPartViewer viewer = getHost().getViewer();
+		return viewer.getProperty(PROPERTY_AGGREGATION_THRESHOLD) instanceof Integer threshold
+				&& viewer.getSelectedEditParts().size() > threshold.intValue();
+	}
+
 	/**
 	 * removes the selection handles from the selection layer.
 	 */
 	protected void removeSelectionHandles() {
+		if (aggregator != null) {
+			aggregator.remove(this);
+			aggregator = null;
+		}
 		if (handles == null) {
 			return;
 		}
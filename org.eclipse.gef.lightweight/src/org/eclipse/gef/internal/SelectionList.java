@@ -0,0 +1,327 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gef.internal;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * The list holding the selected edit parts of a viewer. Like a linked hash set,
+ * the list contains each element at most once and finds, appends and removes
+ * elements in constant time, while preserving the order in which the elements
+ * were added. Adding an element which is already contained moves it to the end
+ * of the list. <code>null</code> elements are not permitted.
+ * <P>
+ * Removed elements leave a gap, which is closed the next time an element is
+ * accessed by its index, except for the last element. This way, removing many
+ * elements in a row, or removing an element and accessing the new last
+ * element, does not shift the remaining elements each time.
+ *
+ * @param <E> the type of the elements
+ */
+public final class SelectionList<E> extends AbstractList<E> {
+
+	private static final Object[] EMPTY = {};
+
+	private Object[] elements = EMPTY;
+	private final Map<Object, Integer> slots = new HashMap<>();
+	/** The number of occupied slots, including gaps. */
+	private int end;
+	private int size;
+	/** Incremented whenever the elements are moved to close the gaps. */
+	private int compactions;
+
+	@Override
+	public boolean add(E element) {
+		Objects.requireNonNull(element);
+		Integer slot = slots.get(element);
+		if (slot != null) {
+			if (slot.intValue() == end - 1) {
+				return true;
+			}
+			clearSlot(slot.intValue());
+		}
+		if (end == elements.length) {
+			if (end > 2 * size) {
+				compact();
+			} else {
+				elements = Arrays.copyOf(elements, Math.max(10, end + (end >> 1)));
+			}
+		}
+		elements[end] = element;
+		slots.put(element, Integer.valueOf(end));
+		end++;
+		size++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void add(int index, E element) {
+		Objects.requireNonNull(element);
+		if (index == size) {
+			add(element);
+			return;
+		}
+		Objects.checkIndex(index, size);
+		Integer slot = slots.remove(element);
+		if (slot != null) {
+			if (indexOfSlot(slot.intValue()) < index) {
+				index--;
+			}
+			clearSlot(slot.intValue());
+		}
+		compact();
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(10, size + (size >> 1)));
+		}
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = element;
+		size++;
+		end++;
+		updateSlots(index, size);
+		modCount++;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, 0, end, null);
+		slots.clear();
+		end = 0;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return slots.containsKey(o);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		Objects.checkIndex(index, size);
+		if (index == size - 1) {
+			return (E) elements[end - 1];
+		}
+		compact();
+		return (E) elements[index];
+	}
+
+	/**
+	 * Returns a number which changes whenever the contents or the order of this
+	 * list change.
+	 *
+	 * @return the modification count
+	 */
+	public int getModificationCount() {
+		return modCount;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!slots.containsKey(o)) {
+			return -1;
+		}
+		compact();
+		return slots.get(o).intValue();
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return indexOf(o);
+	}
+
+	@Override
+	public E remove(int index) {
+		E element = get(index);
+		clearSlot(slots.remove(element).intValue());
+		modCount++;
+		return element;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Integer slot = slots.remove(o);
+		if (slot == null) {
+			return false;
+		}
+		clearSlot(slot.intValue());
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public E set(int index, E element) {
+		Objects.requireNonNull(element);
+		E previous = get(index);
+		if (previous != element) {
+			if (slots.containsKey(element)) {
+				throw new IllegalArgumentException("The element is already contained at another index"); //$NON-NLS-1$
+			}
+			// the last element may be returned without closing the gaps, so its slot
+			// is not necessarily its index
+			Integer slot = slots.remove(previous);
+			elements[slot.intValue()] = element;
+			slots.put(element, slot);
+			modCount++;
+		}
+		return previous;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void sort(Comparator<? super E> c) {
+		compact();
+		Arrays.sort((E[]) elements, 0, size, c);
+		updateSlots(0, size);
+		modCount++;
+	}
+
+	@Override
+	public Object[] toArray() {
+		compact();
+		return Arrays.copyOf(elements, size);
+	}
+
+	/**
+	 * Empties the given slot. The caller is responsible for removing the element
+	 * from the map of slots and for incrementing the modification count.
+	 */
+	private void clearSlot(int slot) {
+		elements[slot] = null;
+		size--;
+		if (slot == end - 1) {
+			// keep the last element in the last occupied slot
+			do {
+				end--;
+			} while (end > 0 && elements[end - 1] == null);
+		}
+	}
+
+	/**
+	 * Moves the elements to close the gaps left by removed elements.
+	 */
+	private void compact() {
+		if (end == size) {
+			return;
+		}
+		int index = 0;
+		for (int slot = 0; slot < end; slot++) {
+			Object element = elements[slot];
+			if (element != null) {
+				if (slot != index) {
+					elements[index] = element;
+					slots.put(element, Integer.valueOf(index));
+				}
+				index++;
+			}
+		}
+		Arrays.fill(elements, size, end, null);
+		end = size;
+		compactions++;
+	}
+
+	private int indexOfSlot(int slot) {
+		int index = 0;
+		for (int i = 0; i < slot; i++) {
+			if (elements[i] != null) {
+				index++;
+			}
+		}
+		return index;
+	}
+
+	private void updateSlots(int from, int to) {
+		for (int i = from; i < to; i++) {
+			slots.put(elements[i], Integer.valueOf(i));
+		}
+	}
+
+	/**
+	 * Iterates the occupied slots. If the gaps are closed while iterating, the
+	 * position is recomputed from the number of elements already visited.
+	 */
+	private final class Itr implements Iterator<E> {
+		private int cursor;
+		private int visited;
+		private int lastSlot = -1;
+		private int expectedModCount = modCount;
+		private int expectedCompactions = compactions;
+
+		@Override
+		public boolean hasNext() {
+			return visited < size;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			checkForComodification();
+			if (visited >= size) {
+				throw new NoSuchElementException();
+			}
+			while (elements[cursor] == null) {
+				cursor++;
+			}
+			lastSlot = cursor++;
+			visited++;
+			return (E) elements[lastSlot];
+		}
+
+		@Override
+		public void remove() {
+			if (lastSlot < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			slots.remove(elements[lastSlot]);
+			clearSlot(lastSlot);
+			modCount++;
+			lastSlot = -1;
+			visited--;
+			expectedModCount = modCount;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (compactions != expectedCompactions) {
+				cursor = visited;
+				if (lastSlot >= 0) {
+					lastSlot = visited - 1;
+				}
+				expectedCompactions = compactions;
+			}
+		}
+	}
+
+}
@@ -55,6 +55,7 @@ import org.eclipse.gef.GraphicalEditPart;
 import org.eclipse.gef.KeyHandler;
 import org.eclipse.gef.RootEditPart;
 import org.eclipse.gef.SelectionManager;
+import org.eclipse.gef.internal.SelectionList;
 
 /**
  * The base implementation for EditPartViewer.
@@ -70,7 +71,7 @@ public abstract class AbstractEditPartViewer implements EditPartViewer {
 	/**
 	 * The raw list of selected editparts.
 	 */
-	protected final List selection = new ArrayList();
+	protected final List selection = new SelectionList<EditPart>();
 
 	/**
 	 * The unmodifiable list of selected editparts.
@@ -25,7 +25,10 @@ import org.junit.runners.Suite;
 	PaletteCustomizerTest.class,
 	ToolUtilitiesTest.class,
 	DragEditPartsTrackerTest.class,
-	CommandStackTest.class
+	CommandStackTest.class,
+	SelectionListTest.class,
+	SelectionManagerTest.class,
+	SelectionHandlesAggregationTest.class
 })
 public class GEFTestSuite {
 }
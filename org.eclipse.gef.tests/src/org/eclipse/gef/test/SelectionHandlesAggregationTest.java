@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gef.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.Layer;
+import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import org.eclipse.gef.DragTracker;
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPolicy;
+import org.eclipse.gef.GraphicalEditPart;
+import org.eclipse.gef.LayerConstants;
+import org.eclipse.gef.editparts.AbstractGraphicalEditPart;
+import org.eclipse.gef.editparts.LayerManager;
+import org.eclipse.gef.editparts.SimpleRootEditPart;
+import org.eclipse.gef.editpolicies.SelectionHandlesEditPolicy;
+import org.eclipse.gef.handles.AbstractHandle;
+import org.eclipse.gef.handles.MoveHandleLocator;
+import org.eclipse.gef.ui.parts.AbstractEditPartViewer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the aggregation of the selection handles of many selected edit parts,
+ * see {@link SelectionHandlesEditPolicy#PROPERTY_AGGREGATION_THRESHOLD}.
+ */
+public class SelectionHandlesAggregationTest extends Assert {
+
+	private static final int PARTS = 20;
+	private static final int COLUMNS = 4;
+	private static final int THRESHOLD = 5;
+
+	private TestViewer viewer;
+	private TestRootEditPart root;
+	private final List<EditPart> parts = new ArrayList<>();
+	private int createdHandles;
+
+	/**
+	 * A viewer without a control.
+	 */
+	private static class TestViewer extends AbstractEditPartViewer {
+		@Override
+		public Control createControl(Composite parent) {
+			return null;
+		}
+
+		@Override
+		public EditPart findObjectAtExcluding(Point location, Collection<IFigure> exclusionSet,
+				Conditional conditional) {
+			return null;
+		}
+	}
+
+	/**
+	 * A root whose contents are scrolled by a viewport, below the handle layer.
+	 */
+	private static class TestRootEditPart extends SimpleRootEditPart implements LayerManager {
+		private final Viewport viewport = new Viewport(true);
+		private final Figure contents = new Figure();
+		private final Layer handleLayer = new Layer();
+
+		@Override
+		protected IFigure createFigure() {
+			IFigure figure = new Figure();
+			figure.setBounds(new Rectangle(0, 0, 400, 400));
+			contents.setPreferredSize(new Dimension(2000, 2000));
+			viewport.setContents(contents);
+			viewport.setBounds(figure.getBounds());
+			figure.add(viewport);
+			handleLayer.setBounds(figure.getBounds());
+			figure.add(handleLayer);
+			return figure;
+		}
+
+		@Override
+		public IFigure getContentPane() {
+			return contents;
+		}
+
+		@Override
+		public IFigure getLayer(Object key) {
+			return key == LayerConstants.HANDLE_LAYER ? handleLayer : null;
+		}
+
+		@Override
+		protected void register() {
+			super.register();
+			getViewer().getEditPartRegistry().put(LayerManager.ID, this);
+		}
+	}
+
+	private class DiagramEditPart extends AbstractGraphicalEditPart {
+		@Override
+		protected IFigure createFigure() {
+			IFigure figure = new Figure();
+			figure.setBounds(new Rectangle(0, 0, 2000, 2000));
+			return figure;
+		}
+
+		@Override
+		protected void createEditPolicies() {
+			// do nothing
+		}
+
+		@Override
+		protected List<Object> getModelChildren() {
+			List<Object> children = new ArrayList<>();
+			for (int i = 0; i < PARTS; i++) {
+				children.add(Integer.valueOf(i));
+			}
+			return children;
+		}
+	}
+
+	private class NodeEditPart extends AbstractGraphicalEditPart {
+		@Override
+		protected IFigure createFigure() {
+			IFigure figure = new Figure();
+			figure.setBounds(getNodeBounds(((Integer) getModel()).intValue()));
+			return figure;
+		}
+
+		@Override
+		protected void createEditPolicies() {
+			installEditPolicy(EditPolicy.SELECTION_FEEDBACK_ROLE, new TestSelectionPolicy());
+		}
+	}
+
+	private class TestSelectionPolicy extends SelectionHandlesEditPolicy {
+		@Override
+		protected List<TestHandle> createSelectionHandles() {
+			createdHandles++;
+			return List.of(new TestHandle((GraphicalEditPart) getHost()));
+		}
+
+		@Override
+		protected int[] getAggregatedHandleDirections() {
+			return new int[0];
+		}
+	}
+
+	private static class TestHandle extends AbstractHandle {
+		TestHandle(GraphicalEditPart owner) {
+			super(owner, new MoveHandleLocator(owner.getFigure()));
+		}
+
+		@Override
+		protected DragTracker createDragTracker() {
+			return null;
+		}
+
+		EditPart getOwnerPart() {
+			return getOwner();
+		}
+	}
+
+	@Before
+	public void setUp() {
+		viewer = new TestViewer();
+		root = new TestRootEditPart();
+		viewer.setRootEditPart(root);
+		viewer.setEditPartFactory((context, model) -> {
+			EditPart part = model instanceof Integer ? new NodeEditPart() : new DiagramEditPart();
+			part.setModel(model);
+			return part;
+		});
+		viewer.setContents("diagram"); //$NON-NLS-1$
+		root.activate();
+		parts.addAll(viewer.getContents().getChildren());
+		viewer.setProperty(SelectionHandlesEditPolicy.PROPERTY_AGGREGATION_THRESHOLD, Integer.valueOf(THRESHOLD));
+		validate();
+	}
+
+	@Test
+	public void testThresholdCrossing() {
+		viewer.getSelectionManager().setSelection(parts.subList(0, 3), false);
+		validate();
+		assertEquals(Set.copyOf(parts.subList(0, 3)), getHandleOwners());
+		assertEquals(3, createdHandles);
+
+		// the decision is the same for all parts, no matter when they were selected
+		viewer.getSelectionManager().setSelection(parts, false);
+		validate();
+		assertEquals(Set.of(), getHandleOwners());
+		assertEquals(3, createdHandles);
+		assertSame(parts.get(10), findHandleOwner(getNodeBounds(10).getCenter()));
+		assertEquals(Set.of(parts.get(10)), getHandleOwners());
+		assertEquals(4, createdHandles);
+
+		// parts which stay selected get their handles back
+		viewer.getSelectionManager().setSelection(parts.subList(0, 2), false);
+		validate();
+		assertEquals(Set.copyOf(parts.subList(0, 2)), getHandleOwners());
+		assertSame(parts.get(0), findHandleOwner(getNodeBounds(0).getCenter()));
+		assertNull(findHandleOwner(getNodeBounds(10).getCenter()));
+
+		viewer.getSelectionManager().setSelection(parts, false);
+		validate();
+		assertEquals(Set.of(), getHandleOwners());
+
+		viewer.deselectAll();
+		validate();
+		assertEquals(Set.of(), getHandleOwners());
+		assertTrue(root.handleLayer.getChildren().isEmpty());
+	}
+
+	@Test
+	public void testScrolling() {
+		viewer.getSelectionManager().setSelection(parts, false);
+		validate();
+		Point location = getNodeBounds(COLUMNS * 2).getCenter();
+		assertSame(parts.get(COLUMNS * 2), findHandleOwner(location));
+
+		// scrolls the contents by one row of parts
+		root.viewport.setViewLocation(0, 100);
+		validate();
+		assertSame(parts.get(COLUMNS * 3), findHandleOwner(location));
+		assertSame(parts.get(COLUMNS * 2), findHandleOwner(location.getTranslated(0, -100)));
+
+		// the handles stay in place until the selection falls below the threshold
+		viewer.getSelectionManager().setSelection(parts.subList(COLUMNS, COLUMNS + 1), false);
+		validate();
+		assertSame(parts.get(COLUMNS), findHandleOwner(getNodeBounds(COLUMNS).getCenter().getTranslated(0, -100)));
+		assertNull(findHandleOwner(getNodeBounds(COLUMNS).getCenter()));
+	}
+
+	private static Rectangle getNodeBounds(int index) {
+		return new Rectangle(20 + index % COLUMNS * 100, 20 + index / COLUMNS * 100, 50, 50);
+	}
+
+	/**
+	 * Validates the viewport and the figures on the handle layer, as the update
+	 * manager of a viewer would.
+	 */
+	private void validate() {
+		root.viewport.validate();
+		new ArrayList<>(root.handleLayer.getChildren()).forEach(IFigure::validate);
+	}
+
+	private EditPart findHandleOwner(Point location) {
+		IFigure figure = root.handleLayer.findFigureAt(location.x, location.y);
+		return figure instanceof TestHandle handle ? handle.getOwnerPart() : null;
+	}
+
+	private Set<EditPart> getHandleOwners() {
+		Set<EditPart> owners = new HashSet<>();
+		collectHandleOwners(root.handleLayer, owners);
+		return owners;
+	}
+
+	private static void collectHandleOwners(IFigure figure, Set<EditPart> owners) {
+		for (IFigure child : figure.getChildren()) {
+			if (child instanceof TestHandle handle) {
+				owners.add(handle.getOwnerPart());
+			}
+			collectHandleOwners(child, owners);
+		}
+	}
+
+}
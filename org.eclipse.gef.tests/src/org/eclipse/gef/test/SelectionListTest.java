@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gef.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.gef.internal.SelectionList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("nls")
+public class SelectionListTest extends Assert {
+
+	private final SelectionList<String> list = new SelectionList<>();
+
+	@Test
+	public void testSetLastElementWithGaps() {
+		list.addAll(List.of("a", "b", "c", "d", "e"));
+		list.remove("b");
+		list.remove("c");
+		assertEquals("e", list.get(2));
+
+		assertEquals("e", list.set(2, "x"));
+		assertEquals(List.of("a", "d", "x"), list);
+		assertEquals("x", list.get(2));
+		assertEquals(2, list.indexOf("x"));
+		assertEquals(0, list.indexOf("a"));
+		assertEquals(1, list.indexOf("d"));
+		assertEquals(-1, list.indexOf("e"));
+		assertFalse(list.contains("e"));
+		assertArrayEquals(new Object[] { "a", "d", "x" }, list.toArray());
+	}
+
+	@Test
+	public void testSetWithGaps() {
+		list.addAll(List.of("a", "b", "c", "d", "e"));
+		list.remove("a");
+		list.remove("d");
+
+		assertEquals("c", list.set(1, "x"));
+		assertEquals(List.of("b", "x", "e"), list);
+		assertEquals(1, list.indexOf("x"));
+		assertEquals(2, list.indexOf("e"));
+		list.remove("x");
+		assertEquals(List.of("b", "e"), list);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetContainedElement() {
+		list.addAll(List.of("a", "b", "c"));
+		list.set(0, "c");
+	}
+
+	@Test
+	public void testAddMovesToEnd() {
+		list.addAll(List.of("a", "b", "c"));
+		list.add("a");
+		assertEquals(List.of("b", "c", "a"), list);
+		list.add(0, "a");
+		assertEquals(List.of("a", "b", "c"), list);
+	}
+
+	@Test
+	public void testIteratorRemoveAndCompaction() {
+		list.addAll(List.of("a", "b", "c", "d", "e", "f"));
+		list.remove("b");
+		Iterator<String> iterator = list.iterator();
+		assertEquals("a", iterator.next());
+		assertEquals("c", iterator.next());
+		iterator.remove();
+		// closes the gaps while iterating
+		assertEquals("d", list.get(1));
+		assertEquals("d", iterator.next());
+		assertEquals("e", iterator.next());
+		assertEquals("f", iterator.next());
+		assertFalse(iterator.hasNext());
+		assertEquals(List.of("a", "d", "e", "f"), list);
+	}
+
+	/**
+	 * Compares the list with an {@link ArrayList} in which adding a contained
+	 * element moves it to the end.
+	 */
+	@Test
+	public void testRandomOperations() {
+		List<String> expected = new ArrayList<>();
+		Random random = new Random(11);
+		for (int step = 0; step < 20000; step++) {
+			String element = "e" + random.nextInt(40);
+			String message = "Step " + step;
+			switch (random.nextInt(8)) {
+			case 0, 1 -> {
+				expected.remove(element);
+				expected.add(element);
+				list.add(element);
+			}
+			case 2 -> assertEquals(message, expected.remove(element), list.remove(element));
+			case 3 -> {
+				if (!expected.isEmpty()) {
+					int index = random.nextInt(expected.size());
+					assertEquals(message, expected.remove(index), list.remove(index));
+				}
+			}
+			case 4 -> {
+				if (!expected.isEmpty() && !expected.contains(element)) {
+					// the last index is more likely, as it is not compacted first
+					int index = random.nextBoolean() ? expected.size() - 1 : random.nextInt(expected.size());
+					assertEquals(message, expected.set(index, element), list.set(index, element));
+				}
+			}
+			case 5 -> {
+				if (!expected.isEmpty()) {
+					int index = random.nextBoolean() ? expected.size() - 1 : random.nextInt(expected.size());
+					assertEquals(message, expected.get(index), list.get(index));
+				}
+			}
+			case 6 -> assertEquals(message, expected.indexOf(element), list.indexOf(element));
+			default -> assertEquals(message, expected.contains(element), list.contains(element));
+			}
+			assertEquals(message, expected.size(), list.size());
+			if (step % 100 == 0) {
+				assertEquals(message, expected, Arrays.asList(list.toArray()));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.gef.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.StructuredSelection;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Point;
+
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPartListener;
+import org.eclipse.gef.SelectionManager;
+import org.eclipse.gef.editparts.AbstractGraphicalEditPart;
+import org.eclipse.gef.ui.parts.AbstractEditPartViewer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the selection of many edit parts at once through the
+ * {@link SelectionManager} of a viewer.
+ */
+public class SelectionManagerTest extends Assert {
+
+	private static final int PARTS = 500;
+
+	private TestViewer viewer;
+	private SelectionManager manager;
+	private final List<EditPart> parts = new ArrayList<>();
+	private final Map<EditPart, Integer> stateChanges = new HashMap<>();
+	private int selectionEvents;
+
+	/**
+	 * A viewer without a control.
+	 */
+	private static class TestViewer extends AbstractEditPartViewer {
+		@Override
+		public Control createControl(Composite parent) {
+			return null;
+		}
+
+		@Override
+		public EditPart findObjectAtExcluding(Point location, Collection<IFigure> exclusionSet,
+				Conditional conditional) {
+			return null;
+		}
+	}
+
+	private static class TestEditPart extends AbstractGraphicalEditPart {
+		@Override
+		protected void register() {
+			// do nothing
+		}
+
+		@Override
+		protected IFigure createFigure() {
+			return new Figure();
+		}
+
+		@Override
+		protected void createEditPolicies() {
+			// do nothing
+		}
+	}
+
+	@Before
+	public void setUp() {
+		viewer = new TestViewer();
+		manager = viewer.getSelectionManager();
+		viewer.addSelectionChangedListener(event -> selectionEvents++);
+		EditPartListener listener = new EditPartListener.Stub() {
+			@Override
+			public void selectedStateChanged(EditPart editpart) {
+				stateChanges.merge(editpart, Integer.valueOf(1), Integer::sum);
+			}
+		};
+		for (int i = 0; i < PARTS; i++) {
+			EditPart part = new TestEditPart();
+			part.addEditPartListener(listener);
+			parts.add(part);
+		}
+	}
+
+	@Test
+	public void testBulkSelection() {
+		manager.setSelection(parts, true);
+		assertEquals(1, selectionEvents);
+		assertEquals(parts, viewer.getSelectedEditParts());
+		assertSelected(parts);
+		for (EditPart part : parts) {
+			assertEquals(1, stateChanges.get(part).intValue());
+		}
+
+		// a selection overlapping the previous one, in a different order
+		List<EditPart> newSelection = new ArrayList<>(parts.subList(PARTS / 2, PARTS));
+		newSelection.addAll(parts.subList(0, 10));
+		newSelection.add(parts.get(PARTS / 2));
+		stateChanges.clear();
+		manager.setSelection(new LinkedHashSet<>(newSelection), true);
+		newSelection.remove(newSelection.size() - 1);
+		assertEquals(2, selectionEvents);
+		assertEquals(newSelection, viewer.getSelectedEditParts());
+		assertSelected(newSelection);
+		for (EditPart part : parts.subList(10, PARTS / 2)) {
+			assertEquals(EditPart.SELECTED_NONE, part.getSelected());
+			assertEquals(1, stateChanges.get(part).intValue());
+		}
+		for (EditPart part : newSelection) {
+			assertTrue(stateChanges.getOrDefault(part, Integer.valueOf(0)).intValue() <= 1);
+		}
+
+		manager.setSelection(List.of(), false);
+		assertEquals(2, selectionEvents);
+		assertTrue(viewer.getSelectedEditParts().isEmpty());
+		parts.forEach(part -> assertEquals(EditPart.SELECTED_NONE, part.getSelected()));
+	}
+
+	@Test
+	public void testStructuredSelection() {
+		manager.setSelection(new StructuredSelection(parts.subList(0, 20)));
+		assertEquals(0, selectionEvents);
+		assertEquals(parts.subList(0, 20), viewer.getSelectedEditParts());
+		assertSelected(parts.subList(0, 20));
+	}
+
+	@Test
+	public void testCachedSelection() {
+		manager.setSelection(parts, false);
+		ISelection selection = viewer.getSelection();
+		assertSame(selection, viewer.getSelection());
+		assertEquals(parts, ((IStructuredSelection) selection).toList());
+
+		// a new selection once the list changes
+		viewer.deselect(parts.get(3));
+		ISelection changed = viewer.getSelection();
+		assertNotSame(selection, changed);
+		assertSame(changed, viewer.getSelection());
+		List<EditPart> expected = new ArrayList<>(parts);
+		expected.remove(3);
+		assertEquals(expected, ((IStructuredSelection) changed).toList());
+		assertEquals(parts, ((IStructuredSelection) selection).toList());
+
+		viewer.appendSelection(parts.get(3));
+		expected.add(parts.get(3));
+		assertEquals(expected, ((IStructuredSelection) viewer.getSelection()).toList());
+		assertSelected(expected);
+	}
+
+	@Test
+	public void testDeselectWithGaps() {
+		manager.setSelection(parts, false);
+		for (int i = 0; i < PARTS; i += 2) {
+			viewer.deselect(parts.get(i));
+		}
+		List<EditPart> expected = new ArrayList<>();
+		for (int i = 1; i < PARTS; i += 2) {
+			expected.add(parts.get(i));
+		}
+		assertEquals(expected, viewer.getSelectedEditParts());
+		assertSelected(expected);
+
+		viewer.deselect(parts.get(PARTS - 1));
+		expected.remove(expected.size() - 1);
+		assertSelected(expected);
+		viewer.appendSelection(parts.get(1));
+		expected.remove(parts.get(1));
+		expected.add(parts.get(1));
+		assertEquals(expected, viewer.getSelectedEditParts());
+		assertSelected(expected);
+	}
+
+	/**
+	 * Asserts that the given edit parts are selected, and that the last one is
+	 * the primary selection.
+	 */
+	private static void assertSelected(List<EditPart> selection) {
+		for (int i = 0; i < selection.size() - 1; i++) {
+			assertEquals(EditPart.SELECTED, selection.get(i).getSelected());
+		}
+		assertEquals(EditPart.SELECTED_PRIMARY, selection.get(selection.size() - 1).getSelected());
+	}
+
+}
@@ -351,11 +351,22 @@ public abstract class AbstractStructuredGraphViewer extends AbstractZoomableView
 	 */
 	@Override
 	protected void internalRefresh(Object element) {
+		internalRefresh(element, true);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.jface.viewers.StructuredViewer#internalRefresh(java.lang.
+	 * Object, boolean)
+	 */
+	@Override
+	protected void internalRefresh(Object element, boolean updateLabels) {
 		if (getInput() == null) {
 			return;
 		}
 		if (element == getInput()) {
-			getFactory().refreshGraph(getGraphControl());
+			getFactory().refreshGraph(getGraphControl(), updateLabels);
 		} else {
 			getFactory().refresh(getGraphControl(), element);
 		}
@@ -13,11 +13,11 @@
 package org.eclipse.zest.core.viewers.internal;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.swt.SWT;
 
@@ -27,13 +27,17 @@ import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.zest.core.viewers.IFigureProvider;
 import org.eclipse.zest.core.viewers.INestedContentProvider;
+import org.eclipse.zest.core.widgets.CGraphNode;
 import org.eclipse.zest.core.widgets.Graph;
 import org.eclipse.zest.core.widgets.GraphConnection;
+import org.eclipse.zest.core.widgets.GraphContainer;
 import org.eclipse.zest.core.widgets.GraphItem;
 import org.eclipse.zest.core.widgets.GraphNode;
 import org.eclipse.zest.core.widgets.IContainer;
 
 import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Point;
 
 /**
  * Base class that can be used for model factories. Offers facilities to style
@@ -49,6 +53,24 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	private int nodeStyle;
 	private List /* ConstraintAdapater */ constraintAdapters = new ArrayList();
 
+	/**
+	 * The items which have been created or found again while the graph is
+	 * refreshed, or null if the graph is not being refreshed.
+	 */
+	private Set<GraphItem> reconciledItems;
+
+	/**
+	 * The nodes which are direct children of the graph when it is refreshed, or
+	 * null if the graph is not being refreshed.
+	 */
+	private Set<GraphNode> graphNodes;
+
+	/**
+	 * Whether the items which are found again while the graph is refreshed are
+	 * styled again.
+	 */
+	private boolean updateLabels;
+
 	/**
 	 *
 	 */
@@ -62,21 +84,31 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	}
 
 	public void styleConnection(GraphConnection conn) {
-		// recount the source and target connections on the node.
-		// this isn't a great way to do it, because it results in
-		// an n^2 algorithm. But, if anyone can figure out a better way
-		// go ahead and try it.
+		// the connections between the nodes are looked up in the graph, and only the
+		// curves whose depth changes are updated.
 		GraphNode source = conn.getSource();
 		GraphNode dest = conn.getDestination();
-		LinkedList rightList = getConnectionList(source, dest);
+		Graph graph = conn.getGraphModel();
+		List<GraphConnection> rightList = graph.getConnections(source, dest);
 
-		LinkedList leftList = null;
+		List<GraphConnection> leftList = null;
 
 		if (dest != source) {
-			leftList = getConnectionList(dest, source);
+			leftList = graph.getConnections(dest, source);
 		}
 
 		int size = (leftList != null) ? leftList.size() + rightList.size() : rightList.size();
+		// a connection added after the others only needs its own curve, unless the
+		// arcs become curved or some have been removed since they were adjusted
+		int last = rightList.size() - 1;
+		if (size != 2 && last >= 0 && rightList.get(last) == conn
+				&& (last == 0 || isAdjusted(rightList, last - 1, size))
+				&& (leftList == null || leftList.isEmpty() || isAdjusted(leftList, leftList.size() - 1, size))) {
+			if (!isAdjusted(rightList, last, size)) {
+				conn.setCurveDepth(getCurveDepth(conn, last, size));
+			}
+			return;
+		}
 		// adjust the arcs going from source to destination
 		adjustCurves(rightList, size);
 		// adjust the arcs going from destination to source
@@ -99,32 +131,30 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 		 * multiple arcs between two nodes
 		 */
 		for (int i = 0; i < connections.size(); i++) {
-			GraphConnection conn = (GraphConnection) connections.get(i);
-			int radius = 20;
-			if (conn.getSource() == conn.getDestination()) {
-				radius = 40;
-			} else if (size < 2) {
-				radius = 0;
+			if (!isAdjusted(connections, i, size)) {
+				GraphConnection conn = (GraphConnection) connections.get(i);
+				conn.setCurveDepth(getCurveDepth(conn, i, size));
 			}
-			conn.setCurveDepth((i + 1) * radius);
 		}
 	}
 
 	/**
-	 * @param source
-	 * @param dest
-	 * @return
+	 * Returns whether the connection at the given index has the curve depth given
+	 * to it by {@link #adjustCurves(List, int)}.
 	 */
-	private LinkedList getConnectionList(GraphNode source, GraphNode dest) {
-		LinkedList list = new LinkedList();
-		Iterator i = source.getSourceConnections().iterator();
-		while (i.hasNext()) {
-			GraphConnection c = (GraphConnection) i.next();
-			if (c.getDestination() == dest) {
-				list.add(c);
-			}
+	private static boolean isAdjusted(List connections, int index, int size) {
+		GraphConnection conn = (GraphConnection) connections.get(index);
+		return conn.getCurveDepth() == getCurveDepth(conn, index, size);
+	}
+
+	private static int getCurveDepth(GraphConnection conn, int index, int size) {
+		int radius = 20;
+		if (conn.getSource() == conn.getDestination()) {
+			radius = 40;
+		} else if (size < 2) {
+			radius = 0;
 		}
-		return list;
+		return (index + 1) * radius;
 	}
 
 	public void styleItem(GraphItem item) {
@@ -176,11 +206,20 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 		GraphConnection oldConnection = viewer.getGraphModelConnection(element);
 		GraphNode sn = viewer.getGraphModelNode(source);
 		GraphNode dn = viewer.getGraphModelNode(dest);
+		if (reconciledItems != null) {
+			// keep the existing nodes, and their children if they are containers
+			if (sn != null) {
+				sn = createNode(graph, source);
+			}
+			if (dn != null) {
+				dn = createNode(graph, dest);
+			}
+		}
 		if (oldConnection != null) {
 			if (sn != oldConnection.getSource() || dn != oldConnection.getDestination()) {
-				viewer.removeGraphModelConnection(oldConnection);
+				viewer.removeGraphModelConnection(element);
 			} else {
-				styleItem(oldConnection);
+				styleItem(oldConnection, false);
 				return oldConnection;
 			}
 		}
@@ -211,7 +250,7 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 			}
 		}
 		GraphConnection c = viewer.addGraphModelConnection(element, sn, dn);
-		styleItem(c);
+		styleItem(c, true);
 		return c;
 	}
 
@@ -223,39 +262,101 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	 * java.lang.Object)
 	 */
 	public GraphNode createNode(Graph graph, Object element, IFigure figure) {
-		GraphNode node = null;
+		GraphNode node = viewer.getGraphModelNode(element);
+		if (node != null && reconciledItems != null && reconciledItems.contains(node)) {
+			return node;
+		}
 		if (getContentProvider() instanceof INestedContentProvider) {
 			boolean isContainer = ((INestedContentProvider) getContentProvider()).hasChildren(element);
+			if (reconciledItems != null && node != null && isContainer != node instanceof GraphContainer) {
+				// the element has become a container or stopped being one
+				viewer.removeGraphModelNode(element);
+				node = null;
+			}
 			if (isContainer) {
+				boolean created = node == null;
 				node = viewer.addGraphModelContainer(element);
-				styleItem(node);
+				styleItem(node, created);
 				Object[] childNodes = ((INestedContentProvider) getContentProvider()).getChildren(element);
 				childNodes = filter(getViewer().getInput(), childNodes);
 				if (childNodes == null) {
 					return node;
 				}
 				for (Object childNode2 : childNodes) {
+					boolean childCreated = viewer.getGraphModelNode(childNode2) == null;
 					GraphNode childNode = viewer.addGraphModelNode((IContainer) node, childNode2);
-					styleItem(childNode);
+					styleItem(childNode, childCreated);
+					created |= childCreated;
+				}
+				if (created || reconciledItems == null) {
+					((IContainer) node).applyLayout();
 				}
-				((IContainer) node).applyLayout();
 				return node;
 			}
 		}
+		boolean created = node == null;
 		node = viewer.addGraphModelNode(element, figure);
-		styleItem(node);
+		styleItem(node, created);
 		return node;
 	}
 
 	@Override
 	public GraphNode createNode(Graph graph, Object element) {
-		IFigure nodeFigure = null;
-		if (getLabelProvider() instanceof IFigureProvider) {
-			nodeFigure = ((IFigureProvider) getLabelProvider()).getFigure(element);
+		if (!(getLabelProvider() instanceof IFigureProvider figureProvider)) {
+			return this.createNode(graph, element, null);
+		}
+		GraphNode node = viewer.getGraphModelNode(element);
+		if (node != null && reconciledItems != null && (!updateLabels || reconciledItems.contains(node))) {
+			// the figure of a node which is kept by a refresh is only requested
+			// again if the labels are updated
+			return this.createNode(graph, element, null);
+		}
+		IFigure nodeFigure = figureProvider.getFigure(element);
+		if (node != null && reconciledItems != null && !(node instanceof GraphContainer)
+				&& (nodeFigure != null ? nodeFigure != node.getModelFigure() : node instanceof CGraphNode)
+				&& graphNodes.contains(node)) {
+			// the node is created again with its new figure, at the same location
+			Point location = node.getLocation().getCopy();
+			Dimension size = node.isSizeFixed() ? node.getSize().getCopy() : null;
+			viewer.removeGraphModelNode(element);
+			node = this.createNode(graph, element, nodeFigure);
+			node.setLocation(location.x, location.y);
+			if (size != null) {
+				node.setSize(size.width, size.height);
+			}
+			return node;
 		}
 		return this.createNode(graph, element, nodeFigure);
 	}
 
+	/**
+	 * Styles an item which has been created or found again by this factory. While
+	 * the graph is refreshed, each item is styled at most once, and items which
+	 * existed before only if the labels are updated.
+	 *
+	 * @param item    the item
+	 * @param created whether the item has just been created
+	 */
+	private void styleItem(GraphItem item, boolean created) {
+		if (reconciledItems == null) {
+			styleItem(item);
+		} else if (reconciledItems.add(item) && (created || updateLabels)) {
+			styleItem(item);
+		}
+	}
+
+	/**
+	 * Returns whether the given item existed before the graph is refreshed, and
+	 * has not been found again by the refresh so far. Such items are disposed at
+	 * the end of the refresh.
+	 *
+	 * @param item the item
+	 * @return true if the item is stale
+	 */
+	protected boolean isStale(GraphItem item) {
+		return reconciledItems != null && !reconciledItems.contains(item);
+	}
+
 	@Override
 	public void setConnectionStyle(int style) {
 		this.connectionStyle = style;
@@ -314,40 +415,72 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	 */
 	@Override
 	public void refreshGraph(Graph graph) {
-		// with this kind of graph, it is just as easy and cost-effective to
-		// rebuild the whole thing.
-
-		Map oldMap = viewer.getNodesMap();
-		HashMap nodesMap = new HashMap();
-		// have to copy the Map data accross so that it doesn't get overwritten
-		for (Object key : oldMap.keySet()) {
-			nodesMap.put(key, oldMap.get(key));
+		refreshGraph(graph, true);
+	}
+
+	/**
+	 * Reconciles the graph with the content provider. The graph is built again,
+	 * but the nodes and connections of elements which are still provided are kept
+	 * instead of being recreated, so that they also keep their locations and
+	 * sizes. Only the items of new elements are created, and only the items of
+	 * elements which are no longer provided are disposed. If the labels are
+	 * updated, the figures of the nodes are requested again from an
+	 * {@link IFigureProvider}, and a node whose figure has changed is created
+	 * again at the same location.
+	 */
+	@Override
+	public void refreshGraph(Graph graph, boolean updateLabels) {
+		reconciledItems = new HashSet<>();
+		graphNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+		graphNodes.addAll(graph.getNodes());
+		this.updateLabels = updateLabels;
+		try {
+			doBuildGraph(graph);
+			removeStaleItems();
+		} finally {
+			reconciledItems = null;
+			graphNodes = null;
 		}
-		clearGraph(graph);
-		doBuildGraph(graph);
-		// update the positions on the new nodes to match the old ones.
-		GraphNode[] nodes = getNodesArray(graph);
-		// save a little time, go with the smallest list as the primary list
-		if (nodes.length < nodesMap.keySet().size()) {
-			for (GraphNode node : nodes) {
-				GraphNode oldNode = (GraphNode) nodesMap.get(node.getData());
-				if (oldNode != null) {
-					node.setLocation(oldNode.getLocation().x, oldNode.getLocation().y);
-					if (oldNode.isSizeFixed()) {
-						node.setSize(oldNode.getSize().width, oldNode.getSize().height);
+	}
+
+	/**
+	 * Disposes the items which have not been found again while the graph is
+	 * refreshed.
+	 */
+	private void removeStaleItems() {
+		List<GraphConnection> restyledConnections = new ArrayList<>();
+		for (Object element : viewer.getConnectionElements()) {
+			GraphConnection connection = viewer.getGraphModelConnection(element);
+			if (isStale(connection)) {
+				// the curves of the remaining connections between the nodes are
+				// adjusted
+				for (Object next : connection.getSource().getSourceConnections()) {
+					GraphConnection sibling = (GraphConnection) next;
+					if (sibling != connection && !isStale(sibling) && (sibling.getDestination() == connection
+							.getDestination())) {
+						restyledConnections.add(sibling);
+						break;
 					}
 				}
-			}
-		} else {
-			for (Object key : nodesMap.keySet()) {
-				GraphNode node = viewer.getGraphModelNode(key);
-				if (node != null) {
-					GraphNode oldNode = (GraphNode) nodesMap.get(key);
-					node.setLocation(oldNode.getLocation().x, oldNode.getLocation().y);
-					if (oldNode.isSizeFixed()) {
-						node.setSize(oldNode.getSize().width, oldNode.getSize().height);
+				for (Object next : connection.getDestination().getSourceConnections()) {
+					GraphConnection sibling = (GraphConnection) next;
+					if (sibling != connection && !isStale(sibling) && sibling.getDestination() == connection
+							.getSource()) {
+						restyledConnections.add(sibling);
+						break;
 					}
 				}
+				viewer.removeGraphModelConnection(element);
+			}
+		}
+		for (Object element : viewer.getNodeElements()) {
+			if (isStale(viewer.getGraphModelNode(element))) {
+				viewer.removeGraphModelNode(element);
+			}
+		}
+		for (GraphConnection connection : restyledConnections) {
+			if (!connection.isDisposed()) {
+				styleConnection(connection);
 			}
 		}
 	}
@@ -376,7 +509,9 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	 * @param graph
 	 */
 	protected void doBuildGraph(Graph model) {
-		clearGraph(model);
+		if (reconciledItems == null) {
+			clearGraph(model);
+		}
 		model.setConnectionStyle(getConnectionStyle());
 		model.setNodeStyle(getNodeStyle());
 		model.setConstraintAdapters(getConstraintAdapters());
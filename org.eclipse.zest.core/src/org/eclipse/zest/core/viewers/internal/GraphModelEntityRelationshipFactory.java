@@ -74,14 +74,20 @@ public class GraphModelEntityRelationshipFactory extends AbstractStylingModelFac
 		GraphNode[] modelNodes = getNodesArray(model);
 		List listOfNodes = new ArrayList();
 		for (GraphNode modelNode : modelNodes) {
-			listOfNodes.add(modelNode);
+			// nodes which are about to be removed by a refresh are not connected
+			if (!isStale(modelNode)) {
+				listOfNodes.add(modelNode);
+			}
 		}
 
 		for (int i = 0; i < listOfNodes.size(); i++) {
 			GraphNode node = (GraphNode) listOfNodes.get(i);
 			if (node instanceof GraphContainer) {
-				List childNodes = ((GraphContainer) node).getNodes();
-				listOfNodes.addAll(childNodes);
+				for (GraphNode childNode : ((GraphContainer) node).getNodes()) {
+					if (!isStale(childNode)) {
+						listOfNodes.add(childNode);
+					}
+				}
 			}
 		}
 		modelNodes = (GraphNode[]) listOfNodes.toArray(new GraphNode[listOfNodes.size()]);
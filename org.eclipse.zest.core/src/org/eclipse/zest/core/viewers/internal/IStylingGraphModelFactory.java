@@ -135,6 +135,17 @@ public interface IStylingGraphModelFactory {
 	 */
 	public void refreshGraph(Graph graph);
 
+	/**
+	 * Structurally refreshes the entire graph.
+	 *
+	 * @param graph        the graph to refresh.
+	 * @param updateLabels true if the labels of the existing items should be
+	 *                     updated as well.
+	 */
+	public default void refreshGraph(Graph graph, boolean updateLabels) {
+		refreshGraph(graph);
+	}
+
 	/**
 	 * Returns the viewer that this factory is building the model for.
 	 *
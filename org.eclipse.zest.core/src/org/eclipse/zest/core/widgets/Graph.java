@@ -12,6 +12,7 @@
 package org.eclipse.zest.core.widgets;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -32,7 +33,6 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.zest.core.widgets.internal.ContainerFigure;
 import org.eclipse.zest.core.widgets.internal.RevealListener;
 import org.eclipse.zest.core.widgets.internal.ZestRootLayer;
-import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
 import org.eclipse.zest.layouts.LayoutAlgorithm;
 import org.eclipse.zest.layouts.LayoutEntity;
 import org.eclipse.zest.layouts.LayoutRelationship;
@@ -92,6 +92,8 @@ public class Graph extends FigureCanvas implements IContainer {
 	 */
 	private final List<GraphNode> nodes;
 	protected List<GraphConnection> connections;
+	/** Maps each pair of source and destination node to their connections. */
+	private final HashMap<NodePair, List<GraphConnection>> connectionsByNodes = new HashMap<>();
 	private List<GraphItem> selectedItems = null;
 	private HideNodeHelper hoverNode = null;
 	IFigure fisheyedFigure = null;
@@ -115,6 +117,8 @@ public class Graph extends FigureCanvas implements IContainer {
 	private ZestRootLayer zestRootLayer;
 
 	private boolean hasPendingLayoutRequest;
+	private final LayoutService layoutService = new LayoutService(this, this::applyLayoutInternal);
+	private boolean asynchronousLayout;
 	private boolean enableHideNodes;
 
 	/**
@@ -380,6 +384,8 @@ public class Graph extends FigureCanvas implements IContainer {
 	 * Runs the layout on this graph. It uses the reveal listener to run the layout
 	 * only if the view is visible. Otherwise it will be deferred until after the
 	 * view is available.
+	 *
+	 * @see #setAsynchronousLayout(boolean)
 	 */
 	@Override
 	public void applyLayout() {
@@ -389,6 +395,33 @@ public class Graph extends FigureCanvas implements IContainer {
 		}
 	}
 
+	/**
+	 * Sets whether the layouts of this graph are computed off the UI thread. An
+	 * asynchronous layout is computed on a copy of the nodes and connections, and
+	 * the computed locations are applied on the UI thread once it has ended. A
+	 * layout which is requested while another one is computed discards the result
+	 * of the running layout, and is computed once the running layout has ended.
+	 * If the layout algorithm cannot run asynchronously, the layout is computed on
+	 * the UI thread. By default, layouts are computed on the UI thread.
+	 *
+	 * @param asynchronous whether the layouts are computed off the UI thread
+	 * @since 1.11
+	 */
+	public void setAsynchronousLayout(boolean asynchronous) {
+		this.asynchronousLayout = asynchronous;
+	}
+
+	/**
+	 * Returns whether the layouts of this graph are computed off the UI thread.
+	 *
+	 * @return whether the layouts are computed off the UI thread
+	 * @see #setAsynchronousLayout(boolean)
+	 * @since 1.11
+	 */
+	public boolean isAsynchronousLayout() {
+		return asynchronousLayout;
+	}
+
 	/**
 	 * Sets the preferred size of the layout area. Size of ( -1, -1) uses the
 	 * current canvas size.
@@ -727,6 +760,7 @@ public class Graph extends FigureCanvas implements IContainer {
 
 				shell.addDisposeListener(e -> {
 					g.connections.clear();
+					g.connectionsByNodes.clear();
 					g.nodes.clear();
 					g.release();
 				});
@@ -853,6 +887,7 @@ public class Graph extends FigureCanvas implements IContainer {
 	}
 
 	private void release() {
+		layoutService.cancel();
 		while (!nodes.isEmpty()) {
 			GraphNode node = nodes.get(0);
 			if (node != null) {
@@ -1088,6 +1123,46 @@ public class Graph extends FigureCanvas implements IContainer {
 		}
 	}
 
+	/**
+	 * Returns the connections from the given source to the given destination node,
+	 * in the order in which they were created.
+	 *
+	 * @param source      the source node
+	 * @param destination the destination node
+	 * @return an unmodifiable list of the connections
+	 * @since 1.11
+	 */
+	public List<GraphConnection> getConnections(GraphNode source, GraphNode destination) {
+		List<GraphConnection> list = connectionsByNodes.get(new NodePair(source, destination));
+		return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+	}
+
+	/**
+	 * Adds a new connection to the connections between its nodes. Unlike
+	 * {@link #addConnection(GraphConnection, boolean)}, this is called only once
+	 * for each connection, and not when its figure is exchanged.
+	 */
+	void indexConnection(GraphConnection connection) {
+		connectionsByNodes
+				.computeIfAbsent(new NodePair(connection.getSource(), connection.getDestination()),
+						key -> new ArrayList<>(1))
+				.add(connection);
+	}
+
+	/**
+	 * Removes a disposed connection from the connections between its nodes.
+	 */
+	void unindexConnection(GraphConnection connection) {
+		NodePair key = new NodePair(connection.getSource(), connection.getDestination());
+		List<GraphConnection> list = connectionsByNodes.get(key);
+		if (list != null && list.remove(connection) && list.isEmpty()) {
+			connectionsByNodes.remove(key);
+		}
+	}
+
+	private record NodePair(GraphNode source, GraphNode destination) {
+	}
+
 	/*
 	 * public void redraw() {
 	 *
@@ -1220,20 +1295,13 @@ public class Graph extends FigureCanvas implements IContainer {
 		LayoutRelationship[] connectionsToLayout = getConnectionsToLayout(nodes);
 		LayoutEntity[] nodesToLayout = getNodesToLayout(getNodes());
 
-		try {
-			if ((nodeStyle & ZestStyles.NODES_NO_LAYOUT_ANIMATION) == 0) {
-				Animation.markBegin();
-			}
-			layoutAlgorithm.applyLayout(nodesToLayout, connectionsToLayout, 0, 0, d.width, d.height, false, false);
-			if ((nodeStyle & ZestStyles.NODES_NO_LAYOUT_ANIMATION) == 0) {
-				Animation.run(ANIMATION_TIME);
-			}
-			getLightweightSystem().getUpdateManager().performUpdate();
-
-		} catch (InvalidLayoutConfiguration e) {
-			e.printStackTrace();
+		boolean animate = (nodeStyle & ZestStyles.NODES_NO_LAYOUT_ANIMATION) == 0;
+		if (asynchronousLayout) {
+			// the layout is computed off the UI thread and applied once it has ended
+			layoutService.schedule(layoutAlgorithm, nodesToLayout, connectionsToLayout, d.width, d.height, animate);
+		} else {
+			layoutService.apply(layoutAlgorithm, nodesToLayout, connectionsToLayout, d.width, d.height, animate);
 		}
-
 	}
 
 	interface MyRunnable extends Runnable {
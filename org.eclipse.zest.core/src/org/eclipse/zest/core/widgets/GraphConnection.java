@@ -101,6 +101,7 @@ public class GraphConnection extends GraphItem {
 		this.layoutConnection = new GraphLayoutConnection();
 		this.font = Display.getDefault().getSystemFont();
 		registerConnection(source, destination);
+		graphModel.indexConnection(this);
 	}
 
 	/**
@@ -180,6 +181,7 @@ public class GraphConnection extends GraphItem {
 		(getSource()).removeSourceConnection(this);
 		(getDestination()).removeTargetConnection(this);
 		graphModel.removeConnection(this);
+		graphModel.unindexConnection(this);
 		if (sourceContainerConnectionFigure != null) {
 			sourceContainerConnectionFigure.getParent().remove(sourceContainerConnectionFigure);
 		}
@@ -500,6 +502,17 @@ public class GraphConnection extends GraphItem {
 		}
 	}
 
+	/**
+	 * Gets the curve depth of the arc, or 0 if the connection is not curved.
+	 *
+	 * @return the curve depth
+	 * @see #setCurveDepth(int)
+	 * @since 1.11
+	 */
+	public int getCurveDepth() {
+		return curveDepth;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
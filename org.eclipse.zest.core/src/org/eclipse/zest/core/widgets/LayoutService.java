@@ -0,0 +1,441 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
+import org.eclipse.zest.layouts.LayoutAlgorithm;
+import org.eclipse.zest.layouts.LayoutBendPoint;
+import org.eclipse.zest.layouts.LayoutEntity;
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.constraints.BasicEdgeConstraints;
+import org.eclipse.zest.layouts.constraints.BasicEntityConstraint;
+import org.eclipse.zest.layouts.constraints.LayoutConstraint;
+import org.eclipse.zest.layouts.progress.ProgressEvent;
+import org.eclipse.zest.layouts.progress.ProgressListener;
+
+import org.eclipse.draw2d.Animation;
+
+/**
+ * Computes the layouts of a {@link Graph}, off the UI thread if the graph is
+ * laid out asynchronously, see {@link Graph#setAsynchronousLayout(boolean)}.
+ * For an asynchronous layout, the sizes, locations and constraints of the nodes
+ * and connections are copied into a snapshot on the UI thread, which the layout
+ * algorithm computes asynchronously. The resulting locations are then applied
+ * to the graph in a single batch on the UI thread, so that they can be
+ * animated.
+ *
+ * Only one layout of a graph is computed at a time. A layout which is requested
+ * while another one is computed supersedes it: the result of the running layout
+ * is discarded, and the graph is laid out again once the running layout has
+ * ended. Any further requests in the meantime are merged into this one. A
+ * layout which fails still ends, and the locations computed until it failed
+ * are applied, as they are by a layout on the UI thread.
+ *
+ * All methods must be called on the UI thread.
+ */
+final class LayoutService {
+
+	private final Graph graph;
+	private final Runnable relayout;
+
+	/** The layout which is currently computed, or null. */
+	private Request running;
+
+	/** Whether the graph is laid out again once the running layout has ended. */
+	private boolean relayoutPending;
+
+	/**
+	 * Creates a layout service for the given graph.
+	 *
+	 * @param graph    the graph
+	 * @param relayout lays out the graph again, by calling
+	 *                 {@link #schedule(LayoutAlgorithm, LayoutEntity[], LayoutRelationship[], double, double, boolean)}
+	 */
+	LayoutService(Graph graph, Runnable relayout) {
+		this.graph = graph;
+		this.relayout = relayout;
+	}
+
+	/**
+	 * Lays out the given entities. If another layout is computed at the moment,
+	 * the layout is deferred until that layout has ended.
+	 *
+	 * @param algorithm     the layout algorithm
+	 * @param entities      the entities to lay out
+	 * @param relationships the relationships between the entities
+	 * @param width         the width of the layout area
+	 * @param height        the height of the layout area
+	 * @param animate       whether the new locations are animated
+	 */
+	void schedule(LayoutAlgorithm algorithm, LayoutEntity[] entities, LayoutRelationship[] relationships,
+			double width, double height, boolean animate) {
+		if (running != null) {
+			if (running.algorithm.isRunning()) {
+				relayoutPending = true;
+				return;
+			}
+			// the running layout has failed without ending
+			running.algorithm.removeProgressListener(running);
+			running = null;
+		}
+		relayoutPending = false;
+
+		Request request = new Request(algorithm, entities, relationships, animate);
+		running = request;
+		algorithm.addProgressListener(request);
+		try {
+			algorithm.applyLayout(request.entities, request.relationships, 0, 0, width, height, true, false);
+		} catch (InvalidLayoutConfiguration e) {
+			// the algorithm cannot run asynchronously, so lay out the graph directly
+			algorithm.removeProgressListener(request);
+			running = null;
+			apply(algorithm, entities, relationships, width, height, animate);
+		} catch (RuntimeException e) {
+			// the layout has not been started
+			algorithm.removeProgressListener(request);
+			running = null;
+			throw e;
+		}
+	}
+
+	/**
+	 * Discards the running layout, if any.
+	 */
+	void cancel() {
+		if (running != null) {
+			running.algorithm.removeProgressListener(running);
+			running = null;
+		}
+		relayoutPending = false;
+	}
+
+	/**
+	 * Lays out the given entities on the UI thread. The running layout, if any, is
+	 * discarded.
+	 *
+	 * @param algorithm     the layout algorithm
+	 * @param entities      the entities to lay out
+	 * @param relationships the relationships between the entities
+	 * @param width         the width of the layout area
+	 * @param height        the height of the layout area
+	 * @param animate       whether the new locations are animated
+	 */
+	void apply(LayoutAlgorithm algorithm, LayoutEntity[] entities, LayoutRelationship[] relationships, double width,
+			double height, boolean animate) {
+		cancel();
+		try {
+			if (animate) {
+				Animation.markBegin();
+			}
+			algorithm.applyLayout(entities, relationships, 0, 0, width, height, false, false);
+			if (animate) {
+				Animation.run(Graph.ANIMATION_TIME);
+			}
+			graph.getLightweightSystem().getUpdateManager().performUpdate();
+		} catch (InvalidLayoutConfiguration e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Called on the UI thread when the given layout has ended.
+	 */
+	private void layoutEnded(Request request) {
+		if (request != running) {
+			return;
+		}
+		request.algorithm.removeProgressListener(request);
+		running = null;
+		if (graph.isDisposed()) {
+			return;
+		}
+		if (relayoutPending) {
+			relayoutPending = false;
+			relayout.run();
+			return;
+		}
+
+		if (request.animate) {
+			Animation.markBegin();
+		}
+		for (EntitySnapshot entity : request.entities) {
+			entity.apply();
+		}
+		for (RelationshipSnapshot relationship : request.relationships) {
+			relationship.apply();
+		}
+		if (request.animate) {
+			Animation.run(Graph.ANIMATION_TIME);
+		}
+		graph.getLightweightSystem().getUpdateManager().performUpdate();
+	}
+
+	/**
+	 * A layout which is computed. It is notified on the layout thread when the
+	 * layout has ended.
+	 */
+	private final class Request implements ProgressListener {
+
+		final LayoutAlgorithm algorithm;
+		final EntitySnapshot[] entities;
+		final RelationshipSnapshot[] relationships;
+		final boolean animate;
+		final Display display;
+
+		Request(LayoutAlgorithm algorithm, LayoutEntity[] entities, LayoutRelationship[] relationships,
+				boolean animate) {
+			this.algorithm = algorithm;
+			this.animate = animate;
+			this.display = graph.getDisplay();
+			this.entities = new EntitySnapshot[entities.length];
+			Map<LayoutEntity, EntitySnapshot> snapshots = new IdentityHashMap<>(entities.length);
+			for (int i = 0; i < entities.length; i++) {
+				this.entities[i] = new EntitySnapshot(entities[i]);
+				snapshots.put(entities[i], this.entities[i]);
+			}
+			this.relationships = new RelationshipSnapshot[relationships.length];
+			for (int i = 0; i < relationships.length; i++) {
+				this.relationships[i] = new RelationshipSnapshot(relationships[i],
+						snapshots.get(relationships[i].getSourceInLayout()),
+						snapshots.get(relationships[i].getDestinationInLayout()));
+			}
+		}
+
+		@Override
+		public void progressStarted(ProgressEvent e) {
+			// nothing to do
+		}
+
+		@Override
+		public void progressUpdated(ProgressEvent e) {
+			// only the final locations are applied
+		}
+
+		@Override
+		public void progressEnded(ProgressEvent e) {
+			if (!display.isDisposed()) {
+				display.asyncExec(() -> layoutEnded(this));
+			}
+		}
+
+	}
+
+	/**
+	 * The state of an entity at the time a layout was requested, and the location
+	 * and size computed for it by the layout. The layout algorithm reads and
+	 * writes only the snapshot, the entity itself is updated on the UI thread.
+	 */
+	private static final class EntitySnapshot implements LayoutEntity {
+
+		private final LayoutEntity entity;
+		private final Object graphData;
+		private final String text;
+		private final BasicEntityConstraint constraint = new BasicEntityConstraint();
+		private Object layoutInformation;
+		private double x;
+		private double y;
+		private double width;
+		private double height;
+		private boolean located;
+		private boolean resized;
+
+		EntitySnapshot(LayoutEntity entity) {
+			this.entity = entity;
+			this.graphData = entity.getGraphData();
+			this.text = entity.toString();
+			this.x = entity.getXInLayout();
+			this.y = entity.getYInLayout();
+			this.width = entity.getWidthInLayout();
+			this.height = entity.getHeightInLayout();
+			entity.populateLayoutConstraint(constraint);
+		}
+
+		void apply() {
+			if (located) {
+				entity.setLocationInLayout(x, y);
+			}
+			if (resized) {
+				entity.setSizeInLayout(width, height);
+			}
+		}
+
+		@Override
+		public void setLocationInLayout(double x, double y) {
+			this.x = x;
+			this.y = y;
+			located = true;
+		}
+
+		@Override
+		public void setSizeInLayout(double width, double height) {
+			this.width = width;
+			this.height = height;
+			resized = true;
+		}
+
+		@Override
+		public double getXInLayout() {
+			return x;
+		}
+
+		@Override
+		public double getYInLayout() {
+			return y;
+		}
+
+		@Override
+		public double getWidthInLayout() {
+			return width;
+		}
+
+		@Override
+		public double getHeightInLayout() {
+			return height;
+		}
+
+		@Override
+		public Object getLayoutInformation() {
+			return layoutInformation;
+		}
+
+		@Override
+		public void setLayoutInformation(Object internalEntity) {
+			this.layoutInformation = internalEntity;
+		}
+
+		@Override
+		public void populateLayoutConstraint(LayoutConstraint constraint) {
+			if (constraint instanceof BasicEntityConstraint basic) {
+				basic.hasPreferredLocation = this.constraint.hasPreferredLocation;
+				basic.preferredX = this.constraint.preferredX;
+				basic.preferredY = this.constraint.preferredY;
+				basic.hasPreferredSize = this.constraint.hasPreferredSize;
+				basic.preferredWidth = this.constraint.preferredWidth;
+				basic.preferredHeight = this.constraint.preferredHeight;
+			}
+		}
+
+		@Override
+		public int compareTo(Object other) {
+			if (other instanceof EntitySnapshot snapshot) {
+				return entity.compareTo(snapshot.entity);
+			}
+			return entity.compareTo(other);
+		}
+
+		@Override
+		public Object getGraphData() {
+			return graphData;
+		}
+
+		@Override
+		public void setGraphData(Object o) {
+			// the graph data is not changed by layouts
+		}
+
+		@Override
+		public String toString() {
+			return text;
+		}
+
+	}
+
+	/**
+	 * The state of a relationship at the time a layout was requested, and the
+	 * bend points computed for it by the layout.
+	 */
+	private static final class RelationshipSnapshot implements LayoutRelationship {
+
+		private final LayoutRelationship relationship;
+		private final EntitySnapshot source;
+		private final EntitySnapshot destination;
+		private final Object graphData;
+		private final BasicEdgeConstraints constraint = new BasicEdgeConstraints();
+		private Object layoutInformation;
+		private LayoutBendPoint[] bendPoints;
+		private boolean cleared;
+
+		RelationshipSnapshot(LayoutRelationship relationship, EntitySnapshot source, EntitySnapshot destination) {
+			this.relationship = relationship;
+			this.source = source;
+			this.destination = destination;
+			this.graphData = relationship.getGraphData();
+			relationship.populateLayoutConstraint(constraint);
+		}
+
+		void apply() {
+			if (cleared) {
+				relationship.clearBendPoints();
+			}
+			if (bendPoints != null) {
+				relationship.setBendPoints(bendPoints);
+			}
+		}
+
+		@Override
+		public LayoutEntity getSourceInLayout() {
+			return source;
+		}
+
+		@Override
+		public LayoutEntity getDestinationInLayout() {
+			return destination;
+		}
+
+		@Override
+		public Object getLayoutInformation() {
+			return layoutInformation;
+		}
+
+		@Override
+		public void setLayoutInformation(Object layoutInformation) {
+			this.layoutInformation = layoutInformation;
+		}
+
+		@Override
+		public void setBendPoints(LayoutBendPoint[] bendPoints) {
+			this.bendPoints = bendPoints;
+		}
+
+		@Override
+		public void clearBendPoints() {
+			bendPoints = null;
+			cleared = true;
+		}
+
+		@Override
+		public void populateLayoutConstraint(LayoutConstraint constraint) {
+			if (constraint instanceof BasicEdgeConstraints basic) {
+				basic.isBiDirectional = this.constraint.isBiDirectional;
+				basic.weight = this.constraint.weight;
+			}
+		}
+
+		@Override
+		public Object getGraphData() {
+			return graphData;
+		}
+
+		@Override
+		public void setGraphData(Object o) {
+			// the graph data is not changed by layouts
+		}
+
+	}
+
+}
@@ -13,10 +13,7 @@
 package org.eclipse.zest.core.widgets.internal;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
@@ -33,6 +30,7 @@ import org.eclipse.draw2d.ScaledGraphics;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.PointList;
 import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.draw2d.internal.ZoomedFontCache;
 
 /**
  * This was adapted from the ScaledGraphics class to allow X and Y to scale
@@ -46,46 +44,6 @@ public class XYScaledGraphics extends ScaledGraphics {
 	public static final double MAX_TEXT_SIZE = 0.45; // MAX size, when to stop
 														// zooming text
 
-	private static class FontHeightCache {
-		Font font;
-		int height;
-	}
-
-	static class FontKey {
-		Font font;
-		int height;
-
-		protected FontKey() {
-		}
-
-		protected FontKey(Font font, int height) {
-			this.font = font;
-			this.height = height;
-		}
-
-		@Override
-		public boolean equals(Object obj) {
-			if (this == obj) {
-				return true;
-			}
-
-			if (obj == null || getClass() != obj.getClass()) {
-				return false;
-			}
-			return (((FontKey) obj).font.equals(font) && ((FontKey) obj).height == height);
-		}
-
-		@Override
-		public int hashCode() {
-			return font.hashCode() ^ height;
-		}
-
-		protected void setValues(Font font, int height) {
-			this.font = font;
-			this.height = height;
-		}
-	}
-
 	/**
 	 * The internal state of the scaled graphics.
 	 */
@@ -153,18 +111,13 @@ public class XYScaledGraphics extends ScaledGraphics {
 
 	private boolean allowText = true;
 	// private static final Point PT = new Point();
-	private final Map fontCache = new HashMap();
-	private final Map fontDataCache = new HashMap();
-	private final FontKey fontKey = new FontKey();
 	private double fractionalX;
 	private double fractionalY;
 	private final Graphics graphics;
-	private final FontHeightCache localCache = new FontHeightCache();
 	private Font localFont;
 	private int localLineWidth;
 	private final List stack = new ArrayList();
 	private int stackPointer = 0;
-	private final FontHeightCache targetCache = new FontHeightCache();
 
 	double xZoom = 1.0;
 	double yZoom = 1.0;
@@ -187,8 +140,12 @@ public class XYScaledGraphics extends ScaledGraphics {
 		graphics.clipRect(zoomClipRect(r));
 	}
 
-	Font createFont(FontData data) {
-		return new Font(Display.getCurrent(), data);
+	/**
+	 * Returns the cache holding the zoomed fonts. The fonts are shared with other
+	 * scaled graphics and therefore not disposed with this graphics.
+	 */
+	private static ZoomedFontCache getFontCache() {
+		return ZoomedFontCache.getCache(Display.getCurrent());
 	}
 
 	/** @see Graphics#dispose() */
@@ -198,14 +155,6 @@ public class XYScaledGraphics extends ScaledGraphics {
 		while (stackPointer > 0) {
 			popState();
 		}
-
-		// Dispose fonts
-		Iterator iter = fontCache.values().iterator();
-		while (iter.hasNext()) {
-			Font font = ((Font) iter.next());
-			font.dispose();
-		}
-
 	}
 
 	/** @see Graphics#drawArc(int, int, int, int, int, int) */
@@ -441,29 +390,6 @@ public class XYScaledGraphics extends ScaledGraphics {
 		return graphics.getBackgroundColor();
 	}
 
-	Font getCachedFont(FontKey key) {
-		Font font = (Font) fontCache.get(key);
-		if (font != null) {
-			return font;
-		}
-		key = new FontKey(key.font, key.height);
-		FontData data = key.font.getFontData()[0];
-		data.setHeight(key.height);
-		Font zoomedFont = createFont(data);
-		fontCache.put(key, zoomedFont);
-		return zoomedFont;
-	}
-
-	FontData getCachedFontData(Font f) {
-		FontData data = (FontData) fontDataCache.get(f);
-		if (data != null) {
-			return data;
-		}
-		data = getLocalFont().getFontData()[0];
-		fontDataCache.put(f, data);
-		return data;
-	}
-
 	/** @see Graphics#getClip(Rectangle) */
 	@Override
 	public Rectangle getClip(Rectangle rect) {
@@ -785,11 +711,11 @@ public class XYScaledGraphics extends ScaledGraphics {
 		if (f == null) {
 			f = Display.getCurrent().getSystemFont();
 		}
-		FontData data = getCachedFontData(f);
+		ZoomedFontCache cache = getFontCache();
+		FontData data = cache.getFontData(f);
 		int zoomedFontHeight = zoomFontHeight(data.getHeight());
 		allowText = zoomedFontHeight > 0;
-		fontKey.setValues(f, zoomedFontHeight);
-		return getCachedFont(fontKey);
+		return cache.getFont(f, zoomedFontHeight);
 	}
 
 	int zoomFontHeight(int height) {
@@ -890,19 +816,11 @@ public class XYScaledGraphics extends ScaledGraphics {
 	}
 
 	private Point zoomTextPoint(int x, int y) {
-		if (localCache.font != localFont) {
-			// Font is different, re-calculate its height
-			FontMetrics metric = FigureUtilities.getFontMetrics(localFont);
-			localCache.height = metric.getHeight() - metric.getDescent();
-			localCache.font = localFont;
-		}
-		if (targetCache.font != graphics.getFont()) {
-			FontMetrics metric = graphics.getFontMetrics();
-			targetCache.font = graphics.getFont();
-			targetCache.height = metric.getHeight() - metric.getDescent();
-		}
+		ZoomedFontCache cache = getFontCache();
+		int localHeight = cache.getBaseline(localFont, () -> FigureUtilities.getFontMetrics(localFont));
+		int targetHeight = cache.getBaseline(graphics.getFont(), graphics::getFontMetrics);
 		return new Point(((int) (Math.floor((x * xZoom) + fractionalX))),
-				(int) (Math.floor((y + localCache.height - 1) * yZoom - targetCache.height + 1 + fractionalY)));
+				(int) (Math.floor((y + localHeight - 1) * yZoom - targetHeight + 1 + fractionalY)));
 	}
 
 }
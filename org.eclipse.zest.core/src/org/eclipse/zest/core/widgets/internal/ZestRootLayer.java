@@ -33,6 +33,14 @@ public class ZestRootLayer extends FreeformLayer {
 	private int numberOfHighlightedNodes = 0;
 	private int numberOfHighlightedConnections = 0;
 
+	/**
+	 * Creates a new root layer. Its nodes and connections are tracked in a
+	 * spatial index, so that hit-testing does not need to visit every figure.
+	 */
+	public ZestRootLayer() {
+		setSpatialIndexEnabled(true);
+	}
+
 	/**
 	 * Adds a node to the ZestRootLayer
 	 *
@@ -18,7 +18,12 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.eclipse.zest.layouts.Filter;
 import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
@@ -60,10 +65,21 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 	public static final int MIN_ENTITY_SIZE = 5;
 	private static final int MIN_TIME_DELAY_BETWEEN_PROGRESS_EVENTS = 1;
 
+	/**
+	 * The threads computing asynchronous layouts, shared by all layout algorithms.
+	 */
+	private static final ExecutorService LAYOUT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "Zest Layout"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
 	private Thread creationThread = null;
 	protected Comparator comparator;
 	protected Filter filter;
-	private final List<ProgressListener> progressListeners = new ArrayList<>();
+	// listeners may be added and removed while an asynchronous layout fires events
+	private final List<ProgressListener> progressListeners = new CopyOnWriteArrayList<>();
 	private Calendar lastProgressEventFired;
 	private double widthToHeightRatio;
 
@@ -426,32 +442,34 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 		lastProgressEventFired = Calendar.getInstance();
 		if (asynchronous) {
 
-			Thread thread = new Thread(() -> {
-				setupLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
-				preLayoutAlgorithm(internalNodes, internalRelationships, internalX, internalY, internalWidth,
-						internalHeight);
-				fireProgressStarted(getTotalNumberOfLayoutSteps());
-
-				applyLayoutInternal(internalNodes, internalRelationships, internalX, internalY, internalWidth,
-						internalHeight);
-				stop();
-			});
-			thread.setPriority(Thread.MIN_PRIORITY);
-			thread.start();
+			LAYOUT_EXECUTOR.execute(() -> runLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height));
 		} else {
 
 			// If we are running synchronously then we have to stop this at some
 			// point? right?
-			setupLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
+			runLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
+		}
+
+	}
+
+	/**
+	 * Lays out the given entities and stops the layout once it has ended. The
+	 * layout is stopped even if it fails, so that it is no longer running and the
+	 * progress listeners are told that it has ended.
+	 */
+	private void runLayout(LayoutEntity[] entitiesToLayout, LayoutRelationship[] relationshipsToConsider, double x,
+			double y, double width, double height) {
+		setupLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
+		try {
 			preLayoutAlgorithm(internalNodes, internalRelationships, internalX, internalY, internalWidth,
 					internalHeight);
 			fireProgressStarted(getTotalNumberOfLayoutSteps());
 
 			applyLayoutInternal(internalNodes, internalRelationships, internalX, internalY, internalWidth,
 					internalHeight);
+		} finally {
 			stop();
 		}
-
 	}
 
 	/**
@@ -576,22 +594,11 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 	 */
 	public static boolean verifyInput(LayoutEntity[] entitiesToLayout, LayoutRelationship[] relationshipsToConsider) {
 		boolean stillValid = true;
+		Set<LayoutEntity> entities = new HashSet<>(Arrays.asList(entitiesToLayout));
 		for (LayoutRelationship relationship : relationshipsToConsider) {
 			LayoutEntity source = relationship.getSourceInLayout();
 			LayoutEntity destination = relationship.getDestinationInLayout();
-			boolean containsSrc = false;
-			boolean containsDest = false;
-			int j = 0;
-			while (j < entitiesToLayout.length && !(containsSrc && containsDest)) {
-				if (entitiesToLayout[j].equals(source)) {
-					containsSrc = true;
-				}
-				if (entitiesToLayout[j].equals(destination)) {
-					containsDest = true;
-				}
-				j++;
-			}
-			stillValid = containsSrc && containsDest;
+			stillValid = entities.contains(source) && entities.contains(destination);
 		}
 		return stillValid;
 	}
@@ -868,21 +875,44 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm, Stoppa
 		DisplayIndependentDimension horAndVertdistance = new DisplayIndependentDimension(Double.MAX_VALUE,
 				Double.MAX_VALUE);
 		double minDistance = Double.MAX_VALUE; // the minimum distance between all the nodes
-		// TODO: Very Slow!
+		int minFirst = -1;
+		int minSecond = -1;
+		// sweep over the nodes from left to right, comparing each node only with the
+		// nodes to its left which are horizontally closer than the minimum distance.
+		// Nodes at an undefined or infinite location have no finite distance.
+		List<Integer> sorted = new ArrayList<>(entitiesToLayout.length);
 		for (int i = 0; i < entitiesToLayout.length; i++) {
-			InternalNode layoutEntity1 = entitiesToLayout[i];
-			double x1 = layoutEntity1.getInternalX();
-			double y1 = layoutEntity1.getInternalY();
-			for (int j = i + 1; j < entitiesToLayout.length; j++) {
-				InternalNode layoutEntity2 = entitiesToLayout[j];
-				double x2 = layoutEntity2.getInternalX();
-				double y2 = layoutEntity2.getInternalY();
+			if (Double.isFinite(entitiesToLayout[i].getInternalX())
+					&& Double.isFinite(entitiesToLayout[i].getInternalY())) {
+				sorted.add(Integer.valueOf(i));
+			}
+		}
+		sorted.sort(Comparator.comparingDouble(i -> entitiesToLayout[i.intValue()].getInternalX()));
+		for (int k = 1; k < sorted.size(); k++) {
+			int index1 = sorted.get(k).intValue();
+			double x1 = entitiesToLayout[index1].getInternalX();
+			double y1 = entitiesToLayout[index1].getInternalY();
+			for (int m = k - 1; m >= 0; m--) {
+				int index2 = sorted.get(m).intValue();
+				double x2 = entitiesToLayout[index2].getInternalX();
+				// allow for rounding, so that pairs at the same distance are not missed
+				if (x1 - x2 > minDistance * (1 + 1e-9)) {
+					break;
+				}
+				double y2 = entitiesToLayout[index2].getInternalY();
 				double distanceX = Math.abs(x1 - x2);
 				double distanceY = Math.abs(y1 - y2);
 				double distance = Math.sqrt(Math.pow(distanceX, 2) + Math.pow(distanceY, 2));
 
-				if (distance < minDistance) {
+				// of the pairs at the minimum distance, choose the one which comes first
+				// in the order of the entities
+				int first = Math.min(index1, index2);
+				int second = Math.max(index1, index2);
+				if (distance < minDistance || (distance == minDistance
+						&& (first < minFirst || (first == minFirst && second < minSecond)))) {
 					minDistance = distance;
+					minFirst = first;
+					minSecond = second;
 					horAndVertdistance.width = distanceX;
 					horAndVertdistance.height = distanceY;
 				}
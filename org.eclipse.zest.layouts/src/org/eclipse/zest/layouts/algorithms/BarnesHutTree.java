@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.layouts.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * A quadtree over a set of points, used by the {@link SpringLayoutAlgorithm} to
+ * approximate the repulsion between all pairs of nodes in O(n log n) (the
+ * Barnes-Hut approximation). Each cell knows the number of points it contains
+ * and their center of mass. The repulsion of a cell which is small compared to
+ * its distance from a point is computed from the center of mass, instead of
+ * from each of its points.
+ *
+ * Once built, the tree may be queried from several threads at once.
+ *
+ * This class is for internal use only.
+ */
+final class BarnesHutTree {
+
+	/**
+	 * Cells are not split any further at this depth, so that coincident points do
+	 * not subdivide the tree indefinitely.
+	 */
+	private static final int MAX_DEPTH = 32;
+
+	private static final int NONE = -1;
+
+	private double[] xs;
+	private double[] ys;
+
+	private int cellCount;
+	private double[] cellX;
+	private double[] cellY;
+	private double[] cellSize;
+	private int[] cellMass;
+	private double[] cellSumX;
+	private double[] cellSumY;
+	/** The index of the first of the four children of a cell, or NONE. */
+	private int[] cellChildren;
+	/** The first point of a leaf, the others are linked by nextPoints. */
+	private int[] cellPoints;
+	private int[] nextPoints;
+
+	/**
+	 * Builds the tree over the given points.
+	 *
+	 * @param xs    the x coordinates of the points
+	 * @param ys    the y coordinates of the points
+	 * @param count the number of points
+	 */
+	void build(double[] xs, double[] ys, int count) {
+		this.xs = xs;
+		this.ys = ys;
+		if (nextPoints == null || nextPoints.length < count) {
+			nextPoints = new int[count];
+			allocateCells(Math.max(16, 2 * count));
+		}
+		cellCount = 0;
+		if (count == 0) {
+			return;
+		}
+		double minX = Double.MAX_VALUE;
+		double minY = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		double maxY = -Double.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			minX = Math.min(minX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxX = Math.max(maxX, xs[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+		double size = Math.max(maxX - minX, maxY - minY);
+		addCell(minX, minY, size > 0 ? size : 1);
+		for (int i = 0; i < count; i++) {
+			insert(i);
+		}
+	}
+
+	/**
+	 * Adds the repulsion of all points except the given one on the given point to
+	 * the given forces. Two points at distance <code>d</code> repel each other with
+	 * <code>gravitation / d<sup>2</sup></code>, where the distance is at least
+	 * <code>minDistance</code>.
+	 *
+	 * @param i           the index of the point
+	 * @param theta       the ratio of the size of a cell to its distance from the
+	 *                    point, below which the cell is approximated by its center
+	 *                    of mass
+	 * @param gravitation the gravitation
+	 * @param minDistance the minimum distance
+	 * @param stack       a stack of at least {@link #getStackSize()} elements
+	 * @param forces      the forces in x and y direction, to which the repulsion is
+	 *                    added
+	 */
+	void addRepulsion(int i, double theta, double gravitation, double minDistance, int[] stack, double[] forces) {
+		if (cellCount == 0) {
+			return;
+		}
+		double x = xs[i];
+		double y = ys[i];
+		double fx = 0;
+		double fy = 0;
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int cell = stack[--top];
+			int children = cellChildren[cell];
+			if (children == NONE) {
+				for (int j = cellPoints[cell]; j != NONE; j = nextPoints[j]) {
+					if (j != i) {
+						double dx = x - xs[j];
+						double dy = y - ys[j];
+						double distance = Math.max(minDistance, Math.sqrt(dx * dx + dy * dy));
+						double f = gravitation / (distance * distance * distance);
+						fx += f * dx;
+						fy += f * dy;
+					}
+				}
+				continue;
+			}
+			int mass = cellMass[cell];
+			double dx = x - cellSumX[cell] / mass;
+			double dy = y - cellSumY[cell] / mass;
+			double distance = Math.sqrt(dx * dx + dy * dy);
+			if (cellSize[cell] < theta * distance && !contains(cell, x, y)) {
+				distance = Math.max(minDistance, distance);
+				double f = gravitation * mass / (distance * distance * distance);
+				fx += f * dx;
+				fy += f * dy;
+			} else {
+				for (int k = 0; k < 4; k++) {
+					if (cellMass[children + k] > 0) {
+						stack[top++] = children + k;
+					}
+				}
+			}
+		}
+		forces[0] += fx;
+		forces[1] += fy;
+	}
+
+	/**
+	 * Returns the number of elements of the stack needed by
+	 * {@link #addRepulsion(int, double, double, double, int[], double[])}.
+	 *
+	 * @return the stack size
+	 */
+	static int getStackSize() {
+		return 3 * MAX_DEPTH + 4;
+	}
+
+	private boolean contains(int cell, double x, double y) {
+		double size = cellSize[cell];
+		return x >= cellX[cell] && x <= cellX[cell] + size && y >= cellY[cell] && y <= cellY[cell] + size;
+	}
+
+	private void insert(int i) {
+		double x = xs[i];
+		double y = ys[i];
+		int cell = 0;
+		int depth = 0;
+		while (true) {
+			cellMass[cell]++;
+			cellSumX[cell] += x;
+			cellSumY[cell] += y;
+			if (cellChildren[cell] != NONE) {
+				cell = cellChildren[cell] + getQuadrant(cell, x, y);
+				depth++;
+				continue;
+			}
+			if (cellPoints[cell] == NONE || depth == MAX_DEPTH) {
+				nextPoints[i] = cellPoints[cell];
+				cellPoints[cell] = i;
+				return;
+			}
+			// split the leaf and move its point into the respective child
+			int other = cellPoints[cell];
+			cellPoints[cell] = NONE;
+			double half = cellSize[cell] / 2;
+			int children = cellCount;
+			for (int k = 0; k < 4; k++) {
+				addCell(cellX[cell] + (k & 1) * half, cellY[cell] + (k >> 1) * half, half);
+			}
+			cellChildren[cell] = children;
+			int otherCell = children + getQuadrant(cell, xs[other], ys[other]);
+			cellMass[otherCell] = 1;
+			cellSumX[otherCell] = xs[other];
+			cellSumY[otherCell] = ys[other];
+			cellPoints[otherCell] = other;
+			nextPoints[other] = NONE;
+			cell = children + getQuadrant(cell, x, y);
+			depth++;
+		}
+	}
+
+	private int getQuadrant(int cell, double x, double y) {
+		double half = cellSize[cell] / 2;
+		int quadrant = 0;
+		if (x >= cellX[cell] + half) {
+			quadrant |= 1;
+		}
+		if (y >= cellY[cell] + half) {
+			quadrant |= 2;
+		}
+		return quadrant;
+	}
+
+	private void addCell(double x, double y, double size) {
+		if (cellCount == cellX.length) {
+			allocateCells(2 * cellCount);
+		}
+		cellX[cellCount] = x;
+		cellY[cellCount] = y;
+		cellSize[cellCount] = size;
+		cellMass[cellCount] = 0;
+		cellSumX[cellCount] = 0;
+		cellSumY[cellCount] = 0;
+		cellChildren[cellCount] = NONE;
+		cellPoints[cellCount] = NONE;
+		cellCount++;
+	}
+
+	private void allocateCells(int capacity) {
+		if (cellX == null) {
+			cellX = new double[capacity];
+			cellY = new double[capacity];
+			cellSize = new double[capacity];
+			cellMass = new int[capacity];
+			cellSumX = new double[capacity];
+			cellSumY = new double[capacity];
+			cellChildren = new int[capacity];
+			cellPoints = new int[capacity];
+		} else if (capacity > cellX.length) {
+			cellX = Arrays.copyOf(cellX, capacity);
+			cellY = Arrays.copyOf(cellY, capacity);
+			cellSize = Arrays.copyOf(cellSize, capacity);
+			cellMass = Arrays.copyOf(cellMass, capacity);
+			cellSumX = Arrays.copyOf(cellSumX, capacity);
+			cellSumY = Arrays.copyOf(cellSumY, capacity);
+			cellChildren = Arrays.copyOf(cellChildren, capacity);
+			cellPoints = Arrays.copyOf(cellPoints, capacity);
+		}
+	}
+
+}
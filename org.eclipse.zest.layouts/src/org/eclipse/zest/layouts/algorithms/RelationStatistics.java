@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.layouts.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Counts the relations between pairs of nodes and averages their weights, for
+ * the {@link SpringLayoutAlgorithm}. Nodes are identified by their index, and
+ * the relations from one node to another and back are counted together. The
+ * statistics are kept in an open addressing hash table keyed by the pair of
+ * indices packed into a <code>long</code>, so that neither keys nor values are
+ * boxed.
+ *
+ * This class is for internal use only.
+ */
+final class RelationStatistics {
+
+	/** Marks an unused slot. Keys are never negative. */
+	private static final long EMPTY = -1;
+
+	private long[] keys;
+	private int[] counts;
+	private double[] averageWeights;
+	private int size;
+
+	/**
+	 * Creates new statistics.
+	 *
+	 * @param expectedPairs the expected number of related pairs of nodes
+	 */
+	RelationStatistics(int expectedPairs) {
+		int capacity = Integer.highestOneBit(Math.max(8, 2 * expectedPairs - 1)) << 1;
+		allocate(capacity);
+	}
+
+	/**
+	 * Adds a relation between the given nodes.
+	 *
+	 * @param i      the index of one node
+	 * @param j      the index of the other node
+	 * @param weight the weight of the relation
+	 */
+	void add(int i, int j, double weight) {
+		long key = getKey(i, j);
+		int slot = find(key);
+		if (keys[slot] == EMPTY) {
+			keys[slot] = key;
+			counts[slot] = 1;
+			averageWeights[slot] = weight;
+			if (++size > keys.length / 2) {
+				rehash();
+			}
+			return;
+		}
+		int count = counts[slot];
+		averageWeights[slot] = (averageWeights[slot] * count + weight) / (count + 1);
+		counts[slot] = count + 1;
+	}
+
+	/**
+	 * Returns the number of relations between the given nodes.
+	 *
+	 * @param i the index of one node
+	 * @param j the index of the other node
+	 * @return the number of relations
+	 */
+	int getCount(int i, int j) {
+		int slot = find(getKey(i, j));
+		return keys[slot] == EMPTY ? 0 : counts[slot];
+	}
+
+	/**
+	 * Returns the average weight of the relations between the given nodes, or 1 if
+	 * the nodes are not related.
+	 *
+	 * @param i the index of one node
+	 * @param j the index of the other node
+	 * @return the average weight
+	 */
+	double getAverageWeight(int i, int j) {
+		int slot = find(getKey(i, j));
+		return keys[slot] == EMPTY ? 1 : averageWeights[slot];
+	}
+
+	/**
+	 * Returns the related pairs of nodes, sorted by the smaller and then by the
+	 * larger index. The smaller index of a pair is in the upper and the larger
+	 * index in the lower 32 bits.
+	 *
+	 * @return the related pairs
+	 */
+	long[] getSortedPairs() {
+		long[] pairs = new long[size];
+		int count = 0;
+		for (long key : keys) {
+			if (key != EMPTY) {
+				pairs[count++] = key;
+			}
+		}
+		Arrays.sort(pairs);
+		return pairs;
+	}
+
+	private static long getKey(int i, int j) {
+		return i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+	}
+
+	/**
+	 * Returns the slot of the given key, or the empty slot where it would be
+	 * inserted.
+	 */
+	private int find(long key) {
+		int mask = keys.length - 1;
+		int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+		while (keys[slot] != EMPTY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldCounts = counts;
+		double[] oldAverageWeights = averageWeights;
+		allocate(2 * oldKeys.length);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = find(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				counts[slot] = oldCounts[i];
+				averageWeights[slot] = oldAverageWeights[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		counts = new int[capacity];
+		averageWeights = new double[capacity];
+	}
+
+}
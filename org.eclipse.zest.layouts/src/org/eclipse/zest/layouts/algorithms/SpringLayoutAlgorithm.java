@@ -14,7 +14,10 @@ package org.eclipse.zest.layouts.algorithms;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.zest.layouts.LayoutStyles;
 import org.eclipse.zest.layouts.dataStructures.DisplayIndependentRectangle;
@@ -34,6 +37,11 @@ import org.eclipse.zest.layouts.dataStructures.InternalRelationship;
  * 4. Execute {@link #compute compute()}; <br>
  * 5. Execute {@link #fitWithinBounds fitWithinBounds(...)}; <br>
  * 6. Query the computed results(node size and node position).
+ * <p>
+ * By default, the forces between all pairs of nodes are computed in each
+ * iteration. For large graphs, the repulsion may instead be approximated, see
+ * {@link #setSpringTheta(double)}, and the iterations may be computed by several
+ * threads, see {@link #setParallelism(int)}.
  *
  * @version 2.0
  * @author Ian Bull
@@ -88,6 +96,22 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 	 */
 	public static final double DEFAULT_SPRING_GRAVITATION = 1.0f;
 
+	/**
+	 * The default value for the spring layout theta-control, which computes the
+	 * repulsion between all pairs of nodes exactly.
+	 */
+	public static final double DEFAULT_SPRING_THETA = 0;
+
+	/**
+	 * The default value for the number of threads computing an iteration.
+	 */
+	public static final int DEFAULT_SPRING_PARALLELISM = 1;
+
+	/**
+	 * The number of nodes whose forces and positions are computed by one task.
+	 */
+	private static final int BLOCK_SIZE = 64;
+
 	/**
 	 * The variable can be customized to set the number of iterations used.
 	 */
@@ -136,22 +160,33 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 	private static double sprGravitation = DEFAULT_SPRING_GRAVITATION;
 
 	/**
-	 * The largest movement of all vertices that has occured in the most recent
+	 * The variable can be customized to set the spring layout theta-control.
+	 */
+	private double sprTheta = DEFAULT_SPRING_THETA;
+
+	/**
+	 * The variable can be customized to set the number of threads computing an
 	 * iteration.
 	 */
-	private double largestMovement = 0;
+	private int sprParallelism = DEFAULT_SPRING_PARALLELISM;
 
 	/**
-	 * Maps a src and dest object to the number of relations between them. Key is
-	 * src.toString() + dest.toString(), value is an Integer
+	 * The threads computing the iterations of the current layout, or null if they
+	 * are computed by the layout thread alone.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * The largest movement of all vertices that has occured in the most recent
+	 * iteration.
 	 */
-	private Map<String, Integer> srcDestToNumRelsMap;
+	private double largestMovement = 0;
 
 	/**
-	 * Maps a src and dest object to the average weight of the relations between
-	 * them. Key is src.toString() + dest.toString(), value is a Double
+	 * The number of relations between the nodes and the average weight of the
+	 * relations, by the indices of the nodes.
 	 */
-	private Map<String, Double> srcDestToRelsAvgWeightMap;
+	private RelationStatistics relationStatistics;
 
 	/**
 	 * Maps a relationship type to a weight. Key is a string, value is a Double
@@ -160,9 +195,44 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 
 	private int iteration;
 
-	private int[][] srcDestToNumRels;
+	/**
+	 * The relations between each node and the nodes after it, as the range from
+	 * <code>relationOffsets[i]</code> to <code>relationOffsets[i + 1]</code> of
+	 * the following arrays, sorted by the index of the other node.
+	 */
+	private int[] relationOffsets;
+
+	private int[] relationTargets;
+
+	private int[] relationCounts;
+
+	private double[] relationWeights;
+
+	/**
+	 * The nodes related to each node, as the range from
+	 * <code>neighborOffsets[i]</code> to <code>neighborOffsets[i + 1]</code> of
+	 * the following arrays, sorted by their index. <code>neighborRelations</code>
+	 * holds the index of the relation in the arrays above.
+	 */
+	private int[] neighborOffsets;
 
-	private double[][] srcDestToRelsAvgWeight;
+	private int[] neighbors;
+
+	private int[] neighborRelations;
+
+	/**
+	 * The forces on each node from the nodes after it and from the nodes before
+	 * it, when the forces are computed in parallel.
+	 */
+	private double[] rowForcesX;
+
+	private double[] rowForcesY;
+
+	private double[] columnForcesX;
+
+	private double[] columnForcesY;
+
+	private BarnesHutTree barnesHutTree;
 
 	private double[] tempLocationsX;
 
@@ -183,8 +253,6 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 	 */
 	public SpringLayoutAlgorithm(int styles) {
 		super(styles);
-		srcDestToNumRelsMap = new HashMap<>();
-		srcDestToRelsAvgWeightMap = new HashMap<>();
 		date = new Date();
 	}
 
@@ -295,6 +363,59 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		return sprGravitation;
 	}
 
+	/**
+	 * Sets the spring layout theta-control. If theta is positive, the repulsion
+	 * between the nodes is approximated by the Barnes-Hut algorithm, which treats
+	 * a group of nodes as a single node if the ratio of the size of the group to
+	 * its distance is less than theta. This reduces the cost of an iteration from
+	 * quadratic to O(n log n) in the number of nodes. Values between 0.5 and 1 are
+	 * common, larger values are faster but less accurate. A theta of 0 computes
+	 * the forces between all pairs of nodes exactly.
+	 *
+	 * @param theta The theta-control value.
+	 */
+	public void setSpringTheta(double theta) {
+		sprTheta = theta;
+	}
+
+	/**
+	 * Returns the theta-control value of this SpringLayoutAlgorithm in double
+	 * presion.
+	 *
+	 * @return The theta-control value.
+	 */
+	public double getSpringTheta() {
+		return sprTheta;
+	}
+
+	/**
+	 * Sets the number of threads computing the forces and positions of the nodes
+	 * in each iteration. The nodes are split into blocks, which are distributed
+	 * across the threads of a {@link ForkJoinPool}. The results do not depend on
+	 * the number of threads, but with more than one thread the forces between all
+	 * pairs of nodes are summed in a different order, which may change the result
+	 * by rounding compared to a single thread.
+	 *
+	 * @param parallelism The number of threads, at least 1.
+	 * @throws IllegalArgumentException if <code>parallelism</code> is less than 1
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism must be at least 1"); //$NON-NLS-1$
+		}
+		sprParallelism = parallelism;
+	}
+
+	/**
+	 * Returns the number of threads computing the forces and positions of the
+	 * nodes in each iteration.
+	 *
+	 * @return The number of threads.
+	 */
+	public int getParallelism() {
+		return sprParallelism;
+	}
+
 	/**
 	 * Sets the number of iterations to be used.
 	 *
@@ -362,9 +483,20 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		forcesX = null;
 		forcesY = null;
 		anchors = null;
+		relationOffsets = null;
+		relationTargets = null;
+		relationCounts = null;
+		relationWeights = null;
+		neighborOffsets = null;
+		neighbors = null;
+		neighborRelations = null;
+		rowForcesX = null;
+		rowForcesY = null;
+		columnForcesX = null;
+		columnForcesY = null;
+		barnesHutTree = null;
 		setDefaultConditions();
-		srcDestToNumRelsMap = new HashMap<>();
-		srcDestToRelsAvgWeightMap = new HashMap<>();
+		relationStatistics = null;
 		relTypeToWeightMap = new HashMap<>();
 	}
 
@@ -388,8 +520,20 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		for (int i = 0; i < entitiesToLayout.length; i++) {
 			anchors[i] = DEFAULT_ANCHOR;
 		}
+		Map<InternalNode, Integer> indices = new IdentityHashMap<>(entitiesToLayout.length);
+		for (int i = 0; i < entitiesToLayout.length; i++) {
+			indices.put(entitiesToLayout[i], Integer.valueOf(i));
+		}
+		relationStatistics = new RelationStatistics(relationshipsToConsider.length);
 		for (InternalRelationship layoutRelationship : relationshipsToConsider) {
-			addRelation(layoutRelationship);
+			addRelation(layoutRelationship, indices);
+		}
+
+		if (sprParallelism > 1) {
+			rowForcesX = new double[entitiesToLayout.length];
+			rowForcesY = new double[entitiesToLayout.length];
+			columnForcesX = new double[entitiesToLayout.length];
+			columnForcesY = new double[entitiesToLayout.length];
 		}
 
 		// do the calculations
@@ -397,6 +541,27 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		startTime = date.getTime();
 	}
 
+	/**
+	 * Runs the iterations, with the threads of a new pool if they are computed
+	 * by several threads. The pool is shut down once the iterations end, even
+	 * if they fail.
+	 */
+	@Override
+	protected void applyLayoutInternal(InternalNode[] entitiesToLayout, InternalRelationship[] relationshipsToConsider,
+			double x, double y, double width, double height) {
+		if (sprParallelism > 1) {
+			pool = new ForkJoinPool(sprParallelism);
+		}
+		try {
+			super.applyLayoutInternal(entitiesToLayout, relationshipsToConsider, x, y, width, height);
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+				pool = null;
+			}
+		}
+	}
+
 	@Override
 	protected void postLayoutAlgorithm(InternalNode[] entitiesToLayout,
 			InternalRelationship[] relationshipsToConsider) {
@@ -407,49 +572,67 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 	 * Adds a simple relation between two nodes to the relation repository.
 	 *
 	 * @param layoutRelationship The simple relation to be added
+	 * @param indices            The indices of the nodes
 	 * @throws java.lang.NullPointerExcetption If <code>sr</code> is null
 	 * @see SimpleRelation
 	 */
-	private void addRelation(InternalRelationship layoutRelationship) {
+	private void addRelation(InternalRelationship layoutRelationship, Map<InternalNode, Integer> indices) {
 		if (layoutRelationship == null) {
 			throw new IllegalArgumentException("The arguments can not be null!"); //$NON-NLS-1$
 		}
 		double weight = layoutRelationship.getWeight();
 		weight = (weight <= 0 ? 0.1 : weight);
-		String key1 = layoutRelationship.getSource().toString() + layoutRelationship.getDestination().toString();
-		String key2 = layoutRelationship.getDestination().toString() + layoutRelationship.getSource().toString();
-		String[] keys = { key1, key2 };
-		for (String key : keys) {
-			Integer count = srcDestToNumRelsMap.get(key);
-			Double avgWeight = srcDestToRelsAvgWeightMap.get(key);
-			if (count == null) {
-				count = Integer.valueOf(1);
-				avgWeight = Double.valueOf(weight);
-			} else {
-				int newCount = count.intValue() + 1;
-				double newAverage = (avgWeight.doubleValue() * count.doubleValue() + weight) / newCount;
-				avgWeight = Double.valueOf(newAverage);
-				count = Integer.valueOf(newCount);
-			}
-			srcDestToNumRelsMap.put(key, count);
-			srcDestToRelsAvgWeightMap.put(key, avgWeight);
+		Integer source = indices.get(layoutRelationship.getSource());
+		Integer destination = indices.get(layoutRelationship.getDestination());
+		// relations of a node to itself exert no force
+		if (source != null && destination != null && !source.equals(destination)) {
+			relationStatistics.add(source.intValue(), destination.intValue(), weight);
 		}
 	}
 
 	private void preCompute(InternalNode[] entitiesToLayout) {
-		// count number of relationships between all nodes and the average
-		// weight between them
-		srcDestToNumRels = new int[entitiesToLayout.length][entitiesToLayout.length];
-		srcDestToRelsAvgWeight = new double[entitiesToLayout.length][entitiesToLayout.length];
+		// collect the number of relationships between related nodes and the
+		// average weight between them
+		long[] pairs = relationStatistics.getSortedPairs();
+		relationOffsets = new int[entitiesToLayout.length + 1];
+		relationTargets = new int[pairs.length];
+		relationCounts = new int[pairs.length];
+		relationWeights = new double[pairs.length];
+		for (int k = 0; k < pairs.length; k++) {
+			int i = (int) (pairs[k] >>> 32);
+			int j = (int) pairs[k];
+			relationOffsets[i + 1]++;
+			relationTargets[k] = j;
+			// each relation is counted from both of its nodes
+			relationCounts[k] = 2 * relationStatistics.getCount(i, j);
+			relationWeights[k] = relationStatistics.getAverageWeight(i, j);
+		}
+		for (int i = 0; i < entitiesToLayout.length; i++) {
+			relationOffsets[i + 1] += relationOffsets[i];
+		}
 
-		for (int i = 0; i < entitiesToLayout.length - 1; i++) {
-			InternalNode layoutEntity1 = entitiesToLayout[i];
-			for (int j = i + 1; j < entitiesToLayout.length; j++) {
-				InternalNode layoutEntity2 = entitiesToLayout[j];
-				srcDestToNumRels[i][j] = numRelations(layoutEntity1, layoutEntity2);
-				srcDestToNumRels[i][j] += numRelations(layoutEntity2, layoutEntity1);
-				srcDestToRelsAvgWeight[i][j] = avgWeight(layoutEntity1, layoutEntity2);
-			}
+		// as the pairs are sorted, the nodes before each node are added before
+		// the nodes after it, both in ascending order
+		neighborOffsets = new int[entitiesToLayout.length + 1];
+		neighbors = new int[2 * pairs.length];
+		neighborRelations = new int[2 * pairs.length];
+		for (long pair : pairs) {
+			neighborOffsets[(int) (pair >>> 32) + 1]++;
+			neighborOffsets[(int) pair + 1]++;
+		}
+		for (int i = 0; i < entitiesToLayout.length; i++) {
+			neighborOffsets[i + 1] += neighborOffsets[i];
+		}
+		int[] neighborCounts = new int[entitiesToLayout.length];
+		for (int k = 0; k < pairs.length; k++) {
+			int i = (int) (pairs[k] >>> 32);
+			int j = (int) pairs[k];
+			int neighbor = neighborOffsets[i] + neighborCounts[i]++;
+			neighbors[neighbor] = j;
+			neighborRelations[neighbor] = k;
+			neighbor = neighborOffsets[j] + neighborCounts[j]++;
+			neighbors[neighbor] = i;
+			neighborRelations[neighbor] = k;
 		}
 
 		if (sprRandom) {
@@ -625,7 +808,14 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 			forcesY[i] = 0.0;
 		}
 
-		// TODO: Again really really slow!
+		if (sprTheta > 0) {
+			computeApproximateForces(entitiesToLayout);
+			return;
+		}
+		if (pool != null) {
+			computeParallelForces(entitiesToLayout);
+			return;
+		}
 
 		for (int i = 0; i < entitiesToLayout.length - 1; i++) {
 			InternalNode sourceEntity = entitiesToLayout[i];
@@ -634,6 +824,8 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 			double srcLocationY = tempLocationsY[i];
 			double fx = forcesX[i]; // force in x direction
 			double fy = forcesY[i]; // force in y direction
+			int relation = relationOffsets[i];
+			int relationsEnd = relationOffsets[i + 1];
 
 			for (int j = i + 1; j < entitiesToLayout.length; j++) {
 				InternalNode destinationEntity = entitiesToLayout[j];
@@ -652,8 +844,13 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 					// then decrease force on srcObj (a pull) in direction of destObj
 					// If no relation between srcObj and destObj then increase
 					// force on srcObj (a push) from direction of destObj.
-					int numRels = srcDestToNumRels[i][j];
-					double avgWeight = srcDestToRelsAvgWeight[i][j];
+					int numRels = 0;
+					double avgWeight = 1;
+					if (relation < relationsEnd && relationTargets[relation] == j) {
+						numRels = relationCounts[relation];
+						avgWeight = relationWeights[relation];
+						relation++;
+					}
 					if (numRels > 0) {
 						// nodes are pulled towards each other
 						double f = sprStrain * Math.log(distance / sprLength) * numRels * avgWeight;
@@ -692,43 +889,200 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		}
 	}
 
+	/**
+	 * Computes the forces like {@link #computeForces(InternalNode[])}, but each
+	 * node sums the forces of all other nodes on it by itself, so that the nodes
+	 * can be computed in parallel. The force of each node on the nodes after it is
+	 * then passed on as by the sequential computation.
+	 */
+	private void computeParallelForces(InternalNode[] entitiesToLayout) {
+		int count = entitiesToLayout.length;
+		forEachBlock(count, (start, end) -> {
+			double[] force = new double[2];
+			for (int i = start; i < end; i++) {
+				double x = tempLocationsX[i];
+				double y = tempLocationsY[i];
+				// the forces between the nodes before and this node, as computed
+				// from the nodes before
+				force[0] = 0;
+				force[1] = 0;
+				int neighbor = neighborOffsets[i];
+				for (int j = 0; j < i; j++) {
+					int numRels = 0;
+					double avgWeight = 1;
+					if (neighbor < neighborOffsets[i + 1] && neighbors[neighbor] == j) {
+						numRels = relationCounts[neighborRelations[neighbor]];
+						avgWeight = relationWeights[neighborRelations[neighbor]];
+						neighbor++;
+					}
+					addPairForce(tempLocationsX[j] - x, tempLocationsY[j] - y, numRels, avgWeight, force);
+				}
+				columnForcesX[i] = force[0];
+				columnForcesY[i] = force[1];
+
+				// the forces between this node and the nodes after it
+				force[0] = 0;
+				force[1] = 0;
+				int relation = relationOffsets[i];
+				for (int j = i + 1; j < count; j++) {
+					int numRels = 0;
+					double avgWeight = 1;
+					if (relation < relationOffsets[i + 1] && relationTargets[relation] == j) {
+						numRels = relationCounts[relation];
+						avgWeight = relationWeights[relation];
+						relation++;
+					}
+					addPairForce(x - tempLocationsX[j], y - tempLocationsY[j], numRels, avgWeight, force);
+				}
+				rowForcesX[i] = force[0];
+				rowForcesY[i] = force[1];
+			}
+		});
+
+		// each node gives all nodes after it the opposite of its force so far,
+		// which is the sum of the forces passed on from the nodes before it and
+		// the forces between it and the nodes up to the receiving node
+		double passedX = 0;
+		double passedY = 0;
+		double columnX = 0;
+		double columnY = 0;
+		for (int i = 0; i < count; i++) {
+			columnX += columnForcesX[i];
+			columnY += columnForcesY[i];
+			double fx = -(passedX + columnX);
+			double fy = -(passedY + columnY);
+			passedX += fx;
+			passedY += fy;
+			forcesX[i] = fx + rowForcesX[i];
+			forcesY[i] = fy + rowForcesY[i];
+		}
+	}
+
+	/**
+	 * Adds the force between two nodes on the first node to the given force, as
+	 * computed by {@link #computeForces(InternalNode[])}.
+	 *
+	 * @param dx        the offset of the first from the second node in x direction
+	 * @param dy        the offset of the first from the second node in y direction
+	 * @param numRels   the number of relations between the nodes
+	 * @param avgWeight the average weight of the relations
+	 * @param force     the force in x and y direction
+	 */
+	private static void addPairForce(double dx, double dy, int numRels, double avgWeight, double[] force) {
+		double distance = Math.sqrt(dx * dx + dy * dy);
+		double distance_sq = distance * distance;
+		distance = Math.max(MIN_DISTANCE, distance);
+		if (numRels > 0) {
+			double f = sprStrain * Math.log(distance / sprLength) * numRels * avgWeight;
+			force[0] = force[0] - (f * dx / distance);
+			force[1] = force[1] - (f * dy / distance);
+		} else {
+			double f = sprGravitation / (distance_sq);
+			force[0] = force[0] + (f * dx / distance);
+			force[1] = force[1] + (f * dy / distance);
+		}
+	}
+
+	/**
+	 * Computes the forces like {@link #computeForces(InternalNode[])}, but
+	 * approximates the repulsion between the nodes by a {@link BarnesHutTree}, and
+	 * computes the attraction between related nodes only. Each pair of nodes
+	 * exerts equal and opposite forces on each other. Each node sums the forces on
+	 * it by itself, so that the result does not depend on the number of threads.
+	 */
+	private void computeApproximateForces(InternalNode[] entitiesToLayout) {
+		int count = entitiesToLayout.length;
+		if (barnesHutTree == null) {
+			barnesHutTree = new BarnesHutTree();
+		}
+		barnesHutTree.build(tempLocationsX, tempLocationsY, count);
+		forEachBlock(count, (start, end) -> {
+			int[] stack = new int[BarnesHutTree.getStackSize()];
+			double[] force = new double[2];
+			for (int i = start; i < end; i++) {
+				force[0] = 0;
+				force[1] = 0;
+				barnesHutTree.addRepulsion(i, sprTheta, sprGravitation, MIN_DISTANCE, stack, force);
+				for (int neighbor = neighborOffsets[i]; neighbor < neighborOffsets[i + 1]; neighbor++) {
+					int j = neighbors[neighbor];
+					int relation = neighborRelations[neighbor];
+					double dx = tempLocationsX[i] - tempLocationsX[j];
+					double dy = tempLocationsY[i] - tempLocationsY[j];
+					double distance = Math.max(MIN_DISTANCE, Math.sqrt(dx * dx + dy * dy));
+					// related nodes are not repelled, but pulled towards each other
+					double repulsion = sprGravitation / (distance * distance);
+					double attraction = sprStrain * Math.log(distance / sprLength) * relationCounts[relation]
+							* relationWeights[relation];
+					double f = (repulsion + attraction) / distance;
+					force[0] -= f * dx;
+					force[1] -= f * dy;
+				}
+				forcesX[i] = force[0];
+				forcesY[i] = force[1];
+			}
+		});
+	}
+
 	/**
 	 * Computes the position for each node in this SpringLayoutAlgorithm. The
 	 * computed position will be stored in the data repository. position = position
 	 * + sprMove * force
 	 */
 	protected void computePositions(InternalNode[] entitiesToLayout) {
-		for (int i = 0; i < entitiesToLayout.length; i++) {
-			if (!anchors[i] || entitiesToLayout[i].hasPreferredLocation()) {
-				double oldX = tempLocationsX[i];
-				double oldY = tempLocationsY[i];
-				double deltaX = sprMove * forcesX[i];
-				double deltaY = sprMove * forcesY[i];
-
-				// constrain movement, so that nodes don't shoot way off to the edge
-				double maxMovement = 0.2d * sprMove;
-				if (deltaX >= 0) {
-					deltaX = Math.min(deltaX, maxMovement);
-				} else {
-					deltaX = Math.max(deltaX, -maxMovement);
-				}
-				if (deltaY >= 0) {
-					deltaY = Math.min(deltaY, maxMovement);
-				} else {
-					deltaY = Math.max(deltaY, -maxMovement);
-				}
+		// the nodes move independently of each other, only the largest movement
+		// is collected per block
+		double[] largestMovements = new double[(entitiesToLayout.length + BLOCK_SIZE - 1) / BLOCK_SIZE];
+		forEachBlock(entitiesToLayout.length, (start, end) -> {
+			double movement = largestMovement;
+			for (int i = start; i < end; i++) {
+				if (!anchors[i] || entitiesToLayout[i].hasPreferredLocation()) {
+					double oldX = tempLocationsX[i];
+					double oldY = tempLocationsY[i];
+					double deltaX = sprMove * forcesX[i];
+					double deltaY = sprMove * forcesY[i];
+
+					// constrain movement, so that nodes don't shoot way off to the edge
+					double maxMovement = 0.2d * sprMove;
+					if (deltaX >= 0) {
+						deltaX = Math.min(deltaX, maxMovement);
+					} else {
+						deltaX = Math.max(deltaX, -maxMovement);
+					}
+					if (deltaY >= 0) {
+						deltaY = Math.min(deltaY, maxMovement);
+					} else {
+						deltaY = Math.max(deltaY, -maxMovement);
+					}
 
-				largestMovement = Math.max(largestMovement, Math.abs(deltaX));
-				largestMovement = Math.max(largestMovement, Math.abs(deltaY));
+					movement = Math.max(movement, Math.abs(deltaX));
+					movement = Math.max(movement, Math.abs(deltaY));
 
-				double newX = oldX + deltaX;
-				double newY = oldY + deltaY;
-				tempLocationsX[i] = newX;
-				tempLocationsY[i] = newY;
+					double newX = oldX + deltaX;
+					double newY = oldY + deltaY;
+					tempLocationsX[i] = newX;
+					tempLocationsY[i] = newY;
+				}
 			}
-
+			largestMovements[start / BLOCK_SIZE] = movement;
+		});
+		for (double movement : largestMovements) {
+			largestMovement = Math.max(largestMovement, movement);
 		}
+	}
 
+	/**
+	 * Runs the given task over the blocks of the given number of nodes, in
+	 * parallel if the iterations are computed by several threads.
+	 */
+	private void forEachBlock(int count, BlockTask task) {
+		if (count == 0) {
+			return;
+		}
+		if (pool == null || count <= BLOCK_SIZE) {
+			task.run(0, count);
+		} else {
+			pool.invoke(new BlockAction(task, 0, count));
+		}
 	}
 
 	/**
@@ -765,37 +1119,49 @@ public class SpringLayoutAlgorithm extends ContinuousLayoutAlgorithm {
 		}
 	}
 
+	@Override
+	protected boolean isValidConfiguration(boolean asynchronous, boolean continueous) {
+		return asynchronous || !continueous;
+	}
+
 	/**
-	 * Examines the number of specified relation between the <code>src</code> and
-	 * the <code>dest</code> that exist in this SpringLayoutAlgorithm's relation
-	 * repository.
-	 *
-	 * @param src  The source part of the relaton to be examined.
-	 * @param dest The destination part of the relation to be examined.
-	 * @return The number of relations between src and dest.
+	 * Computes a range of nodes.
 	 */
-	private int numRelations(Object src, Object dest) {
-		String key = src.toString() + dest.toString();
-		Integer count = srcDestToNumRelsMap.get(key);
-		return (count == null) ? 0 : count.intValue();
+	private interface BlockTask {
+
+		void run(int start, int end);
+
 	}
 
 	/**
-	 * Returns the average weight between a src and dest object.
-	 *
-	 * @param src
-	 * @param dest
-	 * @return The average weight between the given src and dest nodes
+	 * Splits a range of nodes into blocks, which are computed in parallel.
 	 */
-	private double avgWeight(Object src, Object dest) {
-		String key = src.toString() + dest.toString();
-		Double avgWeight = srcDestToRelsAvgWeightMap.get(key);
-		return (avgWeight == null) ? 1 : avgWeight.doubleValue();
-	}
+	private static final class BlockAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient BlockTask task;
+		private final int start;
+		private final int end;
+
+		BlockAction(BlockTask task, int start, int end) {
+			this.task = task;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= BLOCK_SIZE) {
+				task.run(start, end);
+				return;
+			}
+			// split at a block boundary
+			int blocks = (end - start + BLOCK_SIZE - 1) / BLOCK_SIZE;
+			int middle = start + blocks / 2 * BLOCK_SIZE;
+			invokeAll(new BlockAction(task, start, middle), new BlockAction(task, middle, end));
+		}
 
-	@Override
-	protected boolean isValidConfiguration(boolean asynchronous, boolean continueous) {
-		return asynchronous || !continueous;
 	}
 
 }
@@ -14,37 +14,31 @@ package org.eclipse.zest.layouts.algorithms;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.eclipse.zest.layouts.LayoutStyles;
 import org.eclipse.zest.layouts.dataStructures.DisplayIndependentRectangle;
 import org.eclipse.zest.layouts.dataStructures.InternalNode;
 import org.eclipse.zest.layouts.dataStructures.InternalRelationship;
-import org.eclipse.zest.layouts.exampleStructures.SimpleRelationship;
 
 /**
  * The TreeLayoutAlgorithm class implements a simple algorithm to arrange graph
  * nodes in a layered vertical tree-like layout.
  *
- * This is by no means an efficiently coded algorithm.
+ * The relationships are indexed by source and destination once per layout, and
+ * all traversals of the forest are iterative, so that large and deep trees can
+ * be laid out.
  *
  * @version 2.0
  * @author Casey Best and Rob Lintern (version 1.0 by Jingwei Wu)
  */
 public class TreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 
-	private static final double DEFAULT_WEIGHT = 0;
-	private static final boolean DEFAULT_MARKED = false;
+	private static final int[] NO_NODES = {};
 
-	private static final boolean AS_DESTINATION = false;
-	private static final boolean AS_SOURCE = true;
-
-	private static final int NUM_DESCENDENTS_INDEX = 0;
-	private static final int NUM_LEVELS_INDEX = 1;
+	private static final int UNKNOWN = -1;
 
 	private List<InternalNode> treeRoots;
 
@@ -54,11 +48,35 @@ public class TreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 	private double boundsHeight;
 	private DisplayIndependentRectangle layoutBounds = null;
 
-	private List<InternalNode>[] parentLists;
-	private List<InternalNode>[] childrenLists;
+	private InternalNode[] entities;
+	private Map<InternalNode, Integer> indices;
+
+	/** The destinations of the relationships of each node, in their order. */
+	private int[][] destinations;
+	/** The source of the first relationship ending at each node. */
+	private int[] firstSources;
+
+	private int[][] parentLists;
+	private int[] parentCounts;
+	private int[][] childrenLists;
 	private double[] weights;
 	private boolean[] markedArr;
 
+	private int[] descendentCounts;
+	private int[] leafCounts;
+	private int[] levels;
+	/** Whether a level was found without reaching any node twice. */
+	private boolean[] exactLevels;
+
+	/** Marks the nodes seen by the current search. */
+	private int[] visits;
+	private int visit;
+	/** The frames of the current post-order search. */
+	private int[] frameNodes;
+	private int[] frameCursors;
+	private int[] frameValues;
+	private final IntStack searchStack = new IntStack();
+
 	/////////////////////////////////////////////////////////////////////////
 	///// Constructors /////
 	/////////////////////////////////////////////////////////////////////////
@@ -124,16 +142,33 @@ public class TreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		// super.applyLayout (entitiesToLayout, relationshipsToConsider, boundsX,
 		// boundsY, boundsWidth, boundsHeight);
 
-		parentLists = new List[entitiesToLayout.length];
-		childrenLists = new List[entitiesToLayout.length];
-		weights = new double[entitiesToLayout.length];
-		markedArr = new boolean[entitiesToLayout.length];
-		for (int i = 0; i < entitiesToLayout.length; i++) {
-			parentLists[i] = new ArrayList<>();
-			childrenLists[i] = new ArrayList<>();
-			weights[i] = DEFAULT_WEIGHT;
-			markedArr[i] = DEFAULT_MARKED;
+		int count = entitiesToLayout.length;
+		entities = entitiesToLayout;
+		indices = new IdentityHashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			indices.put(entitiesToLayout[i], Integer.valueOf(i));
 		}
+		indexRelationships(relationshipsToConsider);
+
+		parentLists = new int[count][];
+		parentCounts = new int[count];
+		childrenLists = new int[count][];
+		Arrays.fill(parentLists, NO_NODES);
+		Arrays.fill(childrenLists, NO_NODES);
+		weights = new double[count];
+		markedArr = new boolean[count];
+		descendentCounts = new int[count];
+		leafCounts = new int[count];
+		levels = new int[count];
+		exactLevels = new boolean[count];
+		Arrays.fill(descendentCounts, UNKNOWN);
+		Arrays.fill(leafCounts, UNKNOWN);
+		Arrays.fill(levels, UNKNOWN);
+		visits = new int[count];
+		visit = 0;
+		frameNodes = new int[count + 1];
+		frameCursors = new int[count + 1];
+		frameValues = new int[count + 1];
 
 		this.boundsHeight = height;
 		this.boundsWidth = width;
@@ -152,9 +187,9 @@ public class TreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 			fireProgressEvent(1, totalProgress);
 
 			treeRoots = new ArrayList<>();
-			buildForest(treeRoots, entitiesToLayout, relationshipsToConsider);
+			buildForest(treeRoots);
 			fireProgressEvent(2, totalProgress);
-			computePositions(treeRoots, entitiesToLayout);
+			computePositions(treeRoots);
 			fireProgressEvent(3, totalProgress);
 			defaultFitWithinBounds(entitiesToLayout, layoutBounds);
 
@@ -175,273 +210,227 @@ public class TreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		return treeRoots;
 	}
 
+	/////////////////////////////////////////////////////////////////////////
+	///// Private Methods /////
+	/////////////////////////////////////////////////////////////////////////
+
 	/**
-	 * Finds all the relationships in which the node <code>obj<code>
-	 * plays the specified <code>role</code>.
-	 *
-	 * @param entity The node that concerns the relations to be found.
-	 * @param role   The role played by the <code>obj</code>. Its type must be of
-	 *               <code>ACTOR_ROLE</code> or <code>ACTEE_ROLE</code>.
-	 * @see SimpleRelationship
+	 * Collects the destinations of the relationships of each node, and the source
+	 * of the first relationship ending at each node.
 	 */
-	private static Collection<InternalRelationship> findRelationships(Object entity, boolean objectAsSource,
-			InternalRelationship[] relationshipsToConsider) {
-		Collection<InternalRelationship> foundRels = new ArrayList<>();
-		for (InternalRelationship rel : relationshipsToConsider) {
-			if (objectAsSource && rel.getSource().equals(entity)) {
-				foundRels.add(rel);
-			} else if (!objectAsSource && rel.getDestination().equals(entity)) {
-				foundRels.add(rel);
+	private void indexRelationships(InternalRelationship[] relationships) {
+		int count = entities.length;
+		int[] sources = new int[relationships.length];
+		int[] targets = new int[relationships.length];
+		int[] destinationCounts = new int[count];
+		firstSources = new int[count];
+		Arrays.fill(firstSources, UNKNOWN);
+		for (int r = 0; r < relationships.length; r++) {
+			int source = indexOfInternalNode(relationships[r].getSource());
+			int target = indexOfInternalNode(relationships[r].getDestination());
+			sources[r] = source;
+			targets[r] = target;
+			destinationCounts[source]++;
+			if (firstSources[target] == UNKNOWN) {
+				firstSources[target] = source;
 			}
 		}
-		return foundRels;
+		destinations = new int[count][];
+		for (int i = 0; i < count; i++) {
+			destinations[i] = destinationCounts[i] == 0 ? NO_NODES : new int[destinationCounts[i]];
+			destinationCounts[i] = 0;
+		}
+		for (int r = 0; r < relationships.length; r++) {
+			destinations[sources[r]][destinationCounts[sources[r]]++] = targets[r];
+		}
 	}
 
 	/**
-	 * Finds the relation that has the lowest index in the relation repository in
-	 * which the node <code>obj<code> plays the specified
-	 * <code>role</code>.
-	 *
-	 * @param obj  The node that concerns the relations to be found.
-	 * @param role The role played by the <code>obj</code>. Its type must be of
-	 *             <code>ACTOR_ROLE</code> or <code>ACTEE_ROLE</code>.
-	 * @see SimpleRelationship
-	 * @see SimpleRelationship#ACTOR_ROLE
-	 * @see SimpleRelationship#ACTEE_ROLE
+	 * Builds the tree forest that is used to calculate positions for each node in
+	 * this TreeLayoutAlgorithm. All entities will be placed somewhere in the
+	 * forest.
 	 */
-	private static InternalRelationship findRelationship(Object entity, boolean objectAsSource,
-			InternalRelationship[] relationshipsToConsider) {
-		InternalRelationship relationship = null;
-		for (int i = 0; i < relationshipsToConsider.length && relationship == null; i++) {
-			InternalRelationship possibleRel = relationshipsToConsider[i];
-			if (objectAsSource && possibleRel.getSource().equals(entity)) {
-				relationship = possibleRel;
-			} else if (!objectAsSource && possibleRel.getDestination().equals(entity)) {
-				relationship = possibleRel;
+	private void buildForest(List<InternalNode> roots) {
+		for (int i = 0; i < entities.length; i++) {
+			// get the first entity which is not yet placed, find its root, and build this
+			// root's tree
+			if (!markedArr[i]) {
+				int root = findRootObject(i);
+				buildTree(root);
+				roots.add(entities[root]);
 			}
 		}
-		return relationship;
 	}
 
-	/////////////////////////////////////////////////////////////////////////
-	///// Private Methods /////
-	/////////////////////////////////////////////////////////////////////////
-
 	/**
-	 * Builds the tree forest that is used to calculate positions for each node in
-	 * this TreeLayoutAlgorithm.
+	 * Finds the root node that can be treated as the root of a tree, by following
+	 * the first relationship ending at each node until a node without such a
+	 * relationship, or a node seen already, is reached.
 	 */
-	private void buildForest(List<InternalNode> roots, InternalNode[] entities, InternalRelationship[] relationships) {
-		List<InternalNode> unplacedEntities = new ArrayList<>(Arrays.asList(entities));
-		buildForestRecursively(roots, unplacedEntities, entities, relationships);
+	private int findRootObject(int i) {
+		int seen = ++visit;
+		int current = i;
+		while (firstSources[current] != UNKNOWN && visits[firstSources[current]] != seen) {
+			current = firstSources[current];
+			visits[current] = seen;
+		}
+		return current;
 	}
 
 	/**
-	 * Builds the forest recursively. All entities will be placed somewhere in the
-	 * forest.
+	 * Builds a tree of the passed in entity. The entity will pass a weight value to
+	 * all of its children, in depth-first order.
 	 */
-	private void buildForestRecursively(List<InternalNode> roots, List<InternalNode> unplacedEntities,
-			InternalNode[] entities, InternalRelationship[] relationships) {
-		if (!unplacedEntities.isEmpty()) {
-			return; // no more entities to place
-		}
+	private void buildTree(int root) {
+		IntStack pending = new IntStack();
+		pending.push(root);
+		pending.push(0);
+		while (!pending.isEmpty()) {
+			int weight = pending.pop();
+			int i = pending.pop();
+
+			// A marked entity means that it has been added to the
+			// forest, and its weight value needs to be modified.
+			if (markedArr[i]) {
+				modifyWeight(i, weight);
+				continue;
+			}
 
-		// get the first entity in the list of unplaced entities, find its root, and
-		// build this root's tree
-		InternalNode layoutEntity = unplacedEntities.get(0);
-		InternalNode rootEntity = findRootObjectRecursive(layoutEntity, new HashSet<>(), relationships);
-		int rootEntityIndex = indexOfInternalNode(entities, rootEntity);
-		buildTreeRecursively(rootEntity, rootEntityIndex, 0, entities, relationships);
-		roots.add(rootEntity);
-
-		// now see which nodes are left to be placed in a tree somewhere
-		List<InternalNode> unmarkedCopy = new ArrayList<>(unplacedEntities);
-		for (InternalNode tmpEntity : unmarkedCopy) {
-			int tmpEntityIndex = indexOfInternalNode(entities, tmpEntity);
-			boolean isMarked = markedArr[tmpEntityIndex];
-			if (isMarked) {
-				unplacedEntities.remove(tmpEntity);
+			// Mark this entity and set its weight value.
+			markedArr[i] = true;
+			weights[i] = weight;
+
+			// map children to this parent, and vice versa
+			int[] children = getSortedDestinations(i);
+			int seen = ++visit;
+			int[] distinctChildren = new int[children.length];
+			int distinctCount = 0;
+			for (int child : children) {
+				if (visits[child] != seen) {
+					visits[child] = seen;
+					distinctChildren[distinctCount++] = child;
+					addParent(child, i);
+				}
 			}
-		}
-		buildForestRecursively(roots, unplacedEntities, entities, relationships);
-	}
+			childrenLists[i] = distinctCount == 0 ? NO_NODES : Arrays.copyOf(distinctChildren, distinctCount);
 
-	/**
-	 * Finds the root node that can be treated as the root of a tree. The found root
-	 * node should be one of the unmarked nodes.
-	 */
-	private InternalNode findRootObjectRecursive(InternalNode currentEntity, Set<InternalNode> seenAlready,
-			InternalRelationship[] relationshipsToConsider) {
-		InternalNode rootEntity = null;
-		InternalRelationship rel = findRelationship(currentEntity, AS_DESTINATION, relationshipsToConsider);
-		if (rel == null) {
-			rootEntity = currentEntity;
-		} else {
-			InternalNode parentEntity = rel.getSource();
-			if (!seenAlready.contains(parentEntity)) {
-				seenAlready.add(parentEntity);
-				rootEntity = findRootObjectRecursive(parentEntity, seenAlready, relationshipsToConsider);
-			} else {
-				rootEntity = currentEntity;
+			for (int k = children.length - 1; k >= 0; k--) {
+				pending.push(children[k]);
+				pending.push(weight + 1);
 			}
 		}
-		return rootEntity;
 	}
 
 	/**
-	 * Builds a tree of the passed in entity. The entity will pass a weight value to
-	 * all of its children recursively.
+	 * Returns the destinations of the relationships of the given node, in the order
+	 * in which they are placed in the tree.
 	 */
-	private void buildTreeRecursively(InternalNode layoutEntity, int i, double weight, InternalNode[] entities,
-			final InternalRelationship[] relationships) {
-		// No need to do further computation!
-		if (layoutEntity == null) {
-			return;
+	private int[] getSortedDestinations(int i) {
+		int[] children = destinations[i];
+		if (children.length < 2) {
+			return children;
 		}
-
-		// A marked entity means that it has been added to the
-		// forest, and its weight value needs to be modified.
-		if (markedArr[i]) {
-			modifyWeightRecursively(layoutEntity, i, weight, new HashSet<>(), entities, relationships);
-			return; // No need to do further computation.
+		Integer[] sorted = new Integer[children.length];
+		for (int k = 0; k < children.length; k++) {
+			sorted[k] = Integer.valueOf(children[k]);
 		}
-
-		// Mark this entity, set its weight value and create a new tree node.
-		markedArr[i] = true;
-		weights[i] = weight;
-
-		// collect the children of this entity and put them in order
-		Collection<InternalRelationship> rels = findRelationships(layoutEntity, AS_SOURCE, relationships);
-		List<InternalNode> children = new ArrayList<>();
-		for (InternalRelationship layoutRel : rels) {
-			InternalNode childEntity = layoutRel.getDestination();
-			children.add(childEntity);
-		}
-
 		if (comparator != null) {
-			Collections.sort(children, comparator);
+			Arrays.sort(sorted, (o1, o2) -> comparator.compare(entities[o1.intValue()], entities[o2.intValue()]));
 		} else {
-			// sort the children by level, then by number of descendents, then by number of
-			// children
-			// TODO: SLOW
-			Collections.sort(children, (o1, o2) -> {
-				InternalNode node1 = o1;
-				InternalNode node2 = o2;
-				int[] numDescendentsAndLevel1 = new int[2];
-				int[] numDescendentsAndLevel2 = new int[2];
-				int level1 = numDescendentsAndLevel1[NUM_LEVELS_INDEX];
-				int level2 = numDescendentsAndLevel2[NUM_LEVELS_INDEX];
-				if (level1 != level2) {
-					return level2 - level1;
-				}
-				// return getNumChildren(node2, relationships) - getNumChildren(node1,
-				// relationships);
-				getNumDescendentsAndLevel(node1, relationships, numDescendentsAndLevel1);
-				getNumDescendentsAndLevel(node2, relationships, numDescendentsAndLevel2);
-				int numDescendents1 = numDescendentsAndLevel1[NUM_DESCENDENTS_INDEX];
-				int numDescendents2 = numDescendentsAndLevel2[NUM_DESCENDENTS_INDEX];
-				if (numDescendents1 == numDescendents2) {
-					int numChildren1 = getNumChildren(node1, relationships);
-					int numChildren2 = getNumChildren(node1, relationships);
-					return numChildren2 - numChildren1;
-				}
-				return numDescendents2 - numDescendents1;
-			});
-		}
-
-		// map children to this parent, and vice versa
-		for (InternalNode childEntity : children) {
-			int childEntityIndex = indexOfInternalNode(entities, childEntity);
-			if (!childrenLists[i].contains(childEntity)) {
-				childrenLists[i].add(childEntity);
-			}
-			if (!parentLists[childEntityIndex].contains(layoutEntity)) {
-				parentLists[childEntityIndex].add(layoutEntity);
-			}
+			// sort the children by number of descendents; the levels and numbers of
+			// children formerly compared first were always equal
+			Arrays.sort(sorted,
+					(o1, o2) -> getNumDescendents(o2.intValue()) - getNumDescendents(o1.intValue()));
 		}
-
-		for (InternalNode childEntity : children) {
-			int childEntityIndex = indexOfInternalNode(entities, childEntity);
-			buildTreeRecursively(childEntity, childEntityIndex, weight + 1, entities, relationships);
+		int[] result = new int[children.length];
+		for (int k = 0; k < children.length; k++) {
+			result[k] = sorted[k].intValue();
 		}
+		return result;
 	}
 
-	private static int getNumChildren(InternalNode layoutEntity, InternalRelationship[] relationships) {
-		return findRelationships(layoutEntity, AS_SOURCE, relationships).size();
-	}
-
-	private void getNumDescendentsAndLevel(InternalNode layoutEntity, InternalRelationship[] relationships,
-			int[] numDescendentsAndLevel) {
-		getNumDescendentsAndLevelRecursive(layoutEntity, relationships, new HashSet<>(), numDescendentsAndLevel, 0);
-	}
-
-	private void getNumDescendentsAndLevelRecursive(InternalNode layoutEntity, InternalRelationship[] relationships,
-			Set<InternalNode> seenAlready, int[] numDescendentsAndLevel, int currentLevel) {
-		if (seenAlready.contains(layoutEntity)) {
-			return;
-		}
-		seenAlready.add(layoutEntity);
-		numDescendentsAndLevel[NUM_LEVELS_INDEX] = Math.max(numDescendentsAndLevel[NUM_LEVELS_INDEX], currentLevel);
-		Collection<InternalRelationship> rels = findRelationships(layoutEntity, AS_SOURCE, relationships);
-		for (InternalRelationship layoutRel : rels) {
-			InternalNode childEntity = layoutRel.getDestination();
-			numDescendentsAndLevel[NUM_DESCENDENTS_INDEX]++;
-			getNumDescendentsAndLevelRecursive(childEntity, relationships, seenAlready, numDescendentsAndLevel,
-					currentLevel + 1);
-
+	private void addParent(int child, int parent) {
+		int[] parents = parentLists[child];
+		if (parentCounts[child] == parents.length) {
+			parents = Arrays.copyOf(parents, Math.max(2, 2 * parents.length));
+			parentLists[child] = parents;
 		}
+		parents[parentCounts[child]++] = parent;
 	}
 
 	/**
-	 * Modifies the weight value of the marked node recursively.
+	 * Returns the number of relationships starting at the nodes reachable from the
+	 * given node, including the node itself.
 	 */
-	private void modifyWeightRecursively(InternalNode layoutEntity, int i, double weight,
-			Set<InternalNode> descendentsSeenSoFar, InternalNode[] entities, InternalRelationship[] relationships) {
-		// No need to do further computation!
-		if (layoutEntity == null) {
-			return;
-		}
-
-		if (descendentsSeenSoFar.contains(layoutEntity)) {
-			return; // No need to do further computation.
-		}
-
-		descendentsSeenSoFar.add(layoutEntity);
-		// No need to do further computation!
-		if (weight < weights[i]) {
-			return;
+	private int getNumDescendents(int i) {
+		if (descendentCounts[i] == UNKNOWN) {
+			int seen = ++visit;
+			int numDescendents = 0;
+			visits[i] = seen;
+			searchStack.push(i);
+			while (!searchStack.isEmpty()) {
+				int[] children = destinations[searchStack.pop()];
+				numDescendents += children.length;
+				for (int child : children) {
+					if (visits[child] != seen) {
+						visits[child] = seen;
+						searchStack.push(child);
+					}
+				}
+			}
+			descendentCounts[i] = numDescendents;
 		}
+		return descendentCounts[i];
+	}
 
-		weights[i] = weight;
-		Collection<InternalRelationship> rels = findRelationships(layoutEntity, AS_SOURCE, relationships);
-
-		for (InternalRelationship tmpRel : rels) {
-			InternalNode tmpEntity = tmpRel.getDestination();
-			int tmpEntityIndex = indexOfInternalNode(entities, tmpEntity);
-			modifyWeightRecursively(tmpEntity, tmpEntityIndex, weight + 1, descendentsSeenSoFar, entities,
-					relationships);
+	/**
+	 * Modifies the weight value of the marked node and its descendents, in
+	 * depth-first order.
+	 */
+	private void modifyWeight(int i, int weight) {
+		int seen = ++visit;
+		searchStack.push(i);
+		searchStack.push(weight);
+		while (!searchStack.isEmpty()) {
+			int currentWeight = searchStack.pop();
+			int current = searchStack.pop();
+			if (visits[current] == seen) {
+				continue; // No need to do further computation.
+			}
+			visits[current] = seen;
+			// No need to do further computation!
+			if (currentWeight < weights[current]) {
+				continue;
+			}
+			weights[current] = currentWeight;
+			int[] children = destinations[current];
+			for (int k = children.length - 1; k >= 0; k--) {
+				searchStack.push(children[k]);
+				searchStack.push(currentWeight + 1);
+			}
 		}
 	}
 
 	/**
-	 * Gets the maxium weight of a tree in the forest of this TreeLayoutAlgorithm.
+	 * Gets the maximum weight of the leaves of a tree in the forest of this
+	 * TreeLayoutAlgorithm.
 	 */
-	private double getMaxiumWeightRecursive(InternalNode layoutEntity, int i, Set<InternalNode> seenAlready,
-			InternalNode[] entities) {
+	private double getMaximumWeight(int root) {
+		int seen = ++visit;
 		double result = 0;
-		if (seenAlready.contains(layoutEntity)) {
-			return result;
-		}
-		seenAlready.add(layoutEntity);
-		List<InternalNode> children = childrenLists[i];
-		if (children.isEmpty()) {
-			result = weights[i];
-		} else {
-			// TODO: SLOW
-			for (InternalNode childEntity : children) {
-				int childEntityIndex = indexOfInternalNode(entities, childEntity);
-				result = Math.max(result,
-						getMaxiumWeightRecursive(childEntity, childEntityIndex, seenAlready, entities));
+		visits[root] = seen;
+		searchStack.push(root);
+		while (!searchStack.isEmpty()) {
+			int current = searchStack.pop();
+			int[] children = childrenLists[current];
+			if (children.length == 0) {
+				result = Math.max(result, weights[current]);
+			}
+			for (int child : children) {
+				if (visits[child] != seen) {
+					visits[child] = seen;
+					searchStack.push(child);
+				}
 			}
 		}
 		return result;
@@ -451,128 +440,208 @@ public class TreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 	 * Computes positions for each node in this TreeLayoutAlgorithm by referencing
 	 * the forest that holds those nodes.
 	 */
-	private void computePositions(List<InternalNode> roots, InternalNode[] entities) {
+	private void computePositions(List<InternalNode> roots) {
 		// No need to do further computation!
-		if (!roots.isEmpty()) {
+		if (roots.isEmpty()) {
 			return;
 		}
 
 		int totalLeafCount = 0;
 		double maxWeight = 0;
 		for (InternalNode rootEntity : roots) {
-			int rootEntityIndex = indexOfInternalNode(entities, rootEntity);
-			totalLeafCount = totalLeafCount + getNumberOfLeaves(rootEntity, rootEntityIndex, entities);
-			maxWeight = Math.max(maxWeight,
-					getMaxiumWeightRecursive(rootEntity, rootEntityIndex, new HashSet<>(), entities) + 1.0);
+			int rootEntityIndex = indexOfInternalNode(rootEntity);
+			totalLeafCount = totalLeafCount + getNumberOfLeaves(rootEntityIndex);
+			maxWeight = Math.max(maxWeight, getMaximumWeight(rootEntityIndex) + 1.0);
 		}
 
 		double width = 1.0 / totalLeafCount;
 		double height = 1.0 / maxWeight;
 
 		int leafCountSoFar = 0;
-
-		// TODO: SLOW!
+		int[] placed = new int[entities.length];
+		int tree = 0;
 		for (InternalNode rootEntity : roots) {
-			int rootEntityIndex = indexOfInternalNode(entities, rootEntity);
-			computePositionRecursively(rootEntity, rootEntityIndex, leafCountSoFar, width, height, new HashSet<>(),
-					entities);
-			leafCountSoFar = leafCountSoFar + getNumberOfLeaves(rootEntity, rootEntityIndex, entities);
+			int rootEntityIndex = indexOfInternalNode(rootEntity);
+			computePositions(rootEntityIndex, leafCountSoFar, width, height, placed, ++tree);
+			leafCountSoFar = leafCountSoFar + getNumberOfLeaves(rootEntityIndex);
 		}
 	}
 
 	/**
-	 * Computes positions recursively until the leaf nodes are reached.
+	 * Computes positions of the given node and its descendents, in depth-first
+	 * order, until the leaf nodes are reached.
 	 */
-	private void computePositionRecursively(InternalNode layoutEntity, int i, int relativePosition, double width,
-			double height, Set<InternalNode> seenAlready, InternalNode[] entities) {
-		if (seenAlready.contains(layoutEntity)) {
-			return;
-		}
-		seenAlready.add(layoutEntity);
-		double level = getLevel(layoutEntity, i, entities);
-		int breadth = getNumberOfLeaves(layoutEntity, i, entities);
-		double absHPosition = relativePosition + breadth / 2.0;
-		double absVPosition = (level + 0.5);
-
-		double posx = absHPosition * width;
-		double posy = absVPosition * height;
-		double weight = weights[i];
-		posy = posy + height * (weight - level);
-		layoutEntity.setInternalLocation(posx, posy);
-
-		int relativeCount = 0;
-		// TODO: Slow
-		for (InternalNode childEntity : childrenLists[i]) {
-			int childEntityIndex = indexOfInternalNode(entities, childEntity);
-			computePositionRecursively(childEntity, childEntityIndex, relativePosition + relativeCount, width, height,
-					seenAlready, entities);
-			relativeCount = relativeCount + getNumberOfLeaves(childEntity, childEntityIndex, entities);
+	private void computePositions(int root, int relativePosition, double width, double height, int[] placed,
+			int tree) {
+		IntStack pending = new IntStack();
+		pending.push(root);
+		pending.push(relativePosition);
+		while (!pending.isEmpty()) {
+			int position = pending.pop();
+			int i = pending.pop();
+			if (placed[i] == tree) {
+				continue;
+			}
+			placed[i] = tree;
+			double level = getLevel(i);
+			int breadth = getNumberOfLeaves(i);
+			double absHPosition = position + breadth / 2.0;
+			double absVPosition = (level + 0.5);
+
+			double posx = absHPosition * width;
+			double posy = absVPosition * height;
+			double weight = weights[i];
+			posy = posy + height * (weight - level);
+			entities[i].setInternalLocation(posx, posy);
+
+			// each child is placed after the leaves of its preceding siblings
+			int relativeCount = 0;
+			int[] children = childrenLists[i];
+			for (int child : children) {
+				relativeCount = relativeCount + getNumberOfLeaves(child);
+			}
+			for (int k = children.length - 1; k >= 0; k--) {
+				relativeCount = relativeCount - getNumberOfLeaves(children[k]);
+				pending.push(children[k]);
+				pending.push(position + relativeCount);
+			}
 		}
 	}
 
-	private int getNumberOfLeaves(InternalNode layoutEntity, int i, InternalNode[] entities) {
-		return getNumberOfLeavesRecursive(layoutEntity, i, new HashSet<>(), entities);
+	/**
+	 * Returns the number of leaves below the given node. A child which has already
+	 * been counted resets the count of its parent to one.
+	 */
+	private int getNumberOfLeaves(int i) {
+		if (leafCounts[i] != UNKNOWN) {
+			return leafCounts[i];
+		}
+		int seen = ++visit;
+		int top = 0;
+		int result = 0;
+		frameNodes[0] = i;
+		frameCursors[0] = 0;
+		frameValues[0] = 0;
+		while (top >= 0) {
+			int[] children = childrenLists[frameNodes[top]];
+			int numLeaves;
+			if (children.length == 0) {
+				numLeaves = 1;
+			} else if (frameCursors[top] < children.length) {
+				int child = children[frameCursors[top]++];
+				if (visits[child] != seen) {
+					visits[child] = seen;
+					top++;
+					frameNodes[top] = child;
+					frameCursors[top] = 0;
+					frameValues[top] = 0;
+				} else {
+					frameValues[top] = 1;
+				}
+				continue;
+			} else {
+				numLeaves = frameValues[top];
+			}
+			top--;
+			if (top >= 0) {
+				frameValues[top] += numLeaves;
+			} else {
+				result = numLeaves;
+			}
+		}
+		leafCounts[i] = result;
+		return result;
 	}
 
-	private int getNumberOfLeavesRecursive(InternalNode layoutEntity, int i, Set<InternalNode> seen,
-			InternalNode[] entities) {
-		int numLeaves = 0;
-		List<InternalNode> children = childrenLists[i];
-		if (!children.isEmpty()) {
-			numLeaves = 1;
-		} else {
-			// TODO: SLOW!
-			for (InternalNode childEntity : children) {
-				if (!seen.contains(childEntity)) {
-					seen.add(childEntity);
-					int childEntityIndex = indexOfInternalNode(entities, childEntity);
-					numLeaves += getNumberOfLeavesRecursive(childEntity, childEntityIndex, seen, entities);
+	/**
+	 * Returns the length of the longest path of parents from the given node, where
+	 * each node is only visited once. The level of a node with a single parent is
+	 * derived from the level of that parent if no node was reached twice while
+	 * finding it, as the search from the node would then visit the same nodes.
+	 */
+	private int getLevel(int i) {
+		if (levels[i] != UNKNOWN) {
+			return levels[i];
+		}
+		if (parentCounts[i] == 1) {
+			int parent = parentLists[i][0];
+			if (parent != i && levels[parent] != UNKNOWN && exactLevels[parent]) {
+				levels[i] = levels[parent] + 1;
+				exactLevels[i] = true;
+				return levels[i];
+			}
+		}
+		int seen = ++visit;
+		int top = 0;
+		int result = 0;
+		boolean exact = true;
+		visits[i] = seen;
+		frameNodes[0] = i;
+		frameCursors[0] = 0;
+		frameValues[0] = 0;
+		while (top >= 0) {
+			int current = frameNodes[top];
+			if (frameCursors[top] < parentCounts[current]) {
+				int parent = parentLists[current][frameCursors[top]++];
+				if (visits[parent] != seen) {
+					visits[parent] = seen;
+					top++;
+					frameNodes[top] = parent;
+					frameCursors[top] = 0;
+					frameValues[top] = 0;
 				} else {
-					numLeaves = 1;
+					frameValues[top] = Math.max(frameValues[top], 1);
+					exact = false;
 				}
+				continue;
+			}
+			int maxParentLevel = frameValues[top];
+			top--;
+			if (top >= 0) {
+				frameValues[top] = Math.max(frameValues[top], maxParentLevel + 1);
+			} else {
+				result = maxParentLevel;
 			}
 		}
-		return numLeaves;
+		levels[i] = result;
+		exactLevels[i] = exact;
+		return result;
 	}
 
-	private int getLevel(InternalNode layoutEntity, int i, InternalNode[] entities) {
-		return getLevelRecursive(layoutEntity, i, new HashSet<>(), entities);
+	private int indexOfInternalNode(InternalNode nodeToFind) {
+		Integer index = indices.get(nodeToFind);
+		if (index == null) {
+			throw new RuntimeException("Couldn't find index of internal node: " + nodeToFind); //$NON-NLS-1$
+		}
+		return index.intValue();
 	}
 
-	private int getLevelRecursive(InternalNode layoutEntity, int i, Set<InternalNode> seen, InternalNode[] entities) {
-		if (seen.contains(layoutEntity)) {
-			return 0;
-		}
-		seen.add(layoutEntity);
-		int maxParentLevel = 0;
-		for (InternalNode parentEntity : parentLists[i]) {
-			int parentEntityIndex = indexOfInternalNode(entities, parentEntity);
-			int parentLevel = getLevelRecursive(parentEntity, parentEntityIndex, seen, entities) + 1;
-			maxParentLevel = Math.max(maxParentLevel, parentLevel);
-		}
-		return maxParentLevel;
+	@Override
+	protected boolean isValidConfiguration(boolean asynchronous, boolean continueous) {
+		return !continueous;
 	}
 
 	/**
-	 * Note: Use this as little as possible! TODO limit the use of this method
-	 *
-	 * @param nodes
-	 * @param nodeToFind
-	 * @return
+	 * A growable stack of ints, used instead of recursion.
 	 */
-	private static int indexOfInternalNode(InternalNode[] nodes, InternalNode nodeToFind) {
-		for (int i = 0; i < nodes.length; i++) {
-			InternalNode node = nodes[i];
-			if (node.equals(nodeToFind)) {
-				return i;
+	private static final class IntStack {
+		private int[] elements = new int[16];
+		private int size;
+
+		void push(int element) {
+			if (size == elements.length) {
+				elements = Arrays.copyOf(elements, 2 * size);
 			}
+			elements[size++] = element;
 		}
-		throw new RuntimeException("Couldn't find index of internal node: " + nodeToFind); //$NON-NLS-1$
-	}
 
-	@Override
-	protected boolean isValidConfiguration(boolean asynchronous, boolean continueous) {
-		return !continueous;
+		int pop() {
+			return elements[--size];
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
 	}
 
 }
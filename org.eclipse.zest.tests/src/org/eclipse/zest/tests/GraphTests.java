@@ -137,4 +137,54 @@ public class GraphTests extends Assert {
 
 	}
 
+	/**
+	 * Check that the connections between two nodes are found in the order in
+	 * which they were created, and only for their direction.
+	 */
+	@Test
+	public void testConnectionsBetweenNodes() {
+		GraphNode node = new GraphNode(graph, STYLE);
+		GraphConnection second = new GraphConnection(graph, STYLE, nodes[0], nodes[1]);
+		GraphConnection reverse = new GraphConnection(graph, STYLE, nodes[1], nodes[0]);
+		GraphConnection loop = new GraphConnection(graph, STYLE, node, node);
+
+		assertEquals(List.of(connection, second), graph.getConnections(nodes[0], nodes[1]));
+		assertEquals(List.of(reverse), graph.getConnections(nodes[1], nodes[0]));
+		assertEquals(List.of(loop), graph.getConnections(node, node));
+		assertTrue(graph.getConnections(nodes[0], node).isEmpty());
+		assertThrows(UnsupportedOperationException.class,
+				() -> graph.getConnections(nodes[0], nodes[1]).add(reverse));
+	}
+
+	/**
+	 * Check that disposed connections, and the connections of disposed nodes, are
+	 * no longer found between their nodes, while exchanging the figure of a
+	 * connection keeps it.
+	 */
+	@Test
+	public void testConnectionsBetweenNodesAfterDisposal() {
+		GraphConnection second = new GraphConnection(graph, STYLE, nodes[0], nodes[1]);
+		GraphConnection reverse = new GraphConnection(graph, STYLE, nodes[1], nodes[0]);
+
+		// a curved connection has another figure
+		second.setCurveDepth(20);
+		assertEquals(List.of(connection, second), graph.getConnections(nodes[0], nodes[1]));
+		second.setCurveDepth(0);
+		assertEquals(List.of(connection, second), graph.getConnections(nodes[0], nodes[1]));
+
+		connection.dispose();
+		assertEquals(List.of(second), graph.getConnections(nodes[0], nodes[1]));
+
+		nodes[1].dispose();
+		assertTrue(second.isDisposed());
+		assertTrue(reverse.isDisposed());
+		assertTrue(graph.getConnections(nodes[0], nodes[1]).isEmpty());
+		assertTrue(graph.getConnections(nodes[1], nodes[0]).isEmpty());
+
+		// new connections are still found
+		GraphNode node = new GraphNode(graph, STYLE);
+		GraphConnection added = new GraphConnection(graph, STYLE, nodes[0], node);
+		assertEquals(List.of(added), graph.getConnections(nodes[0], node));
+	}
+
 }
@@ -9,7 +9,10 @@
 package org.eclipse.zest.tests;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.dnd.DND;
@@ -20,14 +23,25 @@ import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Shell;
 
 import org.eclipse.jface.util.DelegatingDragAdapter;
+import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.jface.viewers.SelectionChangedEvent;
 import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.zest.core.viewers.EntityConnectionData;
 import org.eclipse.zest.core.viewers.GraphViewer;
+import org.eclipse.zest.core.viewers.IFigureProvider;
+import org.eclipse.zest.core.viewers.IGraphContentProvider;
+import org.eclipse.zest.core.viewers.IGraphEntityContentProvider;
+import org.eclipse.zest.core.viewers.INestedContentProvider;
 import org.eclipse.zest.core.widgets.Graph;
 import org.eclipse.zest.core.widgets.GraphConnection;
+import org.eclipse.zest.core.widgets.GraphContainer;
 import org.eclipse.zest.core.widgets.GraphItem;
 import org.eclipse.zest.core.widgets.GraphNode;
 
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.Label;
+import org.eclipse.draw2d.geometry.Point;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -106,4 +120,215 @@ public class GraphViewerTests extends Assert {
 		viewer.getControl().notifyListeners(SWT.Selection, new Event());
 		assertFalse("Post selection listeners should be notified", selected.isEmpty()); //$NON-NLS-1$
 	}
+
+	/**
+	 * Assert that a refresh keeps the nodes and connections of the elements which
+	 * are still provided, creates those of new elements and disposes those of
+	 * removed elements.
+	 */
+	@Test
+	public void testRefreshReconcilesItems() {
+		EntityContentProvider provider = new EntityContentProvider("a", "b", "c"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		provider.connect("a", "b"); //$NON-NLS-1$ //$NON-NLS-2$
+		provider.connect("b", "c"); //$NON-NLS-1$ //$NON-NLS-2$
+		viewer.setContentProvider(provider);
+		viewer.setLabelProvider(new LabelProvider());
+		viewer.setInput(provider);
+		GraphNode a = getNode("a"); //$NON-NLS-1$
+		GraphNode b = getNode("b"); //$NON-NLS-1$
+		GraphNode c = getNode("c"); //$NON-NLS-1$
+		GraphConnection ab = getConnection("a", "b"); //$NON-NLS-1$ //$NON-NLS-2$
+		GraphConnection bc = getConnection("b", "c"); //$NON-NLS-1$ //$NON-NLS-2$
+		a.setLocation(40, 50);
+
+		provider.entities.remove("c"); //$NON-NLS-1$
+		provider.entities.add("d"); //$NON-NLS-1$
+		provider.connections.remove("b"); //$NON-NLS-1$
+		provider.connect("a", "d"); //$NON-NLS-1$ //$NON-NLS-2$
+		viewer.refresh();
+
+		assertSame(a, getNode("a")); //$NON-NLS-1$
+		assertSame(b, getNode("b")); //$NON-NLS-1$
+		assertEquals(new Point(40, 50), a.getLocation());
+		assertSame(ab, getConnection("a", "b")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue(c.isDisposed());
+		assertTrue(bc.isDisposed());
+		assertNull(viewer.findGraphItem("c")); //$NON-NLS-1$
+		assertNull(viewer.findGraphItem(new EntityConnectionData("b", "c"))); //$NON-NLS-1$ //$NON-NLS-2$
+		GraphNode d = getNode("d"); //$NON-NLS-1$
+		assertSame(d, getConnection("a", "d").getDestination()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(3, viewer.getGraphControl().getNodes().size());
+		assertEquals(2, viewer.getGraphControl().getConnections().size());
+
+		// nothing changes if the elements do not change
+		List<GraphNode> nodes = new ArrayList<>(viewer.getGraphControl().getNodes());
+		List<GraphConnection> connections = new ArrayList<>(viewer.getGraphControl().getConnections());
+		viewer.refresh();
+		assertEquals(nodes, viewer.getGraphControl().getNodes());
+		assertEquals(connections, viewer.getGraphControl().getConnections());
+	}
+
+	/**
+	 * Assert that a refresh which updates the labels replaces the figures of the
+	 * nodes with those of the figure provider, and that a refresh which does not
+	 * update them keeps the figures.
+	 */
+	@Test
+	public void testRefreshFigures() {
+		EntityContentProvider provider = new EntityContentProvider("a", "b"); //$NON-NLS-1$ //$NON-NLS-2$
+		provider.connect("a", "b"); //$NON-NLS-1$ //$NON-NLS-2$
+		FigureLabelProvider labelProvider = new FigureLabelProvider();
+		viewer.setContentProvider(provider);
+		viewer.setLabelProvider(labelProvider);
+		viewer.setInput(provider);
+		GraphNode a = getNode("a"); //$NON-NLS-1$
+		IFigure figure = a.getModelFigure();
+		a.setLocation(40, 50);
+		int figures = labelProvider.figures;
+
+		viewer.refresh(false);
+		assertSame(a, getNode("a")); //$NON-NLS-1$
+		assertSame(figure, a.getModelFigure());
+		assertEquals(figures, labelProvider.figures);
+
+		viewer.refresh();
+		assertEquals(figures + 2, labelProvider.figures);
+		GraphNode refreshed = getNode("a"); //$NON-NLS-1$
+		assertTrue(a.isDisposed());
+		assertNotSame(figure, refreshed.getModelFigure());
+		assertEquals("a", ((Label) refreshed.getModelFigure()).getText()); //$NON-NLS-1$
+		assertEquals(new Point(40, 50), refreshed.getLocation());
+		assertSame(refreshed, getConnection("a", "b").getSource()); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(2, viewer.getGraphControl().getNodes().size());
+		assertEquals(1, viewer.getGraphControl().getConnections().size());
+	}
+
+	/**
+	 * Assert that the node of an element which becomes a container, or stops being
+	 * one, is replaced by a refresh.
+	 */
+	@Test
+	public void testRefreshContainer() {
+		EntityContentProvider provider = new EntityContentProvider("a", "b"); //$NON-NLS-1$ //$NON-NLS-2$
+		viewer.setContentProvider(provider);
+		viewer.setLabelProvider(new LabelProvider());
+		viewer.setInput(provider);
+		assertFalse(getNode("a") instanceof GraphContainer); //$NON-NLS-1$
+
+		provider.children.put("a", List.of("x")); //$NON-NLS-1$ //$NON-NLS-2$
+		viewer.refresh();
+		assertTrue(getNode("a") instanceof GraphContainer); //$NON-NLS-1$
+		assertEquals(List.of(getNode("x")), ((GraphContainer) getNode("a")).getNodes()); //$NON-NLS-1$ //$NON-NLS-2$
+
+		provider.children.remove("a"); //$NON-NLS-1$
+		viewer.refresh();
+		assertFalse(getNode("a") instanceof GraphContainer); //$NON-NLS-1$
+		assertNull(viewer.findGraphItem("x")); //$NON-NLS-1$
+	}
+
+	/**
+	 * Assert that a refresh moves a connection whose source or destination has
+	 * changed.
+	 */
+	@Test
+	public void testRefreshChangedConnection() {
+		RelationshipContentProvider provider = new RelationshipContentProvider();
+		provider.relationships.put("ab", new String[] { "a", "b" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		provider.relationships.put("bc", new String[] { "b", "c" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		viewer.setContentProvider(provider);
+		viewer.setLabelProvider(new LabelProvider());
+		viewer.setInput(provider);
+		GraphConnection connection = (GraphConnection) viewer.findGraphItem("ab"); //$NON-NLS-1$
+
+		provider.relationships.put("ab", new String[] { "a", "c" }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		viewer.refresh();
+		GraphConnection moved = (GraphConnection) viewer.findGraphItem("ab"); //$NON-NLS-1$
+		assertTrue(connection.isDisposed());
+		assertSame(getNode("a"), moved.getSource()); //$NON-NLS-1$
+		assertSame(getNode("c"), moved.getDestination()); //$NON-NLS-1$
+		assertEquals(List.of(moved), getNode("a").getSourceConnections()); //$NON-NLS-1$
+		assertEquals(2, viewer.getGraphControl().getConnections().size());
+	}
+
+	private GraphNode getNode(String element) {
+		return (GraphNode) viewer.findGraphItem(element);
+	}
+
+	private GraphConnection getConnection(String source, String destination) {
+		return (GraphConnection) viewer.findGraphItem(new EntityConnectionData(source, destination));
+	}
+
+	/**
+	 * Provides entities, the entities they are connected to, and the children of
+	 * the entities which are containers.
+	 */
+	private static class EntityContentProvider implements IGraphEntityContentProvider, INestedContentProvider {
+		final List<String> entities = new ArrayList<>();
+		final Map<String, List<String>> connections = new HashMap<>();
+		final Map<String, List<String>> children = new HashMap<>();
+
+		EntityContentProvider(String... entities) {
+			this.entities.addAll(List.of(entities));
+		}
+
+		void connect(String source, String destination) {
+			connections.computeIfAbsent(source, key -> new ArrayList<>()).add(destination);
+		}
+
+		@Override
+		public Object[] getElements(Object inputElement) {
+			return entities.toArray();
+		}
+
+		@Override
+		public Object[] getConnectedTo(Object entity) {
+			List<String> destinations = connections.get(entity);
+			return destinations != null ? destinations.toArray() : null;
+		}
+
+		@Override
+		public boolean hasChildren(Object element) {
+			return children.containsKey(element);
+		}
+
+		@Override
+		public Object[] getChildren(Object element) {
+			return children.get(element).toArray();
+		}
+	}
+
+	/**
+	 * Provides relationships between a source and a destination entity.
+	 */
+	private static class RelationshipContentProvider implements IGraphContentProvider {
+		final Map<String, String[]> relationships = new LinkedHashMap<>();
+
+		@Override
+		public Object getSource(Object rel) {
+			return relationships.get(rel)[0];
+		}
+
+		@Override
+		public Object getDestination(Object rel) {
+			return relationships.get(rel)[1];
+		}
+
+		@Override
+		public Object[] getElements(Object input) {
+			return relationships.keySet().toArray();
+		}
+	}
+
+	/**
+	 * Provides a new label figure for each request.
+	 */
+	private static class FigureLabelProvider extends LabelProvider implements IFigureProvider {
+		int figures;
+
+		@Override
+		public IFigure getFigure(Object element) {
+			figures++;
+			return new Label(element.toString());
+		}
+	}
 }
@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.zest.core.widgets.Graph;
+import org.eclipse.zest.core.widgets.GraphConnection;
+import org.eclipse.zest.core.widgets.GraphNode;
+import org.eclipse.zest.core.widgets.ZestStyles;
+import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.AbstractLayoutAlgorithm;
+import org.eclipse.zest.layouts.dataStructures.InternalNode;
+import org.eclipse.zest.layouts.dataStructures.InternalRelationship;
+import org.eclipse.zest.layouts.exampleStructures.SimpleNode;
+import org.eclipse.zest.layouts.progress.ProgressEvent;
+import org.eclipse.zest.layouts.progress.ProgressListener;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the layouts of a {@link Graph}, on the UI thread and off it, see
+ * {@link Graph#setAsynchronousLayout(boolean)}.
+ */
+public class LayoutServiceTests extends Assert {
+
+	private static final long TIMEOUT = 10000;
+
+	private Shell shell;
+	private Display display;
+	private Graph graph;
+	private GraphNode[] nodes;
+	private TestLayoutAlgorithm algorithm;
+
+	/**
+	 * Places the entities on a diagonal, one step further in each layout. A layout
+	 * may be made to wait for a gate, and to fail once it has placed the entities.
+	 */
+	private static class TestLayoutAlgorithm extends AbstractLayoutAlgorithm {
+		final List<Thread> threads = new CopyOnWriteArrayList<>();
+		volatile CountDownLatch gate;
+		volatile boolean fail;
+
+		TestLayoutAlgorithm() {
+			super(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+		}
+
+		@Override
+		protected void applyLayoutInternal(InternalNode[] entitiesToLayout,
+				InternalRelationship[] relationshipsToConsider, double boundsX, double boundsY, double boundsWidth,
+				double boundsHeight) {
+			threads.add(Thread.currentThread());
+			CountDownLatch latch = gate;
+			if (latch != null) {
+				try {
+					latch.await(TIMEOUT, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			int layouts = threads.size();
+			for (int i = 0; i < entitiesToLayout.length; i++) {
+				entitiesToLayout[i].setInternalLocation(getLocation(layouts, i), getLocation(layouts, i));
+			}
+			updateLayoutLocations(entitiesToLayout);
+			if (fail) {
+				throw new IllegalStateException();
+			}
+		}
+
+		@Override
+		protected void preLayoutAlgorithm(InternalNode[] entitiesToLayout,
+				InternalRelationship[] relationshipsToConsider, double x, double y, double width, double height) {
+			// do nothing
+		}
+
+		@Override
+		protected void postLayoutAlgorithm(InternalNode[] entitiesToLayout,
+				InternalRelationship[] relationshipsToConsider) {
+			// do nothing
+		}
+
+		@Override
+		protected boolean isValidConfiguration(boolean asynchronous, boolean continuous) {
+			return !continuous;
+		}
+
+		@Override
+		public void setLayoutArea(double x, double y, double width, double height) {
+			// do nothing
+		}
+
+		@Override
+		protected int getTotalNumberOfLayoutSteps() {
+			return 1;
+		}
+
+		@Override
+		protected int getCurrentLayoutStep() {
+			return 0;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		shell = new Shell();
+		display = shell.getDisplay();
+		graph = new Graph(shell, SWT.NONE);
+		graph.setNodeStyle(ZestStyles.NODES_NO_LAYOUT_ANIMATION);
+		graph.setPreferredSize(400, 400);
+		nodes = new GraphNode[3];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new GraphNode(graph, SWT.NONE, "n" + i); //$NON-NLS-1$
+			nodes[i].setLocation(300, 300);
+		}
+		new GraphConnection(graph, SWT.NONE, nodes[0], nodes[1]);
+		new GraphConnection(graph, SWT.NONE, nodes[1], nodes[2]);
+		algorithm = new TestLayoutAlgorithm();
+		shell.setSize(500, 500);
+		shell.open();
+	}
+
+	@After
+	public void tearDown() {
+		if (algorithm.gate != null) {
+			algorithm.gate.countDown();
+		}
+		shell.dispose();
+	}
+
+	@Test
+	public void testSynchronousByDefault() throws InterruptedException {
+		assertFalse(graph.isAsynchronousLayout());
+		graph.setLayoutAlgorithm(algorithm, true);
+		waitUntil(() -> isLaidOut(1));
+		assertEquals(List.of(display.getThread()), algorithm.threads);
+	}
+
+	@Test
+	public void testAsynchronousLayout() throws InterruptedException {
+		graph.setAsynchronousLayout(true);
+		algorithm.gate = new CountDownLatch(1);
+		graph.setLayoutAlgorithm(algorithm, true);
+		waitUntil(() -> algorithm.threads.size() == 1);
+		assertNotSame(display.getThread(), algorithm.threads.get(0));
+
+		// the nodes are moved only once the layout has ended
+		dispatchEvents();
+		assertEquals(300, nodes[0].getLocation().x);
+		algorithm.gate.countDown();
+		waitUntil(() -> isLaidOut(1));
+	}
+
+	/**
+	 * Requests further layouts while a layout is computed. They are merged into a
+	 * single layout, which is computed once the running layout has ended.
+	 */
+	@Test
+	public void testSupersededLayout() throws InterruptedException {
+		graph.setAsynchronousLayout(true);
+		CountDownLatch gate = new CountDownLatch(1);
+		algorithm.gate = gate;
+		graph.setLayoutAlgorithm(algorithm, true);
+		waitUntil(() -> algorithm.threads.size() == 1);
+
+		graph.applyLayout();
+		dispatchEvents();
+		graph.applyLayout();
+		dispatchEvents();
+		assertEquals(1, algorithm.threads.size());
+		algorithm.gate = null;
+		gate.countDown();
+		waitUntil(() -> isLaidOut(2));
+
+		dispatchEvents();
+		assertEquals(2, algorithm.threads.size());
+		assertTrue(isLaidOut(2));
+	}
+
+	/**
+	 * A layout which fails ends, so that the graph can be laid out again.
+	 */
+	@Test
+	public void testFailedLayout() throws InterruptedException {
+		graph.setAsynchronousLayout(true);
+		algorithm.fail = true;
+		graph.setLayoutAlgorithm(algorithm, true);
+		waitUntil(() -> algorithm.threads.size() == 1 && !algorithm.isRunning());
+		dispatchEvents();
+
+		algorithm.fail = false;
+		graph.applyLayout();
+		waitUntil(() -> isLaidOut(2));
+		assertEquals(2, algorithm.threads.size());
+	}
+
+	/**
+	 * The progress listeners are told that an asynchronous layout has ended even
+	 * if it fails.
+	 */
+	@Test
+	public void testFailedAsynchronousLayoutEnds() throws InterruptedException, InvalidLayoutConfiguration {
+		CountDownLatch ended = new CountDownLatch(1);
+		algorithm.addProgressListener(new ProgressListener() {
+			@Override
+			public void progressStarted(ProgressEvent e) {
+				// do nothing
+			}
+
+			@Override
+			public void progressUpdated(ProgressEvent e) {
+				// do nothing
+			}
+
+			@Override
+			public void progressEnded(ProgressEvent e) {
+				ended.countDown();
+			}
+		});
+		algorithm.fail = true;
+		SimpleNode[] entities = { new SimpleNode("a"), new SimpleNode("b") }; //$NON-NLS-1$ //$NON-NLS-2$
+		algorithm.applyLayout(entities, new LayoutRelationship[0], 0, 0, 100, 100, true, false);
+		assertTrue(ended.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		assertFalse(algorithm.isRunning());
+	}
+
+	private static int getLocation(int layouts, int index) {
+		return layouts * 10 + index;
+	}
+
+	/**
+	 * Returns whether the nodes are at the locations of the given number of
+	 * layouts.
+	 */
+	private boolean isLaidOut(int layouts) {
+		for (int i = 0; i < nodes.length; i++) {
+			if (nodes[i].getLocation().x != getLocation(layouts, i)
+					|| nodes[i].getLocation().y != getLocation(layouts, i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void dispatchEvents() {
+		while (display.readAndDispatch()) {
+			// dispatch all pending events
+		}
+	}
+
+	private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (!condition.getAsBoolean()) {
+			assertTrue("Timed out", System.currentTimeMillis() < end); //$NON-NLS-1$
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+		}
+	}
+
+}
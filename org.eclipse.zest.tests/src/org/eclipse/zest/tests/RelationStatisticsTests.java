@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the statistics of the relations between pairs of nodes kept by the
+ * {@link org.eclipse.zest.layouts.algorithms.SpringLayoutAlgorithm}.
+ */
+public class RelationStatisticsTests extends Assert {
+
+	private static final double DELTA = 1e-9;
+
+	/**
+	 * Accesses the internal statistics class.
+	 */
+	private static class Statistics {
+		private final Object statistics;
+		private final Method add;
+		private final Method getCount;
+		private final Method getAverageWeight;
+		private final Method getSortedPairs;
+		private final Field keys;
+
+		Statistics(int expectedPairs) throws ReflectiveOperationException {
+			Class<?> type = Class.forName("org.eclipse.zest.layouts.algorithms.RelationStatistics"); //$NON-NLS-1$
+			Constructor<?> constructor = type.getDeclaredConstructor(int.class);
+			constructor.setAccessible(true);
+			statistics = constructor.newInstance(Integer.valueOf(expectedPairs));
+			add = getMethod(type, "add", int.class, int.class, double.class); //$NON-NLS-1$
+			getCount = getMethod(type, "getCount", int.class, int.class); //$NON-NLS-1$
+			getAverageWeight = getMethod(type, "getAverageWeight", int.class, int.class); //$NON-NLS-1$
+			getSortedPairs = getMethod(type, "getSortedPairs"); //$NON-NLS-1$
+			keys = type.getDeclaredField("keys"); //$NON-NLS-1$
+			keys.setAccessible(true);
+		}
+
+		private static Method getMethod(Class<?> type, String name, Class<?>... parameterTypes)
+				throws NoSuchMethodException {
+			Method method = type.getDeclaredMethod(name, parameterTypes);
+			method.setAccessible(true);
+			return method;
+		}
+
+		void add(int i, int j, double weight) throws ReflectiveOperationException {
+			add.invoke(statistics, Integer.valueOf(i), Integer.valueOf(j), Double.valueOf(weight));
+		}
+
+		int getCount(int i, int j) throws ReflectiveOperationException {
+			return ((Integer) getCount.invoke(statistics, Integer.valueOf(i), Integer.valueOf(j))).intValue();
+		}
+
+		double getAverageWeight(int i, int j) throws ReflectiveOperationException {
+			return ((Double) getAverageWeight.invoke(statistics, Integer.valueOf(i), Integer.valueOf(j)))
+					.doubleValue();
+		}
+
+		long[] getSortedPairs() throws ReflectiveOperationException {
+			return (long[]) getSortedPairs.invoke(statistics);
+		}
+
+		int getCapacity() throws ReflectiveOperationException {
+			return ((long[]) keys.get(statistics)).length;
+		}
+	}
+
+	@Test
+	public void testPairs() throws ReflectiveOperationException {
+		Statistics statistics = new Statistics(4);
+		statistics.add(3, 1, 2);
+		statistics.add(1, 3, 4);
+		statistics.add(0, 5, -1);
+		statistics.add(2, 2, 7);
+
+		assertEquals(2, statistics.getCount(1, 3));
+		assertEquals(2, statistics.getCount(3, 1));
+		assertEquals(3, statistics.getAverageWeight(3, 1), DELTA);
+		assertEquals(1, statistics.getCount(5, 0));
+		assertEquals(-1, statistics.getAverageWeight(5, 0), DELTA);
+		assertEquals(1, statistics.getCount(2, 2));
+		assertEquals(7, statistics.getAverageWeight(2, 2), DELTA);
+
+		// pairs without relations
+		assertEquals(0, statistics.getCount(1, 2));
+		assertEquals(1, statistics.getAverageWeight(1, 2), DELTA);
+		assertEquals(0, statistics.getCount(0, 0));
+
+		assertArrayEquals(new long[] { getKey(0, 5), getKey(1, 3), getKey(2, 2) }, statistics.getSortedPairs());
+	}
+
+	/**
+	 * Adds pairs which all hash to the same slot, so that each one is found only
+	 * by probing past the others.
+	 */
+	@Test
+	public void testCollisions() throws ReflectiveOperationException {
+		Statistics statistics = new Statistics(4);
+		int capacity = statistics.getCapacity();
+		List<int[]> pairs = new ArrayList<>();
+		for (int i = 0; pairs.size() < capacity / 2 + 1; i++) {
+			for (int j = i; j < 1000 && pairs.size() < capacity / 2 + 1; j++) {
+				if (getSlot(getKey(i, j), capacity) == capacity - 1) {
+					pairs.add(new int[] { i, j });
+				}
+			}
+		}
+
+		// fills half of the table, which wraps around its end
+		for (int k = 0; k < capacity / 2; k++) {
+			int[] pair = pairs.get(k);
+			statistics.add(pair[1], pair[0], k);
+			statistics.add(pair[0], pair[1], k + 1);
+			statistics.add(pair[0], pair[1], k + 2);
+		}
+		assertEquals(capacity, statistics.getCapacity());
+		for (int k = 0; k < capacity / 2; k++) {
+			int[] pair = pairs.get(k);
+			assertEquals(3, statistics.getCount(pair[0], pair[1]));
+			assertEquals(k + 1, statistics.getAverageWeight(pair[1], pair[0]), DELTA);
+		}
+
+		// probes past all the colliding pairs
+		int[] absent = pairs.get(capacity / 2);
+		assertEquals(0, statistics.getCount(absent[0], absent[1]));
+		assertEquals(1, statistics.getAverageWeight(absent[0], absent[1]), DELTA);
+		assertEquals(capacity / 2, statistics.getSortedPairs().length);
+	}
+
+	/**
+	 * Adds many more pairs than expected, and compares the statistics with those
+	 * kept in a map.
+	 */
+	@Test
+	public void testGrowth() throws ReflectiveOperationException {
+		Statistics statistics = new Statistics(1);
+		int initialCapacity = statistics.getCapacity();
+		Map<Long, double[]> expected = new HashMap<>();
+		Random random = new Random(5);
+		for (int k = 0; k < 5000; k++) {
+			int i = random.nextInt(200);
+			int j = random.nextInt(200);
+			int weight = random.nextInt(10);
+			statistics.add(i, j, weight);
+			double[] sums = expected.computeIfAbsent(Long.valueOf(getKey(i, j)), key -> new double[2]);
+			sums[0]++;
+			sums[1] += weight;
+		}
+
+		assertTrue(statistics.getCapacity() > initialCapacity);
+		assertTrue(statistics.getCapacity() >= 2 * expected.size());
+		for (int i = 0; i < 200; i++) {
+			for (int j = 0; j < 200; j++) {
+				double[] sums = expected.get(Long.valueOf(getKey(i, j)));
+				if (sums == null) {
+					assertEquals(0, statistics.getCount(i, j));
+					assertEquals(1, statistics.getAverageWeight(i, j), DELTA);
+				} else {
+					assertEquals((int) sums[0], statistics.getCount(i, j));
+					assertEquals(sums[1] / sums[0], statistics.getAverageWeight(i, j), DELTA);
+				}
+			}
+		}
+		long[] keys = expected.keySet().stream().mapToLong(Long::longValue).toArray();
+		Arrays.sort(keys);
+		assertArrayEquals(keys, statistics.getSortedPairs());
+	}
+
+	private static long getKey(int i, int j) {
+		return i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+	}
+
+	/**
+	 * Returns the first slot probed for the given key, as the statistics do.
+	 */
+	private static int getSlot(long key, int capacity) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (capacity - 1);
+	}
+
+}
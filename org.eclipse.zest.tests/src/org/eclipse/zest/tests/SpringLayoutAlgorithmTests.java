@@ -0,0 +1,480 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
+import org.eclipse.zest.layouts.LayoutEntity;
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.AbstractLayoutAlgorithm;
+import org.eclipse.zest.layouts.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.zest.layouts.constraints.BasicEdgeConstraints;
+import org.eclipse.zest.layouts.constraints.LayoutConstraint;
+import org.eclipse.zest.layouts.dataStructures.InternalNode;
+import org.eclipse.zest.layouts.dataStructures.InternalRelationship;
+import org.eclipse.zest.layouts.exampleStructures.SimpleNode;
+import org.eclipse.zest.layouts.exampleStructures.SimpleRelationship;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link SpringLayoutAlgorithm} class, and the Barnes-Hut tree
+ * approximating its repulsion.
+ */
+public class SpringLayoutAlgorithmTests extends Assert {
+
+	private static final int NODES = 60;
+	private static final double MIN_DISTANCE = 0.001;
+
+	private final Random random = new Random(17);
+	private InternalNode[] nodes;
+	private InternalRelationship[] relationships;
+	/** The source and destination of each relationship. */
+	private int[][] edges;
+	private int[] weights;
+
+	/**
+	 * Exposes the forces of the first iteration.
+	 */
+	private static class TestSpringLayout extends SpringLayoutAlgorithm {
+		TestSpringLayout() {
+			super(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+		}
+
+		/**
+		 * Returns the unit coordinates of the nodes and the forces on them, as x and y
+		 * arrays.
+		 */
+		double[][] computeFirstForces(InternalNode[] entities, InternalRelationship[] relationships)
+				throws ReflectiveOperationException {
+			preLayoutAlgorithm(entities, relationships, 0, 0, 100, 100);
+			computeForces(entities);
+			double[][] result = { getArray("tempLocationsX"), getArray("tempLocationsY"), getArray("forcesX"),
+					getArray("forcesY") };
+			postLayoutAlgorithm(entities, relationships);
+			return result;
+		}
+
+		private double[] getArray(String name) throws ReflectiveOperationException {
+			Field field = SpringLayoutAlgorithm.class.getDeclaredField(name);
+			field.setAccessible(true);
+			return ((double[]) field.get(this)).clone();
+		}
+	}
+
+	/**
+	 * A relationship with a weight.
+	 */
+	private static class WeightedRelationship extends SimpleRelationship {
+		private final int layoutWeight;
+
+		WeightedRelationship(LayoutEntity source, LayoutEntity destination, int weight) {
+			super(source, destination, false);
+			layoutWeight = weight;
+		}
+
+		@Override
+		public void populateLayoutConstraint(LayoutConstraint constraint) {
+			if (constraint instanceof BasicEdgeConstraints edgeConstraints) {
+				edgeConstraints.weight = layoutWeight;
+			}
+		}
+	}
+
+	@Before
+	public void setUp() {
+		new SpringLayoutAlgorithm().setRandom(false);
+
+		// jittered grid positions, so that no two nodes are closer than the
+		// minimum distance in unit coordinates
+		nodes = new InternalNode[NODES];
+		for (int i = 0; i < NODES; i++) {
+			SimpleNode node = new SimpleNode("n" + i, 0, 0, 10, 10); //$NON-NLS-1$
+			nodes[i] = new InternalNode(node);
+			nodes[i].setInternalLocation(i % 8 * 100 + random.nextInt(50), i / 8 * 100 + random.nextInt(50));
+		}
+
+		// duplicate, reversed, self and non-positive weighted relationships
+		int count = 120;
+		edges = new int[count][];
+		weights = new int[count];
+		relationships = new InternalRelationship[count];
+		for (int k = 0; k < count; k++) {
+			int source = random.nextInt(NODES);
+			int destination = random.nextInt(NODES);
+			if (k % 10 == 1) {
+				source = edges[k - 1][1];
+				destination = edges[k - 1][0];
+			} else if (k % 10 == 2) {
+				source = edges[k - 2][0];
+				destination = edges[k - 2][1];
+			} else if (k % 10 == 3) {
+				destination = source;
+			}
+			edges[k] = new int[] { source, destination };
+			weights[k] = k % 7 == 0 ? 0 : 1 + random.nextInt(3);
+			relationships[k] = new InternalRelationship(
+					new WeightedRelationship(nodes[source].getLayoutEntity(), nodes[destination].getLayoutEntity(),
+							weights[k]),
+					nodes[source], nodes[destination]);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		algorithm.setRandom(SpringLayoutAlgorithm.DEFAULT_SPRING_RANDOM);
+		algorithm.setIterations(SpringLayoutAlgorithm.DEFAULT_SPRING_ITERATIONS);
+	}
+
+	@Test
+	public void testSpringTheta() {
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		assertEquals(SpringLayoutAlgorithm.DEFAULT_SPRING_THETA, algorithm.getSpringTheta(), 0);
+		algorithm.setSpringTheta(0.8);
+		assertEquals(0.8, algorithm.getSpringTheta(), 0);
+	}
+
+	/**
+	 * Compares the exact forces with the forces computed from a dense matrix of
+	 * the number of relations and their average weight between each pair of
+	 * nodes, as the relations were formerly stored.
+	 */
+	@Test
+	public void testExactForces() throws ReflectiveOperationException {
+		double[][] result = new TestSpringLayout().computeFirstForces(nodes, relationships);
+		double[][] expected = computeDenseForces(result[0], result[1]);
+		assertForcesEqual(expected, result, 1e-9);
+	}
+
+	/**
+	 * Compares the forces with a tiny theta, where the Barnes-Hut tree computes
+	 * all pairs of nodes, with the sum of the forces of all other nodes on each
+	 * node.
+	 */
+	@Test
+	public void testApproximateForces() throws ReflectiveOperationException {
+		TestSpringLayout algorithm = new TestSpringLayout();
+		algorithm.setSpringTheta(1e-9);
+		double[][] result = algorithm.computeFirstForces(nodes, relationships);
+		double[][] expected = computePairwiseForces(result[0], result[1]);
+		assertForcesEqual(expected, result, 1e-9);
+
+		// a larger theta approximates the forces
+		algorithm = new TestSpringLayout();
+		algorithm.setSpringTheta(0.5);
+		double[][] approximated = algorithm.computeFirstForces(nodes, relationships);
+		double error = 0;
+		double total = 0;
+		for (int i = 0; i < NODES; i++) {
+			error += Math.hypot(approximated[2][i] - expected[2][i], approximated[3][i] - expected[3][i]);
+			total += Math.hypot(expected[2][i], expected[3][i]);
+		}
+		assertTrue("Relative error " + error / total, error / total < 0.05); //$NON-NLS-1$
+	}
+
+	/**
+	 * With a theta of 0, the Barnes-Hut tree computes the repulsion between all
+	 * pairs of points, including coincident points.
+	 */
+	@Test
+	public void testBarnesHutTreeWithoutApproximation() throws ReflectiveOperationException {
+		int count = 300;
+		double[] xs = new double[count];
+		double[] ys = new double[count];
+		for (int i = 0; i < count; i++) {
+			if (i % 50 == 49) {
+				xs[i] = xs[i - 1];
+				ys[i] = ys[i - 1];
+			} else {
+				xs[i] = random.nextDouble();
+				ys[i] = random.nextDouble();
+			}
+		}
+		double[][] exact = computeRepulsion(xs, ys, count);
+		double[][] result = computeBarnesHutRepulsion(xs, ys, count, 0);
+		for (int i = 0; i < count; i++) {
+			assertEquals(exact[0][i], result[0][i], 1e-9 * Math.max(1, Math.abs(exact[0][i])));
+			assertEquals(exact[1][i], result[1][i], 1e-9 * Math.max(1, Math.abs(exact[1][i])));
+		}
+
+		result = computeBarnesHutRepulsion(xs, ys, count, 0.5);
+		double error = 0;
+		double total = 0;
+		for (int i = 0; i < count; i++) {
+			error += Math.hypot(result[0][i] - exact[0][i], result[1][i] - exact[1][i]);
+			total += Math.hypot(exact[0][i], exact[1][i]);
+		}
+		assertTrue("Relative error " + error / total, error / total < 0.05); //$NON-NLS-1$
+	}
+
+	/**
+	 * Lays out more nodes than fit into one block with one and with several
+	 * threads. Any number of threads computes the same positions, which differ
+	 * from those of a single thread only by rounding.
+	 */
+	@Test
+	public void testParallelism() throws InvalidLayoutConfiguration {
+		new SpringLayoutAlgorithm().setIterations(20);
+		double[][] serial = layOut(1, 0);
+		double[][] parallel = layOut(4, 0);
+		assertPositionsEqual(layOut(2, 0), parallel, 0);
+		assertPositionsEqual(serial, parallel, 1e-3);
+
+		// the Barnes-Hut tree computes the force on each node on its own
+		assertPositionsEqual(layOut(1, 0.5), layOut(4, 0.5), 0);
+	}
+
+	/**
+	 * The threads of a layout are shut down even if an iteration fails.
+	 */
+	@Test
+	public void testPoolShutDownOnFailure() throws ReflectiveOperationException {
+		Field poolField = SpringLayoutAlgorithm.class.getDeclaredField("pool"); //$NON-NLS-1$
+		poolField.setAccessible(true);
+		List<ForkJoinPool> pools = new ArrayList<>();
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING) {
+			@Override
+			protected void computeOneIteration(InternalNode[] entitiesToLayout,
+					InternalRelationship[] relationshipsToConsider, double x, double y, double width, double height) {
+				try {
+					pools.add((ForkJoinPool) poolField.get(this));
+				} catch (IllegalAccessException e) {
+					throw new AssertionError(e);
+				}
+				throw new IllegalStateException();
+			}
+		};
+		algorithm.setParallelism(2);
+		SimpleNode[] entities = { new SimpleNode("a", 0, 0, 10, 10), new SimpleNode("b", 50, 50, 10, 10) }; //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			algorithm.applyLayout(entities, new LayoutRelationship[0], 0, 0, 100, 100, false, false);
+			fail();
+		} catch (IllegalStateException | InvalidLayoutConfiguration e) {
+			assertTrue(e instanceof IllegalStateException);
+		}
+		assertEquals(1, pools.size());
+		assertTrue(pools.get(0).isShutdown());
+		assertNull(poolField.get(algorithm));
+	}
+
+	@Test
+	public void testVerifyInput() {
+		SimpleNode[] entities = new SimpleNode[100];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = new SimpleNode("n" + i); //$NON-NLS-1$
+		}
+		SimpleNode outside = new SimpleNode("outside"); //$NON-NLS-1$
+		assertTrue(AbstractLayoutAlgorithm.verifyInput(entities, new LayoutRelationship[0]));
+		assertTrue(AbstractLayoutAlgorithm.verifyInput(entities,
+				new LayoutRelationship[] { new SimpleRelationship(entities[0], entities[99], false),
+						new SimpleRelationship(entities[42], entities[42], false) }));
+		assertFalse(AbstractLayoutAlgorithm.verifyInput(entities,
+				new LayoutRelationship[] { new SimpleRelationship(entities[0], outside, false) }));
+		assertFalse(AbstractLayoutAlgorithm.verifyInput(entities,
+				new LayoutRelationship[] { new SimpleRelationship(outside, entities[0], false) }));
+		// duplicate entities
+		SimpleNode[] duplicates = { entities[1], entities[1], entities[2] };
+		assertTrue(AbstractLayoutAlgorithm.verifyInput(duplicates,
+				new LayoutRelationship[] { new SimpleRelationship(entities[2], entities[1], false) }));
+	}
+
+	/**
+	 * Computes the forces as the exact computation formerly did, from dense
+	 * matrices of relation counts and average weights.
+	 */
+	private double[][] computeDenseForces(double[] xs, double[] ys) {
+		int[][] counts = new int[NODES][NODES];
+		double[][] averageWeights = new double[NODES][NODES];
+		for (int k = 0; k < edges.length; k++) {
+			int i = Math.min(edges[k][0], edges[k][1]);
+			int j = Math.max(edges[k][0], edges[k][1]);
+			double weight = weights[k] <= 0 ? 0.1 : weights[k];
+			averageWeights[i][j] = (averageWeights[i][j] * counts[i][j] + weight) / (counts[i][j] + 1);
+			counts[i][j]++;
+		}
+		double[] forcesX = new double[NODES];
+		double[] forcesY = new double[NODES];
+		for (int i = 0; i < NODES - 1; i++) {
+			double fx = forcesX[i];
+			double fy = forcesY[i];
+			for (int j = i + 1; j < NODES; j++) {
+				double dx = xs[i] - xs[j];
+				double dy = ys[i] - ys[j];
+				double distance = Math.sqrt(dx * dx + dy * dy);
+				double distanceSquared = distance * distance;
+				distance = Math.max(MIN_DISTANCE, distance);
+				// each relation is counted from both of its nodes
+				int numRels = 2 * counts[i][j];
+				if (numRels > 0) {
+					double f = Math.log(distance) * numRels * averageWeights[i][j];
+					fx = fx - (f * dx / distance);
+					fy = fy - (f * dy / distance);
+				} else {
+					double f = 1 / distanceSquared;
+					fx = fx + (f * dx / distance);
+					fy = fy + (f * dy / distance);
+				}
+				forcesX[j] = forcesX[j] - fx;
+				forcesY[j] = forcesY[j] - fy;
+			}
+			forcesX[i] = fx;
+			forcesY[i] = fy;
+		}
+		return new double[][] { xs, ys, forcesX, forcesY };
+	}
+
+	/**
+	 * Computes the sum of the forces of all other nodes on each node.
+	 */
+	private double[][] computePairwiseForces(double[] xs, double[] ys) {
+		int[][] counts = new int[NODES][NODES];
+		double[][] weightSums = new double[NODES][NODES];
+		for (int k = 0; k < edges.length; k++) {
+			int i = edges[k][0];
+			int j = edges[k][1];
+			double weight = weights[k] <= 0 ? 0.1 : weights[k];
+			counts[i][j]++;
+			weightSums[i][j] += weight;
+			if (i != j) {
+				counts[j][i]++;
+				weightSums[j][i] += weight;
+			}
+		}
+		double[] forcesX = new double[NODES];
+		double[] forcesY = new double[NODES];
+		for (int i = 0; i < NODES; i++) {
+			for (int j = 0; j < NODES; j++) {
+				if (i == j) {
+					continue;
+				}
+				double dx = xs[i] - xs[j];
+				double dy = ys[i] - ys[j];
+				double distance = Math.max(MIN_DISTANCE, Math.sqrt(dx * dx + dy * dy));
+				double f;
+				if (counts[i][j] > 0) {
+					f = -Math.log(distance) * 2 * weightSums[i][j];
+				} else {
+					f = 1 / (distance * distance);
+				}
+				forcesX[i] += f * dx / distance;
+				forcesY[i] += f * dy / distance;
+			}
+		}
+		return new double[][] { xs, ys, forcesX, forcesY };
+	}
+
+	private static double[][] computeRepulsion(double[] xs, double[] ys, int count) {
+		double[][] forces = new double[2][count];
+		for (int i = 0; i < count; i++) {
+			for (int j = 0; j < count; j++) {
+				if (i != j) {
+					double dx = xs[i] - xs[j];
+					double dy = ys[i] - ys[j];
+					double distance = Math.max(MIN_DISTANCE, Math.sqrt(dx * dx + dy * dy));
+					double f = 1 / (distance * distance * distance);
+					forces[0][i] += f * dx;
+					forces[1][i] += f * dy;
+				}
+			}
+		}
+		return forces;
+	}
+
+	private static double[][] computeBarnesHutRepulsion(double[] xs, double[] ys, int count, double theta)
+			throws ReflectiveOperationException {
+		Class<?> type = Class.forName("org.eclipse.zest.layouts.algorithms.BarnesHutTree"); //$NON-NLS-1$
+		Constructor<?> constructor = type.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		Object tree = constructor.newInstance();
+		Method build = type.getDeclaredMethod("build", double[].class, double[].class, int.class); //$NON-NLS-1$
+		build.setAccessible(true);
+		build.invoke(tree, xs, ys, Integer.valueOf(count));
+		Method getStackSize = type.getDeclaredMethod("getStackSize"); //$NON-NLS-1$
+		getStackSize.setAccessible(true);
+		int[] stack = new int[((Integer) getStackSize.invoke(null)).intValue()];
+		Method addRepulsion = type.getDeclaredMethod("addRepulsion", int.class, double.class, double.class, //$NON-NLS-1$
+				double.class, int[].class, double[].class);
+		addRepulsion.setAccessible(true);
+		double[][] forces = new double[2][count];
+		double[] force = new double[2];
+		for (int i = 0; i < count; i++) {
+			force[0] = 0;
+			force[1] = 0;
+			addRepulsion.invoke(tree, Integer.valueOf(i), Double.valueOf(theta), Double.valueOf(1),
+					Double.valueOf(MIN_DISTANCE), stack, force);
+			forces[0][i] = force[0];
+			forces[1][i] = force[1];
+		}
+		return forces;
+	}
+
+	/**
+	 * Lays out a ring of nodes with some chords, and returns the x and y
+	 * coordinates of the nodes.
+	 */
+	private static double[][] layOut(int parallelism, double theta) throws InvalidLayoutConfiguration {
+		Random positions = new Random(3);
+		SimpleNode[] entities = new SimpleNode[200];
+		for (int i = 0; i < entities.length; i++) {
+			entities[i] = new SimpleNode("n" + i, positions.nextInt(500), positions.nextInt(500), 10, 10); //$NON-NLS-1$
+		}
+		List<LayoutRelationship> relationships = new ArrayList<>();
+		for (int i = 0; i < entities.length; i++) {
+			relationships.add(new SimpleRelationship(entities[i], entities[(i + 1) % entities.length], false));
+			if (i % 5 == 0) {
+				relationships.add(new SimpleRelationship(entities[i], entities[(i * 7) % entities.length], false));
+			}
+		}
+
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+		algorithm.setParallelism(parallelism);
+		algorithm.setSpringTheta(theta);
+		algorithm.applyLayout(entities, relationships.toArray(new LayoutRelationship[0]), 0, 0, 500, 500, false,
+				false);
+		double[][] result = new double[2][entities.length];
+		for (int i = 0; i < entities.length; i++) {
+			result[0][i] = entities[i].getX();
+			result[1][i] = entities[i].getY();
+		}
+		return result;
+	}
+
+	private static void assertPositionsEqual(double[][] expected, double[][] actual, double delta) {
+		for (int i = 0; i < expected[0].length; i++) {
+			assertEquals("x of node " + i, expected[0][i], actual[0][i], delta); //$NON-NLS-1$
+			assertEquals("y of node " + i, expected[1][i], actual[1][i], delta); //$NON-NLS-1$
+		}
+	}
+
+	private static void assertForcesEqual(double[][] expected, double[][] actual, double relativeDelta) {
+		for (int i = 0; i < expected[2].length; i++) {
+			assertEquals("x force of node " + i, expected[2][i], actual[2][i], //$NON-NLS-1$
+					relativeDelta * Math.max(1, Math.abs(expected[2][i])));
+			assertEquals("y force of node " + i, expected[3][i], actual[3][i], //$NON-NLS-1$
+					relativeDelta * Math.max(1, Math.abs(expected[3][i])));
+		}
+	}
+
+}
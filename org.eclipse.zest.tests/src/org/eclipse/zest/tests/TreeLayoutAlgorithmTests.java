@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.zest.tests;
+
+import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.LayoutStyles;
+import org.eclipse.zest.layouts.algorithms.TreeLayoutAlgorithm;
+import org.eclipse.zest.layouts.exampleStructures.SimpleNode;
+import org.eclipse.zest.layouts.exampleStructures.SimpleRelationship;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link TreeLayoutAlgorithm} class.
+ */
+public class TreeLayoutAlgorithmTests extends Assert {
+
+	private static final double DELTA = 0.01;
+
+	/**
+	 * Pins the positions of the nodes of a forest of two trees and a single node.
+	 * The leaves are spread evenly from left to right, and each parent is placed
+	 * above the middle of its leaves.
+	 */
+	@Test
+	public void testForestPositions() throws InvalidLayoutConfiguration {
+		SimpleNode[] nodes = new SimpleNode[8];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new SimpleNode(Character.toString('a' + i), 0, 0, 10, 10);
+		}
+		int[][] edges = { { 0, 1 }, { 0, 2 }, { 1, 3 }, { 1, 4 }, { 5, 6 } };
+		LayoutRelationship[] relationships = new LayoutRelationship[edges.length];
+		for (int i = 0; i < edges.length; i++) {
+			relationships[i] = new SimpleRelationship(nodes[edges[i][0]], nodes[edges[i][1]], false);
+		}
+
+		TreeLayoutAlgorithm algorithm = new TreeLayoutAlgorithm(LayoutStyles.NO_LAYOUT_NODE_RESIZING);
+		algorithm.applyLayout(nodes, relationships, 0, 0, 500, 400, false, false);
+
+		assertEquals(3, algorithm.getRoots().size());
+		double[][] expected = { { 124.17, 20 }, // a
+				{ 76.25, 170 }, // b
+				{ 220, 170 }, // c
+				{ 28.33, 320 }, // d
+				{ 124.17, 320 }, // e
+				{ 315.83, 20 }, // f
+				{ 315.83, 170 }, // g
+				{ 411.67, 20 } // h
+		};
+		for (int i = 0; i < nodes.length; i++) {
+			assertEquals(nodes[i].getRealObject().toString(), expected[i][0], nodes[i].getX(), DELTA);
+			assertEquals(nodes[i].getRealObject().toString(), expected[i][1], nodes[i].getY(), DELTA);
+		}
+	}
+
+}
@@ -24,7 +24,11 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
 	GraphTests.class,
 	GraphSelectionTests.class,
-	GraphViewerTests.class
+	GraphViewerTests.class,
+	TreeLayoutAlgorithmTests.class,
+	SpringLayoutAlgorithmTests.class,
+	RelationStatisticsTests.class,
+	LayoutServiceTests.class
 })
 public class ZestTestSuite {
 }